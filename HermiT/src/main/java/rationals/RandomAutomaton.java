@@ -67,7 +67,7 @@ import java.util.Random;
  */
 public class RandomAutomaton extends Automaton {
 
-    private static final Random rand = new Random();
+    private final Random rand;
 
     private int nstate;
 
@@ -97,6 +97,32 @@ public class RandomAutomaton extends Automaton {
      */
     public RandomAutomaton(int nstate, int fstate, Object[] alph,
             double density, double deviation, boolean det) {
+        this(nstate, fstate, alph, density, deviation, det, new Random());
+    }
+
+    /**
+     * Construct a RandomAutomaton according to the given parameters, drawing
+     * random numbers from the given generator so that the automaton can be
+     * reproduced.
+     * 
+     * @param nstate
+     *            number of total states
+     * @param fstate
+     *            number of final states
+     * @param alphabet
+     *            alphabet
+     * @param density
+     *            mean transition density
+     * @param deviation
+     *            transition density standard deviation
+     * @param det
+     *            is the result deterministic
+     * @param rand
+     *            the random number generator
+     */
+    public RandomAutomaton(int nstate, int fstate, Object[] alph,
+            double density, double deviation, boolean det, Random rand) {
+        this.rand = rand;
         this.nstate = nstate;
         this.fstate = fstate;
         this.alph = alph;
@@ -149,7 +175,8 @@ public class RandomAutomaton extends Automaton {
         int fs = fstate;
         int ns = nstate;
         todo.add(init);
-        while (ns > 0) {
+        /* stop early if no unexplored state has been reached */
+        while (ns > 0 && !todo.isEmpty()) {
             /* pop state */
             State from = (State) todo.remove(0);
             done.add(from);
@@ -0,0 +1,422 @@
+package rationals.transformations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import rationals.Automaton;
+import rationals.NoSuchStateException;
+import rationals.State;
+import rationals.Transition;
+import rationals.TransitionBuilder;
+
+/**
+ * An int-encoded copy of an automaton used by the determinization,
+ * minimization and normalization transformations.
+ * <p />
+ * States are numbered from 0 to <code>numberOfStates - 1</code> and labels
+ * from 0 to <code>numberOfLabels - 1</code>. The labelled and the epsilon
+ * transitions leaving each state are stored in two compressed adjacency
+ * arrays, so that the algorithms work on ints and bit sets and never need to
+ * materialize sets of {@link Transition} objects.
+ *
+ * @version $Id$
+ */
+class IndexedAutomaton {
+
+    /** Marks a missing transition in a {@link Table}. */
+    static final int NONE = -1;
+
+    final State[] states;
+
+    final Object[] labels;
+
+    final Map<State, Integer> stateIndexes;
+
+    final Map<Object, Integer> labelIndexes;
+
+    final BitSet initials;
+
+    final BitSet terminals;
+
+    /** The labelled transitions of state s are at [transitionsStart[s], transitionsStart[s + 1]). */
+    final int[] transitionsStart;
+
+    final int[] transitionLabels;
+
+    final int[] transitionTargets;
+
+    /** The epsilon transitions of state s are at [epsilonStart[s], epsilonStart[s + 1]). */
+    final int[] epsilonStart;
+
+    final int[] epsilonTargets;
+
+    IndexedAutomaton(Automaton<?> a) {
+        int numberOfStates = a.states().size();
+        states = new State[numberOfStates];
+        stateIndexes = new HashMap<State, Integer>(numberOfStates * 2);
+        initials = new BitSet(numberOfStates);
+        terminals = new BitSet(numberOfStates);
+        for (State state : a.states()) {
+            int index = stateIndexes.size();
+            states[index] = state;
+            stateIndexes.put(state, index);
+            if (state.isInitial())
+                initials.set(index);
+            if (state.isTerminal())
+                terminals.set(index);
+        }
+        List<Object> labelList = new ArrayList<Object>();
+        labelIndexes = new HashMap<Object, Integer>();
+        for (Object label : a.alphabet()) {
+            if (label != null && !labelIndexes.containsKey(label)) {
+                labelIndexes.put(label, labelList.size());
+                labelList.add(label);
+            }
+        }
+        Transition[] transitions = a.delta().toArray(new Transition[0]);
+        /* the alphabet is not guaranteed to contain every label in use */
+        for (Transition transition : transitions) {
+            Object label = transition.label();
+            if (label != null && !labelIndexes.containsKey(label)) {
+                labelIndexes.put(label, labelList.size());
+                labelList.add(label);
+            }
+        }
+        labels = labelList.toArray();
+        transitionsStart = new int[numberOfStates + 1];
+        epsilonStart = new int[numberOfStates + 1];
+        for (Transition transition : transitions) {
+            int start = stateIndexes.get(transition.start());
+            if (transition.label() == null)
+                epsilonStart[start + 1]++;
+            else
+                transitionsStart[start + 1]++;
+        }
+        for (int s = 0; s < numberOfStates; s++) {
+            transitionsStart[s + 1] += transitionsStart[s];
+            epsilonStart[s + 1] += epsilonStart[s];
+        }
+        transitionLabels = new int[transitionsStart[numberOfStates]];
+        transitionTargets = new int[transitionsStart[numberOfStates]];
+        epsilonTargets = new int[epsilonStart[numberOfStates]];
+        int[] nextTransition = Arrays.copyOf(transitionsStart, numberOfStates);
+        int[] nextEpsilon = Arrays.copyOf(epsilonStart, numberOfStates);
+        for (Transition transition : transitions) {
+            int start = stateIndexes.get(transition.start());
+            int end = stateIndexes.get(transition.end());
+            if (transition.label() == null)
+                epsilonTargets[nextEpsilon[start]++] = end;
+            else {
+                int t = nextTransition[start]++;
+                transitionLabels[t] = labelIndexes.get(transition.label());
+                transitionTargets[t] = end;
+            }
+        }
+    }
+
+    int numberOfStates() {
+        return states.length;
+    }
+
+    int numberOfLabels() {
+        return labels.length;
+    }
+
+    boolean hasEpsilonTransitions() {
+        return epsilonTargets.length > 0;
+    }
+
+    /**
+     * Closes the given set of states under epsilon transitions in place.
+     */
+    void epsilonClosure(BitSet set) {
+        if (!hasEpsilonTransitions())
+            return;
+        int[] stack = new int[states.length];
+        int size = 0;
+        for (int s = set.nextSetBit(0); s >= 0; s = set.nextSetBit(s + 1))
+            stack[size++] = s;
+        while (size > 0) {
+            int s = stack[--size];
+            for (int t = epsilonStart[s]; t < epsilonStart[s + 1]; t++) {
+                int end = epsilonTargets[t];
+                if (!set.get(end)) {
+                    set.set(end);
+                    stack[size++] = end;
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes a deterministic transition table for this automaton using the
+     * subset construction. Subsets of states are represented as bit sets and
+     * are closed under epsilon transitions; only subsets reachable from the
+     * closure of the initial states are created, and state 0 of the result is
+     * the initial state.
+     */
+    Table determinize() {
+        int numberOfLabels = labels.length;
+        Map<BitSet, Integer> subsetIndexes = new HashMap<BitSet, Integer>();
+        List<BitSet> subsets = new ArrayList<BitSet>();
+        Table table = new Table(numberOfLabels);
+        BitSet start = (BitSet) initials.clone();
+        epsilonClosure(start);
+        subsetIndexes.put(start, 0);
+        subsets.add(start);
+        table.addState(start.intersects(terminals));
+        BitSet[] targets = new BitSet[numberOfLabels];
+        int[] usedLabels = new int[numberOfLabels];
+        for (int current = 0; current < subsets.size(); current++) {
+            BitSet subset = subsets.get(current);
+            int numberOfUsedLabels = 0;
+            for (int s = subset.nextSetBit(0); s >= 0; s = subset.nextSetBit(s + 1))
+                for (int t = transitionsStart[s]; t < transitionsStart[s + 1]; t++) {
+                    int label = transitionLabels[t];
+                    if (targets[label] == null) {
+                        targets[label] = new BitSet(states.length);
+                        usedLabels[numberOfUsedLabels++] = label;
+                    }
+                    targets[label].set(transitionTargets[t]);
+                }
+            for (int i = 0; i < numberOfUsedLabels; i++) {
+                int label = usedLabels[i];
+                BitSet target = targets[label];
+                targets[label] = null;
+                epsilonClosure(target);
+                Integer targetIndex = subsetIndexes.get(target);
+                if (targetIndex == null) {
+                    targetIndex = subsets.size();
+                    subsetIndexes.put(target, targetIndex);
+                    subsets.add(target);
+                    table.addState(target.intersects(terminals));
+                }
+                table.setTarget(current, label, targetIndex);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Creates an automaton from a deterministic table over the labels of this
+     * automaton.
+     */
+    Automaton<TransitionBuilder> toAutomaton(Table table) {
+        Automaton<TransitionBuilder> result = new Automaton<TransitionBuilder>();
+        State[] resultStates = new State[table.numberOfStates];
+        for (int s = 0; s < table.numberOfStates; s++)
+            resultStates[s] = result.addState(s == 0, table.terminal[s]);
+        for (int s = 0; s < table.numberOfStates; s++)
+            for (int label = 0; label < table.numberOfLabels; label++) {
+                int target = table.getTarget(s, label);
+                if (target != NONE)
+                    try {
+                        result.addTransition(new Transition(resultStates[s],
+                                labels[label], resultStates[target]));
+                    } catch (NoSuchStateException e) {
+                        assert false;
+                    }
+            }
+        return result;
+    }
+
+    /**
+     * A possibly partial deterministic transition table: row s holds the
+     * target of state s for each label, or {@link #NONE}. State 0 is the
+     * initial state.
+     */
+    static class Table {
+
+        final int numberOfLabels;
+
+        int numberOfStates;
+
+        int[] targets;
+
+        boolean[] terminal;
+
+        Table(int numberOfLabels) {
+            this.numberOfLabels = numberOfLabels;
+            this.targets = new int[16 * Math.max(1, numberOfLabels)];
+            this.terminal = new boolean[16];
+        }
+
+        int addState(boolean isTerminal) {
+            int s = numberOfStates++;
+            if (s == terminal.length)
+                terminal = Arrays.copyOf(terminal, terminal.length * 2);
+            if ((s + 1) * numberOfLabels > targets.length)
+                targets = Arrays.copyOf(targets, Math.max(targets.length * 2,
+                        (s + 1) * numberOfLabels));
+            Arrays.fill(targets, s * numberOfLabels, (s + 1) * numberOfLabels,
+                    NONE);
+            terminal[s] = isTerminal;
+            return s;
+        }
+
+        int getTarget(int state, int label) {
+            return targets[state * numberOfLabels + label];
+        }
+
+        void setTarget(int state, int label, int target) {
+            targets[state * numberOfLabels + label] = target;
+        }
+
+        /**
+         * Computes the minimal table accepting the same language using
+         * Hopcroft's partition refinement algorithm. Missing transitions are
+         * treated as transitions to an implicit sink state; states equivalent
+         * to the sink (i.e. states from which no terminal state can be reached)
+         * are dropped from the result together with the transitions leading to
+         * them. The states of the result are numbered in breadth-first order
+         * from the initial state.
+         */
+        Table minimize() {
+            int sink = numberOfStates;
+            int n = numberOfStates + 1;
+            /* predecessors of each (label, state) pair in compressed form */
+            int[] predecessorsStart = new int[numberOfLabels * n + 1];
+            for (int s = 0; s < n; s++)
+                for (int label = 0; label < numberOfLabels; label++)
+                    predecessorsStart[label * n + target(s, label, sink) + 1]++;
+            for (int i = 0; i < numberOfLabels * n; i++)
+                predecessorsStart[i + 1] += predecessorsStart[i];
+            int[] predecessors = new int[numberOfLabels * n];
+            int[] nextPredecessor = Arrays.copyOf(predecessorsStart,
+                    numberOfLabels * n);
+            for (int s = 0; s < n; s++)
+                for (int label = 0; label < numberOfLabels; label++)
+                    predecessors[nextPredecessor[label * n
+                            + target(s, label, sink)]++] = s;
+            /* the partition: the states of block b are elements[blockStart[b], blockEnd[b]) */
+            int[] elements = new int[n];
+            int[] location = new int[n];
+            int[] blockOf = new int[n];
+            int[] blockStart = new int[n];
+            int[] blockEnd = new int[n];
+            int[] marked = new int[n];
+            int numberOfBlocks = 0;
+            int numberOfTerminals = 0;
+            for (int s = 0; s < numberOfStates; s++)
+                if (terminal[s])
+                    numberOfTerminals++;
+            int nextTerminal = 0;
+            int nextOther = numberOfTerminals;
+            for (int s = 0; s < n; s++) {
+                int position = (s < numberOfStates && terminal[s]) ? nextTerminal++
+                        : nextOther++;
+                elements[position] = s;
+                location[s] = position;
+            }
+            if (numberOfTerminals > 0) {
+                blockStart[numberOfBlocks] = 0;
+                blockEnd[numberOfBlocks] = numberOfTerminals;
+                numberOfBlocks++;
+            }
+            blockStart[numberOfBlocks] = numberOfTerminals;
+            blockEnd[numberOfBlocks] = n;
+            numberOfBlocks++;
+            for (int b = 0; b < numberOfBlocks; b++)
+                for (int i = blockStart[b]; i < blockEnd[b]; i++)
+                    blockOf[elements[i]] = b;
+            /* the work list contains blocks; a block is a splitter for every label */
+            boolean[] inWorkList = new boolean[n];
+            int[] workList = new int[n];
+            int workListSize = 0;
+            workList[workListSize++] = 0;
+            inWorkList[0] = true;
+            int[] splitter = new int[n];
+            int[] touched = new int[n];
+            while (workListSize > 0) {
+                int block = workList[--workListSize];
+                inWorkList[block] = false;
+                int splitterSize = blockEnd[block] - blockStart[block];
+                System.arraycopy(elements, blockStart[block], splitter, 0,
+                        splitterSize);
+                for (int label = 0; label < numberOfLabels; label++) {
+                    int numberOfTouched = 0;
+                    for (int i = 0; i < splitterSize; i++) {
+                        int base = label * n + splitter[i];
+                        for (int p = predecessorsStart[base]; p < predecessorsStart[base + 1]; p++) {
+                            int s = predecessors[p];
+                            int b = blockOf[s];
+                            if (marked[b] == 0)
+                                touched[numberOfTouched++] = b;
+                            /* move s to the marked prefix of its block */
+                            int position = blockStart[b] + marked[b];
+                            int other = elements[position];
+                            elements[position] = s;
+                            elements[location[s]] = other;
+                            location[other] = location[s];
+                            location[s] = position;
+                            marked[b]++;
+                        }
+                    }
+                    for (int i = 0; i < numberOfTouched; i++) {
+                        int b = touched[i];
+                        int splitPoint = blockStart[b] + marked[b];
+                        marked[b] = 0;
+                        if (splitPoint == blockEnd[b])
+                            continue;
+                        int newBlock = numberOfBlocks++;
+                        blockStart[newBlock] = blockStart[b];
+                        blockEnd[newBlock] = splitPoint;
+                        blockStart[b] = splitPoint;
+                        for (int j = blockStart[newBlock]; j < splitPoint; j++)
+                            blockOf[elements[j]] = newBlock;
+                        if (inWorkList[b]
+                                || blockEnd[newBlock] - blockStart[newBlock] <= blockEnd[b]
+                                        - blockStart[b]) {
+                            workList[workListSize++] = newBlock;
+                            inWorkList[newBlock] = true;
+                        } else {
+                            workList[workListSize++] = b;
+                            inWorkList[b] = true;
+                        }
+                    }
+                }
+            }
+            /* build the result from the blocks reachable from the initial state */
+            int sinkBlock = blockOf[sink];
+            Table result = new Table(numberOfLabels);
+            int[] blockIndexes = new int[numberOfBlocks];
+            Arrays.fill(blockIndexes, NONE);
+            int[] queue = new int[numberOfBlocks];
+            int initialBlock = blockOf[0];
+            if (initialBlock == sinkBlock) {
+                result.addState(false);
+                return result;
+            }
+            blockIndexes[initialBlock] = result.addState(terminal[0]);
+            queue[0] = initialBlock;
+            for (int head = 0, tail = 1; head < tail; head++) {
+                int b = queue[head];
+                int representative = elements[blockStart[b]];
+                for (int label = 0; label < numberOfLabels; label++) {
+                    int target = targets[representative * numberOfLabels + label];
+                    if (target == NONE || blockOf[target] == sinkBlock)
+                        continue;
+                    int targetBlock = blockOf[target];
+                    if (blockIndexes[targetBlock] == NONE) {
+                        blockIndexes[targetBlock] = result.addState(terminal[target]);
+                        queue[tail++] = targetBlock;
+                    }
+                    result.setTarget(blockIndexes[b], label,
+                            blockIndexes[targetBlock]);
+                }
+            }
+            return result;
+        }
+
+        private int target(int state, int label, int sink) {
+            if (state == sink)
+                return sink;
+            int target = targets[state * numberOfLabels + label];
+            return target == NONE ? sink : target;
+        }
+    }
+}
@@ -1,14 +1,12 @@
 package rationals.transformations;
 
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.BitSet;
 
 import rationals.Automaton;
 import rationals.NoSuchStateException;
 import rationals.State;
 import rationals.Transition;
-import rationals.properties.ContainsEpsilon;
 
 /**
  * A transformation that normalizes a given Automaton.
@@ -18,9 +16,11 @@ import rationals.properties.ContainsEpsilon;
  * <li>it has <em>one</em> start state and <em>one</em> end state,</li>
  * <li>there is no incoming (resp. outgoing) transitions to (resp. from) the
  * start (resp. end) state,</li>
- * <li>the resultant automaton is then pruned ({@link Pruner}) to remove
+ * <li>the resultant automaton is then pruned (as by {@link Pruner}) to remove
  * inaccessible states.</li>
  * </ol>
+ * The construction and the pruning are performed on an int-encoded copy of the
+ * automaton (see {@link IndexedAutomaton}).
  * 
  * @author yroos
  * @version $Id: Normalizer.java 2 2006-08-24 14:41:48Z oqube $
@@ -28,54 +28,111 @@ import rationals.properties.ContainsEpsilon;
 public class Normalizer implements UnaryTransformation {
 
     public Automaton transform(Automaton a) {
-        Automaton b = new Automaton();
-        State ni = b.addState(true, false);
-        State nt = b.addState(false, true);
-        Map map = new HashMap();
-        Iterator i = a.states().iterator();
-        while (i.hasNext()) {
-            State st = (State) i.next();
-            map.put(st, b.addState(false, false));
-        }
+        IndexedAutomaton ia = new IndexedAutomaton(a);
+        int n = ia.numberOfStates();
+        /* node 0 is the new start state, node 1 the new end state and node s + 2 the copy of state s */
+        Edges edges = new Edges(4 * (ia.transitionTargets.length + ia.epsilonTargets.length) + 1);
+        BitSet initialClosure = (BitSet) ia.initials.clone();
+        ia.epsilonClosure(initialClosure);
         /* add epsilon transition if contains epsilon */
-        if (new ContainsEpsilon().test(a))
+        if (initialClosure.intersects(ia.terminals))
+            edges.add(0, IndexedAutomaton.NONE, 1);
+        for (int s = 0; s < n; s++) {
+            for (int t = ia.transitionsStart[s]; t < ia.transitionsStart[s + 1]; t++)
+                addTransition(ia, edges, s, ia.transitionLabels[t], ia.transitionTargets[t]);
+            for (int t = ia.epsilonStart[s]; t < ia.epsilonStart[s + 1]; t++)
+                addTransition(ia, edges, s, IndexedAutomaton.NONE, ia.epsilonTargets[t]);
+        }
+        /* keep the nodes that are accessible from ni and co-accessible from nt */
+        BitSet useful = reachable(0, n + 2, edges.from, edges.to, edges.size);
+        useful.and(reachable(1, n + 2, edges.to, edges.from, edges.size));
+        Automaton b = new Automaton();
+        State[] nodes = new State[n + 2];
+        for (int node = useful.nextSetBit(0); node >= 0; node = useful.nextSetBit(node + 1))
+            nodes[node] = b.addState(node == 0, node == 1);
+        for (int i = 0; i < edges.size; i++) {
+            State start = nodes[edges.from[i]];
+            State end = nodes[edges.to[i]];
+            if (start == null || end == null)
+                continue;
+            Object label = edges.label[i] == IndexedAutomaton.NONE ? null : ia.labels[edges.label[i]];
             try {
-                b.addTransition(new Transition(ni, null, nt));
-            } catch (NoSuchStateException e) {
-            }
-        i = a.delta().iterator();
-        while (i.hasNext()) {
-            Transition t = (Transition) i.next();
-            if (t.start().isInitial() && t.end().isTerminal()) {
-                try {
-                    b.addTransition(new Transition(ni, t.label(), nt));
-                } catch (NoSuchStateException x) {
-                }
-            }
-            if (t.start().isInitial()) {
-                try {
-                    b.addTransition(new Transition(ni, t.label(), (State) map
-                            .get(t.end())));
-                } catch (NoSuchStateException x) {
-                }
+                b.addTransition(new Transition(start, label, end));
+            } catch (NoSuchStateException x) {
             }
+        }
+        return b;
+    }
+
+    /**
+     * Adds the copies of transition <code>(s, l, e)</code> to the normalized
+     * automaton.
+     */
+    private static void addTransition(IndexedAutomaton ia, Edges edges, int s, int l, int e) {
+        boolean initial = ia.initials.get(s);
+        boolean terminal = ia.terminals.get(e);
+        if (initial && terminal)
+            edges.add(0, l, 1);
+        if (initial)
+            edges.add(0, l, e + 2);
+        if (terminal)
+            edges.add(s + 2, l, 1);
+        edges.add(s + 2, l, e + 2);
+    }
 
-            if (t.end().isTerminal())
-                try {
-                    b.addTransition(new Transition((State) map.get(t.start()),
-                            t.label(), nt));
-                } catch (NoSuchStateException x) {
+    /**
+     * Computes the nodes reachable from <code>start</code> following the
+     * edges <code>(sources[i], targets[i])</code>.
+     */
+    private static BitSet reachable(int start, int numberOfNodes,
+            int[] sources, int[] targets, int numberOfEdges) {
+        int[] edgesStart = new int[numberOfNodes + 1];
+        for (int i = 0; i < numberOfEdges; i++)
+            edgesStart[sources[i] + 1]++;
+        for (int node = 0; node < numberOfNodes; node++)
+            edgesStart[node + 1] += edgesStart[node];
+        int[] edges = new int[numberOfEdges];
+        int[] next = Arrays.copyOf(edgesStart, numberOfNodes);
+        for (int i = 0; i < numberOfEdges; i++)
+            edges[next[sources[i]]++] = targets[i];
+        BitSet result = new BitSet(numberOfNodes);
+        int[] stack = new int[numberOfNodes];
+        int size = 0;
+        result.set(start);
+        stack[size++] = start;
+        while (size > 0) {
+            int node = stack[--size];
+            for (int e = edgesStart[node]; e < edgesStart[node + 1]; e++)
+                if (!result.get(edges[e])) {
+                    result.set(edges[e]);
+                    stack[size++] = edges[e];
                 }
+        }
+        return result;
+    }
 
-            try {
-                b.addTransition(new Transition((State) map.get(t.start()), t
-                        .label(), (State) map.get(t.end())));
-            } catch (NoSuchStateException x) {
-            }
+    private static class Edges {
+
+        final int[] from;
 
+        final int[] label;
+
+        final int[] to;
+
+        int size;
+
+        Edges(int capacity) {
+            from = new int[capacity];
+            label = new int[capacity];
+            to = new int[capacity];
+        }
+
+        void add(int f, int l, int t) {
+            from[size] = f;
+            label[size] = l;
+            to[size] = t;
+            size++;
         }
-        b = new Pruner().transform(b);
-        return b;
     }
 }
 
@@ -1,21 +1,14 @@
 package rationals.transformations;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.Map;
-import java.util.Set;
-import java.util.List;
-import java.util.ArrayList;
-
 import rationals.Automaton;
-import rationals.NoSuchStateException;
-import rationals.State;
-import rationals.Transition;
 
 /**
  * Determinization of an automaton.
+ * <p />
+ * The subset construction is performed on an int-encoded copy of the automaton
+ * (see {@link IndexedAutomaton}): subsets of states are bit sets closed under
+ * epsilon transitions, and only subsets reachable from the initial states are
+ * created.
  * 
  * @author yroos
  * @version $Id: ToDFA.java 7 2006-08-31 23:01:30Z oqube $
@@ -23,44 +16,8 @@ import rationals.Transition;
 public class ToDFA implements UnaryTransformation {
   
   public Automaton transform(Automaton a) {
-    Automaton ret = new Automaton();
-    Map bmap = new HashMap();
-    List /* < Set > */todo = new ArrayList();
-    Set /* < Set > */done = new HashSet();
-    Set as = TransformationsToolBox.epsilonClosure(a.initials(), a);
-    State from = ret.addState(true, TransformationsToolBox
-			      .containsATerminalState(as));
-    bmap.put(as, from);
-    todo.add(as);
-    do {
-      Set sts = (Set) todo.remove(0);
-      from = (State) bmap.get(sts);
-      if (done.contains(sts))
-	continue;
-      done.add(sts);
-      /* get transition sets */
-      Map tam = TransformationsToolBox.mapAlphabet(a.delta(sts), a);
-      /* unsynchronizable transitions in A */
-      for (Iterator i = tam.entrySet().iterator(); i.hasNext();) {
-	Map.Entry me = (Map.Entry) i.next();
-	Object l = me.getKey();
-	as = (Set) me.getValue();
-	Set asc = TransformationsToolBox.epsilonClosure(as, a);
-	State to = (State) bmap.get(asc);
-	if (to == null) {
-	  to = ret.addState(false, TransformationsToolBox
-			    .containsATerminalState(asc));
-	  bmap.put(asc, to);
-	}
-	todo.add(asc);
-	try {
-	  ret.addTransition(new Transition(from, l, to));
-	} catch (NoSuchStateException e) {
-	  assert false;
-	}
-      }
-    } while (!todo.isEmpty());
-    return ret;
+    IndexedAutomaton ia = new IndexedAutomaton(a);
+    return ia.toAutomaton(ia.determinize());
   }
 
   /*
@@ -0,0 +1,61 @@
+package rationals.transformations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import rationals.Automaton;
+import rationals.RandomAutomaton;
+
+/**
+ * Prints the time taken by the determinization, minimization, normalization
+ * and epsilon removal transformations and by the original set-based
+ * implementations for increasingly large random automata. The class is an
+ * application rather than a test so that the timings are not part of the test
+ * run; {@link RandomAutomatonTransformationTest} checks the results of the
+ * transformations on random automata.
+ *
+ * @version $Id$
+ */
+public class RandomAutomatonBenchmark {
+
+    private static final Object[] ALPHABET_WITH_EPSILON = new Object[] { "a",
+            "b", "c", null };
+
+    private static final int AUTOMATA_PER_SIZE = 20;
+
+    private static long time(UnaryTransformation transformation,
+            List<Automaton> automata) {
+        long start = System.nanoTime();
+        for (Automaton a : automata)
+            transformation.transform(a);
+        return (System.nanoTime() - start) / 1000000;
+    }
+
+    public static void main(String[] args) {
+        int maximalNumberOfStates = args.length > 0 ? Integer
+                .parseInt(args[0]) : 80;
+        Random random = new Random(1);
+        System.out.println("states\tToDFA (sets)\tToDFA\tReducer (sets)\tReducer"
+                + "\tNormalizer (sets)\tNormalizer"
+                + "\tEpsilonTransitionRemover (sets)\tEpsilonTransitionRemover"
+                + "\t(ms per " + AUTOMATA_PER_SIZE + " automata)");
+        for (int numberOfStates = 10; numberOfStates <= maximalNumberOfStates; numberOfStates *= 2) {
+            List<Automaton> automata = new ArrayList<Automaton>();
+            for (int i = 0; i < AUTOMATA_PER_SIZE; i++)
+                automata.add(new RandomAutomaton(numberOfStates,
+                        numberOfStates / 4, ALPHABET_WITH_EPSILON,
+                        0.3 / numberOfStates, 0.1 / numberOfStates, false,
+                        random));
+            System.out.println(numberOfStates + "\t"
+                    + time(new SetBasedToDFA(), automata) + "\t"
+                    + time(new ToDFA(), automata) + "\t"
+                    + time(new SetBasedReducer(), automata) + "\t"
+                    + time(new Reducer(), automata) + "\t"
+                    + time(new SetBasedNormalizer(), automata) + "\t"
+                    + time(new Normalizer(), automata) + "\t"
+                    + time(new SetBasedEpsilonTransitionRemover(), automata)
+                    + "\t" + time(new EpsilonTransitionRemover(), automata));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package rationals.transformations;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import rationals.Automaton;
+import rationals.RandomAutomaton;
+import rationals.State;
+import rationals.Transition;
+import rationals.properties.IsDeterministic;
+
+/**
+ * Compares the determinization, minimization and normalization
+ * transformations with the original set-based implementations on random
+ * automata.
+ *
+ * @version $Id$
+ */
+public class RandomAutomatonTransformationTest extends TestCase {
+
+    private static final Object[] ALPHABET = new Object[] { "a", "b", "c" };
+
+    private static final Object[] ALPHABET_WITH_EPSILON = new Object[] { "a",
+            "b", "c", null };
+
+    public RandomAutomatonTransformationTest(String name) {
+        super(name);
+    }
+
+    public void testToDFA() {
+        Random random = new Random(42);
+        for (int test = 0; test < 30; test++) {
+            Automaton a = randomNFA(random, 4 + random.nextInt(10));
+            Automaton dfa = new ToDFA().transform(a);
+            assertTrue(new IsDeterministic().test(dfa));
+            assertEquals(1, dfa.initials().size());
+            /* both subset constructions create exactly the reachable subsets */
+            assertEquals(new SetBasedToDFA().transform(a).states().size(), dfa
+                    .states().size());
+            assertSameLanguage(a, dfa, 5);
+        }
+    }
+
+    public void testEpsilonTransitionRemover() {
+        Random random = new Random(7);
+        for (int test = 0; test < 30; test++) {
+            Automaton a = randomNFA(random, 4 + random.nextInt(10));
+            Automaton b = new EpsilonTransitionRemover().transform(a);
+            for (Iterator i = b.delta().iterator(); i.hasNext();)
+                assertNotNull(((Transition) i.next()).label());
+            assertSameLanguage(a, b, 5);
+        }
+    }
+
+    public void testReducer() {
+        Random random = new Random(13);
+        for (int test = 0; test < 30; test++) {
+            Automaton a = randomNFA(random, 4 + random.nextInt(10));
+            Automaton min = new Reducer().transform(a);
+            assertTrue(new IsDeterministic().test(min));
+            assertSameLanguage(a, min, 5);
+            /*
+             * the original implementation may keep a state from which no
+             * terminal state is reachable
+             */
+            int expected = new Pruner().transform(
+                    new SetBasedReducer().transform(a)).states().size();
+            assertEquals(Math.max(expected, 1), min.states().size());
+            assertEquals(min.states().size(), new Reducer().transform(min)
+                    .states().size());
+        }
+    }
+
+    public void testReducerOnDFA() {
+        Random random = new Random(5);
+        for (int test = 0; test < 30; test++) {
+            Automaton a = new RandomAutomaton(5 + random.nextInt(20), 3,
+                    ALPHABET, 2.5, 0.5, true, random);
+            Automaton min = new Reducer().transform(a);
+            assertTrue(min.states().size() <= a.states().size());
+            assertSameLanguage(a, min, 6);
+        }
+    }
+
+    public void testNormalizer() {
+        Random random = new Random(3);
+        for (int test = 0; test < 30; test++) {
+            Automaton a = randomNFA(random, 4 + random.nextInt(10));
+            Automaton b = new Normalizer().transform(a);
+            assertSameLanguage(a, b, 5);
+            if (b.states().isEmpty())
+                continue;
+            assertEquals(1, b.initials().size());
+            assertEquals(1, b.terminals().size());
+            State start = (State) b.initials().iterator().next();
+            State end = (State) b.terminals().iterator().next();
+            assertTrue(b.deltaMinusOne(start).isEmpty());
+            assertTrue(b.delta(end).isEmpty());
+        }
+    }
+
+    private static Automaton randomNFA(Random random, int numberOfStates) {
+        return new RandomAutomaton(numberOfStates, 1 + random
+                .nextInt(numberOfStates), ALPHABET_WITH_EPSILON, 0.01, 0.005,
+                false, random);
+    }
+
+    private static void assertSameLanguage(Automaton expected,
+            Automaton actual, int maximalLength) {
+        List<List<Object>> words = new ArrayList<List<Object>>();
+        words.add(new ArrayList<Object>());
+        for (int index = 0; index < words.size(); index++) {
+            List<Object> word = words.get(index);
+            assertEquals(word.toString(), expected.accept(word), actual
+                    .accept(word));
+            if (word.size() < maximalLength)
+                for (Object letter : ALPHABET) {
+                    List<Object> longer = new ArrayList<Object>(word);
+                    longer.add(letter);
+                    words.add(longer);
+                }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package rationals.transformations;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import rationals.Automaton;
+import rationals.NoSuchStateException;
+import rationals.State;
+import rationals.Transition;
+import rationals.properties.ContainsEpsilon;
+
+/**
+ * The original normalization of an automaton working on sets of {@link State}
+ * and {@link Transition} objects, kept as a baseline for {@link Normalizer}.
+ */
+public class SetBasedNormalizer implements UnaryTransformation {
+
+    public Automaton transform(Automaton a) {
+        Automaton b = new Automaton();
+        State ni = b.addState(true, false);
+        State nt = b.addState(false, true);
+        Map map = new HashMap();
+        Iterator i = a.states().iterator();
+        while (i.hasNext()) {
+            State st = (State) i.next();
+            map.put(st, b.addState(false, false));
+        }
+        /* add epsilon transition if contains epsilon */
+        if (new ContainsEpsilon().test(a))
+            try {
+                b.addTransition(new Transition(ni, null, nt));
+            } catch (NoSuchStateException e) {
+            }
+        i = a.delta().iterator();
+        while (i.hasNext()) {
+            Transition t = (Transition) i.next();
+            if (t.start().isInitial() && t.end().isTerminal()) {
+                try {
+                    b.addTransition(new Transition(ni, t.label(), nt));
+                } catch (NoSuchStateException x) {
+                }
+            }
+            if (t.start().isInitial()) {
+                try {
+                    b.addTransition(new Transition(ni, t.label(), (State) map
+                            .get(t.end())));
+                } catch (NoSuchStateException x) {
+                }
+            }
+
+            if (t.end().isTerminal())
+                try {
+                    b.addTransition(new Transition((State) map.get(t.start()),
+                            t.label(), nt));
+                } catch (NoSuchStateException x) {
+                }
+
+            try {
+                b.addTransition(new Transition((State) map.get(t.start()), t
+                        .label(), (State) map.get(t.end())));
+            } catch (NoSuchStateException x) {
+            }
+
+        }
+        b = new Pruner().transform(b);
+        return b;
+    }
+}
@@ -0,0 +1,63 @@
+package rationals.transformations;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.List;
+import java.util.ArrayList;
+
+import rationals.Automaton;
+import rationals.NoSuchStateException;
+import rationals.State;
+import rationals.Transition;
+
+/**
+ * The original determinization of an automaton working on sets of
+ * {@link State} and {@link Transition} objects, kept as a baseline for
+ * {@link ToDFA}.
+ */
+public class SetBasedToDFA implements UnaryTransformation {
+  
+  public Automaton transform(Automaton a) {
+    Automaton ret = new Automaton();
+    Map bmap = new HashMap();
+    List /* < Set > */todo = new ArrayList();
+    Set /* < Set > */done = new HashSet();
+    Set as = TransformationsToolBox.epsilonClosure(a.initials(), a);
+    State from = ret.addState(true, TransformationsToolBox
+			      .containsATerminalState(as));
+    bmap.put(as, from);
+    todo.add(as);
+    do {
+      Set sts = (Set) todo.remove(0);
+      from = (State) bmap.get(sts);
+      if (done.contains(sts))
+	continue;
+      done.add(sts);
+      /* get transition sets */
+      Map tam = TransformationsToolBox.mapAlphabet(a.delta(sts), a);
+      /* unsynchronizable transitions in A */
+      for (Iterator i = tam.entrySet().iterator(); i.hasNext();) {
+	Map.Entry me = (Map.Entry) i.next();
+	Object l = me.getKey();
+	as = (Set) me.getValue();
+	Set asc = TransformationsToolBox.epsilonClosure(as, a);
+	State to = (State) bmap.get(asc);
+	if (to == null) {
+	  to = ret.addState(false, TransformationsToolBox
+			    .containsATerminalState(asc));
+	  bmap.put(asc, to);
+	}
+	todo.add(asc);
+	try {
+	  ret.addTransition(new Transition(from, l, to));
+	} catch (NoSuchStateException e) {
+	  assert false;
+	}
+      }
+    } while (!todo.isEmpty());
+    return ret;
+  }
+}
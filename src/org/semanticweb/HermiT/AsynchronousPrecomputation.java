@@ -0,0 +1,203 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+   
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+   
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+   
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.semanticweb.owlapi.reasoner.InferenceType;
+import org.semanticweb.owlapi.reasoner.ReasonerInterruptedException;
+import org.semanticweb.owlapi.reasoner.ReasonerProgressMonitor;
+
+/**
+ * A precomputation of inferences that runs on a background thread; it is created by
+ * Reasoner.precomputeInferencesAsynchronously. The inference types are computed one after the other, and each of them
+ * has a future that completes when the inference type has been computed, or with the exception that stopped the
+ * computation. A future whose inference type has not been started when the precomputation is cancelled is cancelled.
+ */
+public class AsynchronousPrecomputation {
+
+    /**
+     * Receives the events of a precomputation. The methods are called on the background thread.
+     */
+    public static interface Listener {
+        void inferenceTypeStarted(InferenceType inferenceType);
+        /**
+         * Reports the progress of the task that the reasoner currently runs for the inference type; one inference
+         * type can consist of several tasks, each of which starts again from zero.
+         */
+        void progressChanged(InferenceType inferenceType,int value,int max);
+        /**
+         * @param failure
+         *            the exception that stopped the computation of the inference type, or null if it has been computed
+         */
+        void inferenceTypeFinished(InferenceType inferenceType,Throwable failure);
+    }
+
+    protected final Reasoner m_reasoner;
+    protected final Listener m_listener;
+    protected final Map<InferenceType,FutureTask<Void>> m_futures;
+    protected final Thread m_thread;
+    protected volatile boolean m_cancelled;
+    protected volatile InferenceType m_currentInferenceType;
+
+    protected AsynchronousPrecomputation(Reasoner reasoner,Listener listener,List<InferenceType> inferenceTypes) {
+        m_reasoner=reasoner;
+        m_listener=listener;
+        m_futures=new LinkedHashMap<InferenceType,FutureTask<Void>>();
+        for (final InferenceType inferenceType : inferenceTypes)
+            m_futures.put(inferenceType,new FutureTask<Void>(new Callable<Void>() {
+                public Void call() {
+                    m_reasoner.precomputeInference(inferenceType);
+                    return null;
+                }
+            }));
+        m_thread=new Thread(new Runnable() {
+            public void run() {
+                precompute();
+            }
+        },"HermiT precomputation");
+        m_thread.setDaemon(true);
+    }
+    protected void start() {
+        m_thread.start();
+    }
+    protected void precompute() {
+        Configuration configuration=m_reasoner.m_configuration;
+        ReasonerProgressMonitor reasonerProgressMonitor=configuration.reasonerProgressMonitor;
+        configuration.reasonerProgressMonitor=new CancellingProgressMonitor(reasonerProgressMonitor);
+        try {
+            for (Map.Entry<InferenceType,FutureTask<Void>> entry : m_futures.entrySet()) {
+                if (m_cancelled)
+                    break;
+                InferenceType inferenceType=entry.getKey();
+                FutureTask<Void> future=entry.getValue();
+                m_currentInferenceType=inferenceType;
+                if (m_listener!=null)
+                    m_listener.inferenceTypeStarted(inferenceType);
+                future.run();
+                if (m_listener!=null)
+                    m_listener.inferenceTypeFinished(inferenceType,getFailure(future));
+            }
+        }
+        finally {
+            m_currentInferenceType=null;
+            configuration.reasonerProgressMonitor=reasonerProgressMonitor;
+            for (FutureTask<Void> future : m_futures.values())
+                future.cancel(false);
+        }
+    }
+    protected static Throwable getFailure(FutureTask<Void> future) {
+        try {
+            future.get();
+            return null;
+        }
+        catch (ExecutionException e) {
+            return e.getCause();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return e;
+        }
+    }
+    /**
+     * Returns the future for the given inference type, or null if the inference type has not been requested. The
+     * future itself cannot be used to cancel the computation; use cancel instead.
+     */
+    public Future<Void> getFuture(InferenceType inferenceType) {
+        return m_futures.get(inferenceType);
+    }
+    public Map<InferenceType,Future<Void>> getFutures() {
+        return Collections.<InferenceType,Future<Void>>unmodifiableMap(m_futures);
+    }
+    /**
+     * Returns the inference type that is being computed, or null if the precomputation has not started yet or is done.
+     */
+    public InferenceType getCurrentInferenceType() {
+        return m_currentInferenceType;
+    }
+    /**
+     * Asks the precomputation to stop. The tableau test that is running is interrupted through the interrupt flags of
+     * the reasoner, and the reasoner task stops at the next progress report; the inference types that have not been
+     * started are cancelled. The results of the inference types that have been completed remain available. The method
+     * does not wait for the background thread; use awaitTermination for that.
+     */
+    public void cancel() {
+        m_cancelled=true;
+        m_reasoner.interrupt();
+    }
+    public boolean isCancelled() {
+        return m_cancelled;
+    }
+    /**
+     * Returns true if the background thread has finished, after which the reasoner can be used without restrictions.
+     */
+    public boolean isDone() {
+        return !m_thread.isAlive() && m_thread.getState()!=Thread.State.NEW;
+    }
+    public void awaitTermination() throws InterruptedException {
+        m_thread.join();
+    }
+
+    /**
+     * Forwards the progress reports of the reasoner to the original monitor and the listener and, on the background
+     * thread, stops the reasoner task once the precomputation has been cancelled. Reports from other threads, such as
+     * queries about inference types that have already been computed, are only forwarded.
+     */
+    protected class CancellingProgressMonitor implements ReasonerProgressMonitor {
+        protected final ReasonerProgressMonitor m_reasonerProgressMonitor;
+
+        public CancellingProgressMonitor(ReasonerProgressMonitor reasonerProgressMonitor) {
+            m_reasonerProgressMonitor=reasonerProgressMonitor;
+        }
+        public void reasonerTaskStarted(String taskName) {
+            if (m_reasonerProgressMonitor!=null)
+                m_reasonerProgressMonitor.reasonerTaskStarted(taskName);
+            checkCancelled();
+        }
+        public void reasonerTaskStopped() {
+            if (m_reasonerProgressMonitor!=null)
+                m_reasonerProgressMonitor.reasonerTaskStopped();
+        }
+        public void reasonerTaskProgressChanged(int value,int max) {
+            if (m_reasonerProgressMonitor!=null)
+                m_reasonerProgressMonitor.reasonerTaskProgressChanged(value,max);
+            if (Thread.currentThread()==m_thread) {
+                InferenceType inferenceType=m_currentInferenceType;
+                if (m_listener!=null && inferenceType!=null)
+                    m_listener.progressChanged(inferenceType,value,max);
+            }
+            checkCancelled();
+        }
+        public void reasonerTaskBusy() {
+            if (m_reasonerProgressMonitor!=null)
+                m_reasonerProgressMonitor.reasonerTaskBusy();
+            checkCancelled();
+        }
+        protected void checkCancelled() {
+            if (m_cancelled && Thread.currentThread()==m_thread)
+                throw new ReasonerInterruptedException("The precomputation has been cancelled.");
+        }
+    }
+}
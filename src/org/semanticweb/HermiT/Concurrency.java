@@ -0,0 +1,74 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+   
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+   
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+   
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.semanticweb.owlapi.reasoner.ReasonerInterruptedException;
+
+/**
+ * Runs independent tasks of the reasoner in parallel.
+ */
+public final class Concurrency {
+
+    private Concurrency() {
+    }
+    /**
+     * Runs the given tasks on a thread pool with one thread per task and returns their results in the order of the
+     * tasks. Exceptions thrown by a task are rethrown in the calling thread.
+     */
+    public static <T> List<T> runConcurrently(List<Callable<T>> tasks) {
+        ExecutorService executor=Executors.newFixedThreadPool(tasks.size());
+        try {
+            return runConcurrently(executor,tasks);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+    /**
+     * Runs the given tasks on the given executor and returns their results in the order of the tasks; the executor is
+     * not shut down, so that it can be reused for several batches of tasks.
+     */
+    public static <T> List<T> runConcurrently(ExecutorService executor,List<Callable<T>> tasks) {
+        try {
+            List<T> results=new ArrayList<T>(tasks.size());
+            for (Future<T> future : executor.invokeAll(tasks))
+                results.add(future.get());
+            return results;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReasonerInterruptedException(e);
+        }
+        catch (ExecutionException e) {
+            Throwable cause=e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException)cause;
+            if (cause instanceof Error)
+                throw (Error)cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -166,6 +166,47 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
         EL
     }
 
+    /**
+     * Sets a strategy that determines which ground disjunction HermiT branches on next and in which order the disjuncts are tried.
+     */
+    public static enum BranchingHeuristicType {
+        /**
+         * Ground disjunctions are processed in the order in which they were derived and disjuncts are ordered by the number
+         * of backtrackings they caused so far (if useDisjunctionLearning is set).
+         */
+        STANDARD,
+        /**
+         * Among the next unprocessed ground disjunctions, the one with the fewest disjuncts is chosen, where ties are broken
+         * in favour of disjunctions whose disjuncts occur most frequently in the other short disjunctions. Disjuncts that
+         * occur frequently are tried first.
+         */
+        MOMS,
+        /**
+         * Every disjunction is associated with an activity score that is increased whenever one of its disjuncts takes part
+         * in a clash and that decays over time. Among the next unprocessed ground disjunctions, the one with the highest
+         * activity is chosen, and disjuncts are tried in the order of their success rate so far.
+         */
+        ACTIVITY
+    }
+
+    /**
+     * Sets how HermiT deals with qualified number restrictions whose cardinalities contradict each other.
+     */
+    public static enum NumberRestrictionHandlingType {
+        /**
+         * For an at least restriction, as many successors as the restriction requires are created, and at most restrictions
+         * are enforced by merging successors.
+         */
+        EXPANSION,
+        /**
+         * Before successors are created for an at least restriction, its cardinality is compared with the at most
+         * restrictions on the same role and filler (or on a superrole and owl:Thing) that hold for the node. If the at least
+         * restriction requires more successors than allowed, the node clashes without any successor being created and
+         * without branching over the possible merges. Otherwise the restriction is expanded as in EXPANSION.
+         */
+        COUNTING
+    }
+
     /**
      * One can implement an instance of this class and pass it to HermiT. HermiT will then print warning with the
      * warning() method of the interface, e.g., if it ignores an unsupported datatype. HermiT does not provide an
@@ -182,6 +223,13 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
     public BlockingStrategyType blockingStrategyType;
     public BlockingSignatureCacheType blockingSignatureCacheType;
     public ExistentialStrategyType existentialStrategyType;
+    public BranchingHeuristicType branchingHeuristicType;
+    public NumberRestrictionHandlingType numberRestrictionHandlingType;
+    /**
+     * The number of unprocessed ground disjunctions that the MOMS and ACTIVITY branching heuristics consider when choosing
+     * the next disjunction to branch on.
+     */
+    public int branchingHeuristicLookahead;
     /**
      * If HermiT encounters a non-OWL2 datatype, it normally throws an error. If set to true, axioms containing unsupported
      * datatypes will be ignored.
@@ -192,7 +240,9 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
      */
     public TableauMonitor monitor;
     /**
-     * The parameters are passed to the Tableau class instance, but currently no parameters are used.
+     * The parameters are passed to the Tableau class instance. Setting "Tableau.reuseSaturatedABox" to Boolean.FALSE makes
+     * the tableau reload and resaturate the ABox for each test instead of restoring a saved deterministic saturation.
+     * An Integer under "DatatypeManager.maximumNumberOfCachedResults" bounds the memoised D-conjunction results; 0 disables the cache.
      */
     public Map<String,Object> parameters;
     /**
@@ -231,6 +281,24 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
      * If the value is set to true, then HermiT will use the Quasi Ordering Classification method even for deterministic ontologies.
      */
     public boolean forceQuasiOrderClassification;
+    /**
+     * The number of threads used for normalizing and clausifying the ontology when the reasoner is created. The default
+     * value is 1, which preprocesses the ontology sequentially. With more threads, large ontologies are partitioned and
+     * processed concurrently; the resulting clauses are the same up to the names of the fresh concepts that the
+     * normalization introduces.
+     */
+    public int numberOfPreprocessingThreads;
+    /**
+     * The number of threads used for precomputing the domains and ranges of properties. The default value is 1. With more
+     * threads, the properties are divided among the threads and each thread tests them on a tableau of its own.
+     */
+    public int numberOfReasoningThreads;
+    /**
+     * The default value is true and HermiT removes DL clauses that are equal to or subsumed by other DL clauses after the
+     * clausification and renames the variables of clauses with equivalent bodies such that they are evaluated together.
+     * If set to false, all clauses produced by the clausification are used as they are.
+     */
+    public boolean optimizeDLClauses;
 
     public Configuration() {
         warningMonitor=null;
@@ -240,6 +308,9 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
         blockingStrategyType=Configuration.BlockingStrategyType.OPTIMAL;
         blockingSignatureCacheType=Configuration.BlockingSignatureCacheType.CACHED;
         existentialStrategyType=Configuration.ExistentialStrategyType.CREATION_ORDER;
+        branchingHeuristicType=Configuration.BranchingHeuristicType.STANDARD;
+        numberRestrictionHandlingType=Configuration.NumberRestrictionHandlingType.COUNTING;
+        branchingHeuristicLookahead=16;
         ignoreUnsupportedDatatypes=false;
         monitor=null;
         parameters=new HashMap<String,Object>();
@@ -251,6 +322,9 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
         throwInconsistentOntologyException=true;
         prepareReasonerInferences=null;
         forceQuasiOrderClassification=false;
+        numberOfPreprocessingThreads=1;
+        numberOfReasoningThreads=1;
+        optimizeDLClauses=true;
     }
     protected void setIndividualReuseStrategyReuseAlways(Set<? extends AtomicConcept> concepts) {
         parameters.put("IndividualReuseStrategy.reuseAlways",concepts);
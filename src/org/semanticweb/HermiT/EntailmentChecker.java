@@ -18,14 +18,21 @@
 package org.semanticweb.HermiT;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
 import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.Individual;
 import org.semanticweb.HermiT.model.InternalDatatype;
 import org.semanticweb.HermiT.tableau.ReasoningTaskDescription;
 import org.semanticweb.HermiT.tableau.Tableau;
@@ -152,6 +159,196 @@ public class EntailmentChecker implements OWLAxiomVisitorEx<Boolean> {
         return true;
     }
 
+    // ************ batch entailment ****************************
+
+    /**
+     * Checks the entailment of each of the given axioms separately. Unlike entails(Set<OWLAxiom> axioms), the concepts for
+     * anonymous individuals are rolled up for each axiom on its own. Subsumptions between named classes are answered from
+     * the class hierarchy and assertions with named classes and properties by the instance manager. For each remaining
+     * axiom, the class expressions that must be unsatisfiable for the axiom to be entailed are made the definitions of
+     * fresh concepts, which are clausified together into one delta ontology, and the satisfiability tests for the fresh
+     * concepts are divided among Configuration.numberOfReasoningThreads tableaux.
+     *
+     * @param axioms
+     *            the axioms that should be checked for entailment
+     * @return a map that assigns to each of the axioms whether the loaded ontology entails it
+     */
+    public Map<OWLAxiom,Boolean> checkEntailments(Set<? extends OWLAxiom> axioms) {
+        Map<OWLAxiom,Boolean> result=new HashMap<OWLAxiom,Boolean>();
+        List<OWLAxiom> simpleAxioms=new ArrayList<OWLAxiom>();
+        List<EntailmentTest> tests=new ArrayList<EntailmentTest>();
+        boolean hasClassSubsumptions=false;
+        for (OWLAxiom axiom : axioms) {
+            if (!axiom.isLogicalAxiom())
+                result.put(axiom,Boolean.TRUE);
+            else if (!addEntailmentTests(axiom,tests)) {
+                simpleAxioms.add(axiom);
+                hasClassSubsumptions|=(axiom instanceof OWLSubClassOfAxiom || axiom instanceof OWLEquivalentClassesAxiom);
+            }
+        }
+        if (hasClassSubsumptions)
+            reasoner.classifyClasses();
+        for (OWLAxiom axiom : simpleAxioms) {
+            anonymousIndividualAxioms.clear();
+            result.put(axiom,Boolean.valueOf(entails(axiom)));
+        }
+        if (!tests.isEmpty()) {
+            for (EntailmentTest test : tests)
+                result.put(test.axiom,Boolean.TRUE);
+            BitSet satisfiableTests=runEntailmentTests(tests);
+            for (int index=satisfiableTests.nextSetBit(0);index>=0;index=satisfiableTests.nextSetBit(index+1))
+                result.put(tests.get(index).axiom,Boolean.FALSE);
+        }
+        return result;
+    }
+    /**
+     * Adds the tests for the given axiom to the list unless the axiom can be decided without a tableau test or contains
+     * anonymous individuals, in which case the method returns false.
+     */
+    protected boolean addEntailmentTests(OWLAxiom axiom,List<EntailmentTest> tests) {
+        if (axiom instanceof OWLSubClassOfAxiom) {
+            OWLSubClassOfAxiom subClassOfAxiom=(OWLSubClassOfAxiom)axiom;
+            OWLClassExpression subClass=subClassOfAxiom.getSubClass();
+            OWLClassExpression superClass=subClassOfAxiom.getSuperClass();
+            if (subClass instanceof OWLClass && superClass instanceof OWLClass)
+                return false;
+            tests.add(new EntailmentTest(axiom,null,factory.getOWLObjectIntersectionOf(subClass,superClass.getObjectComplementOf())));
+        }
+        else if (axiom instanceof OWLEquivalentClassesAxiom) {
+            Set<OWLClassExpression> classExpressions=((OWLEquivalentClassesAxiom)axiom).getClassExpressions();
+            if (((OWLEquivalentClassesAxiom)axiom).getNamedClasses().size()==classExpressions.size())
+                return false;
+            Iterator<OWLClassExpression> iterator=classExpressions.iterator();
+            OWLClassExpression first=iterator.next();
+            while (iterator.hasNext()) {
+                OWLClassExpression next=iterator.next();
+                tests.add(new EntailmentTest(axiom,null,factory.getOWLObjectIntersectionOf(first,next.getObjectComplementOf())));
+                tests.add(new EntailmentTest(axiom,null,factory.getOWLObjectIntersectionOf(next,first.getObjectComplementOf())));
+            }
+        }
+        else if (axiom instanceof OWLDisjointClassesAxiom) {
+            List<OWLClassExpression> classExpressions=((OWLDisjointClassesAxiom)axiom).getClassExpressionsAsList();
+            for (int i=0;i<classExpressions.size()-1;i++)
+                for (int j=i+1;j<classExpressions.size();j++)
+                    tests.add(new EntailmentTest(axiom,null,factory.getOWLObjectIntersectionOf(classExpressions.get(i),classExpressions.get(j))));
+        }
+        else if (axiom instanceof OWLDisjointUnionAxiom)
+            tests.add(new EntailmentTest(axiom,null,getDisjointUnionViolation((OWLDisjointUnionAxiom)axiom)));
+        else if (axiom instanceof OWLObjectPropertyDomainAxiom) {
+            OWLObjectPropertyDomainAxiom domainAxiom=(OWLObjectPropertyDomainAxiom)axiom;
+            tests.add(new EntailmentTest(axiom,null,factory.getOWLObjectIntersectionOf(factory.getOWLObjectSomeValuesFrom(domainAxiom.getProperty(),factory.getOWLThing()),domainAxiom.getDomain().getObjectComplementOf())));
+        }
+        else if (axiom instanceof OWLObjectPropertyRangeAxiom) {
+            OWLObjectPropertyRangeAxiom rangeAxiom=(OWLObjectPropertyRangeAxiom)axiom;
+            tests.add(new EntailmentTest(axiom,null,factory.getOWLObjectSomeValuesFrom(rangeAxiom.getProperty(),rangeAxiom.getRange().getObjectComplementOf())));
+        }
+        else if (axiom instanceof OWLDataPropertyDomainAxiom) {
+            OWLDataPropertyDomainAxiom domainAxiom=(OWLDataPropertyDomainAxiom)axiom;
+            tests.add(new EntailmentTest(axiom,null,factory.getOWLObjectIntersectionOf(factory.getOWLDataSomeValuesFrom(domainAxiom.getProperty(),factory.getTopDatatype()),domainAxiom.getDomain().getObjectComplementOf())));
+        }
+        else if (axiom instanceof OWLDataPropertyRangeAxiom) {
+            OWLDataPropertyRangeAxiom rangeAxiom=(OWLDataPropertyRangeAxiom)axiom;
+            tests.add(new EntailmentTest(axiom,null,factory.getOWLDataSomeValuesFrom(rangeAxiom.getProperty(),factory.getOWLDataComplementOf(rangeAxiom.getRange()))));
+        }
+        else if (axiom instanceof OWLClassAssertionAxiom) {
+            OWLClassAssertionAxiom classAssertion=(OWLClassAssertionAxiom)axiom;
+            if (classAssertion.getIndividual().isAnonymous() || classAssertion.getClassExpression() instanceof OWLClass)
+                return false;
+            tests.add(new EntailmentTest(axiom,classAssertion.getIndividual().asOWLNamedIndividual(),classAssertion.getClassExpression().getObjectComplementOf()));
+        }
+        else if (axiom instanceof OWLDataPropertyAssertionAxiom) {
+            OWLDataPropertyAssertionAxiom assertion=(OWLDataPropertyAssertionAxiom)axiom;
+            if (assertion.getSubject().isAnonymous())
+                return false;
+            tests.add(new EntailmentTest(axiom,assertion.getSubject().asOWLNamedIndividual(),factory.getOWLDataHasValue(assertion.getProperty(),assertion.getObject()).getObjectComplementOf()));
+        }
+        else if (axiom instanceof OWLNegativeObjectPropertyAssertionAxiom) {
+            OWLNegativeObjectPropertyAssertionAxiom assertion=(OWLNegativeObjectPropertyAssertionAxiom)axiom;
+            if (assertion.getSubject().isAnonymous() || assertion.getObject().isAnonymous())
+                return false;
+            tests.add(new EntailmentTest(axiom,assertion.getSubject().asOWLNamedIndividual(),factory.getOWLObjectHasValue(assertion.getProperty(),assertion.getObject())));
+        }
+        else if (axiom instanceof OWLNegativeDataPropertyAssertionAxiom) {
+            OWLNegativeDataPropertyAssertionAxiom assertion=(OWLNegativeDataPropertyAssertionAxiom)axiom;
+            if (assertion.getSubject().isAnonymous())
+                return false;
+            tests.add(new EntailmentTest(axiom,assertion.getSubject().asOWLNamedIndividual(),factory.getOWLDataHasValue(assertion.getProperty(),assertion.getObject())));
+        }
+        else
+            return false;
+        return true;
+    }
+    /**
+     * Runs the given tests and returns the indexes of the satisfiable ones. The i-th class expression is made the
+     * definition of the fresh concept internal:entailment-test#i, and all definitions are clausified together.
+     */
+    protected BitSet runEntailmentTests(final List<EntailmentTest> tests) {
+        OWLAxiom[] definitions=new OWLAxiom[tests.size()];
+        for (int index=0;index<tests.size();index++)
+            definitions[index]=factory.getOWLSubClassOfAxiom(factory.getOWLClass(IRI.create(getTestConcept(index).getIRI())),tests.get(index).classExpression);
+        final DLOntology deltaDLOntology=reasoner.createDeltaDLOntology(reasoner.m_configuration,reasoner.m_dlOntology,definitions);
+        final int numberOfThreads=Math.max(1,Math.min(reasoner.m_configuration.numberOfReasoningThreads,tests.size()));
+        BitSet result=new BitSet();
+        if (numberOfThreads==1) {
+            Tableau tableau=reasoner.getTableau(deltaDLOntology);
+            try {
+                for (int index=0;index<tests.size();index++)
+                    runEntailmentTest(tableau,tests,index,result);
+            }
+            finally {
+                tableau.clearAdditionalDLOntology();
+            }
+        }
+        else {
+            Tableau[] tableaux=reasoner.createWorkerTableaux(numberOfThreads,deltaDLOntology);
+            try {
+                List<Callable<BitSet>> workers=new ArrayList<Callable<BitSet>>();
+                for (int thread=0;thread<numberOfThreads;thread++) {
+                    final int firstTest=thread;
+                    final Tableau tableau=tableaux[thread];
+                    workers.add(new Callable<BitSet>() {
+                        public BitSet call() {
+                            BitSet satisfiableTests=new BitSet();
+                            for (int index=firstTest;index<tests.size();index+=numberOfThreads)
+                                runEntailmentTest(tableau,tests,index,satisfiableTests);
+                            return satisfiableTests;
+                        }
+                    });
+                }
+                for (BitSet satisfiableTests : Concurrency.runConcurrently(workers))
+                    result.or(satisfiableTests);
+            }
+            finally {
+                reasoner.releaseWorkerTableaux(tableaux);
+            }
+        }
+        return result;
+    }
+    /**
+     * Runs the test with the given index unless an earlier test for the same axiom has already been found satisfiable;
+     * the tests for an axiom are adjacent in the list.
+     */
+    protected void runEntailmentTest(Tableau tableau,List<EntailmentTest> tests,int index,BitSet satisfiableTests) {
+        EntailmentTest test=tests.get(index);
+        for (int previousIndex=index-1;previousIndex>=0 && tests.get(previousIndex).axiom==test.axiom;previousIndex--)
+            if (satisfiableTests.get(previousIndex))
+                return;
+        boolean isSatisfiable;
+        if (test.individual==null) {
+            Set<Atom> facts=Collections.singleton(Atom.create(getTestConcept(index),Individual.createAnonymous("fresh-individual")));
+            isSatisfiable=tableau.isSatisfiable(false,facts,null,null,null,null,ReasoningTaskDescription.isAxiomEntailed(test.axiom));
+        }
+        else {
+            Set<Atom> facts=Collections.singleton(Atom.create(getTestConcept(index),Individual.create(test.individual.getIRI().toString())));
+            isSatisfiable=tableau.isSatisfiable(true,false,facts,null,null,null,null,ReasoningTaskDescription.isAxiomEntailed(test.axiom));
+        }
+        if (isSatisfiable)
+            satisfiableTests.set(index);
+    }
+    protected static AtomicConcept getTestConcept(int index) {
+        return AtomicConcept.create("internal:entailment-test#"+index);
+    }
+
     // ************ non-logical axioms ****************************
 
     public Boolean visit(OWLAnnotationAssertionAxiom axiom) {
@@ -400,6 +597,9 @@ public class EntailmentChecker implements OWLAxiomVisitorEx<Boolean> {
         return Boolean.TRUE;
     }
     public Boolean visit(OWLDisjointUnionAxiom axiom) {
+        return !reasoner.isSatisfiable(getDisjointUnionViolation(axiom));
+    }
+    protected OWLClassExpression getDisjointUnionViolation(OWLDisjointUnionAxiom axiom) {
         // C = C1 or ... or Cn, for 1 <= i < j <= n: Ci and Cj -> bottom
         OWLClass c=axiom.getOWLClass();
         Set<OWLClassExpression> cs=new HashSet<OWLClassExpression>(axiom.getClassExpressions());
@@ -419,7 +619,7 @@ public class EntailmentChecker implements OWLAxiomVisitorEx<Boolean> {
             }
         }
         OWLClassExpression entailmentDesc=factory.getOWLObjectIntersectionOf(conjuncts);
-        return !reasoner.isSatisfiable(factory.getOWLObjectComplementOf(entailmentDesc));
+        return factory.getOWLObjectComplementOf(entailmentDesc);
     }
 
     // ************ datatype definitions ****************************
@@ -885,6 +1085,20 @@ public class EntailmentChecker implements OWLAxiomVisitorEx<Boolean> {
         }
     }
 
+    protected static class EntailmentTest {
+        public final OWLAxiom axiom;
+        /** the individual that is tested, or null if the class expression is tested for satisfiability */
+        public final OWLNamedIndividual individual;
+        /** the class expression that must be unsatisfiable, or not be satisfiable by individual, for axiom to be entailed */
+        public final OWLClassExpression classExpression;
+
+        public EntailmentTest(OWLAxiom axiom,OWLNamedIndividual individual,OWLClassExpression classExpression) {
+            this.axiom=axiom;
+            this.individual=individual;
+            this.classExpression=classExpression;
+        }
+    }
+
     protected class Edge {
         public final OWLAnonymousIndividual first;
         public final OWLAnonymousIndividual second;
@@ -25,11 +25,14 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.semanticweb.HermiT.Configuration.BlockingStrategyType;
+import org.semanticweb.HermiT.Configuration.TableauMonitorType;
 import org.semanticweb.HermiT.blocking.AncestorBlocking;
 import org.semanticweb.HermiT.blocking.AnywhereBlocking;
 import org.semanticweb.HermiT.blocking.AnywhereValidatedBlocking;
@@ -40,18 +43,25 @@ import org.semanticweb.HermiT.blocking.PairWiseDirectBlockingChecker;
 import org.semanticweb.HermiT.blocking.SingleDirectBlockingChecker;
 import org.semanticweb.HermiT.blocking.ValidatedPairwiseDirectBlockingChecker;
 import org.semanticweb.HermiT.blocking.ValidatedSingleDirectBlockingChecker;
+import org.semanticweb.HermiT.branching.ActivityBranchingHeuristic;
+import org.semanticweb.HermiT.branching.BranchingHeuristic;
+import org.semanticweb.HermiT.branching.MOMSBranchingHeuristic;
+import org.semanticweb.HermiT.branching.StandardBranchingHeuristic;
 import org.semanticweb.HermiT.debugger.Debugger;
 import org.semanticweb.HermiT.existentials.CreationOrderStrategy;
 import org.semanticweb.HermiT.existentials.ExistentialExpansionStrategy;
 import org.semanticweb.HermiT.existentials.IndividualReuseStrategy;
 import org.semanticweb.HermiT.hierarchy.ClassificationProgressMonitor;
 import org.semanticweb.HermiT.hierarchy.DeterministicClassification;
+import org.semanticweb.HermiT.hierarchy.DisjointClassification;
+import org.semanticweb.HermiT.hierarchy.DomainRangeSearch;
 import org.semanticweb.HermiT.hierarchy.Hierarchy;
 import org.semanticweb.HermiT.hierarchy.HierarchyDumperFSS;
 import org.semanticweb.HermiT.hierarchy.HierarchyNode;
 import org.semanticweb.HermiT.hierarchy.HierarchyPrinterFSS;
 import org.semanticweb.HermiT.hierarchy.HierarchySearch;
 import org.semanticweb.HermiT.hierarchy.InstanceManager;
+import org.semanticweb.HermiT.hierarchy.ModelCache;
 import org.semanticweb.HermiT.hierarchy.QuasiOrderClassification;
 import org.semanticweb.HermiT.hierarchy.QuasiOrderClassificationForRoles;
 import org.semanticweb.HermiT.model.Atom;
@@ -144,12 +154,16 @@ import org.semanticweb.owlapi.vocab.PrefixOWLOntologyFormat;
  * Answers queries about the logical implications of a particular knowledge base. A Reasoner is associated with a single knowledge base, which is "loaded" when the reasoner is constructed. By default a full classification of all atomic terms in the knowledge base is also performed at this time (which can take quite a while for large or complex ontologies), but this behavior can be disabled as a part of the Reasoner configuration. Internal details of the loading and reasoning algorithms can be configured in the Reasoner constructor and do not change over the lifetime of the Reasoner object---internal data structures and caches are optimized for a particular configuration. By default, HermiT will use the set of options which provide optimal performance.
  */
 public class Reasoner implements OWLReasoner {
+    /** the order in which precomputeInferences computes the inference types; later types use the results of earlier ones */
+    protected static final InferenceType[] PRECOMPUTATION_ORDER={ InferenceType.CLASS_HIERARCHY,InferenceType.OBJECT_PROPERTY_HIERARCHY,InferenceType.DATA_PROPERTY_HIERARCHY,InferenceType.CLASS_ASSERTIONS,InferenceType.OBJECT_PROPERTY_ASSERTIONS,InferenceType.DATA_PROPERTY_ASSERTIONS,InferenceType.SAME_INDIVIDUAL,InferenceType.DIFFERENT_INDIVIDUALS,InferenceType.DISJOINT_CLASSES };
+
     protected final OntologyChangeListener m_ontologyChangeListener;
     protected final Configuration m_configuration;
     protected final OWLOntology m_rootOntology;
     protected final List<OWLOntologyChange> m_pendingChanges;
     protected final Collection<DescriptionGraph> m_descriptionGraphs;
     protected final InterruptFlag m_interruptFlag;
+    protected final Set<InterruptFlag> m_workerInterruptFlags;
     protected ObjectPropertyInclusionManager m_objectPropertyInclusionManager;
     protected DLOntology m_dlOntology;
     protected Prefixes m_prefixes;
@@ -163,6 +177,7 @@ public class Reasoner implements OWLReasoner {
     protected Map<AtomicRole,Set<HierarchyNode<AtomicConcept>>> m_directDataRoleDomains;
     protected Map<HierarchyNode<AtomicConcept>,Set<HierarchyNode<AtomicConcept>>> m_directDisjointClasses;
     protected InstanceManager m_instanceManager;
+    protected ModelCache m_modelCache;
 
     /**
      * Creates a new reasoner object with standard parameters for blocking, expansion strategy etc. Then the given manager is used to find all required imports for the given ontology and the ontology with the imports is loaded into the reasoner and the data factory of the manager is used to create fresh concepts during the preprocessing phase if necessary.
@@ -207,6 +222,7 @@ public class Reasoner implements OWLReasoner {
         else
             m_descriptionGraphs=descriptionGraphs;
         m_interruptFlag=new InterruptFlag(configuration.individualTaskTimeout);
+        m_workerInterruptFlags=new HashSet<InterruptFlag>();
         m_directDisjointClasses=new HashMap<HierarchyNode<AtomicConcept>,Set<HierarchyNode<AtomicConcept>>>();
         loadOntology();
     }
@@ -284,9 +300,14 @@ public class Reasoner implements OWLReasoner {
         m_directDataRoleDomains=new HashMap<AtomicRole,Set<HierarchyNode<AtomicConcept>>>();
         m_directDisjointClasses=new HashMap<HierarchyNode<AtomicConcept>,Set<HierarchyNode<AtomicConcept>>>();
         m_instanceManager=null;
+        m_modelCache=null;
     }
     public void interrupt() {
         m_interruptFlag.interrupt();
+        synchronized (m_workerInterruptFlags) {
+            for (InterruptFlag interruptFlag : m_workerInterruptFlags)
+                interruptFlag.interrupt();
+        }
     }
     public OWLDataFactory getDataFactory() {
         return m_rootOntology.getOWLOntologyManager().getOWLDataFactory();
@@ -403,7 +424,7 @@ public class Reasoner implements OWLReasoner {
                 for (Atom atom : negativeFacts)
                     atom.getIndividuals(allIndividuals);
                 m_dlOntology=new DLOntology(m_dlOntology.getOntologyIRI(),m_dlOntology.getDLClauses(),positiveFacts,negativeFacts,allAtomicConcepts,allAtomicObjectRoles,m_dlOntology.getAllComplexObjectRoles(),allAtomicDataRoles,m_dlOntology.getAllUnknownDatatypeRestrictions(),m_dlOntology.getDefinedDatatypeIRIs(),allIndividuals,m_dlOntology.hasInverseRoles(),m_dlOntology.hasAtMostRestrictions(),m_dlOntology.hasNominals(),m_dlOntology.hasDatatypes());
-                m_tableau=new Tableau(m_interruptFlag,m_tableau.getTableauMonitor(),m_tableau.getExistentialsExpansionStrategy(),m_configuration.useDisjunctionLearning,m_dlOntology,null,m_configuration.parameters);
+                m_tableau=new Tableau(m_interruptFlag,m_tableau.getTableauMonitor(),m_tableau.getExistentialsExpansionStrategy(),m_tableau.getBranchingHeuristic(),m_dlOntology,null,m_configuration.parameters,m_configuration.numberRestrictionHandlingType==Configuration.NumberRestrictionHandlingType.COUNTING);
                 m_instanceManager=null;
                 m_isConsistent=null;
             }
@@ -536,8 +557,8 @@ public class Reasoner implements OWLReasoner {
             return m_instanceManager!=null && m_instanceManager.sameAsIndividualsComputed();
             // case DIFFERENT_INDIVIDUALS:
             // return false;
-            // case DISJOINT_CLASSES:
-            // return m_atomicConceptHierarchy!=null && m_directDisjointClasses.keySet().size()==m_atomicConceptHierarchy.getAllElements().size()-2;
+        case DISJOINT_CLASSES:
+            return m_atomicConceptHierarchy!=null && m_directDisjointClasses.keySet().size()>=m_atomicConceptHierarchy.getAllNodesSet().size()-2;
         default:
             break;
         }
@@ -545,39 +566,84 @@ public class Reasoner implements OWLReasoner {
     }
     public void precomputeInferences(InferenceType... inferenceTypes) throws ReasonerInterruptedException,TimeOutException,InconsistentOntologyException {
         checkPreConditions();
+        for (InferenceType inferenceType : getPrecomputationOrder(inferenceTypes))
+            precomputeInference(inferenceType);
+    }
+    /**
+     * Starts precomputing the given inferences on a background thread and returns at once. The inferences are computed
+     * in the same order as by precomputeInferences, and the returned object has a future for each inference type that
+     * completes as soon as that type has been computed, so that, for example, the class hierarchy can be used while the
+     * individuals are still being realised. The reasoner is not thread-safe: until the future for an inference type has
+     * completed, the reasoner must not be queried for anything that needs a tableau test, and no further precomputation
+     * must be started before AsynchronousPrecomputation.isDone returns true.
+     *
+     * @param listener
+     *            notified about the progress on the background thread, can be null
+     * @param inferenceTypes
+     *            the inference types that should be precomputed
+     */
+    public AsynchronousPrecomputation precomputeInferencesAsynchronously(AsynchronousPrecomputation.Listener listener,InferenceType... inferenceTypes) {
+        checkPreConditions();
+        AsynchronousPrecomputation precomputation=new AsynchronousPrecomputation(this,listener,getPrecomputationOrder(inferenceTypes));
+        precomputation.start();
+        return precomputation;
+    }
+    protected static List<InferenceType> getPrecomputationOrder(InferenceType... inferenceTypes) {
+        Set<InferenceType> requiredInferences=new HashSet<InferenceType>(Arrays.asList(inferenceTypes));
+        List<InferenceType> result=new ArrayList<InferenceType>();
+        for (InferenceType inferenceType : PRECOMPUTATION_ORDER)
+            if (requiredInferences.contains(inferenceType))
+                result.add(inferenceType);
+        return result;
+    }
+    protected void precomputeInference(InferenceType inferenceType) {
         boolean doAll=m_configuration.prepareReasonerInferences==null;
         // doAll is only false when used via Protege, in that case the Protege preferences apply
-        Set<InferenceType> requiredInferences=new HashSet<InferenceType>(Arrays.asList(inferenceTypes));
-        if (requiredInferences.contains(InferenceType.CLASS_HIERARCHY))
+        switch (inferenceType) {
+        case CLASS_HIERARCHY:
             if (doAll || m_configuration.prepareReasonerInferences.classClassificationRequired)
                 classifyClasses();
-        if (requiredInferences.contains(InferenceType.OBJECT_PROPERTY_HIERARCHY))
+            break;
+        case OBJECT_PROPERTY_HIERARCHY:
             if (doAll || m_configuration.prepareReasonerInferences.objectPropertyClassificationRequired)
                 classifyObjectProperties();
-        if (requiredInferences.contains(InferenceType.DATA_PROPERTY_HIERARCHY))
+            if (!doAll)
+                // Protege shows the domains and ranges of properties, so they are precomputed together if requested
+                precomputePropertyDomainsAndRanges(m_configuration.prepareReasonerInferences.objectPropertyDomainsRequired,m_configuration.prepareReasonerInferences.objectPropertyRangesRequired,false);
+            break;
+        case DATA_PROPERTY_HIERARCHY:
             if (doAll || m_configuration.prepareReasonerInferences.dataPropertyClassificationRequired)
                 classifyDataProperties();
-        if (requiredInferences.contains(InferenceType.CLASS_ASSERTIONS))
+            break;
+        case CLASS_ASSERTIONS:
             if (doAll || m_configuration.prepareReasonerInferences.realisationRequired) {
                 realise();
                 if (m_configuration.individualNodeSetPolicy==IndividualNodeSetPolicy.BY_SAME_AS || (m_configuration.prepareReasonerInferences!=null && m_configuration.prepareReasonerInferences.sameAs))
                     precomputeSameAsEquivalenceClasses();
             }
-        if (requiredInferences.contains(InferenceType.OBJECT_PROPERTY_ASSERTIONS))
+            break;
+        case OBJECT_PROPERTY_ASSERTIONS:
             if (doAll || m_configuration.prepareReasonerInferences.objectPropertyRealisationRequired)
                 realiseObjectProperties();
-        // if (requiredInferences.contains(InferenceType.DATA_PROPERTY_ASSERTIONS))
-        // if (doAll || m_configuration.prepareReasonerInferences.dataPropertyRealisationRequired)
-        // classifyDataProperties(); // used to enriched stated instances
-        if (requiredInferences.contains(InferenceType.SAME_INDIVIDUAL))
+            break;
+            // case DATA_PROPERTY_ASSERTIONS:
+            // if (doAll || m_configuration.prepareReasonerInferences.dataPropertyRealisationRequired)
+            // classifyDataProperties(); // used to enriched stated instances
+        case SAME_INDIVIDUAL:
             if (doAll || m_configuration.prepareReasonerInferences.sameAs)
                 precomputeSameAsEquivalenceClasses();
-        // the tasks is not being supported by HermiT because it would be very slow
-        // we silently ignore the request as the documentation of the method recommends
-        // if (requiredInferences.contains(InferenceType.DIFFERENT_INDIVIDUALS))
-        // throw new UnsupportedOperationException("Error: HermiT cannot precompute different individuals. "+System.getProperty("line.separator")+"That is a very expensive task because all pairs of individuals have to be tested despite the fact that such a test will most likely fail. ");
-        // if (requiredInferences.contains(InferenceType.DISJOINT_CLASSES))
-        // precomputeDisjointClasses();
+            break;
+            // the tasks is not being supported by HermiT because it would be very slow
+            // we silently ignore the request as the documentation of the method recommends
+            // case DIFFERENT_INDIVIDUALS:
+            // throw new UnsupportedOperationException("Error: HermiT cannot precompute different individuals. "+System.getProperty("line.separator")+"That is a very expensive task because all pairs of individuals have to be tested despite the fact that such a test will most likely fail. ");
+        case DISJOINT_CLASSES:
+            if (doAll)
+                precomputeDisjointClasses();
+            break;
+        default:
+            break;
+        }
     }
     protected void initialisePropertiesInstanceManager() {
         if (m_instanceManager==null || !m_instanceManager.arePropertiesInitialised()) {
@@ -689,6 +755,25 @@ public class Reasoner implements OWLReasoner {
         EntailmentChecker checker=new EntailmentChecker(this,getDataFactory());
         return checker.entails(axioms);
     }
+    /**
+     * Checks the entailment of each of the given axioms separately, which is much faster than calling isEntailed for each
+     * axiom on its own; see EntailmentChecker.checkEntailments for how the axioms are batched.
+     *
+     * @param axioms
+     *            the axioms that should be checked for entailment
+     * @return a map that assigns to each of the axioms whether the loaded ontology entails it
+     */
+    public Map<OWLAxiom,Boolean> checkEntailments(Set<? extends OWLAxiom> axioms) {
+        checkPreConditions(axioms.toArray(new OWLObject[0]));
+        if (!isConsistent()) {
+            Map<OWLAxiom,Boolean> result=new HashMap<OWLAxiom,Boolean>();
+            for (OWLAxiom axiom : axioms)
+                result.put(axiom,Boolean.TRUE);
+            return result;
+        }
+        EntailmentChecker checker=new EntailmentChecker(this,getDataFactory());
+        return checker.checkEntailments(axioms);
+    }
 
     // Concept inferences
 
@@ -770,13 +855,8 @@ public class Reasoner implements OWLReasoner {
                 HierarchyNode<AtomicConcept> subconceptNode=m_atomicConceptHierarchy.getNodeForElement(subconcept);
                 return subconceptNode.isEquivalentElement(superconcept) || subconceptNode.isAncestorElement(superconcept);
             }
-            else {
-                Tableau tableau=getTableau();
-                Individual freshIndividual=Individual.createAnonymous("fresh-individual");
-                Atom subconceptAssertion=Atom.create(subconcept,freshIndividual);
-                Atom superconceptAssertion=Atom.create(superconcept,freshIndividual);
-                return !tableau.isSatisfiable(true,Collections.singleton(subconceptAssertion),Collections.singleton(superconceptAssertion),null,null,null,ReasoningTaskDescription.isConceptSubsumedBy(subconcept,superconcept));
-            }
+            else
+                return getModelCache().isSubsumedBy(subconcept,superconcept);
         }
         else {
             OWLDataFactory factory=getDataFactory();
@@ -885,16 +965,17 @@ public class Reasoner implements OWLReasoner {
             return;
         if (m_atomicConceptHierarchy==null || m_directDisjointClasses.keySet().size()<m_atomicConceptHierarchy.getAllNodesSet().size()-2) {
             classifyClasses();
-            Set<HierarchyNode<AtomicConcept>> nodes=new HashSet<HierarchyNode<AtomicConcept>>(m_atomicConceptHierarchy.getAllNodes());
-            nodes.remove(m_atomicConceptHierarchy.getTopNode());
-            nodes.remove(m_atomicConceptHierarchy.getBottomNode());
-            nodes.removeAll(m_directDisjointClasses.keySet());
+            // The disjoint classes of all nodes are computed together so that the pairs decided for one node are reused for the others.
+            DisjointClassification disjointClassification=new DisjointClassification(m_atomicConceptHierarchy,getModelCache(),m_dlOntology.getDLClauses());
+            List<HierarchyNode<AtomicConcept>> nodes=disjointClassification.getNodesTopDown();
             int steps=nodes.size();
             int step=0;
             if (m_configuration.reasonerProgressMonitor!=null)
                 m_configuration.reasonerProgressMonitor.reasonerTaskStarted("Compute disjoint classes");
             for (HierarchyNode<AtomicConcept> node : nodes) {
-                getDisjointConceptNodes(node);
+                Set<HierarchyNode<AtomicConcept>> directDisjoints=disjointClassification.getDirectDisjointNodes(node);
+                if (!m_directDisjointClasses.containsKey(node))
+                    m_directDisjointClasses.put(node,directDisjoints);
                 if (m_configuration.reasonerProgressMonitor!=null)
                     m_configuration.reasonerProgressMonitor.reasonerTaskProgressChanged(++step,steps);
             }
@@ -1106,6 +1187,95 @@ public class Reasoner implements OWLReasoner {
     public Node<OWLObjectPropertyExpression> getEquivalentObjectProperties(OWLObjectPropertyExpression propertyExpression) {
         return objectPropertyHierarchyNodeToNode(getHierarchyNode(propertyExpression));
     }
+    /**
+     * Computes the direct domains and ranges of all object properties and the direct domains of all data properties that
+     * have not been computed yet. If Configuration.numberOfReasoningThreads is larger than one, the properties are divided
+     * among that many threads, each of which runs its tests on a tableau of its own.
+     */
+    public void precomputePropertyDomainsAndRanges() {
+        precomputePropertyDomainsAndRanges(true,true,true);
+    }
+    protected void precomputePropertyDomainsAndRanges(boolean objectPropertyDomains,boolean objectPropertyRanges,boolean dataPropertyDomains) {
+        checkPreConditions();
+        classifyClasses();
+        if (!isConsistent())
+            return;
+        final List<Role> domainRoles=new ArrayList<Role>();
+        final List<Role> rangeRoles=new ArrayList<Role>();
+        final List<AtomicRole> dataDomainRoles=new ArrayList<AtomicRole>();
+        for (AtomicRole atomicRole : m_dlOntology.getAllAtomicObjectRoles())
+            if (!Prefixes.isInternalIRI(atomicRole.getIRI())) {
+                if (objectPropertyDomains && !m_directObjectRoleDomains.containsKey(atomicRole))
+                    domainRoles.add(atomicRole);
+                if (objectPropertyRanges && !m_directObjectRoleRanges.containsKey(atomicRole))
+                    rangeRoles.add(atomicRole);
+            }
+        if (dataPropertyDomains)
+            for (AtomicRole atomicRole : m_dlOntology.getAllAtomicDataRoles())
+                if (!Prefixes.isInternalIRI(atomicRole.getIRI()) && !m_directDataRoleDomains.containsKey(atomicRole))
+                    dataDomainRoles.add(atomicRole);
+        final int numberOfTasks=domainRoles.size()+rangeRoles.size()+dataDomainRoles.size();
+        if (numberOfTasks==0)
+            return;
+        if (m_configuration.reasonerProgressMonitor!=null)
+            m_configuration.reasonerProgressMonitor.reasonerTaskStarted("Compute property domains and ranges");
+        final int numberOfThreads=Math.max(1,Math.min(m_configuration.numberOfReasoningThreads,numberOfTasks));
+        // The tasks are numbered: first the object property domains, then the ranges, then the data property domains.
+        List<Map<Integer,Set<HierarchyNode<AtomicConcept>>>> results;
+        if (numberOfThreads==1) {
+            Map<Integer,Set<HierarchyNode<AtomicConcept>>> result=new HashMap<Integer,Set<HierarchyNode<AtomicConcept>>>();
+            Tableau tableau=getTableau();
+            for (int task=0;task<numberOfTasks;task++) {
+                result.put(Integer.valueOf(task),computeDomainsOrRanges(tableau,task,domainRoles,rangeRoles,dataDomainRoles));
+                if (m_configuration.reasonerProgressMonitor!=null)
+                    m_configuration.reasonerProgressMonitor.reasonerTaskProgressChanged(task+1,numberOfTasks);
+            }
+            results=Collections.singletonList(result);
+        }
+        else {
+            Tableau[] tableaux=createWorkerTableaux(numberOfThreads,null);
+            try {
+                List<Callable<Map<Integer,Set<HierarchyNode<AtomicConcept>>>>> workers=new ArrayList<Callable<Map<Integer,Set<HierarchyNode<AtomicConcept>>>>>();
+                for (int thread=0;thread<numberOfThreads;thread++) {
+                    final int firstTask=thread;
+                    final Tableau tableau=tableaux[thread];
+                    workers.add(new Callable<Map<Integer,Set<HierarchyNode<AtomicConcept>>>>() {
+                        public Map<Integer,Set<HierarchyNode<AtomicConcept>>> call() {
+                            Map<Integer,Set<HierarchyNode<AtomicConcept>>> result=new HashMap<Integer,Set<HierarchyNode<AtomicConcept>>>();
+                            for (int task=firstTask;task<numberOfTasks;task+=numberOfThreads)
+                                result.put(Integer.valueOf(task),computeDomainsOrRanges(tableau,task,domainRoles,rangeRoles,dataDomainRoles));
+                            return result;
+                        }
+                    });
+                }
+                results=Concurrency.runConcurrently(workers);
+            }
+            finally {
+                releaseWorkerTableaux(tableaux);
+            }
+        }
+        for (Map<Integer,Set<HierarchyNode<AtomicConcept>>> result : results)
+            for (Map.Entry<Integer,Set<HierarchyNode<AtomicConcept>>> entry : result.entrySet()) {
+                int task=entry.getKey().intValue();
+                if (task<domainRoles.size())
+                    m_directObjectRoleDomains.put(domainRoles.get(task),entry.getValue());
+                else if (task<domainRoles.size()+rangeRoles.size())
+                    m_directObjectRoleRanges.put(rangeRoles.get(task-domainRoles.size()),entry.getValue());
+                else
+                    m_directDataRoleDomains.put(dataDomainRoles.get(task-domainRoles.size()-rangeRoles.size()),entry.getValue());
+            }
+        if (m_configuration.reasonerProgressMonitor!=null)
+            m_configuration.reasonerProgressMonitor.reasonerTaskStopped();
+    }
+    protected Set<HierarchyNode<AtomicConcept>> computeDomainsOrRanges(Tableau tableau,int task,List<Role> domainRoles,List<Role> rangeRoles,List<AtomicRole> dataDomainRoles) {
+        if (task<domainRoles.size())
+            return DomainRangeSearch.getDirectDomains(tableau,m_atomicConceptHierarchy,domainRoles.get(task));
+        task-=domainRoles.size();
+        if (task<rangeRoles.size())
+            return DomainRangeSearch.getDirectRanges(tableau,m_atomicConceptHierarchy,rangeRoles.get(task));
+        task-=rangeRoles.size();
+        return DomainRangeSearch.getDirectDataDomains(tableau,m_atomicConceptHierarchy,dataDomainRoles.get(task));
+    }
     public NodeSet<OWLClass> getObjectPropertyDomains(OWLObjectPropertyExpression propertyExpression,boolean direct) {
         checkPreConditions(propertyExpression);
         classifyClasses();
@@ -1114,23 +1284,7 @@ public class Reasoner implements OWLReasoner {
         final Role role=H(propertyExpression);
         Set<HierarchyNode<AtomicConcept>> nodes=m_directObjectRoleDomains.get(role);
         if (nodes==null) {
-            final Individual freshIndividualA=Individual.createAnonymous("fresh-individual-A");
-            final Individual freshIndividualB=Individual.createAnonymous("fresh-individual-B");
-            final Set<Atom> roleAssertion=Collections.singleton(role.getRoleAssertion(freshIndividualA,freshIndividualB));
-            final Tableau tableau=getTableau();
-            HierarchySearch.SearchPredicate<HierarchyNode<AtomicConcept>> searchPredicate=new HierarchySearch.SearchPredicate<HierarchyNode<AtomicConcept>>() {
-                public Set<HierarchyNode<AtomicConcept>> getSuccessorElements(HierarchyNode<AtomicConcept> u) {
-                    return u.getChildNodes();
-                }
-                public Set<HierarchyNode<AtomicConcept>> getPredecessorElements(HierarchyNode<AtomicConcept> u) {
-                    return u.getParentNodes();
-                }
-                public boolean trueOf(HierarchyNode<AtomicConcept> u) {
-                    AtomicConcept potentialDomainConcept=u.getRepresentative();
-                    return !tableau.isSatisfiable(false,roleAssertion,Collections.singleton(Atom.create(potentialDomainConcept,freshIndividualA)),null,null,null,ReasoningTaskDescription.isDomainOf(potentialDomainConcept,role));
-                }
-            };
-            nodes=HierarchySearch.search(searchPredicate,Collections.singleton(m_atomicConceptHierarchy.getTopNode()),null);
+            nodes=DomainRangeSearch.getDirectDomains(getTableau(),m_atomicConceptHierarchy,role);
             m_directObjectRoleDomains.put(role,nodes);
         }
         if (!direct)
@@ -1145,23 +1299,7 @@ public class Reasoner implements OWLReasoner {
         final Role role=H(propertyExpression);
         Set<HierarchyNode<AtomicConcept>> nodes=m_directObjectRoleRanges.get(role);
         if (nodes==null) {
-            final Individual freshIndividualA=Individual.createAnonymous("fresh-individual-A");
-            final Individual freshIndividualB=Individual.createAnonymous("fresh-individual-B");
-            final Set<Atom> roleAssertion=Collections.singleton(role.getRoleAssertion(freshIndividualA,freshIndividualB));
-            final Tableau tableau=getTableau();
-            HierarchySearch.SearchPredicate<HierarchyNode<AtomicConcept>> searchPredicate=new HierarchySearch.SearchPredicate<HierarchyNode<AtomicConcept>>() {
-                public Set<HierarchyNode<AtomicConcept>> getSuccessorElements(HierarchyNode<AtomicConcept> u) {
-                    return u.getChildNodes();
-                }
-                public Set<HierarchyNode<AtomicConcept>> getPredecessorElements(HierarchyNode<AtomicConcept> u) {
-                    return u.getParentNodes();
-                }
-                public boolean trueOf(HierarchyNode<AtomicConcept> u) {
-                    AtomicConcept potentialRangeConcept=u.getRepresentative();
-                    return !tableau.isSatisfiable(false,roleAssertion,Collections.singleton(Atom.create(potentialRangeConcept,freshIndividualB)),null,null,null,ReasoningTaskDescription.isRangeOf(potentialRangeConcept,role));
-                }
-            };
-            nodes=HierarchySearch.search(searchPredicate,Collections.singleton(m_atomicConceptHierarchy.getTopNode()),null);
+            nodes=DomainRangeSearch.getDirectRanges(getTableau(),m_atomicConceptHierarchy,role);
             m_directObjectRoleRanges.put(role,nodes);
         }
         if (!direct)
@@ -1481,23 +1619,7 @@ public class Reasoner implements OWLReasoner {
         final AtomicRole atomicRole=H(property);
         Set<HierarchyNode<AtomicConcept>> nodes=m_directDataRoleDomains.get(atomicRole);
         if (nodes==null) {
-            final Individual freshIndividual=Individual.createAnonymous("fresh-individual");
-            final Constant freshConstant=Constant.createAnonymous("fresh-constant");
-            final Set<Atom> roleAssertion=Collections.singleton(atomicRole.getRoleAssertion(freshIndividual,freshConstant));
-            final Tableau tableau=getTableau();
-            HierarchySearch.SearchPredicate<HierarchyNode<AtomicConcept>> searchPredicate=new HierarchySearch.SearchPredicate<HierarchyNode<AtomicConcept>>() {
-                public Set<HierarchyNode<AtomicConcept>> getSuccessorElements(HierarchyNode<AtomicConcept> u) {
-                    return u.getChildNodes();
-                }
-                public Set<HierarchyNode<AtomicConcept>> getPredecessorElements(HierarchyNode<AtomicConcept> u) {
-                    return u.getParentNodes();
-                }
-                public boolean trueOf(HierarchyNode<AtomicConcept> u) {
-                    AtomicConcept potentialDomainConcept=u.getRepresentative();
-                    return !tableau.isSatisfiable(false,roleAssertion,Collections.singleton(Atom.create(potentialDomainConcept,freshIndividual)),null,null,null,ReasoningTaskDescription.isDomainOf(potentialDomainConcept,atomicRole));
-                }
-            };
-            nodes=HierarchySearch.search(searchPredicate,Collections.singleton(m_atomicConceptHierarchy.getTopNode()),null);
+            nodes=DomainRangeSearch.getDirectDataDomains(getTableau(),m_atomicConceptHierarchy,atomicRole);
             m_directDataRoleDomains.put(atomicRole,nodes);
         }
         if (!direct)
@@ -1696,6 +1818,85 @@ public class Reasoner implements OWLReasoner {
         else
             return new OWLNamedIndividualNodeSet(new HashSet<Node<OWLNamedIndividual>>());
     }
+    /**
+     * Returns at most the given number of instances of the class. Only as many possible instances are tested as are
+     * needed to find that many instances, so asking for the first few instances of a class is much cheaper than asking for
+     * all of them; the tested instances are remembered for later queries.
+     *
+     * @param owlClass
+     *            - the class whose instances are retrieved
+     * @param direct
+     *            - if true, only the direct instances are retrieved
+     * @param maximumNumberOfInstances
+     *            - the maximal number of instances that are retrieved
+     */
+    public NodeSet<OWLNamedIndividual> getInstances(OWLClass owlClass,boolean direct,int maximumNumberOfInstances) {
+        if (m_dlOntology.getAllIndividuals().size()>0) {
+            checkPreConditions(owlClass);
+            if (!m_isConsistent) {
+                Node<OWLNamedIndividual> node=new OWLNamedIndividualNode(getAllNamedIndividuals());
+                return new OWLNamedIndividualNodeSet(Collections.singleton(node));
+            }
+            if (direct)
+                classifyClasses();
+            initialiseClassInstanceManager();
+            return sortBySameAsIfNecessary(m_instanceManager.getInstances(H(owlClass),direct,maximumNumberOfInstances));
+        }
+        else
+            return new OWLNamedIndividualNodeSet(new HashSet<Node<OWLNamedIndividual>>());
+    }
+    /**
+     * Returns an iterator over the instances of the class that decides possible instances only as the iteration proceeds:
+     * the known instances come first and possible instances are then tested in small batches, so a client that needs only
+     * one page of instances does not cause all of them to be decided or stored. Unlike getInstances, the iterator returns
+     * individuals and not nodes, regardless of the individual node set policy. The iterator must not be used after the
+     * ontology has changed.
+     *
+     * @param owlClass
+     *            - the class whose instances are retrieved
+     * @param direct
+     *            - if true, only the direct instances are retrieved
+     */
+    public Iterator<OWLNamedIndividual> getInstanceIterator(OWLClass owlClass,boolean direct) {
+        checkPreConditions(owlClass);
+        if (!m_isConsistent)
+            return getAllNamedIndividuals().iterator();
+        if (m_dlOntology.getAllIndividuals().size()==0)
+            return Collections.<OWLNamedIndividual>emptySet().iterator();
+        if (direct)
+            classifyClasses();
+        initialiseClassInstanceManager();
+        return toNamedIndividuals(m_instanceManager.getInstanceIterator(H(owlClass),direct));
+    }
+    /**
+     * Returns an iterator over the values of the object property for the individual. The known values come first and the
+     * possible values are only tested as the iteration proceeds. The iterator must not be used after the ontology has
+     * changed.
+     */
+    public Iterator<OWLNamedIndividual> getObjectPropertyValueIterator(OWLNamedIndividual namedIndividual,OWLObjectProperty property) {
+        checkPreConditions(namedIndividual,property);
+        if (!m_isConsistent)
+            return getAllNamedIndividuals().iterator();
+        AtomicRole role=H(property);
+        if (!m_dlOntology.containsObjectRole(role))
+            return Collections.<OWLNamedIndividual>emptySet().iterator();
+        initialisePropertiesInstanceManager();
+        return toNamedIndividuals(m_instanceManager.getObjectPropertyValueIterator(role,H(namedIndividual)));
+    }
+    protected Iterator<OWLNamedIndividual> toNamedIndividuals(final Iterator<Individual> individuals) {
+        final OWLDataFactory factory=getDataFactory();
+        return new Iterator<OWLNamedIndividual>() {
+            public boolean hasNext() {
+                return individuals.hasNext();
+            }
+            public OWLNamedIndividual next() {
+                return factory.getOWLNamedIndividual(IRI.create(individuals.next().getIRI()));
+            }
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
     public boolean isSameIndividual(OWLNamedIndividual namedIndividual1,OWLNamedIndividual namedIndividual2) {
         checkPreConditions(namedIndividual1,namedIndividual2);
         if (!m_isConsistent)
@@ -1902,6 +2103,16 @@ public class Reasoner implements OWLReasoner {
         m_tableau.clearAdditionalDLOntology();
         return m_tableau;
     }
+    /**
+     * A mostly internal method. Returns the cache of pseudo-models that is used to answer subsumption tests between atomic
+     * concepts before the classes have been classified.
+     */
+    public ModelCache getModelCache() {
+        Tableau tableau=getTableau();
+        if (m_modelCache==null || m_modelCache.getTableau()!=tableau)
+            m_modelCache=new ModelCache(tableau);
+        return m_modelCache;
+    }
 
     /**
      * A mostly internal method. Can be used to retrieve a tableau for axioms in the given ontology manager plus an additional set of axioms.
@@ -1915,15 +2126,93 @@ public class Reasoner implements OWLReasoner {
     public Tableau getTableau(OWLAxiom... additionalAxioms) throws IllegalArgumentException {
         if (additionalAxioms==null || additionalAxioms.length==0)
             return getTableau();
-        else {
-            DLOntology deltaDLOntology=createDeltaDLOntology(m_configuration,m_dlOntology,additionalAxioms);
-            if (m_tableau.supportsAdditionalDLOntology(deltaDLOntology)) {
-                m_tableau.setAdditionalDLOntology(deltaDLOntology);
-                return m_tableau;
-            }
-            else
-                return createTableau(m_interruptFlag,m_configuration,m_dlOntology,deltaDLOntology,m_prefixes);
+        else
+            return getTableau(createDeltaDLOntology(m_configuration,m_dlOntology,additionalAxioms));
+    }
+    /**
+     * A mostly internal method. Returns a tableau for the axioms in the ontology plus a delta DL-ontology created by
+     * createDeltaDLOntology, so that the same additional axioms can be used for several tests without clausifying them
+     * again.
+     */
+    public Tableau getTableau(DLOntology deltaDLOntology) {
+        if (m_tableau.supportsAdditionalDLOntology(deltaDLOntology)) {
+            m_tableau.setAdditionalDLOntology(deltaDLOntology);
+            return m_tableau;
         }
+        else
+            return createTableau(m_interruptFlag,m_configuration,m_dlOntology,deltaDLOntology,m_prefixes);
+    }
+    /**
+     * A mostly internal method. Creates a tableau for the axioms in the ontology plus the given additional axioms that a
+     * worker thread can use concurrently with the tableau of the reasoner. The tableau has an interrupt flag of its own,
+     * which is interrupted together with the reasoner and stays interrupted across tasks, and it must be released with
+     * releaseWorkerTableau. The tableau should be created on the thread that starts the workers, so that an interrupt
+     * arriving before a worker has started is not lost.
+     *
+     * @param additionalAxioms
+     *            - a list of additional axioms that should be included in the tableau
+     * @return a new tableau that is not monitored
+     * @throws IllegalArgumentException
+     *             - if the axioms lead to non-admissible clauses, some configuration parameters are incompatible or other such errors
+     */
+    public Tableau createWorkerTableau(OWLAxiom... additionalAxioms) throws IllegalArgumentException {
+        DLOntology deltaDLOntology=null;
+        if (additionalAxioms!=null && additionalAxioms.length>0)
+            deltaDLOntology=createDeltaDLOntology(m_configuration,m_dlOntology,additionalAxioms);
+        return createWorkerTableau(deltaDLOntology);
+    }
+    /**
+     * A mostly internal method. Creates a worker tableau for the axioms in the ontology plus a delta DL-ontology that has
+     * already been clausified, so that several workers can share the clauses; deltaDLOntology can be null.
+     */
+    protected Tableau createWorkerTableau(DLOntology deltaDLOntology) {
+        Configuration workerConfiguration=m_configuration.clone();
+        workerConfiguration.monitor=null;
+        workerConfiguration.tableauMonitorType=TableauMonitorType.NONE;
+        InterruptFlag interruptFlag=new InterruptFlag(m_configuration.individualTaskTimeout,true);
+        synchronized (m_workerInterruptFlags) {
+            m_workerInterruptFlags.add(interruptFlag);
+        }
+        try {
+            return createTableau(interruptFlag,workerConfiguration,m_dlOntology,deltaDLOntology,m_prefixes);
+        }
+        catch (RuntimeException e) {
+            releaseWorkerInterruptFlag(interruptFlag);
+            throw e;
+        }
+    }
+    /**
+     * A mostly internal method. Creates the given number of worker tableaux for the same delta DL-ontology; if one of
+     * them cannot be created, the ones created so far are released.
+     */
+    protected Tableau[] createWorkerTableaux(int numberOfTableaux,DLOntology deltaDLOntology) {
+        Tableau[] tableaux=new Tableau[numberOfTableaux];
+        try {
+            for (int index=0;index<numberOfTableaux;index++)
+                tableaux[index]=createWorkerTableau(deltaDLOntology);
+        }
+        catch (RuntimeException e) {
+            releaseWorkerTableaux(tableaux);
+            throw e;
+        }
+        return tableaux;
+    }
+    /**
+     * A mostly internal method. Releases a tableau that has been created by createWorkerTableau.
+     */
+    public void releaseWorkerTableau(Tableau tableau) {
+        releaseWorkerInterruptFlag(tableau.getInterruptFlag());
+    }
+    protected void releaseWorkerTableaux(Tableau[] tableaux) {
+        for (Tableau tableau : tableaux)
+            if (tableau!=null)
+                releaseWorkerTableau(tableau);
+    }
+    protected void releaseWorkerInterruptFlag(InterruptFlag interruptFlag) {
+        synchronized (m_workerInterruptFlags) {
+            m_workerInterruptFlags.remove(interruptFlag);
+        }
+        interruptFlag.dispose();
     }
     protected static Tableau createTableau(InterruptFlag interruptFlag,Configuration configuration,DLOntology permanentDLOntology,DLOntology additionalDLOntology,Prefixes prefixes) throws IllegalArgumentException {
         boolean hasInverseRoles=(permanentDLOntology.hasInverseRoles() || (additionalDLOntology!=null && additionalDLOntology.hasInverseRoles()));
@@ -2034,7 +2323,34 @@ public class Reasoner implements OWLReasoner {
             throw new IllegalArgumentException("Unknown expansion strategy type.");
         }
 
-        return new Tableau(interruptFlag,tableauMonitor,existentialsExpansionStrategy,configuration.useDisjunctionLearning,permanentDLOntology,additionalDLOntology,configuration.parameters);
+        BranchingHeuristic branchingHeuristic=null;
+        switch (configuration.branchingHeuristicType) {
+        case STANDARD:
+            branchingHeuristic=new StandardBranchingHeuristic(configuration.useDisjunctionLearning);
+            break;
+        case MOMS:
+            branchingHeuristic=new MOMSBranchingHeuristic(configuration.branchingHeuristicLookahead);
+            break;
+        case ACTIVITY:
+            branchingHeuristic=new ActivityBranchingHeuristic(configuration.branchingHeuristicLookahead);
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown branching heuristic type.");
+        }
+
+        boolean countNumberRestrictions;
+        switch (configuration.numberRestrictionHandlingType) {
+        case EXPANSION:
+            countNumberRestrictions=false;
+            break;
+        case COUNTING:
+            countNumberRestrictions=true;
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown number restriction handling type.");
+        }
+
+        return new Tableau(interruptFlag,tableauMonitor,existentialsExpansionStrategy,branchingHeuristic,permanentDLOntology,additionalDLOntology,configuration.parameters,countNumberRestrictions);
     }
     protected Hierarchy<AtomicConcept> classifyAtomicConcepts(Tableau tableau,ClassificationProgressMonitor progressMonitor,AtomicConcept topElement,AtomicConcept bottomElement,Set<AtomicConcept> elements,boolean forceQuasiOrder) {
         if (tableau.isDeterministic() && !forceQuasiOrder)
@@ -2048,6 +2364,15 @@ public class Reasoner implements OWLReasoner {
         else
             return new QuasiOrderClassificationForRoles(tableau,progressMonitor,topElement,bottomElement,elements,hasInverses,conceptsForRoles,rolesForConcepts).classify();
     }
+    /**
+     * A mostly internal method. Clausifies the given axioms into a delta DL-ontology for getTableau(DLOntology).
+     *
+     * @throws IllegalArgumentException
+     *             - if the axioms lead to non-admissible clauses, some configuration parameters are incompatible or other such errors
+     */
+    public DLOntology createDeltaDLOntology(OWLAxiom... additionalAxioms) throws IllegalArgumentException {
+        return createDeltaDLOntology(m_configuration,m_dlOntology,additionalAxioms);
+    }
     protected DLOntology createDeltaDLOntology(Configuration configuration,DLOntology originalDLOntology,OWLAxiom... additionalAxioms) throws IllegalArgumentException {
         Set<OWLAxiom> additionalAxiomsSet=new HashSet<OWLAxiom>();
         for (OWLAxiom axiom : additionalAxioms) {
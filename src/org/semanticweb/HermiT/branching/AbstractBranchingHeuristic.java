@@ -0,0 +1,93 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+   
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+   
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+   
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.branching;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.semanticweb.HermiT.tableau.GroundDisjunction;
+import org.semanticweb.HermiT.tableau.GroundDisjunctionHeader;
+import org.semanticweb.HermiT.tableau.Tableau;
+
+/**
+ * Provides the common infrastructure for heuristics that look ahead over a bounded number of unprocessed
+ * ground disjunctions and that reorder the disjuncts of a disjunction according to a score.
+ */
+public abstract class AbstractBranchingHeuristic implements BranchingHeuristic,Serializable {
+    private static final long serialVersionUID=-1913275447215931787L;
+
+    protected final int m_lookahead;
+    protected final List<GroundDisjunction> m_candidates;
+    protected Tableau m_tableau;
+
+    public AbstractBranchingHeuristic(int lookahead) {
+        m_lookahead=lookahead;
+        m_candidates=new ArrayList<GroundDisjunction>();
+    }
+    public void initialize(Tableau tableau) {
+        m_tableau=tableau;
+    }
+    public void clear() {
+        m_candidates.clear();
+    }
+    public void disjunctChosen(GroundDisjunction groundDisjunction,int disjunctIndex) {
+    }
+    public void disjunctFailed(GroundDisjunction groundDisjunction,int disjunctIndex) {
+    }
+    public boolean analysesConflicts() {
+        return false;
+    }
+    public void disjunctInvolvedInConflict(GroundDisjunction groundDisjunction,int disjunctIndex) {
+    }
+    public void conflictAnalysed() {
+    }
+    /**
+     * Fills m_candidates with the unprocessed ground disjunctions that are neither pruned nor satisfied, starting
+     * with the given one (which is known to be open) and considering at most m_lookahead disjunctions.
+     */
+    protected void collectCandidates(GroundDisjunction firstUnprocessedGroundDisjunction) {
+        m_candidates.clear();
+        m_candidates.add(firstUnprocessedGroundDisjunction);
+        GroundDisjunction groundDisjunction=firstUnprocessedGroundDisjunction.getPreviousGroundDisjunction();
+        int examined=1;
+        while (groundDisjunction!=null && examined<m_lookahead) {
+            if (!groundDisjunction.isPruned() && !groundDisjunction.isSatisfied(m_tableau))
+                m_candidates.add(groundDisjunction);
+            examined++;
+            groundDisjunction=groundDisjunction.getPreviousGroundDisjunction();
+        }
+    }
+    /**
+     * Stably sorts the given disjunct indexes by descending score without moving any disjunct out of its
+     * partition. The disjunction is typically short, so insertion sort is fine.
+     */
+    protected static void sortWithinPartitions(GroundDisjunctionHeader groundDisjunctionHeader,int[] disjunctIndexes,double[] scores) {
+        for (int index=1;index<disjunctIndexes.length;index++) {
+            int disjunctIndex=disjunctIndexes[index];
+            double score=scores[disjunctIndex];
+            int partition=groundDisjunctionHeader.getPartition(disjunctIndex);
+            int insertAt=index;
+            while (insertAt>0 && groundDisjunctionHeader.getPartition(disjunctIndexes[insertAt-1])==partition && scores[disjunctIndexes[insertAt-1]]<score) {
+                disjunctIndexes[insertAt]=disjunctIndexes[insertAt-1];
+                insertAt--;
+            }
+            disjunctIndexes[insertAt]=disjunctIndex;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+   
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+   
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+   
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.branching;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.semanticweb.HermiT.tableau.GroundDisjunction;
+import org.semanticweb.HermiT.tableau.GroundDisjunctionHeader;
+import org.semanticweb.HermiT.tableau.Tableau;
+
+/**
+ * A conflict-driven heuristic in the spirit of VSIDS. Each ground disjunction header carries an activity
+ * that is bumped whenever a choice for a disjunction with this header takes part in a clash; the bump
+ * grows geometrically so that older conflicts decay relative to newer ones. Among the unprocessed
+ * disjunctions in the lookahead window, the most active one is branched on first, so that the choices
+ * that tend to fail are made (and refuted) early. Disjuncts are ordered by their observed success rate,
+ * i.e., by how often choosing them did not lead to backtracking. All statistics are kept per header and
+ * survive across tests on the same tableau.
+ */
+public class ActivityBranchingHeuristic extends AbstractBranchingHeuristic {
+    private static final long serialVersionUID=-2632398036316467170L;
+    protected static final double DECAY_FACTOR=0.95;
+    protected static final double RESCALE_LIMIT=1e100;
+
+    protected final Map<GroundDisjunctionHeader,HeaderStatistics> m_statistics;
+    protected double m_activityIncrement;
+
+    public ActivityBranchingHeuristic(int lookahead) {
+        super(lookahead);
+        m_statistics=new HashMap<GroundDisjunctionHeader,HeaderStatistics>();
+        m_activityIncrement=1.0;
+    }
+    public void initialize(Tableau tableau) {
+        super.initialize(tableau);
+        // the statistics are keyed by the headers of the previous tableau
+        m_statistics.clear();
+        m_activityIncrement=1.0;
+    }
+    public GroundDisjunction selectGroundDisjunction(GroundDisjunction firstUnprocessedGroundDisjunction) {
+        collectCandidates(firstUnprocessedGroundDisjunction);
+        GroundDisjunction best=firstUnprocessedGroundDisjunction;
+        double bestActivity=getActivity(firstUnprocessedGroundDisjunction.getGroundDisjunctionHeader());
+        for (int index=1;index<m_candidates.size();index++) {
+            GroundDisjunction groundDisjunction=m_candidates.get(index);
+            double activity=getActivity(groundDisjunction.getGroundDisjunctionHeader());
+            if (activity>bestActivity) {
+                best=groundDisjunction;
+                bestActivity=activity;
+            }
+        }
+        return best;
+    }
+    public int[] getDisjunctOrder(GroundDisjunction groundDisjunction) {
+        GroundDisjunctionHeader groundDisjunctionHeader=groundDisjunction.getGroundDisjunctionHeader();
+        int[] disjunctIndexes=groundDisjunctionHeader.getSortedDisjunctIndexes();
+        HeaderStatistics statistics=m_statistics.get(groundDisjunctionHeader);
+        if (statistics!=null) {
+            double[] scores=new double[disjunctIndexes.length];
+            for (int disjunctIndex=0;disjunctIndex<scores.length;disjunctIndex++)
+                scores[disjunctIndex]=statistics.getSuccessRate(disjunctIndex);
+            sortWithinPartitions(groundDisjunctionHeader,disjunctIndexes,scores);
+        }
+        return disjunctIndexes;
+    }
+    public void disjunctChosen(GroundDisjunction groundDisjunction,int disjunctIndex) {
+        getStatistics(groundDisjunction.getGroundDisjunctionHeader()).m_numberOfChoices[disjunctIndex]++;
+    }
+    public void disjunctFailed(GroundDisjunction groundDisjunction,int disjunctIndex) {
+        getStatistics(groundDisjunction.getGroundDisjunctionHeader()).m_numberOfFailures[disjunctIndex]++;
+    }
+    public boolean analysesConflicts() {
+        return true;
+    }
+    public void disjunctInvolvedInConflict(GroundDisjunction groundDisjunction,int disjunctIndex) {
+        HeaderStatistics statistics=getStatistics(groundDisjunction.getGroundDisjunctionHeader());
+        statistics.m_activity+=m_activityIncrement;
+        if (statistics.m_activity>RESCALE_LIMIT) {
+            for (HeaderStatistics headerStatistics : m_statistics.values())
+                headerStatistics.m_activity/=RESCALE_LIMIT;
+            m_activityIncrement/=RESCALE_LIMIT;
+        }
+    }
+    public void conflictAnalysed() {
+        m_activityIncrement/=DECAY_FACTOR;
+    }
+    protected double getActivity(GroundDisjunctionHeader groundDisjunctionHeader) {
+        HeaderStatistics statistics=m_statistics.get(groundDisjunctionHeader);
+        return statistics==null ? 0.0 : statistics.m_activity;
+    }
+    protected HeaderStatistics getStatistics(GroundDisjunctionHeader groundDisjunctionHeader) {
+        HeaderStatistics statistics=m_statistics.get(groundDisjunctionHeader);
+        if (statistics==null) {
+            statistics=new HeaderStatistics(groundDisjunctionHeader.getNumberOfDisjuncts());
+            m_statistics.put(groundDisjunctionHeader,statistics);
+        }
+        return statistics;
+    }
+
+    protected static class HeaderStatistics implements Serializable {
+        private static final long serialVersionUID=4512890932471823517L;
+
+        protected final int[] m_numberOfChoices;
+        protected final int[] m_numberOfFailures;
+        protected double m_activity;
+
+        public HeaderStatistics(int numberOfDisjuncts) {
+            m_numberOfChoices=new int[numberOfDisjuncts];
+            m_numberOfFailures=new int[numberOfDisjuncts];
+        }
+        public double getSuccessRate(int disjunctIndex) {
+            // Laplace smoothing gives untried disjuncts a neutral rate of 1/2
+            return (m_numberOfChoices[disjunctIndex]-m_numberOfFailures[disjunctIndex]+1.0)/(m_numberOfChoices[disjunctIndex]+2.0);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+   
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+   
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+   
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.branching;
+
+import org.semanticweb.HermiT.tableau.GroundDisjunction;
+import org.semanticweb.HermiT.tableau.Tableau;
+
+/**
+ * Branching heuristics decide which of the unprocessed ground disjunctions is branched on next and
+ * in which order its disjuncts are tried. The tableau informs the heuristic about every disjunct
+ * that is chosen and about every disjunct that failed, i.e., that led to a clash and caused
+ * backtracking. Heuristics that analyse conflicts are additionally told about all disjunction
+ * choices that a clash depends on. Statistics that a heuristic keeps per ground disjunction header
+ * survive the clear() call and are thus retained across tests on the same tableau.
+ */
+public interface BranchingHeuristic {
+    void initialize(Tableau tableau);
+    void clear();
+    /**
+     * Selects the ground disjunction that is to be processed next. The given disjunction is the oldest
+     * unprocessed disjunction and it is known to be neither pruned nor satisfied. The result must be either
+     * this disjunction or a disjunction that is reachable from it via getPreviousGroundDisjunction() and
+     * that is also neither pruned nor satisfied.
+     */
+    GroundDisjunction selectGroundDisjunction(GroundDisjunction firstUnprocessedGroundDisjunction);
+    int[] getDisjunctOrder(GroundDisjunction groundDisjunction);
+    void disjunctChosen(GroundDisjunction groundDisjunction,int disjunctIndex);
+    void disjunctFailed(GroundDisjunction groundDisjunction,int disjunctIndex);
+    boolean analysesConflicts();
+    void disjunctInvolvedInConflict(GroundDisjunction groundDisjunction,int disjunctIndex);
+    void conflictAnalysed();
+}
@@ -0,0 +1,97 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+   
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+   
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+   
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.branching;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.semanticweb.HermiT.model.DLPredicate;
+import org.semanticweb.HermiT.tableau.GroundDisjunction;
+import org.semanticweb.HermiT.tableau.GroundDisjunctionHeader;
+
+/**
+ * A heuristic in the style of MOMS (maximum occurrences in disjunctions of minimum size). Among the
+ * unprocessed ground disjunctions in the lookahead window, the shortest ones are preferred since they
+ * constrain the model the most; ties are broken in favour of the disjunction whose disjuncts occur most
+ * often in the other shortest disjunctions. Disjuncts are then tried in the order of their number of
+ * occurrences, since choosing a frequently occurring disjunct satisfies many pending disjunctions at once.
+ */
+public class MOMSBranchingHeuristic extends AbstractBranchingHeuristic {
+    private static final long serialVersionUID=6017420783021547719L;
+
+    protected final Map<DLPredicate,int[]> m_occurrences;
+
+    public MOMSBranchingHeuristic(int lookahead) {
+        super(lookahead);
+        m_occurrences=new HashMap<DLPredicate,int[]>();
+    }
+    public void clear() {
+        super.clear();
+        m_occurrences.clear();
+    }
+    public GroundDisjunction selectGroundDisjunction(GroundDisjunction firstUnprocessedGroundDisjunction) {
+        collectCandidates(firstUnprocessedGroundDisjunction);
+        m_occurrences.clear();
+        if (m_candidates.size()==1)
+            return firstUnprocessedGroundDisjunction;
+        int minimumSize=Integer.MAX_VALUE;
+        for (int index=0;index<m_candidates.size();index++)
+            minimumSize=Math.min(minimumSize,m_candidates.get(index).getNumberOfDisjuncts());
+        for (int index=0;index<m_candidates.size();index++) {
+            GroundDisjunction groundDisjunction=m_candidates.get(index);
+            if (groundDisjunction.getNumberOfDisjuncts()==minimumSize)
+                for (int disjunctIndex=0;disjunctIndex<minimumSize;disjunctIndex++) {
+                    DLPredicate dlPredicate=groundDisjunction.getDLPredicate(disjunctIndex);
+                    int[] count=m_occurrences.get(dlPredicate);
+                    if (count==null) {
+                        count=new int[1];
+                        m_occurrences.put(dlPredicate,count);
+                    }
+                    count[0]++;
+                }
+        }
+        GroundDisjunction best=null;
+        int bestScore=-1;
+        for (int index=0;index<m_candidates.size();index++) {
+            GroundDisjunction groundDisjunction=m_candidates.get(index);
+            if (groundDisjunction.getNumberOfDisjuncts()==minimumSize) {
+                int score=0;
+                for (int disjunctIndex=0;disjunctIndex<minimumSize;disjunctIndex++)
+                    score+=m_occurrences.get(groundDisjunction.getDLPredicate(disjunctIndex))[0];
+                if (score>bestScore) {
+                    best=groundDisjunction;
+                    bestScore=score;
+                }
+            }
+        }
+        return best;
+    }
+    public int[] getDisjunctOrder(GroundDisjunction groundDisjunction) {
+        GroundDisjunctionHeader groundDisjunctionHeader=groundDisjunction.getGroundDisjunctionHeader();
+        int[] disjunctIndexes=groundDisjunctionHeader.getSortedDisjunctIndexes();
+        if (!m_occurrences.isEmpty()) {
+            double[] scores=new double[disjunctIndexes.length];
+            for (int disjunctIndex=0;disjunctIndex<scores.length;disjunctIndex++) {
+                int[] count=m_occurrences.get(groundDisjunction.getDLPredicate(disjunctIndex));
+                scores[disjunctIndex]=(count==null ? 0 : count[0]);
+            }
+            sortWithinPartitions(groundDisjunctionHeader,disjunctIndexes,scores);
+        }
+        return disjunctIndexes;
+    }
+}
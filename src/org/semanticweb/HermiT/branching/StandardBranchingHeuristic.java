@@ -0,0 +1,61 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+   
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+   
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+   
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.branching;
+
+import java.io.Serializable;
+
+import org.semanticweb.HermiT.tableau.GroundDisjunction;
+import org.semanticweb.HermiT.tableau.Tableau;
+
+/**
+ * Processes the ground disjunctions in the order in which they were derived and tries the disjuncts in
+ * the order given by the ground disjunction header. If disjunction learning is switched on, the header
+ * counts how often each disjunct caused backtracking and moves frequently failing disjuncts to the back.
+ */
+public class StandardBranchingHeuristic implements BranchingHeuristic,Serializable {
+    private static final long serialVersionUID=-3497420432165466151L;
+
+    protected final boolean m_useDisjunctionLearning;
+
+    public StandardBranchingHeuristic(boolean useDisjunctionLearning) {
+        m_useDisjunctionLearning=useDisjunctionLearning;
+    }
+    public void initialize(Tableau tableau) {
+    }
+    public void clear() {
+    }
+    public GroundDisjunction selectGroundDisjunction(GroundDisjunction firstUnprocessedGroundDisjunction) {
+        return firstUnprocessedGroundDisjunction;
+    }
+    public int[] getDisjunctOrder(GroundDisjunction groundDisjunction) {
+        return groundDisjunction.getGroundDisjunctionHeader().getSortedDisjunctIndexes();
+    }
+    public void disjunctChosen(GroundDisjunction groundDisjunction,int disjunctIndex) {
+    }
+    public void disjunctFailed(GroundDisjunction groundDisjunction,int disjunctIndex) {
+        if (m_useDisjunctionLearning)
+            groundDisjunction.getGroundDisjunctionHeader().increaseNumberOfBacktrackings(disjunctIndex);
+    }
+    public boolean analysesConflicts() {
+        return false;
+    }
+    public void disjunctInvolvedInConflict(GroundDisjunction groundDisjunction,int disjunctIndex) {
+    }
+    public void conflictAnalysed() {
+    }
+}
@@ -21,20 +21,28 @@ import gnu.getopt.Getopt;
 import gnu.getopt.LongOpt;
 
 import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.FileReader;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.net.URI;
 import java.text.BreakIterator;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.semanticweb.HermiT.Concurrency;
 import org.semanticweb.HermiT.Configuration;
 import org.semanticweb.HermiT.EntailmentChecker;
 import org.semanticweb.HermiT.Prefixes;
@@ -327,6 +335,219 @@ public class CommandLine {
         }
     }
 
+    protected static class OntologyResult {
+        protected final IRI m_ontologyIRI;
+        protected String m_outputFile;
+        protected String m_error;
+        protected boolean m_completed;
+        protected long m_parseTime=-1;
+        protected long m_loadTime=-1;
+        protected long m_actionsTime=-1;
+        protected long m_usedMemory=-1;
+
+        public OntologyResult(IRI ontologyIRI) {
+            m_ontologyIRI=ontologyIRI;
+        }
+        public String getStatus() {
+            if (m_error!=null)
+                return "error";
+            else if (m_completed)
+                return "ok";
+            else
+                return "not-processed";
+        }
+    }
+
+    /**
+     * Loads the ontology, creates a reasoner for it, and runs the actions; the timings are recorded in result.
+     */
+    protected static void processOntology(IRI ont,Configuration config,Collection<Action> actions,StatusOutput status,PrintWriter output,boolean ignoreOntologyPrefixes,String defaultPrefix,Map<String,String> prefixMappings,OntologyResult result) throws OWLOntologyCreationException {
+        status.log(2,"Processing "+ont.toString());
+        status.log(2,String.valueOf(actions.size())+" actions");
+        long startTime=System.currentTimeMillis();
+        OWLOntologyManager ontologyManager=OWLManager.createOWLOntologyManager();
+        if (ont.isAbsolute()) {
+            URI uri=URI.create(ont.getStart());
+            String scheme = uri.getScheme();
+            if (scheme!=null && scheme.equalsIgnoreCase("file")) {
+                File file=new File(URI.create(ont.getStart()));
+                if (file.isDirectory()) {
+                    OWLOntologyIRIMapper mapper=new AutoIRIMapper(file, false);
+                    ontologyManager.addIRIMapper(mapper);
+                }
+            }
+        }
+        OWLOntology ontology=ontologyManager.loadOntology(ont);
+        result.m_parseTime=System.currentTimeMillis()-startTime;
+        status.log(2,"Ontology parsed in "+String.valueOf(result.m_parseTime)+" msec.");
+        startTime=System.currentTimeMillis();
+        Reasoner hermit=new Reasoner(config,ontology);
+        try {
+            Prefixes prefixes=hermit.getPrefixes();
+            if (defaultPrefix!=null) {
+                try {
+                    prefixes.declareDefaultPrefix(defaultPrefix);
+                }
+                catch (IllegalArgumentException e) {
+                    status.log(2,"Default prefix "+defaultPrefix+" could not be registered because there is already a registered default prefix. ");
+                }
+            }
+            for (String prefixName : prefixMappings.keySet()) {
+                try {
+                    prefixes.declarePrefix(prefixName, prefixMappings.get(prefixName));
+                }
+                catch (IllegalArgumentException e) {
+                    status.log(2,"Prefixname "+prefixName+" could not be set to "+prefixMappings.get(prefixName)+" because there is already a registered prefix name for the IRI. ");
+                }
+            }
+            result.m_loadTime=System.currentTimeMillis()-startTime;
+            status.log(2,"Reasoner created in "+String.valueOf(result.m_loadTime)+" msec.");
+            result.m_actionsTime=0;
+            for (Action action : actions) {
+                status.log(2,"Doing action...");
+                startTime=System.currentTimeMillis();
+                action.run(hermit,status,output,ignoreOntologyPrefixes);
+                long actionTime=System.currentTimeMillis()-startTime;
+                result.m_actionsTime+=actionTime;
+                status.log(2,"...action completed in "+String.valueOf(actionTime)+" msec.");
+            }
+            Runtime runtime=Runtime.getRuntime();
+            result.m_usedMemory=runtime.totalMemory()-runtime.freeMemory();
+            result.m_completed=true;
+        }
+        finally {
+            hermit.dispose();
+        }
+    }
+
+    /**
+     * Reads the ontology IRIs from a manifest file; relative IRIs are resolved against base.
+     */
+    protected static List<IRI> readManifest(String manifestFile,URI base) {
+        List<IRI> ontologies=new ArrayList<IRI>();
+        try {
+            BufferedReader reader=new BufferedReader(new FileReader(manifestFile));
+            try {
+                String line;
+                while ((line=reader.readLine())!=null) {
+                    line=line.trim();
+                    if (line.length()>0 && !line.startsWith("#")) {
+                        try {
+                            ontologies.add(IRI.create(base.resolve(line)));
+                        }
+                        catch (IllegalArgumentException e) {
+                            throw new UsageException(line+" in the manifest "+manifestFile+" is not a valid ontology name");
+                        }
+                    }
+                }
+            }
+            finally {
+                reader.close();
+            }
+        }
+        catch (IOException e) {
+            throw new IllegalArgumentException("unable to read the manifest "+manifestFile+": "+e.getMessage());
+        }
+        return ontologies;
+    }
+
+    /**
+     * Processes the ontologies of the results with the given number of workers, all in this JVM. Each worker takes the
+     * next ontology that has not been processed yet, so large ontologies do not hold up the others. The output for an
+     * ontology is written to a file of its own if outputDirectory is not null; otherwise, it is collected and then
+     * written to output in one piece. Any failure, including errors such as running out of memory, is recorded in the
+     * result for the ontology and does not stop the batch.
+     */
+    protected static void processBatch(final List<OntologyResult> results,int numberOfWorkers,final File outputDirectory,final Configuration config,final Collection<Action> actions,final StatusOutput status,final PrintWriter output,final boolean ignoreOntologyPrefixes,final String defaultPrefix,final Map<String,String> prefixMappings) {
+        final AtomicInteger nextOntology=new AtomicInteger();
+        List<Callable<Object>> workers=new ArrayList<Callable<Object>>();
+        for (int worker=0;worker<Math.min(numberOfWorkers,results.size());worker++)
+            workers.add(new Callable<Object>() {
+                public Object call() {
+                    int index;
+                    while ((index=nextOntology.getAndIncrement())<results.size()) {
+                        OntologyResult result=results.get(index);
+                        // the monitors are not thread-safe, so each reasoner gets a configuration of its own
+                        Configuration ontologyConfig=config.clone();
+                        if (config.monitor!=null)
+                            ontologyConfig.monitor=new Timer(new PrintWriter(System.err));
+                        StringWriter buffer=null;
+                        PrintWriter ontologyOutput;
+                        try {
+                            if (outputDirectory!=null) {
+                                File file=new File(outputDirectory,getOutputFileName(index,result.m_ontologyIRI));
+                                result.m_outputFile=file.getPath();
+                                ontologyOutput=new PrintWriter(new BufferedOutputStream(new FileOutputStream(file)));
+                            }
+                            else {
+                                buffer=new StringWriter();
+                                ontologyOutput=new PrintWriter(buffer);
+                            }
+                        }
+                        catch (FileNotFoundException e) {
+                            result.m_error="unable to open the output file: "+e.getMessage();
+                            status.log(0,"Error for "+result.m_ontologyIRI+": "+result.m_error);
+                            continue;
+                        }
+                        try {
+                            processOntology(result.m_ontologyIRI,ontologyConfig,actions,status,ontologyOutput,ignoreOntologyPrefixes,defaultPrefix,prefixMappings,result);
+                        }
+                        catch (Throwable e) {
+                            result.m_error=e.getClass().getSimpleName()+": "+e.getMessage();
+                            status.log(0,"Error for "+result.m_ontologyIRI+": "+result.m_error);
+                        }
+                        finally {
+                            ontologyOutput.close();
+                        }
+                        if (buffer!=null) {
+                            synchronized (output) {
+                                output.print(buffer.toString());
+                                output.flush();
+                            }
+                        }
+                        status.log(1,"Processed "+result.m_ontologyIRI+(result.m_error==null ? "" : " with errors"));
+                    }
+                    return null;
+                }
+            });
+        if (!workers.isEmpty())
+            Concurrency.runConcurrently(workers);
+    }
+    protected static String getOutputFileName(int index,IRI ontologyIRI) {
+        String name=ontologyIRI.toString();
+        int slash=name.lastIndexOf('/',name.endsWith("/") ? name.length()-2 : name.length()-1);
+        name=name.substring(slash+1).replaceAll("[^A-Za-z0-9._-]","_");
+        return String.valueOf(index+1)+"-"+name+".txt";
+    }
+    /**
+     * Writes one tab-separated line per ontology: the IRI, ok, error, or not-processed, the parsing, reasoner creation,
+     * and action times in milliseconds, the heap in use in bytes after the actions, the output file, and the error
+     * message; -1 stands for a time that has not been measured. The heap is shared by all workers, so the memory figure
+     * includes the ontologies processed at the same time.
+     */
+    protected static void writeSummary(String summaryFile,List<OntologyResult> results) {
+        PrintWriter summary;
+        try {
+            summary=new PrintWriter(new BufferedOutputStream(new FileOutputStream(summaryFile)));
+        }
+        catch (FileNotFoundException e) {
+            throw new IllegalArgumentException("unable to open "+summaryFile+" for writing");
+        }
+        try {
+            summary.println("ontology\tstatus\tparse-ms\tload-ms\tactions-ms\tused-memory-bytes\toutput\terror");
+            for (OntologyResult result : results) {
+                summary.print(result.m_ontologyIRI);
+                summary.print("\t"+result.getStatus());
+                summary.print("\t"+result.m_parseTime+"\t"+result.m_loadTime+"\t"+result.m_actionsTime+"\t"+result.m_usedMemory);
+                summary.print("\t"+(result.m_outputFile==null ? "" : result.m_outputFile));
+                summary.println("\t"+(result.m_error==null ? "" : result.m_error.replaceAll("\\s+"," ")));
+            }
+        }
+        finally {
+            summary.close();
+        }
+    }
+
     protected static final int
         kTime=1000,
         kDumpClauses=1001,
@@ -342,7 +563,11 @@ public class CommandLine {
         kTaxonomy=1011,
         kIgnoreUnsupportedDatatypes=1012,
         kPremise=1013,
-        kConclusion=1014;
+        kConclusion=1014,
+        kManifest=1015,
+        kWorkers=1016,
+        kOutputDirectory=1017,
+        kSummary=1018;
 
     protected static final String versionString;
     static {
@@ -358,6 +583,8 @@ public class CommandLine {
         "    (prints direct subclasses of owl:Thing within the pizza ontology)",
         "Example: java -jar Hermit.jar --premise=http://km.aifb.uni-karlsruhe.de/projects/owltests/index.php/Special:GetOntology/New-Feature-DisjointObjectProperties-002?m=p --conclusion=http://km.aifb.uni-karlsruhe.de/projects/owltests/index.php/Special:GetOntology/New-Feature-DisjointObjectProperties-002?m=c --checkEntailment",
         "    (checks whether the conclusion ontology is entailed by the premise ontology)",
+        "Example: java -jar Hermit.jar -c --manifest=ontologies.txt --workers=4 --outputDir=taxonomies --summary=summary.tsv",
+        "    (classifies the ontologies listed in ontologies.txt, four at a time, and writes each taxonomy and a summary)",
         "",
         "Both relative and absolute ontology IRIs can be used. Relative IRIs",
         "are resolved with respect to the current directory (i.e. local file",
@@ -384,6 +611,7 @@ public class CommandLine {
         kActions="Actions",
         kParsing="Parsing and loading",
         kPrefixes="Prefix name and IRI",
+        kBatch="Batch processing",
         kAlgorithm="Algorithm settings (expert users only!)",
         kInternals="Internals and debugging (unstable)";
 
@@ -416,6 +644,12 @@ public class CommandLine {
         new Option('p',"prefix",kPrefixes,true,"PN=IRI","use PN as an abbreviation for IRI in identifiers"),
         new Option(kDefaultPrefix,"prefix",kPrefixes,true,"IRI","use IRI as the default identifier prefix"),
 
+        // batch processing:
+        new Option(kManifest,"manifest",kBatch,true,"FILE","process the ontologies listed in FILE, one IRI per line; empty lines and lines starting with '#' are ignored"),
+        new Option(kWorkers,"workers",kBatch,true,"N","process N ontologies in parallel within this JVM (default 1)"),
+        new Option(kOutputDirectory,"outputDir",kBatch,true,"DIR","write the output for each ontology to a file of its own in DIR"),
+        new Option(kSummary,"summary",kBatch,true,"FILE","write a tab-separated summary with the status, timings, and memory use for each ontology to FILE"),
+
         // algorithm tweaks:
         new Option(kDirectBlock,"block-match",kAlgorithm,true,"TYPE","identify blocked nodes with TYPE blocking; supported values are 'single', 'pairwise', and 'optimal' (default 'optimal')"),
         new Option(kBlockStrategy,"block-strategy",kAlgorithm,true,"TYPE","use TYPE as blocking strategy; supported values are 'ancestor', 'anywhere', 'core', and 'optimal' (default 'optimal')"),
@@ -451,6 +685,10 @@ public class CommandLine {
                 throw new RuntimeException("unable to create default IRI base");
             }
             Collection<IRI> ontologies=new LinkedList<IRI>();
+            String manifestFile=null;
+            int numberOfWorkers=1;
+            File outputDirectory=null;
+            String summaryFile=null;
             boolean didSomething=false;
             {
                 Getopt g=new Getopt("java-jar Hermit.jar",argv,Option.formatOptionsString(options),Option.createLongOpts(options));
@@ -643,6 +881,34 @@ public class CommandLine {
                     }
                         break;
 
+                    case kManifest: {
+                        manifestFile=g.getOptarg();
+                    }
+                        break;
+                    case kWorkers: {
+                        String arg=g.getOptarg();
+                        try {
+                            numberOfWorkers=Integer.parseInt(arg,10);
+                        }
+                        catch (NumberFormatException e) {
+                            throw new UsageException("argument to --workers must be a number");
+                        }
+                        if (numberOfWorkers<1)
+                            throw new UsageException("argument to --workers must be at least 1");
+                    }
+                        break;
+                    case kOutputDirectory: {
+                        String arg=g.getOptarg();
+                        outputDirectory=new File(arg).getAbsoluteFile();
+                        if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs())
+                            throw new IllegalArgumentException("unable to create the output directory "+arg);
+                    }
+                        break;
+                    case kSummary: {
+                        summaryFile=g.getOptarg();
+                    }
+                        break;
+
                     case kDirectBlock: {
                         String arg=g.getOptarg();
                         if (arg.toLowerCase().equals("pairwise")) {
@@ -719,71 +985,39 @@ public class CommandLine {
                         throw new UsageException(argv[i]+" is not a valid ontology name");
                     }
                 }
+                if (manifestFile!=null)
+                    ontologies.addAll(readManifest(manifestFile,base));
             } // done processing arguments
             StatusOutput status=new StatusOutput(verbosity);
             if (verbosity>3)
                 config.monitor=new Timer(new PrintWriter(System.err));
             if (classifyClasses || classifyOPs || classifyDPs)
                 actions.add(new ClassifyAction(classifyClasses, classifyOPs, classifyDPs, prettyPrint, resultsFileLocation));
-            for (IRI ont : ontologies) {
-                didSomething=true;
-                status.log(2,"Processing "+ont.toString());
-                status.log(2,String.valueOf(actions.size())+" actions");
+            if (numberOfWorkers>1 || outputDirectory!=null || summaryFile!=null) {
+                didSomething=!ontologies.isEmpty();
+                List<OntologyResult> results=new ArrayList<OntologyResult>();
+                for (IRI ont : ontologies)
+                    results.add(new OntologyResult(ont));
                 try {
-                    long startTime=System.currentTimeMillis();
-                    OWLOntologyManager ontologyManager=OWLManager.createOWLOntologyManager();
-                    if (ont.isAbsolute()) {
-                        URI uri=URI.create(ont.getStart());
-                        String scheme = uri.getScheme();
-                        if (scheme!=null && scheme.equalsIgnoreCase("file")) {
-                            File file=new File(URI.create(ont.getStart()));
-                            if (file.isDirectory()) {
-                                OWLOntologyIRIMapper mapper=new AutoIRIMapper(file, false);
-                                ontologyManager.addIRIMapper(mapper);
-                            }
-                        }
-                    }
-                    OWLOntology ontology=ontologyManager.loadOntology(ont);
-//                    if (!ignoreOntologyPrefixes) {
-//                        SimpleRenderer renderer=new SimpleRenderer();
-//                        renderer.setPrefixesFromOntologyFormat(ontology, ontologyManager, true);
-//                        ToStringRenderer.getInstance().setRenderer(renderer);
-//                    }
-                    long parseTime=System.currentTimeMillis()-startTime;
-                    status.log(2,"Ontology parsed in "+String.valueOf(parseTime)+" msec.");
-                    startTime=System.currentTimeMillis();
-                    Reasoner hermit=new Reasoner(config,ontology);
-                    Prefixes prefixes=hermit.getPrefixes();
-                    if (defaultPrefix!=null) {
-                        try {
-                            prefixes.declareDefaultPrefix(defaultPrefix);
-                        }
-                        catch (IllegalArgumentException e) {
-                            status.log(2,"Default prefix "+defaultPrefix+" could not be registered because there is already a registered default prefix. ");
-                        }
-                    }
-                    for (String prefixName : prefixMappings.keySet()) {
-                        try {
-                            prefixes.declarePrefix(prefixName, prefixMappings.get(prefixName));
-                        }
-                        catch (IllegalArgumentException e) {
-                            status.log(2,"Prefixname "+prefixName+" could not be set to "+prefixMappings.get(prefixName)+" because there is already a registered prefix name for the IRI. ");
-                        }
+                    processBatch(results,numberOfWorkers,outputDirectory,config,actions,status,output,ignoreOntologyPrefixes,defaultPrefix,prefixMappings);
+                }
+                finally {
+                    // the ontologies processed so far are reported even if the batch has been aborted
+                    if (summaryFile!=null)
+                        writeSummary(summaryFile,results);
+                }
+            }
+            else {
+                for (IRI ont : ontologies) {
+                    didSomething=true;
+                    try {
+                        processOntology(ont,config,actions,status,output,ignoreOntologyPrefixes,defaultPrefix,prefixMappings,new OntologyResult(ont));
                     }
-                    long loadTime=System.currentTimeMillis()-startTime;
-                    status.log(2,"Reasoner created in "+String.valueOf(loadTime)+" msec.");
-                    for (Action action : actions) {
-                        status.log(2,"Doing action...");
-                        startTime=System.currentTimeMillis();
-                        action.run(hermit,status,output,ignoreOntologyPrefixes);
-                        long actionTime=System.currentTimeMillis()-startTime;
-                        status.log(2,"...action completed in "+String.valueOf(actionTime)+" msec.");
+                    catch (org.semanticweb.owlapi.model.OWLException e) {
+                        System.err.println("It all went pear-shaped: "+e.getMessage());
+                        e.printStackTrace(System.err);
                     }
                 }
-                catch (org.semanticweb.owlapi.model.OWLException e) {
-                    System.err.println("It all went pear-shaped: "+e.getMessage());
-                    e.printStackTrace(System.err);
-                }
             }
             if (!didSomething)
                 throw new UsageException("No ontologies given.");
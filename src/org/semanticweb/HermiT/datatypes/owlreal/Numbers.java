@@ -96,6 +96,12 @@ public class Numbers {
         return new BigRational(numerator,denominator);
     }
     public static int compare(Number n1,Number n2) {
+        // Fast path for the common case of numbers that fit into a long.
+        if ((n1 instanceof Integer || n1 instanceof Long) && (n2 instanceof Integer || n2 instanceof Long)) {
+            long lv1=n1.longValue();
+            long lv2=n2.longValue();
+            return lv1<lv2 ? -1 : (lv1==lv2 ? 0 : 1);
+        }
         if (n1.equals(n2))
             return 0;
         else if (n1.equals(MinusInfinity.INSTANCE) || n2.equals(PlusInfinity.INSTANCE))
@@ -158,7 +158,16 @@ public class OWLRealDatatypeHandler implements DatatypeHandler {
             OWLRealValueSpaceSubset realSubset=(OWLRealValueSpaceSubset)valueSpaceSubset;
             List<NumberInterval> oldIntervals=realSubset.m_intervals;
             List<NumberInterval> newIntervals=new ArrayList<NumberInterval>();
-            for (int index=0;index<oldIntervals.size();index++) {
+            int firstIndex=0;
+            int lastIndex=oldIntervals.size()-1;
+            if (realSubset.m_intervalsDisjoint && !oldIntervals.isEmpty()) {
+                // Only the intervals between the bounds of the new interval can intersect it.
+                if (!MinusInfinity.INSTANCE.equals(interval.m_lowerBound))
+                    firstIndex=Math.max(0,realSubset.getLastIntervalStartingAtOrBefore(interval.m_lowerBound)-1);
+                if (!PlusInfinity.INSTANCE.equals(interval.m_upperBound))
+                    lastIndex=realSubset.getLastIntervalStartingAtOrBefore(interval.m_upperBound);
+            }
+            for (int index=firstIndex;index<=lastIndex;index++) {
                 NumberInterval oldInterval=oldIntervals.get(index);
                 NumberInterval intersection=oldInterval.intersectWith(interval);
                 if (intersection!=null)
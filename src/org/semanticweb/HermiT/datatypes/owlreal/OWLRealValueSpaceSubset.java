@@ -19,21 +19,53 @@ package org.semanticweb.HermiT.datatypes.owlreal;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 import org.semanticweb.HermiT.datatypes.ValueSpaceSubset;
 
+/**
+ * A subset of the value space of owl:real represented as a list of intervals. The intervals are sorted by their lower
+ * bounds; if they furthermore do not overlap, which is the case for all subsets produced by the datatype handler,
+ * membership is checked by binary search.
+ */
 public class OWLRealValueSpaceSubset implements ValueSpaceSubset {
+    protected static final Comparator<NumberInterval> LOWER_BOUND_COMPARATOR=new Comparator<NumberInterval>() {
+        public int compare(NumberInterval interval1,NumberInterval interval2) {
+            int comparison=Numbers.compare(interval1.m_lowerBound,interval2.m_lowerBound);
+            if (comparison!=0)
+                return comparison;
+            else
+                return interval1.m_lowerBoundType.compareTo(interval2.m_lowerBoundType);
+        }
+    };
+
     protected final List<NumberInterval> m_intervals;
+    protected final boolean m_intervalsDisjoint;
     
     public OWLRealValueSpaceSubset() {
         m_intervals=Collections.emptyList();
+        m_intervalsDisjoint=true;
     }
     public OWLRealValueSpaceSubset(NumberInterval interval) {
         m_intervals=Collections.singletonList(interval);
+        m_intervalsDisjoint=true;
     }
     public OWLRealValueSpaceSubset(List<NumberInterval> intervals) {
+        if (intervals.size()>1)
+            Collections.sort(intervals,LOWER_BOUND_COMPARATOR);
         m_intervals=intervals;
+        m_intervalsDisjoint=areSortedIntervalsDisjoint(intervals);
+    }
+    protected static boolean areSortedIntervalsDisjoint(List<NumberInterval> intervals) {
+        for (int index=intervals.size()-1;index>=1;--index) {
+            NumberInterval previous=intervals.get(index-1);
+            NumberInterval next=intervals.get(index);
+            int comparison=Numbers.compare(previous.m_upperBound,next.m_lowerBound);
+            if (comparison>0 || (comparison==0 && previous.m_upperBoundType==BoundType.INCLUSIVE && next.m_lowerBoundType==BoundType.INCLUSIVE))
+                return false;
+        }
+        return true;
     }
     public boolean hasCardinalityAtLeast(int number) {
         int left=number;
@@ -45,6 +77,12 @@ public class OWLRealValueSpaceSubset implements ValueSpaceSubset {
         if (dataValue instanceof Number) {
             Number number=(Number)dataValue;
             if (Numbers.isValidNumber(number)) {
+                if (m_intervalsDisjoint) {
+                    // Only the last interval that starts at or before the number can contain it, or the interval before
+                    // that one if the number is the excluded lower bound of the last one.
+                    int index=getLastIntervalStartingAtOrBefore(number);
+                    return (index>=0 && m_intervals.get(index).containsNumber(number)) || (index>=1 && m_intervals.get(index-1).containsNumber(number));
+                }
                 for (int index=m_intervals.size()-1;index>=0;--index)
                     if (m_intervals.get(index).containsNumber(number))
                         return true;
@@ -52,6 +90,18 @@ public class OWLRealValueSpaceSubset implements ValueSpaceSubset {
         }
         return false;
     }
+    protected int getLastIntervalStartingAtOrBefore(Number number) {
+        int low=0;
+        int high=m_intervals.size()-1;
+        while (low<=high) {
+            int middle=(low+high)>>>1;
+            if (Numbers.compare(m_intervals.get(middle).m_lowerBound,number)<=0)
+                low=middle+1;
+            else
+                high=middle-1;
+        }
+        return high;
+    }
     public void enumerateDataValues(Collection<Object> dataValues) {
         for (int index=m_intervals.size()-1;index>=0;--index)
             m_intervals.get(index).enumerateNumbers(dataValues);
@@ -0,0 +1,201 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+   
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+   
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+   
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.datatypes.rdfplainliteral;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.semanticweb.HermiT.model.DatatypeRestriction;
+
+import dk.brics.automaton.Automaton;
+
+/**
+ * A cache of compiled and minimised automata for rdf:PlainLiteral restrictions. Automata are cached
+ * per pattern and per datatype restriction, and the results of intersections and differences are
+ * memoised by keys that describe their arguments by value: a datatype URI, a datatype restriction,
+ * a list of length intervals, or the key of an earlier intersection or difference. Repeated D-conjunctions
+ * over the same restrictions are thus answered without rebuilding any automaton. Empty results are cached as
+ * well, so emptiness checks of repeated conjunctions come for free.
+ *
+ * Operations of dk.brics.automaton modify their operands (e.g., they renumber states), so cached automata
+ * never leave the cache: they are only read while holding the lock of the cache, the operands of intersections
+ * and differences are cloned under that lock, and all methods return fresh copies that the caller may modify.
+ * The cache is bounded and evicts the least recently used entries; it is shared between reasoners.
+ */
+public final class RDFPlainLiteralAutomatonCache {
+    public static final int DEFAULT_MAXIMUM_NUMBER_OF_ENTRIES=10000;
+    protected static final Automaton EMPTY=new Automaton();
+
+    protected final Map<String,Automaton> m_patternAutomata;
+    protected final Map<DatatypeRestriction,Automaton> m_restrictionAutomata;
+    protected final Map<OperationKey,Automaton> m_operationResults;
+    protected int m_numberOfHits;
+    protected int m_numberOfMisses;
+
+    public RDFPlainLiteralAutomatonCache() {
+        this(DEFAULT_MAXIMUM_NUMBER_OF_ENTRIES);
+    }
+    public RDFPlainLiteralAutomatonCache(int maximumNumberOfEntries) {
+        m_patternAutomata=new BoundedMap<String,Automaton>(maximumNumberOfEntries);
+        m_restrictionAutomata=new BoundedMap<DatatypeRestriction,Automaton>(maximumNumberOfEntries);
+        m_operationResults=new BoundedMap<OperationKey,Automaton>(maximumNumberOfEntries);
+    }
+    public synchronized Automaton getPatternAutomaton(String pattern) {
+        Automaton automaton=m_patternAutomata.get(pattern);
+        if (automaton!=null)
+            m_numberOfHits++;
+        else {
+            m_numberOfMisses++;
+            automaton=minimize(RDFPlainLiteralPatternValueSpaceSubset.getPatternAutomaton(pattern));
+            m_patternAutomata.put(pattern,automaton);
+        }
+        return automaton.clone();
+    }
+    /**
+     * Returns a copy of the cached automaton for the given restriction, or null if the restriction has not been
+     * cached yet. Empty restrictions are represented by the EMPTY sentinel.
+     */
+    synchronized Automaton getRestrictionAutomaton(DatatypeRestriction datatypeRestriction) {
+        Automaton automaton=m_restrictionAutomata.get(datatypeRestriction);
+        if (automaton==null)
+            return null;
+        m_numberOfHits++;
+        return copy(automaton);
+    }
+    /**
+     * Caches the given automaton, which must not be used by the caller any more, and returns a copy of it.
+     */
+    synchronized Automaton putRestrictionAutomaton(DatatypeRestriction datatypeRestriction,Automaton automaton) {
+        m_numberOfMisses++;
+        Automaton result=(automaton==null ? EMPTY : minimize(automaton));
+        m_restrictionAutomata.put(datatypeRestriction,result);
+        return copy(result);
+    }
+    /**
+     * Returns the key that identifies the intersection of the automata identified by the given keys, or null if
+     * either key is null.
+     */
+    public static Object getIntersectionKey(Object key1,Object key2) {
+        return (key1==null || key2==null) ? null : new OperationKey(false,key1,key2);
+    }
+    /**
+     * Returns the key that identifies the difference of the automata identified by the given keys, or null if
+     * either key is null.
+     */
+    public static Object getDifferenceKey(Object key1,Object key2) {
+        return (key1==null || key2==null) ? null : new OperationKey(true,key1,key2);
+    }
+    /**
+     * Returns the intersection of the two automata or null if the intersection is empty. The key must have been
+     * obtained from getIntersectionKey(); if it is null, the result is computed but not cached.
+     */
+    public Automaton intersection(Object key,Automaton automaton1,Automaton automaton2) {
+        return apply((OperationKey)key,false,automaton1,automaton2);
+    }
+    /**
+     * Returns the difference of the two automata or null if the difference is empty. The key must have been
+     * obtained from getDifferenceKey(); if it is null, the result is computed but not cached.
+     */
+    public Automaton minus(Object key,Automaton automaton1,Automaton automaton2) {
+        return apply((OperationKey)key,true,automaton1,automaton2);
+    }
+    protected Automaton apply(OperationKey key,boolean isDifference,Automaton automaton1,Automaton automaton2) {
+        Automaton operand1;
+        Automaton operand2;
+        synchronized (this) {
+            if (key!=null) {
+                Automaton result=m_operationResults.get(key);
+                if (result!=null) {
+                    m_numberOfHits++;
+                    return result==EMPTY ? null : result.clone();
+                }
+            }
+            m_numberOfMisses++;
+            operand1=automaton1.clone();
+            operand2=automaton2.clone();
+        }
+        Automaton result=(isDifference ? operand1.minus(operand2) : operand1.intersection(operand2));
+        if (result.isEmpty())
+            result=EMPTY;
+        else
+            minimize(result);
+        synchronized (this) {
+            if (key!=null)
+                m_operationResults.put(key,result);
+            return result==EMPTY ? null : result.clone();
+        }
+    }
+    public synchronized int getNumberOfHits() {
+        return m_numberOfHits;
+    }
+    public synchronized int getNumberOfMisses() {
+        return m_numberOfMisses;
+    }
+    public synchronized void clear() {
+        m_patternAutomata.clear();
+        m_restrictionAutomata.clear();
+        m_operationResults.clear();
+        m_numberOfHits=0;
+        m_numberOfMisses=0;
+    }
+    protected static Automaton minimize(Automaton automaton) {
+        automaton.minimize();
+        return automaton;
+    }
+    protected static Automaton copy(Automaton automaton) {
+        return automaton==EMPTY ? EMPTY : automaton.clone();
+    }
+
+    protected static final class OperationKey {
+        protected final boolean m_isDifference;
+        protected final Object m_first;
+        protected final Object m_second;
+        protected final int m_hashCode;
+
+        public OperationKey(boolean isDifference,Object first,Object second) {
+            m_isDifference=isDifference;
+            m_first=first;
+            m_second=second;
+            m_hashCode=(m_first.hashCode()*31+m_second.hashCode())*2+(m_isDifference ? 1 : 0);
+        }
+        public int hashCode() {
+            return m_hashCode;
+        }
+        public boolean equals(Object that) {
+            if (this==that)
+                return true;
+            if (!(that instanceof OperationKey))
+                return false;
+            OperationKey thatKey=(OperationKey)that;
+            return m_hashCode==thatKey.m_hashCode && m_isDifference==thatKey.m_isDifference && m_first.equals(thatKey.m_first) && m_second.equals(thatKey.m_second);
+        }
+    }
+
+    @SuppressWarnings("serial")
+    protected static final class BoundedMap<K,V> extends LinkedHashMap<K,V> {
+        protected final int m_maximumNumberOfEntries;
+
+        public BoundedMap(int maximumNumberOfEntries) {
+            super(16,0.75f,true);
+            m_maximumNumberOfEntries=maximumNumberOfEntries;
+        }
+        protected boolean removeEldestEntry(Map.Entry<K,V> eldest) {
+            return size()>m_maximumNumberOfEntries;
+        }
+    }
+}
@@ -50,7 +50,7 @@ public class RDFPlainLiteralDatatypeHandler implements DatatypeHandler {
     }
     protected static void registerPatternDatatype(String datatypeURI) {
         Automaton automaton=RDFPlainLiteralPatternValueSpaceSubset.getDatatypeAutomaton(datatypeURI);
-        s_subsetsByDatatype.put(datatypeURI,new RDFPlainLiteralPatternValueSpaceSubset(automaton));
+        s_subsetsByDatatype.put(datatypeURI,new RDFPlainLiteralPatternValueSpaceSubset(automaton,datatypeURI));
     }
     protected static final ValueSpaceSubset EMPTY_SUBSET=new RDFPlainLiteralLengthValueSpaceSubset();
     protected static final Map<String,Set<String>> s_datatypeSupersets=new HashMap<String,Set<String>>();
@@ -74,6 +74,8 @@ public class RDFPlainLiteralDatatypeHandler implements DatatypeHandler {
         }
     }
 
+    protected final RDFPlainLiteralAutomatonCache m_automatonCache=new RDFPlainLiteralAutomatonCache();
+
     public Set<String> getManagedDatatypeURIs() {
         return s_subsetsByDatatype.keySet();
     }
@@ -141,7 +143,7 @@ public class RDFPlainLiteralDatatypeHandler implements DatatypeHandler {
             if (automaton==null)
                 return EMPTY_SUBSET;
             else
-                return new RDFPlainLiteralPatternValueSpaceSubset(automaton);
+                return new RDFPlainLiteralPatternValueSpaceSubset(automaton,datatypeRestriction);
         }
         else {
             RDFPlainLiteralLengthInterval[]intervals=getIntervalsFor(datatypeRestriction);
@@ -167,11 +169,12 @@ public class RDFPlainLiteralDatatypeHandler implements DatatypeHandler {
             Automaton valueSpaceSubsetAutomaton=getAutomatonFor(valueSpaceSubset);
             if (valueSpaceSubsetAutomaton==null)
                 return EMPTY_SUBSET;
-            Automaton intersection=valueSpaceSubsetAutomaton.intersection(restrictionAutomaton);
-            if (intersection.isEmpty())
+            Object key=RDFPlainLiteralAutomatonCache.getIntersectionKey(getKeyFor(valueSpaceSubset),datatypeRestriction);
+            Automaton intersection=m_automatonCache.intersection(key,valueSpaceSubsetAutomaton,restrictionAutomaton);
+            if (intersection==null)
                 return EMPTY_SUBSET;
             else
-                return new RDFPlainLiteralPatternValueSpaceSubset(intersection);
+                return new RDFPlainLiteralPatternValueSpaceSubset(intersection,key);
         }
         else {
             RDFPlainLiteralLengthInterval[] intervals=getIntervalsFor(datatypeRestriction);
@@ -212,11 +215,12 @@ public class RDFPlainLiteralDatatypeHandler implements DatatypeHandler {
             Automaton valueSpaceSubsetAutomaton=getAutomatonFor(valueSpaceSubset);
             if (valueSpaceSubsetAutomaton==null)
                 return EMPTY_SUBSET;
-            Automaton difference=valueSpaceSubsetAutomaton.minus(restrictionAutomaton);
-            if (difference.isEmpty())
+            Object key=RDFPlainLiteralAutomatonCache.getDifferenceKey(getKeyFor(valueSpaceSubset),datatypeRestriction);
+            Automaton difference=m_automatonCache.minus(key,valueSpaceSubsetAutomaton,restrictionAutomaton);
+            if (difference==null)
                 return EMPTY_SUBSET;
             else
-                return new RDFPlainLiteralPatternValueSpaceSubset(difference);
+                return new RDFPlainLiteralPatternValueSpaceSubset(difference,key);
         }
         else {
             RDFPlainLiteralLengthInterval[] intervals=getIntervalsFor(datatypeRestriction);
@@ -306,7 +310,25 @@ public class RDFPlainLiteralDatatypeHandler implements DatatypeHandler {
         else
             return RDFPlainLiteralPatternValueSpaceSubset.toAutomaton((RDFPlainLiteralLengthValueSpaceSubset)valueSpaceSubset);
     }
+    /**
+     * Returns the object that identifies the given subset by value in the automaton cache, or null if there is none.
+     */
+    protected Object getKeyFor(ValueSpaceSubset valueSpaceSubset) {
+        if (valueSpaceSubset instanceof RDFPlainLiteralPatternValueSpaceSubset)
+            return ((RDFPlainLiteralPatternValueSpaceSubset)valueSpaceSubset).m_key;
+        else
+            return ((RDFPlainLiteralLengthValueSpaceSubset)valueSpaceSubset).m_intervals;
+    }
+    public RDFPlainLiteralAutomatonCache getAutomatonCache() {
+        return m_automatonCache;
+    }
     protected Automaton getAutomatonFor(DatatypeRestriction datatypeRestriction) {
+        Automaton automaton=m_automatonCache.getRestrictionAutomaton(datatypeRestriction);
+        if (automaton==null)
+            automaton=m_automatonCache.putRestrictionAutomaton(datatypeRestriction,createAutomatonFor(datatypeRestriction));
+        return automaton==RDFPlainLiteralAutomatonCache.EMPTY ? null : automaton;
+    }
+    protected Automaton createAutomatonFor(DatatypeRestriction datatypeRestriction) {
         String datatypeURI=datatypeRestriction.getDatatypeURI();
         Automaton automaton=RDFPlainLiteralPatternValueSpaceSubset.getDatatypeAutomaton(datatypeURI);
         int minLength=0;
@@ -324,7 +346,7 @@ public class RDFPlainLiteralDatatypeHandler implements DatatypeHandler {
             }
             else if ((XSD_NS+"pattern").equals(facetURI)) {
                 String pattern=(String)facetDataValue;
-                Automaton facetAutomaton=RDFPlainLiteralPatternValueSpaceSubset.getPatternAutomaton(pattern);
+                Automaton facetAutomaton=m_automatonCache.getPatternAutomaton(pattern);
                 automaton=automaton.intersection(facetAutomaton);
             }
             else if ((RDF_NS+"langRange").equals(facetURI)) {
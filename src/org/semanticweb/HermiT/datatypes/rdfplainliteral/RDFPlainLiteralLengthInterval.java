@@ -113,6 +113,17 @@ public class RDFPlainLiteralLengthInterval {
                 }
         }
     }
+    public int hashCode() {
+        return (m_languageTagMode.hashCode()*31+m_minLength)*31+m_maxLength;
+    }
+    public boolean equals(Object that) {
+        if (this==that)
+            return true;
+        if (!(that instanceof RDFPlainLiteralLengthInterval))
+            return false;
+        RDFPlainLiteralLengthInterval thatInterval=(RDFPlainLiteralLengthInterval)that;
+        return isEqual(thatInterval.m_languageTagMode,thatInterval.m_minLength,thatInterval.m_maxLength);
+    }
     public String toString() {
         StringBuffer buffer=new StringBuffer();
         buffer.append('[');
@@ -95,9 +95,18 @@ public class RDFPlainLiteralPatternValueSpaceSubset implements ValueSpaceSubset
         return new RegExp("([\u0021-\uD7FF\uE000-\uFFFD]+(\u0020[\u0021-\uD7FF\uE000-\uFFFD]+)*)?").toAutomaton();
     }
     protected final Automaton m_automaton;
+    protected final Object m_key;
 
     public RDFPlainLiteralPatternValueSpaceSubset(Automaton automaton) {
+        this(automaton,null);
+    }
+    /**
+     * @param key
+     *            an object that identifies the language of the automaton by value (see RDFPlainLiteralAutomatonCache), or null
+     */
+    public RDFPlainLiteralPatternValueSpaceSubset(Automaton automaton,Object key) {
         m_automaton=automaton;
+        m_key=key;
     }
     public boolean hasCardinalityAtLeast(int number) {
         Set<String> elements=m_automaton.getFiniteStrings(number);
@@ -0,0 +1,109 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+   
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+   
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+   
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.graph;
+
+import java.io.Serializable;
+
+/**
+ * A union-find structure over the elements 0 to size-1. The sets are kept as trees with union by size and path
+ * halving, so that find and union take almost constant amortized time. The elements of each set are additionally
+ * linked in a cycle, so that the members of a set can be enumerated in time linear in the size of the set.
+ */
+public class DisjointSets implements Serializable {
+    private static final long serialVersionUID=-2417596138004752186L;
+
+    protected final int[] m_parents;
+    protected final int[] m_sizes;
+    protected final int[] m_nextMembers;
+    protected int m_numberOfSets;
+
+    public DisjointSets(int size) {
+        m_parents=new int[size];
+        m_sizes=new int[size];
+        m_nextMembers=new int[size];
+        for (int element=0;element<size;element++) {
+            m_parents[element]=element;
+            m_sizes[element]=1;
+            m_nextMembers[element]=element;
+        }
+        m_numberOfSets=size;
+    }
+    public int size() {
+        return m_parents.length;
+    }
+    public int getNumberOfSets() {
+        return m_numberOfSets;
+    }
+    /**
+     * Returns the representative of the set of the given element.
+     */
+    public int find(int element) {
+        while (m_parents[element]!=element) {
+            m_parents[element]=m_parents[m_parents[element]];
+            element=m_parents[element];
+        }
+        return element;
+    }
+    public boolean isSameSet(int element1,int element2) {
+        return find(element1)==find(element2);
+    }
+    /**
+     * Merges the sets of the given elements and returns the representative of the merged set.
+     */
+    public int union(int element1,int element2) {
+        int root1=find(element1);
+        int root2=find(element2);
+        if (root1==root2)
+            return root1;
+        if (m_sizes[root1]<m_sizes[root2]) {
+            int swap=root1;
+            root1=root2;
+            root2=swap;
+        }
+        m_parents[root2]=root1;
+        m_sizes[root1]+=m_sizes[root2];
+        // splicing two cycles yields one cycle through the members of both sets
+        int next=m_nextMembers[root1];
+        m_nextMembers[root1]=m_nextMembers[root2];
+        m_nextMembers[root2]=next;
+        m_numberOfSets--;
+        return root1;
+    }
+    public int getSetSize(int element) {
+        return m_sizes[find(element)];
+    }
+    /**
+     * Returns the member of the set of the given element that follows it. Starting with any element and calling this
+     * method repeatedly visits all members of its set before returning to that element.
+     */
+    public int getNextMember(int element) {
+        return m_nextMembers[element];
+    }
+    /**
+     * Returns the members of the set of the given element.
+     */
+    public int[] getMembers(int element) {
+        int[] members=new int[getSetSize(element)];
+        int member=element;
+        for (int index=0;index<members.length;index++) {
+            members[index]=member;
+            member=m_nextMembers[member];
+        }
+        return members;
+    }
+}
@@ -116,6 +116,7 @@ public class DeterministicClassification {
                 }
             }
         }
+        hierarchy.buildReachabilityIndex();
         return hierarchy;
     }
     protected static <T> void visit(Stack<GraphNode<T>> stack,DFSIndex dfsIndex,Map<T,GraphNode<T>> graphNodes,GraphNode<T> graphNode,Hierarchy<T> hierarchy,List<HierarchyNode<T>> topologicalOrder) {
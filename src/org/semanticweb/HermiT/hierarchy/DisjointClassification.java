@@ -0,0 +1,219 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+   
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+   
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+   
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.hierarchy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.DLClause;
+import org.semanticweb.HermiT.model.Individual;
+import org.semanticweb.HermiT.model.Variable;
+import org.semanticweb.HermiT.tableau.Node;
+import org.semanticweb.HermiT.tableau.ReasoningTaskDescription;
+import org.semanticweb.HermiT.tableau.Tableau;
+
+/**
+ * Computes the direct disjoint classes of all nodes of a class hierarchy, i.e., for each node the most general nodes
+ * whose classes are disjoint with the classes of the node. The nodes are processed top-down, and the disjoint nodes of
+ * a node are searched top-down as well; the search does not descend below nodes that are disjoint with the node, as
+ * their descendants are disjoint with it too. Disjointness is symmetric and is inherited by subclasses, so each pair of
+ * nodes is decided at most once. Most pairs are decided without the tableau: nodes are disjoint if a parent of either
+ * node is known to be disjoint with the other node, or if the ontology contains a clause A(x) and B(x) -> false for
+ * their classes; nodes are not disjoint if one subsumes the other or if the pseudo-model of one of them in the model cache
+ * contains the other. Only the remaining pairs are tested, and the root label of the model of each satisfiable test
+ * shows further classes that are not disjoint with the node being processed.
+ */
+public class DisjointClassification {
+    protected final Hierarchy<AtomicConcept> m_hierarchy;
+    protected final ModelCache m_modelCache;
+    protected final Tableau m_tableau;
+    protected final Map<AtomicConcept,Set<AtomicConcept>> m_toldDisjointConcepts;
+    protected final Map<HierarchyNode<AtomicConcept>,Set<HierarchyNode<AtomicConcept>>> m_disjointNodes;
+    protected final Map<HierarchyNode<AtomicConcept>,Set<HierarchyNode<AtomicConcept>>> m_intersectingNodes;
+
+    public DisjointClassification(Hierarchy<AtomicConcept> hierarchy,ModelCache modelCache,Collection<DLClause> dlClauses) {
+        m_hierarchy=hierarchy;
+        m_modelCache=modelCache;
+        m_tableau=modelCache.getTableau();
+        m_toldDisjointConcepts=new HashMap<AtomicConcept,Set<AtomicConcept>>();
+        for (DLClause dlClause : dlClauses)
+            if (dlClause.getHeadLength()==0 && dlClause.getBodyLength()==2) {
+                Atom atom1=dlClause.getBodyAtom(0);
+                Atom atom2=dlClause.getBodyAtom(1);
+                if (atom1.getDLPredicate() instanceof AtomicConcept && atom2.getDLPredicate() instanceof AtomicConcept && atom1.getArgument(0) instanceof Variable && atom1.getArgument(0).equals(atom2.getArgument(0))) {
+                    addToldDisjointConcepts((AtomicConcept)atom1.getDLPredicate(),(AtomicConcept)atom2.getDLPredicate());
+                    addToldDisjointConcepts((AtomicConcept)atom2.getDLPredicate(),(AtomicConcept)atom1.getDLPredicate());
+                }
+            }
+        m_disjointNodes=new HashMap<HierarchyNode<AtomicConcept>,Set<HierarchyNode<AtomicConcept>>>();
+        m_intersectingNodes=new HashMap<HierarchyNode<AtomicConcept>,Set<HierarchyNode<AtomicConcept>>>();
+    }
+    protected void addToldDisjointConcepts(AtomicConcept atomicConcept,AtomicConcept disjointConcept) {
+        Set<AtomicConcept> disjointConcepts=m_toldDisjointConcepts.get(atomicConcept);
+        if (disjointConcepts==null) {
+            disjointConcepts=new HashSet<AtomicConcept>();
+            m_toldDisjointConcepts.put(atomicConcept,disjointConcepts);
+        }
+        disjointConcepts.add(disjointConcept);
+    }
+    /**
+     * Returns the nodes of the hierarchy other than the top and the bottom node such that each node comes after its parents.
+     */
+    public List<HierarchyNode<AtomicConcept>> getNodesTopDown() {
+        HierarchyNode<AtomicConcept> topNode=m_hierarchy.getTopNode();
+        HierarchyNode<AtomicConcept> bottomNode=m_hierarchy.getBottomNode();
+        Map<HierarchyNode<AtomicConcept>,Integer> numberOfUnprocessedParents=new HashMap<HierarchyNode<AtomicConcept>,Integer>();
+        List<HierarchyNode<AtomicConcept>> result=new ArrayList<HierarchyNode<AtomicConcept>>();
+        List<HierarchyNode<AtomicConcept>> toProcess=new ArrayList<HierarchyNode<AtomicConcept>>();
+        toProcess.add(topNode);
+        while (!toProcess.isEmpty()) {
+            HierarchyNode<AtomicConcept> node=toProcess.remove(toProcess.size()-1);
+            if (node!=topNode)
+                result.add(node);
+            for (HierarchyNode<AtomicConcept> childNode : node.getChildNodes()) {
+                if (childNode!=bottomNode) {
+                    Integer count=numberOfUnprocessedParents.get(childNode);
+                    int remaining=(count==null ? childNode.getParentNodes().size() : count.intValue())-1;
+                    if (remaining==0)
+                        toProcess.add(childNode);
+                    numberOfUnprocessedParents.put(childNode,Integer.valueOf(remaining));
+                }
+            }
+        }
+        return result;
+    }
+    /**
+     * Returns the most general nodes that are disjoint with the given node, or the bottom node if there are none. The
+     * node must not be the top or the bottom node; the parents of the node should have been processed before.
+     */
+    public Set<HierarchyNode<AtomicConcept>> getDirectDisjointNodes(HierarchyNode<AtomicConcept> node) {
+        HierarchyNode<AtomicConcept> bottomNode=m_hierarchy.getBottomNode();
+        Set<HierarchyNode<AtomicConcept>> result=new HashSet<HierarchyNode<AtomicConcept>>();
+        Set<HierarchyNode<AtomicConcept>> visited=new HashSet<HierarchyNode<AtomicConcept>>();
+        List<HierarchyNode<AtomicConcept>> toVisit=new ArrayList<HierarchyNode<AtomicConcept>>(m_hierarchy.getTopNode().getChildNodes());
+        while (!toVisit.isEmpty()) {
+            HierarchyNode<AtomicConcept> otherNode=toVisit.remove(toVisit.size()-1);
+            if (otherNode!=bottomNode && visited.add(otherNode)) {
+                if (isDisjoint(node,otherNode))
+                    result.add(otherNode);
+                else
+                    toVisit.addAll(otherNode.getChildNodes());
+            }
+        }
+        // A node can be reached through a parent that is not disjoint with the node while another parent is.
+        Set<HierarchyNode<AtomicConcept>> descendantsOfResult=new HashSet<HierarchyNode<AtomicConcept>>();
+        for (HierarchyNode<AtomicConcept> disjointNode : result)
+            if (!descendantsOfResult.contains(disjointNode))
+                for (HierarchyNode<AtomicConcept> descendantNode : disjointNode.getDescendantNodes())
+                    if (descendantNode!=disjointNode)
+                        descendantsOfResult.add(descendantNode);
+        result.removeAll(descendantsOfResult);
+        if (result.isEmpty())
+            return Collections.singleton(bottomNode);
+        else
+            return result;
+    }
+    public boolean isDisjoint(HierarchyNode<AtomicConcept> node1,HierarchyNode<AtomicConcept> node2) {
+        if (node1==node2 || contains(m_intersectingNodes,node1,node2))
+            return false;
+        if (contains(m_disjointNodes,node1,node2))
+            return true;
+        if (node1.isAncestorNode(node2) || node2.isAncestorNode(node1)) {
+            add(m_intersectingNodes,node1,node2);
+            return false;
+        }
+        if (isDisjointWithAParent(node1,node2) || isDisjointWithAParent(node2,node1) || isToldDisjoint(node1,node2)) {
+            add(m_disjointNodes,node1,node2);
+            return true;
+        }
+        AtomicConcept atomicConcept1=node1.getRepresentative();
+        AtomicConcept atomicConcept2=node2.getRepresentative();
+        if (m_modelCache.hasModelContaining(atomicConcept1,atomicConcept2) || m_modelCache.hasModelContaining(atomicConcept2,atomicConcept1)) {
+            add(m_intersectingNodes,node1,node2);
+            return false;
+        }
+        Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+        Map<Individual,Node> checkedNode=new HashMap<Individual,Node>();
+        checkedNode.put(freshIndividual,null);
+        Set<Atom> facts=new HashSet<Atom>();
+        facts.add(Atom.create(atomicConcept1,freshIndividual));
+        facts.add(Atom.create(atomicConcept2,freshIndividual));
+        if (m_tableau.isSatisfiable(true,facts,null,null,null,checkedNode,ReasoningTaskDescription.areConceptsDisjoint(atomicConcept1,atomicConcept2))) {
+            add(m_intersectingNodes,node1,node2);
+            // the root of the model is an instance of both nodes, so no class in its label is disjoint with either node
+            Set<AtomicConcept> rootLabel=new HashSet<AtomicConcept>();
+            m_modelCache.readRootLabel(checkedNode.get(freshIndividual),rootLabel,null);
+            for (AtomicConcept atomicConcept : rootLabel) {
+                HierarchyNode<AtomicConcept> node=m_hierarchy.getNodeForElement(atomicConcept);
+                if (node!=null) {
+                    if (node!=node1)
+                        add(m_intersectingNodes,node1,node);
+                    if (node!=node2)
+                        add(m_intersectingNodes,node2,node);
+                }
+            }
+            return false;
+        }
+        else {
+            add(m_disjointNodes,node1,node2);
+            return true;
+        }
+    }
+    protected boolean isDisjointWithAParent(HierarchyNode<AtomicConcept> node,HierarchyNode<AtomicConcept> otherNode) {
+        Set<HierarchyNode<AtomicConcept>> disjointNodes=m_disjointNodes.get(otherNode);
+        if (disjointNodes!=null)
+            for (HierarchyNode<AtomicConcept> parentNode : node.getParentNodes())
+                if (disjointNodes.contains(parentNode))
+                    return true;
+        return false;
+    }
+    protected boolean isToldDisjoint(HierarchyNode<AtomicConcept> node1,HierarchyNode<AtomicConcept> node2) {
+        for (AtomicConcept atomicConcept : node1.getEquivalentElements()) {
+            Set<AtomicConcept> disjointConcepts=m_toldDisjointConcepts.get(atomicConcept);
+            if (disjointConcepts!=null)
+                for (AtomicConcept disjointConcept : disjointConcepts)
+                    if (node2.isEquivalentElement(disjointConcept))
+                        return true;
+        }
+        return false;
+    }
+    protected static boolean contains(Map<HierarchyNode<AtomicConcept>,Set<HierarchyNode<AtomicConcept>>> relation,HierarchyNode<AtomicConcept> node1,HierarchyNode<AtomicConcept> node2) {
+        Set<HierarchyNode<AtomicConcept>> relatedNodes=relation.get(node1);
+        return relatedNodes!=null && relatedNodes.contains(node2);
+    }
+    protected static void add(Map<HierarchyNode<AtomicConcept>,Set<HierarchyNode<AtomicConcept>>> relation,HierarchyNode<AtomicConcept> node1,HierarchyNode<AtomicConcept> node2) {
+        addDirected(relation,node1,node2);
+        addDirected(relation,node2,node1);
+    }
+    protected static void addDirected(Map<HierarchyNode<AtomicConcept>,Set<HierarchyNode<AtomicConcept>>> relation,HierarchyNode<AtomicConcept> node1,HierarchyNode<AtomicConcept> node2) {
+        Set<HierarchyNode<AtomicConcept>> relatedNodes=relation.get(node1);
+        if (relatedNodes==null) {
+            relatedNodes=new HashSet<HierarchyNode<AtomicConcept>>();
+            relation.put(node1,relatedNodes);
+        }
+        relatedNodes.add(node2);
+    }
+}
@@ -0,0 +1,90 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+   
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+   
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+   
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.hierarchy;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.Constant;
+import org.semanticweb.HermiT.model.Individual;
+import org.semanticweb.HermiT.model.Role;
+import org.semanticweb.HermiT.tableau.Node;
+import org.semanticweb.HermiT.tableau.ReasoningTaskDescription;
+import org.semanticweb.HermiT.tableau.Tableau;
+
+/**
+ * Finds the most specific classes of the hierarchy that are domains or ranges of a role. The search first builds one
+ * model of R(a,b) for fresh individuals a and b and reads the label of the checked individual: since HermiT's models
+ * are complete, a class that is not in the label is not a domain (range), and a class that is in the label without
+ * depending on any choice is one. Only the remaining classes are tested by the tableau while the hierarchy is searched.
+ * The tableau must not have an additional ontology.
+ */
+public class DomainRangeSearch {
+
+    public static Set<HierarchyNode<AtomicConcept>> getDirectDomains(Tableau tableau,Hierarchy<AtomicConcept> hierarchy,Role role) {
+        Individual freshIndividualA=Individual.createAnonymous("fresh-individual-A");
+        Individual freshIndividualB=Individual.createAnonymous("fresh-individual-B");
+        return search(tableau,hierarchy,role,true,false,Collections.singleton(role.getRoleAssertion(freshIndividualA,freshIndividualB)),freshIndividualA);
+    }
+    public static Set<HierarchyNode<AtomicConcept>> getDirectRanges(Tableau tableau,Hierarchy<AtomicConcept> hierarchy,Role role) {
+        Individual freshIndividualA=Individual.createAnonymous("fresh-individual-A");
+        Individual freshIndividualB=Individual.createAnonymous("fresh-individual-B");
+        return search(tableau,hierarchy,role,true,true,Collections.singleton(role.getRoleAssertion(freshIndividualA,freshIndividualB)),freshIndividualB);
+    }
+    public static Set<HierarchyNode<AtomicConcept>> getDirectDataDomains(Tableau tableau,Hierarchy<AtomicConcept> hierarchy,AtomicRole atomicRole) {
+        Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+        Constant freshConstant=Constant.createAnonymous("fresh-constant");
+        return search(tableau,hierarchy,atomicRole,false,false,Collections.singleton(atomicRole.getRoleAssertion(freshIndividual,freshConstant)),freshIndividual);
+    }
+    protected static Set<HierarchyNode<AtomicConcept>> search(final Tableau tableau,Hierarchy<AtomicConcept> hierarchy,final Role role,boolean isObjectRole,final boolean isRange,final Set<Atom> roleAssertion,final Individual checkedIndividual) {
+        Map<Individual,Node> checkedNode=new HashMap<Individual,Node>();
+        checkedNode.put(checkedIndividual,null);
+        if (!tableau.isSatisfiable(false,roleAssertion,null,null,null,checkedNode,ReasoningTaskDescription.isRoleSatisfiable(role,isObjectRole))) {
+            // every class is a domain (range) of an unsatisfiable role
+            return Collections.singleton(hierarchy.getBottomNode());
+        }
+        final Set<AtomicConcept> possibleConcepts=new HashSet<AtomicConcept>();
+        final Set<AtomicConcept> knownConcepts=new HashSet<AtomicConcept>();
+        ModelCache.readRootLabel(tableau,checkedNode.get(checkedIndividual),possibleConcepts,knownConcepts);
+        knownConcepts.add(AtomicConcept.THING);
+        HierarchySearch.SearchPredicate<HierarchyNode<AtomicConcept>> searchPredicate=new HierarchySearch.SearchPredicate<HierarchyNode<AtomicConcept>>() {
+            public Set<HierarchyNode<AtomicConcept>> getSuccessorElements(HierarchyNode<AtomicConcept> u) {
+                return u.getChildNodes();
+            }
+            public Set<HierarchyNode<AtomicConcept>> getPredecessorElements(HierarchyNode<AtomicConcept> u) {
+                return u.getParentNodes();
+            }
+            public boolean trueOf(HierarchyNode<AtomicConcept> u) {
+                AtomicConcept potentialConcept=u.getRepresentative();
+                if (knownConcepts.contains(potentialConcept))
+                    return true;
+                else if (!possibleConcepts.contains(potentialConcept))
+                    return false;
+                ReasoningTaskDescription reasoningTaskDescription=(isRange ? ReasoningTaskDescription.isRangeOf(potentialConcept,role) : ReasoningTaskDescription.isDomainOf(potentialConcept,role));
+                return !tableau.isSatisfiable(false,roleAssertion,Collections.singleton(Atom.create(potentialConcept,checkedIndividual)),null,null,null,reasoningTaskDescription);
+            }
+        };
+        return HierarchySearch.search(searchPredicate,Collections.singleton(hierarchy.getTopNode()),null);
+    }
+}
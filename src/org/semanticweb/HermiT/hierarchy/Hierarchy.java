@@ -60,6 +60,13 @@ public class Hierarchy<E> {
     public Set<HierarchyNode<E>> getAllNodesSet() {
         return Collections.unmodifiableSet(new HashSet<HierarchyNode<E>>(m_nodesByElements.values()));
     }
+    /**
+     * Builds the reachability index used by the nodes of this hierarchy to answer ancestor and descendant queries.
+     * The index must be rebuilt if the hierarchy is modified afterwards.
+     */
+    public HierarchyReachabilityIndex<E> buildReachabilityIndex() {
+        return new HierarchyReachabilityIndex<E>(this);
+    }
     public Set<E> getAllElements() {
         return Collections.unmodifiableSet(m_nodesByElements.keySet());
     }
@@ -122,6 +129,7 @@ public class Hierarchy<E> {
         for (HierarchyNode<T> newNode : oldToNew.values())
             for (T newElement : newNode.m_equivalentElements)
                 newHierarchy.m_nodesByElements.put(newElement,newNode);
+        newHierarchy.buildReachabilityIndex();
         return newHierarchy;
     }
     @SuppressWarnings("unchecked")
@@ -192,7 +200,9 @@ public class Hierarchy<E> {
         topBottomNode.m_equivalentElements.add(topElement);
         topBottomNode.m_equivalentElements.add(bottomElement);
         topBottomNode.m_equivalentElements.addAll(elements);
-        return new Hierarchy<T>(topBottomNode,topBottomNode);
+        Hierarchy<T> hierarchy=new Hierarchy<T>(topBottomNode,topBottomNode);
+        hierarchy.buildReachabilityIndex();
+        return hierarchy;
     }
     public static <T> Hierarchy<T> trivialHierarchy(T topElement,T bottomElement) {
         HierarchyNode<T> topNode=new HierarchyNode<T>(topElement);
@@ -200,8 +210,10 @@ public class Hierarchy<E> {
         HierarchyNode<T> bottomNode=new HierarchyNode<T>(bottomElement);
         bottomNode.m_equivalentElements.add(bottomElement);
         topNode.m_childNodes.add(bottomNode);
-        bottomNode.m_parentNodes.add(topNode);
-        return new Hierarchy<T>(topNode,bottomNode);
+        bottomNode.m_parentNodes.add(topNode);
+        Hierarchy<T> hierarchy=new Hierarchy<T>(topNode,bottomNode);
+        hierarchy.buildReachabilityIndex();
+        return hierarchy;
     }
     protected static interface HierarchyNodeVisitor<E> {
         boolean redirect(HierarchyNode<E>[] nodes);
@@ -28,6 +28,8 @@ public class HierarchyNode<E> {
     protected final Set<E> m_equivalentElements;
     protected final Set<HierarchyNode<E>> m_parentNodes;
     protected final Set<HierarchyNode<E>> m_childNodes;
+    protected HierarchyReachabilityIndex<E> m_reachabilityIndex;
+    protected int m_indexNumber;
 
     public HierarchyNode(E representative) {
         m_representative=representative;
@@ -35,12 +37,14 @@ public class HierarchyNode<E> {
         m_equivalentElements.add(m_representative);
         m_parentNodes=new HashSet<HierarchyNode<E>>();
         m_childNodes=new HashSet<HierarchyNode<E>>();
+        m_indexNumber=-1;
     }
     public HierarchyNode(E element,Set<E> equivalentElements,Set<HierarchyNode<E>> parentNodes,Set<HierarchyNode<E>> childNodes) {
         m_representative=element;
         m_equivalentElements=equivalentElements;
         m_parentNodes=parentNodes;
         m_childNodes=childNodes;
+        m_indexNumber=-1;
     }
     public E getRepresentative() {
         return m_representative;
@@ -49,12 +53,20 @@ public class HierarchyNode<E> {
         return m_equivalentElements.contains(element);
     }
     public boolean isAncestorElement(E ancestor) {
+        if (m_reachabilityIndex!=null) {
+            HierarchyNode<E> ancestorNode=m_reachabilityIndex.getNodeForElement(ancestor);
+            return ancestorNode!=null && ancestorNode.m_reachabilityIndex==m_reachabilityIndex && m_reachabilityIndex.isAncestorNode(ancestorNode,this);
+        }
         for (HierarchyNode<E> node : getAncestorNodes())
             if (node.isEquivalentElement(ancestor))
                 return true;
         return false;
     }
     public boolean isDescendantElement(E descendant) {
+        if (m_reachabilityIndex!=null) {
+            HierarchyNode<E> descendantNode=m_reachabilityIndex.getNodeForElement(descendant);
+            return descendantNode!=null && descendantNode.m_reachabilityIndex==m_reachabilityIndex && m_reachabilityIndex.isAncestorNode(this,descendantNode);
+        }
         for (HierarchyNode<E> node : getDescendantNodes())
             if (node.isEquivalentElement(descendant))
                 return true;
@@ -69,10 +81,32 @@ public class HierarchyNode<E> {
     public Set<HierarchyNode<E>> getChildNodes() {
         return Collections.unmodifiableSet(m_childNodes);
     }
+    public boolean isAncestorNode(HierarchyNode<E> ancestorNode) {
+        if (m_reachabilityIndex!=null && ancestorNode.m_reachabilityIndex==m_reachabilityIndex)
+            return m_reachabilityIndex.isAncestorNode(ancestorNode,this);
+        else
+            return getAncestorNodes().contains(ancestorNode);
+    }
+    public boolean isDescendantNode(HierarchyNode<E> descendantNode) {
+        if (m_reachabilityIndex!=null && descendantNode.m_reachabilityIndex==m_reachabilityIndex)
+            return m_reachabilityIndex.isAncestorNode(this,descendantNode);
+        else
+            return getDescendantNodes().contains(descendantNode);
+    }
     public Set<HierarchyNode<E>> getAncestorNodes() {
+        if (m_reachabilityIndex!=null) {
+            Set<HierarchyNode<E>> result=new HashSet<HierarchyNode<E>>(2*m_reachabilityIndex.getNumberOfAncestorNodes(this));
+            m_reachabilityIndex.addAncestorNodes(this,result);
+            return result;
+        }
         return getAncestorNodes(Collections.singleton(this));
     }
     public Set<HierarchyNode<E>> getDescendantNodes() {
+        if (m_reachabilityIndex!=null) {
+            Set<HierarchyNode<E>> result=new HashSet<HierarchyNode<E>>(2*m_reachabilityIndex.getNumberOfDescendantNodes(this));
+            m_reachabilityIndex.addDescendantNodes(this,result);
+            return result;
+        }
         return getDescendantNodes(Collections.singleton(this));
     }
     public String toString() {
@@ -83,7 +117,9 @@ public class HierarchyNode<E> {
         Queue<HierarchyNode<T>> toVisit=new LinkedList<HierarchyNode<T>>(inputNodes);
         while (!toVisit.isEmpty()) {
             HierarchyNode<T> current=toVisit.poll();
-            if (result.add(current))
+            if (current.m_reachabilityIndex!=null)
+                current.m_reachabilityIndex.addAncestorNodes(current,result);
+            else if (result.add(current))
                 toVisit.addAll(current.getParentNodes());
         }
         return result;
@@ -93,7 +129,9 @@ public class HierarchyNode<E> {
         Queue<HierarchyNode<T>> toVisit=new LinkedList<HierarchyNode<T>>(inputNodes);
         while (!toVisit.isEmpty()) {
             HierarchyNode<T> current=toVisit.poll();
-            if (result.add(current))
+            if (current.m_reachabilityIndex!=null)
+                current.m_reachabilityIndex.addDescendantNodes(current,result);
+            else if (result.add(current))
                 toVisit.addAll(current.getChildNodes());
         }
         return result;
@@ -0,0 +1,223 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+   
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+   
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+   
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.hierarchy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A compressed transitive closure of a finished hierarchy. The nodes are numbered twice in post-order: once by
+ * a depth-first search from the top node along the child edges, and once by a depth-first search from the bottom
+ * node along the parent edges. Each node then stores its descendants (ancestors) as a short list of intervals
+ * of the first (second) numbering, computed from the spanning tree of the search and merged with the intervals
+ * of the node's children (parents). For tree-like hierarchies each node needs only a few intervals, so
+ * reachability tests take time proportional to the number of intervals and ancestor and descendant enumerations
+ * do not need to search the hierarchy.
+ */
+public class HierarchyReachabilityIndex<E> {
+    protected final Map<E,HierarchyNode<E>> m_nodesByElements;
+    protected final HierarchyNode<E>[] m_nodesByDescendantNumber;
+    protected final HierarchyNode<E>[] m_nodesByAncestorNumber;
+    protected final int[][] m_descendantIntervals;
+    protected final int[][] m_ancestorIntervals;
+
+    public HierarchyReachabilityIndex(Hierarchy<E> hierarchy) {
+        m_nodesByElements=hierarchy.m_nodesByElements;
+        int numberOfNodes=new HashSet<HierarchyNode<E>>(m_nodesByElements.values()).size();
+        m_nodesByDescendantNumber=createNodeArray(numberOfNodes);
+        m_nodesByAncestorNumber=createNodeArray(numberOfNodes);
+        m_descendantIntervals=new int[numberOfNodes][];
+        m_ancestorIntervals=new int[numberOfNodes][];
+        for (HierarchyNode<E> node : m_nodesByElements.values()) {
+            node.m_reachabilityIndex=null;
+            node.m_indexNumber=-1;
+        }
+        int numberOfDescendantNumbers=number(hierarchy.m_topNode,true);
+        for (int index=0;index<numberOfDescendantNumbers;index++)
+            m_nodesByDescendantNumber[index].m_indexNumber=index;
+        int numberOfAncestorNumbers=number(hierarchy.m_bottomNode,false);
+        // Only nodes reached by both searches are indexed; others fall back to searching the hierarchy.
+        for (int index=0;index<numberOfAncestorNumbers;index++) {
+            HierarchyNode<E> node=m_nodesByAncestorNumber[index];
+            if (node.m_indexNumber>=0)
+                node.m_reachabilityIndex=this;
+        }
+    }
+    @SuppressWarnings("unchecked")
+    protected static <E> HierarchyNode<E>[] createNodeArray(int size) {
+        // generic arrays cannot be created directly; the array only ever holds nodes of type HierarchyNode<E>
+        return (HierarchyNode<E>[])new HierarchyNode<?>[size];
+    }
+    public int getNumberOfIntervals() {
+        int result=0;
+        for (int index=0;index<m_descendantIntervals.length;index++) {
+            if (m_descendantIntervals[index]!=null)
+                result+=m_descendantIntervals[index].length/2;
+            if (m_ancestorIntervals[index]!=null)
+                result+=m_ancestorIntervals[index].length/2;
+        }
+        return result;
+    }
+    public HierarchyNode<E> getNodeForElement(E element) {
+        return m_nodesByElements.get(element);
+    }
+    /**
+     * Checks whether the descendant node is reachable from the ancestor node; both nodes must be indexed by this
+     * index. Every node is its own ancestor.
+     */
+    public boolean isAncestorNode(HierarchyNode<E> ancestorNode,HierarchyNode<E> descendantNode) {
+        return contains(m_descendantIntervals[ancestorNode.m_indexNumber],descendantNode.m_indexNumber);
+    }
+    public int getNumberOfAncestorNodes(HierarchyNode<E> node) {
+        return size(m_ancestorIntervals[node.m_indexNumber]);
+    }
+    public int getNumberOfDescendantNodes(HierarchyNode<E> node) {
+        return size(m_descendantIntervals[node.m_indexNumber]);
+    }
+    public void addAncestorNodes(HierarchyNode<E> node,Collection<HierarchyNode<E>> result) {
+        addNodes(m_ancestorIntervals[node.m_indexNumber],m_nodesByAncestorNumber,result);
+    }
+    public void addDescendantNodes(HierarchyNode<E> node,Collection<HierarchyNode<E>> result) {
+        addNodes(m_descendantIntervals[node.m_indexNumber],m_nodesByDescendantNumber,result);
+    }
+    /**
+     * Numbers the nodes reachable from the given node in post-order and computes their interval lists. The search
+     * is iterative so that deep hierarchies cannot overflow the stack.
+     */
+    protected int number(HierarchyNode<E> startNode,boolean downwards) {
+        HierarchyNode<E>[] nodesByNumber=(downwards ? m_nodesByDescendantNumber : m_nodesByAncestorNumber);
+        int[][] intervals=(downwards ? m_descendantIntervals : m_ancestorIntervals);
+        Set<HierarchyNode<E>> visited=new HashSet<HierarchyNode<E>>();
+        Map<HierarchyNode<E>,int[]> intervalsByNode=new HashMap<HierarchyNode<E>,int[]>();
+        List<HierarchyNode<E>> nodeStack=new ArrayList<HierarchyNode<E>>();
+        List<Iterator<HierarchyNode<E>>> iteratorStack=new ArrayList<Iterator<HierarchyNode<E>>>();
+        List<Integer> startStack=new ArrayList<Integer>();
+        int nextNumber=0;
+        visited.add(startNode);
+        nodeStack.add(startNode);
+        iteratorStack.add(successors(startNode,downwards).iterator());
+        startStack.add(nextNumber);
+        while (!nodeStack.isEmpty()) {
+            int top=nodeStack.size()-1;
+            Iterator<HierarchyNode<E>> iterator=iteratorStack.get(top);
+            if (iterator.hasNext()) {
+                HierarchyNode<E> successor=iterator.next();
+                if (visited.add(successor)) {
+                    nodeStack.add(successor);
+                    iteratorStack.add(successors(successor,downwards).iterator());
+                    startStack.add(nextNumber);
+                }
+            }
+            else {
+                HierarchyNode<E> node=nodeStack.remove(top);
+                iteratorStack.remove(top);
+                int start=startStack.remove(top);
+                int number=nextNumber++;
+                nodesByNumber[number]=node;
+                // All successors have been finished, so their intervals are known.
+                List<int[]> successorIntervals=new ArrayList<int[]>();
+                for (HierarchyNode<E> successor : successors(node,downwards)) {
+                    int[] successorIntervalList=intervalsByNode.get(successor);
+                    if (successorIntervalList!=null)
+                        successorIntervals.add(successorIntervalList);
+                }
+                int[] nodeIntervals=merge(start,number,successorIntervals);
+                intervalsByNode.put(node,nodeIntervals);
+                if (downwards)
+                    intervals[number]=nodeIntervals;
+            }
+        }
+        if (!downwards) {
+            // The ancestor intervals are stored by the descendant number of each node.
+            for (Map.Entry<HierarchyNode<E>,int[]> entry : intervalsByNode.entrySet()) {
+                HierarchyNode<E> node=entry.getKey();
+                if (node.m_indexNumber>=0)
+                    intervals[node.m_indexNumber]=entry.getValue();
+            }
+        }
+        return nextNumber;
+    }
+    protected static <E> Collection<HierarchyNode<E>> successors(HierarchyNode<E> node,boolean downwards) {
+        return downwards ? node.m_childNodes : node.m_parentNodes;
+    }
+    protected static int[] merge(int start,int end,List<int[]> successorIntervals) {
+        int numberOfIntervals=1;
+        for (int[] intervals : successorIntervals)
+            numberOfIntervals+=intervals.length/2;
+        long[] encoded=new long[numberOfIntervals];
+        int index=0;
+        encoded[index++]=(((long)start)<<32) | end;
+        for (int[] intervals : successorIntervals)
+            for (int intervalIndex=0;intervalIndex<intervals.length;intervalIndex+=2)
+                encoded[index++]=(((long)intervals[intervalIndex])<<32) | intervals[intervalIndex+1];
+        Arrays.sort(encoded);
+        int[] merged=new int[2*numberOfIntervals];
+        int mergedLength=0;
+        for (long interval : encoded) {
+            int intervalStart=(int)(interval>>>32);
+            int intervalEnd=(int)interval;
+            if (mergedLength>0 && intervalStart<=merged[mergedLength-1]+1) {
+                if (intervalEnd>merged[mergedLength-1])
+                    merged[mergedLength-1]=intervalEnd;
+            }
+            else {
+                merged[mergedLength++]=intervalStart;
+                merged[mergedLength++]=intervalEnd;
+            }
+        }
+        if (mergedLength==merged.length)
+            return merged;
+        else {
+            int[] result=new int[mergedLength];
+            System.arraycopy(merged,0,result,0,mergedLength);
+            return result;
+        }
+    }
+    protected static boolean contains(int[] intervals,int number) {
+        int low=0;
+        int high=intervals.length/2-1;
+        while (low<=high) {
+            int middle=(low+high)>>>1;
+            if (number<intervals[2*middle])
+                high=middle-1;
+            else if (number>intervals[2*middle+1])
+                low=middle+1;
+            else
+                return true;
+        }
+        return false;
+    }
+    protected static int size(int[] intervals) {
+        int result=0;
+        for (int index=0;index<intervals.length;index+=2)
+            result+=intervals[index+1]-intervals[index]+1;
+        return result;
+    }
+    protected static <E> void addNodes(int[] intervals,HierarchyNode<E>[] nodesByNumber,Collection<HierarchyNode<E>> result) {
+        for (int index=0;index<intervals.length;index+=2)
+            for (int number=intervals[index];number<=intervals[index+1];number++)
+                result.add(nodesByNumber[number]);
+    }
+}
@@ -20,17 +20,27 @@ package org.semanticweb.HermiT.hierarchy;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import org.semanticweb.HermiT.Concurrency;
 import org.semanticweb.HermiT.Prefixes;
 import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.HermiT.graph.DisjointSets;
 import org.semanticweb.HermiT.graph.Graph;
 import org.semanticweb.HermiT.hierarchy.DeterministicClassification.GraphNode;
 import org.semanticweb.HermiT.hierarchy.RoleElementManager.RoleElement;
@@ -91,8 +101,12 @@ public class InstanceManager {
     protected boolean m_propertiesInitialised;
     protected boolean m_readingOffFoundPossibleConceptInstance;
     protected boolean m_readingOffFoundPossiblePropertyInstance;
-    protected final Map<Individual,Set<Individual>> m_individualToEquivalenceClass;
-    protected Map<Set<Individual>,Set<Set<Individual>>> m_individualToPossibleEquivalenceClass;
+    protected final Map<Individual,Integer> m_individualIndexes;
+    protected final DisjointSets m_sameAsIndividuals;
+    protected DisjointSets m_possiblySameAsIndividuals;
+    protected final BitSet m_completedSameAsClasses;
+    protected int m_numberOfUncompletedSameAsClasses;
+    protected int[] m_individualProfiles;
     protected final ExtensionTable.Retrieval m_binaryRetrieval0Bound;
     protected final ExtensionTable.Retrieval m_binaryRetrieval1Bound;
     protected final ExtensionTable.Retrieval m_binaryRetrieval01Bound;
@@ -110,19 +124,19 @@ public class InstanceManager {
             DLOntology dlo=m_reasoner.getDLOntology();
             m_individuals=new ArrayList<Individual>(dlo.getAllIndividuals()).toArray(new Individual[0]);
             m_complexRoles=new HashSet<AtomicRole>();
-            m_individualToEquivalenceClass=new HashMap<Individual, Set<Individual>>();
+            m_individualIndexes=new HashMap<Individual,Integer>();
             m_nodesForIndividuals=new HashMap<Individual,Node>();
-            for (Individual individual : m_individuals) {
-                m_nodesForIndividuals.put(individual,null);
-                Set<Individual> equivalentIndividuals=new HashSet<Individual>();
-                equivalentIndividuals.add(individual);
-                m_individualToEquivalenceClass.put(individual, equivalentIndividuals);
+            for (int index=0;index<m_individuals.length;index++) {
+                m_nodesForIndividuals.put(m_individuals[index],null);
+                m_individualIndexes.put(m_individuals[index],Integer.valueOf(index));
                 m_interruptFlag.checkInterrupt();
             }
+            m_sameAsIndividuals=new DisjointSets(m_individuals.length);
+            m_completedSameAsClasses=new BitSet(m_individuals.length);
             m_individualsForNodes=new HashMap<Node,Individual>();
             m_canonicalNodeToDetMergedNodes=new HashMap<Node,Set<Node>>();
             m_canonicalNodeToNonDetMergedNodes=new HashMap<Node,Set<Node>>();
-            m_individualToPossibleEquivalenceClass=null;
+            m_possiblySameAsIndividuals=null;
 
             m_topConcept=AtomicConcept.THING;
             m_bottomConcept=AtomicConcept.NOTHING;
@@ -583,30 +597,37 @@ public class InstanceManager {
             m_interruptFlag.checkInterrupt();
         }
     }
+    /**
+     * Individuals whose nodes have been merged deterministically in the model are known to be the same. Individuals whose
+     * nodes have been merged at all are possibly the same, and no other individuals are.
+     */
     protected void initializeSameAs() {
-        m_individualToPossibleEquivalenceClass=new HashMap<Set<Individual>, Set<Set<Individual>>>();
-        for (Node node : m_individualsForNodes.keySet()) {
+        m_possiblySameAsIndividuals=new DisjointSets(m_individuals.length);
+        Map<Node,Integer> indexesForCanonicalNodes=new HashMap<Node,Integer>();
+        for (int index=0;index<m_individuals.length;index++) {
+            Node node=m_nodesForIndividuals.get(m_individuals[index]);
             Node mergedInto=node.getMergedInto();
-            if (mergedInto!=null) {
-                Individual individual1=m_individualsForNodes.get(node);
-                Individual individual2=m_individualsForNodes.get(mergedInto);
-                Set<Individual> individual1Equivalences=m_individualToEquivalenceClass.get(individual1);
-                Set<Individual> individual2Equivalences=m_individualToEquivalenceClass.get(individual2);
-                if (node.getMergedIntoDependencySet().isEmpty()) {
-                    individual1Equivalences.addAll(individual2Equivalences);
-                    m_individualToEquivalenceClass.put(individual2, individual1Equivalences);
-                }
-                else {
-                    Set<Set<Individual>> possibleEquivalenceClasses=m_individualToPossibleEquivalenceClass.get(individual1Equivalences);
-                    if (possibleEquivalenceClasses==null) {
-                        possibleEquivalenceClasses=new HashSet<Set<Individual>>();
-                        m_individualToPossibleEquivalenceClass.put(individual1Equivalences,possibleEquivalenceClasses);
-                    }
-                    possibleEquivalenceClasses.add(individual2Equivalences);
-                }
+            if (mergedInto!=null && node.getMergedIntoDependencySet().isEmpty()) {
+                Individual mergedIntoIndividual=m_individualsForNodes.get(mergedInto);
+                if (mergedIntoIndividual!=null)
+                    m_sameAsIndividuals.union(index,m_individualIndexes.get(mergedIntoIndividual).intValue());
             }
+            Integer canonicalNodeIndex=indexesForCanonicalNodes.get(node.getCanonicalNode());
+            if (canonicalNodeIndex==null)
+                indexesForCanonicalNodes.put(node.getCanonicalNode(),Integer.valueOf(index));
+            else
+                m_possiblySameAsIndividuals.union(index,canonicalNodeIndex.intValue());
             m_interruptFlag.checkInterrupt();
         }
+        m_numberOfUncompletedSameAsClasses=0;
+        for (int index=0;index<m_individuals.length;index++)
+            if (m_sameAsIndividuals.find(index)==index) {
+                // the known class is contained in the group of possibly same individuals
+                if (m_possiblySameAsIndividuals.getSetSize(index)>m_sameAsIndividuals.getSetSize(index))
+                    m_numberOfUncompletedSameAsClasses++;
+                else
+                    m_completedSameAsClasses.set(index);
+            }
     }
     protected boolean readOffTypes(Individual ind, Node nodeForIndividual) {
         boolean hasBeenAdded=false;
@@ -893,52 +914,151 @@ public class InstanceManager {
         }
         m_realizationCompleted=true;
     }
+    /**
+     * Tests the possible instances of all object properties. A property is processed once all its subproperties have been
+     * processed since the pairs that are not instances of a property are possible instances of its superproperties. The
+     * possible successors of an individual are tested together and, with Configuration.numberOfReasoningThreads larger
+     * than one, the tests for the properties of one level of the hierarchy are divided among worker threads of a thread
+     * pool that is shared by all levels.
+     */
     public void realizeObjectRoles(ReasonerProgressMonitor monitor) {
         if (m_readingOffFoundPossiblePropertyInstance && !m_roleRealizationCompleted) {
             if (monitor!=null)
                 monitor.reasonerTaskStarted("Computing instances for all object properties...");
             int numHierarchyNodes=m_currentRoleHierarchy.m_nodesByElements.values().size();
             int currentHierarchyNode=0;
-            Queue<HierarchyNode<RoleElement>> toProcess=new LinkedList<HierarchyNode<RoleElement>>();
-            Set<HierarchyNode<RoleElement>> visited=new HashSet<HierarchyNode<RoleElement>>();
-            toProcess.add(m_currentRoleHierarchy.m_bottomNode);
-            while (!toProcess.isEmpty()) {
-                if (monitor!=null)
-                    monitor.reasonerTaskProgressChanged(currentHierarchyNode,numHierarchyNodes);
-                HierarchyNode<RoleElement> current=toProcess.remove();
-                visited.add(current);
-                currentHierarchyNode++;
-                RoleElement roleElement=current.getRepresentative();
-                Role role=roleElement.getRole();
-                Set<HierarchyNode<RoleElement>> parents=current.getParentNodes();
-                for (HierarchyNode<RoleElement> parent : parents)
-                    if (!toProcess.contains(parent) && !visited.contains(parent))
-                        toProcess.add(parent);
-                if (roleElement.hasPossibles()) {
-                    for (Individual individual : roleElement.m_possibleRelations.keySet()) {
+            List<AtomicRole> atomicRoles=new ArrayList<AtomicRole>();
+            // no pairs are tested for the top property, which relates all individuals, or for the bottom property, which
+            // relates none, so only the other properties need an axiom for AllValuesFrom(r not(PN))
+            for (HierarchyNode<RoleElement> node : m_currentRoleHierarchy.getAllNodesSet())
+                if (node!=m_currentRoleHierarchy.m_topNode && node!=m_currentRoleHierarchy.m_bottomNode)
+                    for (RoleElement roleElement : node.getEquivalentElements())
+                        atomicRoles.add(roleElement.getRole());
+            RoleInstanceTester[] testers=createRoleInstanceTesters(atomicRoles);
+            ExecutorService executor=(testers.length>1 ? Executors.newFixedThreadPool(testers.length) : null);
+            try {
+                Map<HierarchyNode<RoleElement>,Integer> numbersOfUnprocessedChildren=new HashMap<HierarchyNode<RoleElement>,Integer>();
+                List<HierarchyNode<RoleElement>> level=Collections.singletonList(m_currentRoleHierarchy.m_bottomNode);
+                while (!level.isEmpty()) {
+                    if (monitor!=null)
+                        monitor.reasonerTaskProgressChanged(currentHierarchyNode,numHierarchyNodes);
+                    List<RoleInstanceTest> tests=new ArrayList<RoleInstanceTest>();
+                    for (HierarchyNode<RoleElement> node : level) {
+                        RoleElement roleElement=node.getRepresentative();
+                        if (roleElement.hasPossibles()) {
+                            for (Map.Entry<Individual,Set<Individual>> entry : roleElement.m_possibleRelations.entrySet())
+                                tests.add(new RoleInstanceTest(node,entry.getKey(),new ArrayList<Individual>(entry.getValue())));
+                            roleElement.m_possibleRelations.clear();
+                        }
+                    }
+                    runRoleInstanceTests(executor,testers,tests);
+                    for (RoleInstanceTest test : tests) {
+                        RoleElement roleElement=test.m_node.getRepresentative();
                         Set<Individual> nonInstances=new HashSet<Individual>();
-                        for (Individual successor : roleElement.m_possibleRelations.get(individual)) {
-                            if (isRoleInstance(role, individual, successor))
-                                roleElement.addKnown(individual, successor);
+                        for (Individual successor : test.m_possibleSuccessors) {
+                            if (test.m_successors.contains(successor)) {
+                                roleElement.addKnown(test.m_individual,successor);
+                                if (m_tableauMonitor!=null)
+                                    m_tableauMonitor.possibleInstanceIsInstance();
+                            }
                             else {
-                                nonInstances.add(individual);
+                                nonInstances.add(successor);
+                                if (m_tableauMonitor!=null)
+                                    m_tableauMonitor.possibleInstanceIsNotInstance();
                             }
                         }
-                        for (HierarchyNode<RoleElement> parent : parents) {
-                            RoleElement parentRepresentative=parent.getRepresentative();
-                            if (!parentRepresentative.equals(m_topRoleElement))
-                                parentRepresentative.addPossibles(individual, nonInstances);
+                        if (!nonInstances.isEmpty())
+                            for (HierarchyNode<RoleElement> parent : test.m_node.getParentNodes()) {
+                                RoleElement parentRepresentative=parent.getRepresentative();
+                                if (!parentRepresentative.equals(m_topRoleElement))
+                                    parentRepresentative.addPossibles(test.m_individual,nonInstances);
+                            }
+                    }
+                    List<HierarchyNode<RoleElement>> nextLevel=new ArrayList<HierarchyNode<RoleElement>>();
+                    for (HierarchyNode<RoleElement> node : level) {
+                        currentHierarchyNode++;
+                        for (HierarchyNode<RoleElement> parent : node.getParentNodes()) {
+                            Integer numberOfUnprocessedChildren=numbersOfUnprocessedChildren.get(parent);
+                            int remaining=(numberOfUnprocessedChildren==null ? parent.getChildNodes().size() : numberOfUnprocessedChildren.intValue())-1;
+                            numbersOfUnprocessedChildren.put(parent,Integer.valueOf(remaining));
+                            if (remaining==0)
+                                nextLevel.add(parent);
                         }
                     }
-                    roleElement.m_possibleRelations.clear();
+                    level=nextLevel;
+                    m_interruptFlag.checkInterrupt();
                 }
-                m_interruptFlag.checkInterrupt();
+            }
+            finally {
+                if (executor!=null)
+                    executor.shutdownNow();
+                if (testers.length>1)
+                    for (RoleInstanceTester tester : testers)
+                        m_reasoner.releaseWorkerTableau(tester.getTableau());
             }
             if (monitor!=null)
                 monitor.reasonerTaskStopped();
         }
         m_roleRealizationCompleted=true;
     }
+    protected RoleInstanceTester[] createRoleInstanceTesters(Collection<AtomicRole> atomicRoles) {
+        OWLAxiom[] axioms=RoleInstanceTester.getAxioms(m_reasoner.getDataFactory(),atomicRoles);
+        int numberOfThreads=Math.max(1,m_reasoner.getConfiguration().numberOfReasoningThreads);
+        if (numberOfThreads==1)
+            return new RoleInstanceTester[] { new RoleInstanceTester(m_reasoner.getTableau(axioms)) };
+        RoleInstanceTester[] testers=new RoleInstanceTester[numberOfThreads];
+        try {
+            for (int index=0;index<numberOfThreads;index++)
+                testers[index]=new RoleInstanceTester(m_reasoner.createWorkerTableau(axioms));
+        }
+        catch (RuntimeException e) {
+            for (RoleInstanceTester tester : testers)
+                if (tester!=null)
+                    m_reasoner.releaseWorkerTableau(tester.getTableau());
+            throw e;
+        }
+        return testers;
+    }
+    protected void runRoleInstanceTests(ExecutorService executor,RoleInstanceTester[] testers,final List<RoleInstanceTest> tests) {
+        if (testers.length==1 || tests.size()<=1) {
+            for (RoleInstanceTest test : tests) {
+                test.run(testers[0]);
+                m_interruptFlag.checkInterrupt();
+            }
+        }
+        else {
+            final int numberOfWorkers=Math.min(testers.length,tests.size());
+            List<Callable<Object>> workers=new ArrayList<Callable<Object>>();
+            for (int worker=0;worker<numberOfWorkers;worker++) {
+                final int firstTest=worker;
+                final RoleInstanceTester tester=testers[worker];
+                workers.add(new Callable<Object>() {
+                    public Object call() {
+                        for (int index=firstTest;index<tests.size();index+=numberOfWorkers)
+                            tests.get(index).run(tester);
+                        return null;
+                    }
+                });
+            }
+            Concurrency.runConcurrently(executor,workers);
+        }
+    }
+
+    protected static class RoleInstanceTest {
+        protected final HierarchyNode<RoleElement> m_node;
+        protected final Individual m_individual;
+        protected final List<Individual> m_possibleSuccessors;
+        protected Set<Individual> m_successors;
+
+        public RoleInstanceTest(HierarchyNode<RoleElement> node,Individual individual,List<Individual> possibleSuccessors) {
+            m_node=node;
+            m_individual=individual;
+            m_possibleSuccessors=possibleSuccessors;
+        }
+        public void run(RoleInstanceTester tester) {
+            m_successors=tester.getSuccessors(m_node.getRepresentative().getRole(),m_individual,m_possibleSuccessors);
+        }
+    }
     public Set<HierarchyNode<AtomicConcept>> getTypes(Individual individual,boolean direct) {
         if (m_isInconsistent)
             return Collections.singleton(m_currentConceptHierarchy.m_bottomNode);
@@ -995,6 +1115,13 @@ public class InstanceManager {
         AtomicConceptElement element=m_conceptToElement.get(representative);
         if ((element!=null && element.isKnown(individual)) || (!direct && node==m_currentConceptHierarchy.m_topNode))
             return true;
+        if (!direct && (element==null || !element.isPossible(individual))) {
+            for (HierarchyNode<AtomicConcept> child : node.getChildNodes())
+                if (hasType(individual, child, false))
+                    return true;
+            // a subconcept may have passed the individual on as a possible instance of this concept
+            element=m_conceptToElement.get(representative);
+        }
         if (element!=null && element.isPossible(individual)) {
             if (isInstance(individual, representative)) {
                 element.setToKnown(individual);
@@ -1015,17 +1142,20 @@ public class InstanceManager {
                 }
             }
         }
-        else if (!direct)
-            for (HierarchyNode<AtomicConcept> child : node.getChildNodes())
-                if (hasType(individual, child, false))
-                    return true;
         return false;
     }
     public Set<Individual> getInstances(AtomicConcept atomicConcept, boolean direct) {
+        return getInstances(atomicConcept,direct,Integer.MAX_VALUE);
+    }
+    /**
+     * Returns at most the given number of instances of the concept. The known instances are collected first, and the
+     * possible instances are only decided until enough instances have been found; the others remain possible instances.
+     */
+    public Set<Individual> getInstances(AtomicConcept atomicConcept,boolean direct,int maximumNumberOfInstances) {
         Set<Individual> result=new HashSet<Individual>();
-        HierarchyNode<AtomicConcept> node=m_currentConceptHierarchy.getNodeForElement(atomicConcept);
-        if (node==null) return result; // unknown concept
-        getInstancesForNode(node,result,direct);
+        Iterator<Individual> iterator=getInstanceIterator(atomicConcept,direct);
+        while (result.size()<maximumNumberOfInstances && iterator.hasNext())
+            result.add(iterator.next());
         return result;
     }
     public Set<Individual> getInstances(HierarchyNode<AtomicConcept> node,boolean direct) {
@@ -1035,66 +1165,375 @@ public class InstanceManager {
             // complex concept instances
             if (!direct) {
                 for (HierarchyNode<AtomicConcept> child : node.getChildNodes()) {
-                    getInstancesForNode(child, result, direct);
+                    addAll(new InstanceIterator(child,direct),result);
                 }
             }
         }
         else
-            getInstancesForNode(nodeFromCurrentHierarchy, result, direct);
+            addAll(new InstanceIterator(nodeFromCurrentHierarchy,direct),result);
         return result;
     }
-    protected void getInstancesForNode(HierarchyNode<AtomicConcept> node,Set<Individual> result,boolean direct) {
-        assert !direct || m_usesClassifiedConceptHierarchy;
-        AtomicConcept representative=node.getRepresentative();
-        if (!direct && representative.equals(m_topConcept)) {
-            for (Individual individual : m_individuals)
-                if (isResultRelevantIndividual(individual))
-                    result.add(individual);
-            return;
+    /**
+     * Returns an iterator over the instances of the concept that decides the possible instances only as the iteration
+     * proceeds: the known instances are returned first, and then possible instances are tested in small batches. Each
+     * instance is returned once; to this end, the iterator keeps a bit set with one bit per individual of the ontology.
+     * The iterator must not be used after the ontology has changed.
+     */
+    public Iterator<Individual> getInstanceIterator(AtomicConcept atomicConcept,boolean direct) {
+        HierarchyNode<AtomicConcept> node=m_currentConceptHierarchy.getNodeForElement(atomicConcept);
+        if (node==null) {
+            // unknown concept
+            List<Individual> noInstances=Collections.emptyList();
+            return noInstances.iterator();
         }
-        AtomicConceptElement representativeElement=m_conceptToElement.get(representative);
-        if (representativeElement!=null) {
-            Set<Individual> possibleInstances=representativeElement.getPossibleInstances();
-            if (!possibleInstances.isEmpty()) {
-                for (Individual possibleInstance : new HashSet<Individual>(possibleInstances)) {
-                    if (isInstance(possibleInstance, representative))
-                        representativeElement.setToKnown(possibleInstance);
-                    else {
-                        representativeElement.m_possibleInstances.remove(possibleInstance);
-                        if (representativeElement.m_knownInstances.isEmpty() && representativeElement.m_possibleInstances.isEmpty() && representative!=m_topConcept)
-                            m_conceptToElement.remove(representative);
-                        for (HierarchyNode<AtomicConcept> parent : node.getParentNodes()) {
-                            AtomicConcept parentConcept=parent.getRepresentative();
-                            AtomicConceptElement parentElement=m_conceptToElement.get(parentConcept);
-                            if (parentElement==null) {
-                                parentElement=new AtomicConceptElement(null, null);
-                                m_conceptToElement.put(parentConcept, parentElement);
-                            }
-                            parentElement.addPossible(possibleInstance);
-                        }
-                    }
+        return new InstanceIterator(node,direct);
+    }
+    protected static void addAll(Iterator<Individual> iterator,Set<Individual> result) {
+        while (iterator.hasNext())
+            result.add(iterator.next());
+    }
+    /**
+     * Returns the nodes below the given node such that each node comes after all its descendants. The possible instances
+     * that are not instances of a concept become possible instances of its parents, so the nodes are processed in this
+     * order.
+     */
+    protected static <E> List<HierarchyNode<E>> getNodesBottomUp(HierarchyNode<E> node,HierarchyNode<E> bottomNode) {
+        List<HierarchyNode<E>> result=new ArrayList<HierarchyNode<E>>();
+        Set<HierarchyNode<E>> visited=new HashSet<HierarchyNode<E>>();
+        // each stack entry is a node and the iterator over its children that have not been visited yet
+        LinkedList<HierarchyNode<E>> nodes=new LinkedList<HierarchyNode<E>>();
+        LinkedList<Iterator<HierarchyNode<E>>> children=new LinkedList<Iterator<HierarchyNode<E>>>();
+        visited.add(node);
+        nodes.push(node);
+        children.push(node.getChildNodes().iterator());
+        while (!nodes.isEmpty()) {
+            if (children.peek().hasNext()) {
+                HierarchyNode<E> child=children.peek().next();
+                if (child!=bottomNode && visited.add(child)) {
+                    nodes.push(child);
+                    children.push(child.getChildNodes().iterator());
                 }
             }
-            for (Individual individual : representativeElement.getKnownInstances()) {
-                if (isResultRelevantIndividual(individual)) {
-                    boolean isDirect=true;
-                    if (direct) {
-                        for (HierarchyNode<AtomicConcept> child : node.getChildNodes()) {
-                            if (hasType(individual, child, false)) {
-                                isDirect=false;
-                                break;
-                            }
+            else {
+                result.add(nodes.pop());
+                children.pop();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns individuals as they are found by fillBuffer. The returned individuals are recorded in a bit set over the
+     * indexes of the individuals, so that none is returned twice.
+     */
+    protected abstract class IndividualIterator implements Iterator<Individual> {
+        protected final BitSet m_returnedIndividuals;
+        protected final Queue<Individual> m_buffer;
+        protected boolean m_exhausted;
+
+        public IndividualIterator() {
+            m_returnedIndividuals=new BitSet(m_individuals.length);
+            m_buffer=new LinkedList<Individual>();
+        }
+        public boolean hasNext() {
+            while (m_buffer.isEmpty() && !m_exhausted) {
+                m_exhausted=!fillBuffer();
+                m_interruptFlag.checkInterrupt();
+            }
+            return !m_buffer.isEmpty();
+        }
+        public Individual next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            return m_buffer.remove();
+        }
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+        protected void addToBuffer(Individual individual) {
+            if (isResultRelevantIndividual(individual)) {
+                Integer index=m_individualIndexes.get(individual);
+                if (index==null || !m_returnedIndividuals.get(index.intValue())) {
+                    if (index!=null)
+                        m_returnedIndividuals.set(index.intValue());
+                    m_buffer.add(individual);
+                }
+            }
+        }
+        /**
+         * Adds the next individuals to the buffer, possibly none, and returns false if there are no more individuals.
+         */
+        protected abstract boolean fillBuffer();
+    }
+
+    protected class InstanceIterator extends IndividualIterator {
+        protected static final int BATCH_SIZE=64;
+
+        protected final boolean m_direct;
+        protected final boolean m_allIndividuals;
+        protected final List<HierarchyNode<AtomicConcept>> m_nodes;
+        protected int m_currentIndex;
+        protected boolean m_decidingPossibleInstances;
+
+        public InstanceIterator(HierarchyNode<AtomicConcept> node,boolean direct) {
+            m_direct=direct;
+            m_allIndividuals=(!direct && node.getRepresentative().equals(m_topConcept));
+            if (m_direct || m_allIndividuals)
+                m_nodes=Collections.singletonList(node);
+            else
+                m_nodes=getNodesBottomUp(node,m_currentConceptHierarchy.m_bottomNode);
+        }
+        protected boolean fillBuffer() {
+            if (m_allIndividuals) {
+                for (int count=0;count<BATCH_SIZE && m_currentIndex<m_individuals.length;count++)
+                    addToBuffer(m_individuals[m_currentIndex++]);
+                return m_currentIndex<m_individuals.length;
+            }
+            if (m_currentIndex==m_nodes.size()) {
+                if (m_decidingPossibleInstances)
+                    return false;
+                m_decidingPossibleInstances=true;
+                m_currentIndex=0;
+            }
+            HierarchyNode<AtomicConcept> node=m_nodes.get(m_currentIndex);
+            AtomicConceptElement element=m_conceptToElement.get(node.getRepresentative());
+            if (element==null)
+                m_currentIndex++;
+            else if (!m_decidingPossibleInstances) {
+                for (Individual individual : element.getKnownInstances().toArray(new Individual[0]))
+                    addInstance(node,individual);
+                m_currentIndex++;
+            }
+            else if (element.hasPossibles()) {
+                for (Individual individual : decidePossibleInstances(node,element,BATCH_SIZE))
+                    addInstance(node,individual);
+            }
+            else
+                m_currentIndex++;
+            return true;
+        }
+        protected void addInstance(HierarchyNode<AtomicConcept> node,Individual individual) {
+            if (m_direct)
+                for (HierarchyNode<AtomicConcept> child : node.getChildNodes())
+                    if (hasType(individual,child,false))
+                        return;
+            addToBuffer(individual);
+        }
+    }
+
+    protected class PropertyValueIterator extends IndividualIterator {
+        protected final Individual m_subject;
+        protected final boolean m_allIndividuals;
+        protected final List<HierarchyNode<RoleElement>> m_nodes;
+        protected int m_currentIndex;
+        protected boolean m_decidingPossibleValues;
+        protected DLOntology m_deltaDLOntology;
+        protected Tableau m_tableau;
+
+        public PropertyValueIterator(HierarchyNode<RoleElement> node,Individual subject) {
+            m_subject=subject;
+            m_allIndividuals=(node.getRepresentative().equals(m_topRoleElement) || m_isInconsistent);
+            if (m_allIndividuals)
+                m_nodes=Collections.emptyList();
+            else
+                m_nodes=getNodesBottomUp(node,null);
+        }
+        protected boolean fillBuffer() {
+            if (m_allIndividuals) {
+                for (int count=0;count<InstanceIterator.BATCH_SIZE && m_currentIndex<m_individuals.length;count++)
+                    addToBuffer(m_individuals[m_currentIndex++]);
+                return m_currentIndex<m_individuals.length;
+            }
+            if (m_currentIndex==m_nodes.size()) {
+                if (m_decidingPossibleValues)
+                    return false;
+                m_decidingPossibleValues=true;
+                m_currentIndex=0;
+            }
+            HierarchyNode<RoleElement> node=m_nodes.get(m_currentIndex++);
+            RoleElement element=node.getRepresentative();
+            if (!m_decidingPossibleValues) {
+                Set<Individual> knownValues=element.getKnownRelations().get(m_subject);
+                if (knownValues!=null)
+                    for (Individual value : knownValues.toArray(new Individual[0]))
+                        addToBuffer(value);
+            }
+            else {
+                Set<Individual> possibleValues=element.getPossibleRelations().get(m_subject);
+                if (possibleValues!=null) {
+                    List<Individual> candidates=new ArrayList<Individual>(possibleValues);
+                    RoleInstanceTester tester=new RoleInstanceTester(getTableau());
+                    Set<Individual> values=tester.getSuccessors(element.getRole(),m_subject,candidates);
+                    for (Individual candidate : candidates) {
+                        if (values.contains(candidate)) {
+                            element.setToKnown(m_subject,candidate);
+                            addToBuffer(candidate);
+                            if (m_tableauMonitor!=null)
+                                m_tableauMonitor.possibleInstanceIsInstance();
+                        }
+                        else {
+                            element.removePossible(m_subject,candidate);
+                            for (HierarchyNode<RoleElement> parent : node.getParentNodes())
+                                if (!parent.getRepresentative().equals(m_topRoleElement))
+                                    parent.getRepresentative().addPossible(m_subject,candidate);
+                            if (m_tableauMonitor!=null)
+                                m_tableauMonitor.possibleInstanceIsNotInstance();
                         }
                     }
-                    if (!direct || isDirect)
-                        result.add(individual);
                 }
             }
+            return true;
         }
-        if (!direct)
-            for (HierarchyNode<AtomicConcept> child : node.getChildNodes())
-                if (child!=m_currentConceptHierarchy.m_bottomNode)
-                    getInstancesForNode(child, result, false);
+        /**
+         * Returns a tableau with the axioms for AllValuesFrom(r not(PN)) for the properties of all nodes. The axioms are
+         * clausified once per iterator, and the tableau is reused as long as it still has them; since the tableau of the
+         * reasoner can be used for other tests between two calls of fillBuffer, the axioms are set again if they have
+         * been cleared.
+         */
+        protected Tableau getTableau() {
+            if (m_deltaDLOntology==null) {
+                List<AtomicRole> atomicRoles=new ArrayList<AtomicRole>();
+                for (HierarchyNode<RoleElement> node : m_nodes)
+                    if (node!=m_currentRoleHierarchy.m_topNode && node!=m_currentRoleHierarchy.m_bottomNode)
+                        atomicRoles.add(node.getRepresentative().getRole());
+                m_deltaDLOntology=m_reasoner.createDeltaDLOntology(RoleInstanceTester.getAxioms(m_reasoner.getDataFactory(),atomicRoles));
+            }
+            if (m_tableau==null || m_tableau.getAdditionalDLOntology()!=m_deltaDLOntology)
+                m_tableau=m_reasoner.getTableau(m_deltaDLOntology);
+            return m_tableau;
+        }
+    }
+    /**
+     * Decides possible instances of the concept of the node until the given number of them has been found to be
+     * instances. The possible instances are grouped by their known types and properties, larger groups first, and are
+     * decided by findInstances. Non-instances become possible instances of the parent concepts. Returns the instances
+     * that have been found.
+     */
+    protected Set<Individual> decidePossibleInstances(HierarchyNode<AtomicConcept> node,AtomicConceptElement element,int maximumNumberOfNewInstances) {
+        AtomicConcept atomicConcept=node.getRepresentative();
+        Set<Individual> instances=new HashSet<Individual>();
+        Set<Individual> nonInstances=new HashSet<Individual>();
+        findInstances(atomicConcept,planInstanceTests(element.getPossibleInstances()),maximumNumberOfNewInstances,instances,nonInstances);
+        for (Individual instance : instances) {
+            element.setToKnown(instance);
+            if (m_tableauMonitor!=null)
+                m_tableauMonitor.possibleInstanceIsInstance();
+        }
+        for (Individual nonInstance : nonInstances) {
+            element.m_possibleInstances.remove(nonInstance);
+            if (m_tableauMonitor!=null)
+                m_tableauMonitor.possibleInstanceIsNotInstance();
+            for (HierarchyNode<AtomicConcept> parent : node.getParentNodes()) {
+                AtomicConcept parentConcept=parent.getRepresentative();
+                AtomicConceptElement parentElement=m_conceptToElement.get(parentConcept);
+                if (parentElement==null) {
+                    parentElement=new AtomicConceptElement(null, null);
+                    m_conceptToElement.put(parentConcept, parentElement);
+                }
+                parentElement.addPossible(nonInstance);
+            }
+        }
+        if (element.m_knownInstances.isEmpty() && element.m_possibleInstances.isEmpty() && atomicConcept!=m_topConcept)
+            m_conceptToElement.remove(atomicConcept);
+        return instances;
+    }
+    protected List<List<Individual>> planInstanceTests(Set<Individual> possibleInstances) {
+        if (m_individualProfiles==null)
+            m_individualProfiles=computeIndividualProfiles();
+        Map<Integer,List<Individual>> groupsByProfile=new HashMap<Integer,List<Individual>>();
+        for (Individual possibleInstance : possibleInstances) {
+            Integer index=m_individualIndexes.get(possibleInstance);
+            Integer profile=Integer.valueOf(index==null ? 0 : m_individualProfiles[index.intValue()]);
+            List<Individual> group=groupsByProfile.get(profile);
+            if (group==null) {
+                group=new ArrayList<Individual>();
+                groupsByProfile.put(profile,group);
+            }
+            group.add(possibleInstance);
+        }
+        List<List<Individual>> groups=new ArrayList<List<Individual>>(groupsByProfile.values());
+        Collections.sort(groups,new Comparator<List<Individual>>() {
+            public int compare(List<Individual> group1,List<Individual> group2) {
+                return group2.size()-group1.size();
+            }
+        });
+        return groups;
+    }
+    /**
+     * Summarises the known types and the properties of each individual in one number, so that individuals with equal
+     * numbers are likely to have the same types. The profiles are computed once since they are only used for ordering.
+     */
+    protected int[] computeIndividualProfiles() {
+        int[] profiles=new int[m_individuals.length];
+        for (Map.Entry<AtomicConcept,AtomicConceptElement> entry : m_conceptToElement.entrySet()) {
+            int hashCode=entry.getKey().hashCode();
+            for (Individual individual : entry.getValue().m_knownInstances) {
+                Integer index=m_individualIndexes.get(individual);
+                if (index!=null)
+                    profiles[index.intValue()]+=hashCode;
+            }
+            m_interruptFlag.checkInterrupt();
+        }
+        for (RoleElement roleElement : m_roleElementManager.m_roleToElement.values()) {
+            int hashCode=roleElement.getRole().hashCode();
+            for (Map.Entry<Individual,Set<Individual>> entry : roleElement.getKnownRelations().entrySet()) {
+                Integer index=m_individualIndexes.get(entry.getKey());
+                if (index!=null)
+                    profiles[index.intValue()]+=hashCode;
+                // successors are distinguished from predecessors
+                for (Individual successor : entry.getValue()) {
+                    index=m_individualIndexes.get(successor);
+                    if (index!=null)
+                        profiles[index.intValue()]+=31*hashCode;
+                }
+            }
+            m_interruptFlag.checkInterrupt();
+        }
+        return profiles;
+    }
+    /**
+     * Tests all individuals of the groups together by asserting that none of them is an instance; if the test is
+     * satisfiable, all of them are non-instances. Otherwise the individuals are split in two and each part is decided
+     * recursively. The split is made at the group boundary closest to the middle, so that individuals with the same
+     * profile stay together and a later test can refute a whole group at once; a single group is split in the middle.
+     * Stops once the given number of instances has been found.
+     */
+    protected void findInstances(AtomicConcept atomicConcept,List<List<Individual>> groups,int maximumNumberOfInstances,Set<Individual> instances,Set<Individual> nonInstances) {
+        if (instances.size()>=maximumNumberOfInstances)
+            return;
+        List<Individual> candidates=new ArrayList<Individual>();
+        for (List<Individual> group : groups)
+            candidates.addAll(group);
+        Set<Atom> negatedFacts=new HashSet<Atom>();
+        for (Individual candidate : candidates)
+            negatedFacts.add(Atom.create(atomicConcept,candidate));
+        // a model in which none of the candidates is an instance shows that none of them is one
+        if (m_reasoner.getTableau().isSatisfiable(true,false,null,negatedFacts,null,null,null,new ReasoningTaskDescription(true,"is one of {0} an instance of {1}",candidates,atomicConcept))) {
+            nonInstances.addAll(candidates);
+            return;
+        }
+        m_interruptFlag.checkInterrupt();
+        if (candidates.size()==1) {
+            instances.add(candidates.get(0));
+            return;
+        }
+        List<List<Individual>> firstGroups;
+        List<List<Individual>> secondGroups;
+        if (groups.size()==1) {
+            firstGroups=Collections.singletonList(candidates.subList(0,candidates.size()/2));
+            secondGroups=Collections.singletonList(candidates.subList(candidates.size()/2,candidates.size()));
+        }
+        else {
+            // split at the group boundary that is closest to the middle
+            int firstSize=groups.get(0).size();
+            int split=1;
+            while (split<groups.size()-1 && Math.abs(2*(firstSize+groups.get(split).size())-candidates.size())<Math.abs(2*firstSize-candidates.size()))
+                firstSize+=groups.get(split++).size();
+            firstGroups=groups.subList(0,split);
+            secondGroups=groups.subList(split,groups.size());
+        }
+        findInstances(atomicConcept,firstGroups,maximumNumberOfInstances,instances,nonInstances);
+        findInstances(atomicConcept,secondGroups,maximumNumberOfInstances,instances,nonInstances);
     }
 
     public boolean hasObjectRoleRelationship(AtomicRole role, Individual individual1, Individual individual2) {
@@ -1178,10 +1617,22 @@ public class InstanceManager {
     }
     public Set<Individual> getObjectPropertyValues(AtomicRole role,Individual individual) {
         Set<Individual> result=new HashSet<Individual>();
-        HierarchyNode<RoleElement> node=m_currentRoleHierarchy.getNodeForElement(m_roleElementManager.getRoleElement(role));;
-        getObjectPropertyValues(node,individual, result);
+        addAll(getObjectPropertyValueIterator(role,individual),result);
         return result;
     }
+    /**
+     * Returns an iterator over the values of the property for the individual that returns the known values first and
+     * tests the possible values of each subproperty only as the iteration proceeds. The iterator must not be used after
+     * the ontology has changed.
+     */
+    public Iterator<Individual> getObjectPropertyValueIterator(AtomicRole role,Individual individual) {
+        HierarchyNode<RoleElement> node=m_currentRoleHierarchy.getNodeForElement(m_roleElementManager.getRoleElement(role));
+        if (node==null) {
+            List<Individual> noValues=Collections.emptyList();
+            return noValues.iterator();
+        }
+        return new PropertyValueIterator(node,individual);
+    }
     public Set<Individual> getObjectPropertySubjects(AtomicRole role,Individual individual) {
         Set<Individual> result=new HashSet<Individual>();
         HierarchyNode<RoleElement> node=m_currentRoleHierarchy.getNodeForElement(m_roleElementManager.getRoleElement(role));
@@ -1214,86 +1665,88 @@ public class InstanceManager {
         for (HierarchyNode<RoleElement> child : node.getChildNodes())
             getObjectPropertySubjects(child, object, result);
     }
-    protected void getObjectPropertyValues(HierarchyNode<RoleElement> node, Individual subject, Set<Individual> result) {
-        RoleElement representativeElement=node.getRepresentative();
-        if (representativeElement.equals(m_topRoleElement) || m_isInconsistent) {
-            for (Individual ind : m_individuals)
-                if (isResultRelevantIndividual(ind))
-                    result.add(ind);
-            return;
-        }
-        Set<Individual> possibleSuccessors=representativeElement.getPossibleRelations().get(subject);
-        if (possibleSuccessors!=null) {
-            for (Individual possibleSuccessor : new HashSet<Individual>(possibleSuccessors)) {
-                if (isRoleInstance(representativeElement.getRole(),subject,possibleSuccessor))
-                    representativeElement.setToKnown(subject,possibleSuccessor);
-                else
-                    for (HierarchyNode<RoleElement> parent : node.getParentNodes())
-                        parent.getRepresentative().addPossible(subject,possibleSuccessor);
-            }
-        }
-        Set<Individual> knownSuccessors=representativeElement.getKnownRelations().get(subject);
-        if (knownSuccessors!=null) {
-            for (Individual successor : knownSuccessors)
-                if (isResultRelevantIndividual(successor))
-                    result.add(successor);
-        }
-        for (HierarchyNode<RoleElement> child : node.getChildNodes())
-            getObjectPropertyValues(child, subject, result);
-    }
     public Set<Individual> getSameAsIndividuals(Individual individual) {
-        Set<Individual> equivalenceClass=m_individualToEquivalenceClass.get(individual);
-        Set<Set<Individual>> possiblySameEquivalenceClasses=m_individualToPossibleEquivalenceClass.get(equivalenceClass);
-        if (possiblySameEquivalenceClasses!=null) {
-            while (!possiblySameEquivalenceClasses.isEmpty()) {
-                Set<Individual> possiblyEquivalentClass=possiblySameEquivalenceClasses.iterator().next();
-                possiblySameEquivalenceClasses.remove(possiblyEquivalentClass);
-                if (possiblySameEquivalenceClasses.isEmpty())
-                    m_individualToPossibleEquivalenceClass.remove(equivalenceClass);
-                Individual possiblyEquivalentIndividual=possiblyEquivalentClass.iterator().next();
-                if (isSameIndividual(equivalenceClass.iterator().next(), possiblyEquivalentIndividual)) {
-                    equivalenceClass.addAll(possiblyEquivalentClass);
-                    equivalenceClass.addAll(m_individualToEquivalenceClass.get(possiblyEquivalentIndividual));
-                    for (Individual nowKnownEquivalent : possiblyEquivalentClass)
-                        m_individualToEquivalenceClass.put(nowKnownEquivalent, equivalenceClass);
-                }
-                else {
-                    Set<Set<Individual>> possiblyEquivalentToNowKnownInequivalent=m_individualToPossibleEquivalenceClass.get(possiblyEquivalentClass);
-                    if (possiblyEquivalentToNowKnownInequivalent!=null && possiblyEquivalentToNowKnownInequivalent.contains(equivalenceClass)) {
-                        possiblyEquivalentToNowKnownInequivalent.remove(equivalenceClass);
-                        if (possiblyEquivalentToNowKnownInequivalent.isEmpty())
-                            m_individualToPossibleEquivalenceClass.remove(possiblyEquivalentClass);
-                    }
-                }
+        Integer index=m_individualIndexes.get(individual);
+        if (index==null)
+            return Collections.singleton(individual);
+        Set<Individual> result=new HashSet<Individual>();
+        for (int member : m_sameAsIndividuals.getMembers(completeSameAsClass(index.intValue())))
+            result.add(m_individuals[member]);
+        return result;
+    }
+    public boolean isSameIndividual(Individual individual1, Individual individual2) {
+        Integer index1=m_individualIndexes.get(individual1);
+        Integer index2=m_individualIndexes.get(individual2);
+        if (index1==null || index2==null)
+            return !getSameIndividuals(individual1,Collections.singletonList(individual2)).isEmpty();
+        else if (!m_possiblySameAsIndividuals.isSameSet(index1.intValue(),index2.intValue()))
+            return false;
+        else
+            return completeSameAsClass(index1.intValue())==m_sameAsIndividuals.find(index2.intValue());
+    }
+    /**
+     * Tests the class of known same individuals of the given individual against the other classes that are possibly the
+     * same and merges it with those that are the same. A completed class has been compared with all classes that were
+     * not completed at that time, so completed classes need not be compared again.
+     *
+     * @return the representative of the completed class
+     */
+    protected int completeSameAsClass(int index) {
+        int root=m_sameAsIndividuals.find(index);
+        if (!m_completedSameAsClasses.get(root)) {
+            List<Individual> candidates=new ArrayList<Individual>();
+            Set<Integer> candidateRoots=new HashSet<Integer>();
+            for (int member : m_possiblySameAsIndividuals.getMembers(index)) {
+                int otherRoot=m_sameAsIndividuals.find(member);
+                if (otherRoot!=root && !m_completedSameAsClasses.get(otherRoot) && candidateRoots.add(Integer.valueOf(otherRoot)))
+                    candidates.add(m_individuals[otherRoot]);
             }
-        }
-        for (Set<Individual> otherEquivalenceClass : new HashSet<Set<Individual>>(m_individualToPossibleEquivalenceClass.keySet())) {
-            if (otherEquivalenceClass!=equivalenceClass && m_individualToPossibleEquivalenceClass.get(otherEquivalenceClass).contains(equivalenceClass)) {
-                if (isSameIndividual(equivalenceClass.iterator().next(), otherEquivalenceClass.iterator().next())) {
-                    m_individualToPossibleEquivalenceClass.get(otherEquivalenceClass).remove(equivalenceClass);
-                    if (m_individualToPossibleEquivalenceClass.get(otherEquivalenceClass).isEmpty())
-                        m_individualToPossibleEquivalenceClass.remove(otherEquivalenceClass);
-                    for (Individual nowKnownEquivalent : otherEquivalenceClass)
-                        m_individualToEquivalenceClass.put(nowKnownEquivalent, equivalenceClass);
-                    equivalenceClass.addAll(otherEquivalenceClass);
-                }
+            for (Individual sameIndividual : getSameIndividuals(m_individuals[root],candidates)) {
+                root=m_sameAsIndividuals.union(root,m_individualIndexes.get(sameIndividual).intValue());
+                m_numberOfUncompletedSameAsClasses--;
             }
+            m_completedSameAsClasses.set(root);
+            m_numberOfUncompletedSameAsClasses--;
         }
-        return equivalenceClass;
+        return root;
     }
-    public boolean isSameIndividual(Individual individual1, Individual individual2) {
-        return (!m_reasoner.getTableau().isSatisfiable(true,false,Collections.singleton(Atom.create(Inequality.INSTANCE,individual1,individual2)),null,null,null,null,new ReasoningTaskDescription(true,"is {0} same as {1}",individual1,individual2)));
+    /**
+     * Returns those of the candidates that are the same as the individual. The candidates are tested together and only
+     * split if some of them are the same as the individual.
+     */
+    protected Set<Individual> getSameIndividuals(Individual individual,List<Individual> candidates) {
+        Set<Individual> result=new HashSet<Individual>();
+        if (!candidates.isEmpty())
+            findSameIndividuals(individual,candidates,result);
+        return result;
+    }
+    protected void findSameIndividuals(Individual individual,List<Individual> candidates,Set<Individual> result) {
+        Set<Atom> inequalities=new HashSet<Atom>();
+        for (Individual candidate : candidates)
+            inequalities.add(Atom.create(Inequality.INSTANCE,individual,candidate));
+        if (m_reasoner.getTableau().isSatisfiable(true,false,inequalities,null,null,null,null,new ReasoningTaskDescription(true,"is {0} same as one of {1}",individual,candidates)))
+            return;
+        if (candidates.size()==1)
+            result.add(candidates.get(0));
+        else {
+            int middle=candidates.size()/2;
+            findSameIndividuals(individual,candidates.subList(0,middle),result);
+            findSameIndividuals(individual,candidates.subList(middle,candidates.size()),result);
+        }
+        m_interruptFlag.checkInterrupt();
     }
     public void computeSameAsEquivalenceClasses(ReasonerProgressMonitor progressMonitor) {
-        if (!m_individualToPossibleEquivalenceClass.isEmpty()) {
-            int steps=m_individualToPossibleEquivalenceClass.keySet().size();
-            if (steps>0 && progressMonitor!=null)
+        if (m_numberOfUncompletedSameAsClasses>0) {
+            int steps=m_numberOfUncompletedSameAsClasses;
+            if (progressMonitor!=null)
                 progressMonitor.reasonerTaskStarted("Precompute same individuals");
-            while (!m_individualToPossibleEquivalenceClass.isEmpty()) {
-                Set<Individual> equivalenceClass=m_individualToPossibleEquivalenceClass.keySet().iterator().next();
-                getSameAsIndividuals(equivalenceClass.iterator().next());
-                if (progressMonitor!=null)
-                    progressMonitor.reasonerTaskProgressChanged(steps-m_individualToPossibleEquivalenceClass.keySet().size(), steps);
+            for (int index=0;index<m_individuals.length && m_numberOfUncompletedSameAsClasses>0;index++) {
+                if (!m_completedSameAsClasses.get(m_sameAsIndividuals.find(index))) {
+                    completeSameAsClass(index);
+                    if (progressMonitor!=null)
+                        progressMonitor.reasonerTaskProgressChanged(steps-m_numberOfUncompletedSameAsClasses,steps);
+                }
+                m_interruptFlag.checkInterrupt();
             }
             if (progressMonitor!=null)
                 progressMonitor.reasonerTaskStopped();
@@ -1347,7 +1800,7 @@ public class InstanceManager {
         return m_roleRealizationCompleted;
     }
     public boolean sameAsIndividualsComputed() {
-        return m_individualToPossibleEquivalenceClass.isEmpty();
+        return m_possiblySameAsIndividuals!=null && m_numberOfUncompletedSameAsClasses==0;
     }
     public boolean areClassesInitialised() {
         return m_classesInitialised;
@@ -0,0 +1,158 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+   
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+   
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+   
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.hierarchy;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.Individual;
+import org.semanticweb.HermiT.tableau.ExtensionTable;
+import org.semanticweb.HermiT.tableau.Node;
+import org.semanticweb.HermiT.tableau.ReasoningTaskDescription;
+import org.semanticweb.HermiT.tableau.Tableau;
+
+/**
+ * Caches pseudo-models of atomic concepts and of their negations in order to answer subsumption tests without
+ * running the tableau. A pseudo-model consists of the atomic concepts in the label of the root node of a model
+ * that the tableau built for the concept; since HermiT's models are complete, such a model for A whose root does
+ * not contain B refutes A subClassOf B, and so does a model for not B whose root contains A. (Merging the pseudo-models
+ * of A and not B can thus never succeed where these two checks fail: the merge already clashes on B.) Concepts that
+ * occur in the root label of a model for A deterministically are subsumers of A. The pseudo-models for A are built
+ * on demand with one satisfiability test, whereas the pseudo-models for not B are read off the models of failed
+ * subsumption tests, so the cache does not cause any additional tests for not B.
+ *
+ * The pseudo-models are only valid for the permanent ontology of the tableau, so the tableau must not have an
+ * additional ontology when the cache is used.
+ */
+public class ModelCache {
+    protected final Tableau m_tableau;
+    protected final Map<AtomicConcept,PseudoModel> m_models;
+    protected final Map<AtomicConcept,Set<AtomicConcept>> m_conceptsInModelsOfNegations;
+    protected int m_numberOfTestsAvoided;
+
+    public ModelCache(Tableau tableau) {
+        m_tableau=tableau;
+        m_models=new HashMap<AtomicConcept,PseudoModel>();
+        m_conceptsInModelsOfNegations=new HashMap<AtomicConcept,Set<AtomicConcept>>();
+    }
+    public Tableau getTableau() {
+        return m_tableau;
+    }
+    /**
+     * Returns the number of subsumption tests that could be answered from the cache alone.
+     */
+    public int getNumberOfTestsAvoided() {
+        return m_numberOfTestsAvoided;
+    }
+    public boolean isSubsumedBy(AtomicConcept subconcept,AtomicConcept superconcept) {
+        if (subconcept.equals(superconcept) || AtomicConcept.THING.equals(superconcept))
+            return true;
+        Set<AtomicConcept> conceptsInModelsOfNegation=m_conceptsInModelsOfNegations.get(superconcept);
+        if (conceptsInModelsOfNegation!=null && conceptsInModelsOfNegation.contains(subconcept)) {
+            m_numberOfTestsAvoided++;
+            return false;
+        }
+        PseudoModel model=getModel(subconcept);
+        if (model==PseudoModel.UNSATISFIABLE || model.m_knownSubsumers.contains(superconcept)) {
+            m_numberOfTestsAvoided++;
+            return true;
+        }
+        if (!model.m_possibleSubsumers.contains(superconcept)) {
+            m_numberOfTestsAvoided++;
+            return false;
+        }
+        Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+        Map<Individual,Node> checkedNode=new HashMap<Individual,Node>();
+        checkedNode.put(freshIndividual,null);
+        boolean isSubsumedBy=!m_tableau.isSatisfiable(true,Collections.singleton(Atom.create(subconcept,freshIndividual)),Collections.singleton(Atom.create(superconcept,freshIndividual)),null,null,checkedNode,ReasoningTaskDescription.isConceptSubsumedBy(subconcept,superconcept));
+        if (!isSubsumedBy) {
+            // the root of the model belongs to not superconcept, so every concept in its label is not subsumed by superconcept
+            if (conceptsInModelsOfNegation==null) {
+                conceptsInModelsOfNegation=new HashSet<AtomicConcept>();
+                m_conceptsInModelsOfNegations.put(superconcept,conceptsInModelsOfNegation);
+            }
+            readRootLabel(checkedNode.get(freshIndividual),conceptsInModelsOfNegation,null);
+        }
+        return isSubsumedBy;
+    }
+    /**
+     * Returns true if the pseudo-model of the first concept contains the second concept, which shows that the two concepts
+     * are not disjoint. The pseudo-model is built if necessary.
+     */
+    public boolean hasModelContaining(AtomicConcept atomicConcept,AtomicConcept otherConcept) {
+        PseudoModel model=getModel(atomicConcept);
+        return model!=PseudoModel.UNSATISFIABLE && model.m_possibleSubsumers.contains(otherConcept);
+    }
+    protected PseudoModel getModel(AtomicConcept atomicConcept) {
+        PseudoModel model=m_models.get(atomicConcept);
+        if (model==null) {
+            Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+            Map<Individual,Node> checkedNode=new HashMap<Individual,Node>();
+            checkedNode.put(freshIndividual,null);
+            if (m_tableau.isSatisfiable(true,Collections.singleton(Atom.create(atomicConcept,freshIndividual)),null,null,null,checkedNode,ReasoningTaskDescription.isConceptSatisfiable(atomicConcept))) {
+                model=new PseudoModel();
+                readRootLabel(checkedNode.get(freshIndividual),model.m_possibleSubsumers,model.m_knownSubsumers);
+            }
+            else
+                model=PseudoModel.UNSATISFIABLE;
+            m_models.put(atomicConcept,model);
+        }
+        return model;
+    }
+    protected void readRootLabel(Node rootNode,Set<AtomicConcept> concepts,Set<AtomicConcept> deterministicConcepts) {
+        readRootLabel(m_tableau,rootNode,concepts,deterministicConcepts);
+    }
+    /**
+     * Adds the atomic concepts in the label of the given node of the last model of the tableau to the given set, and the
+     * concepts that do not depend on any choice to the given set of deterministic concepts if it is not null.
+     */
+    protected static void readRootLabel(Tableau tableau,Node rootNode,Set<AtomicConcept> concepts,Set<AtomicConcept> deterministicConcepts) {
+        boolean isDeterministic=rootNode.getCanonicalNodeDependencySet().isEmpty();
+        rootNode=rootNode.getCanonicalNode();
+        ExtensionTable.Retrieval retrieval=tableau.getExtensionManager().getBinaryExtensionTable().createRetrieval(new boolean[] { false,true },ExtensionTable.View.TOTAL);
+        retrieval.getBindingsBuffer()[1]=rootNode;
+        retrieval.open();
+        Object[] tupleBuffer=retrieval.getTupleBuffer();
+        while (!retrieval.afterLast()) {
+            Object conceptObject=tupleBuffer[0];
+            if (conceptObject instanceof AtomicConcept) {
+                concepts.add((AtomicConcept)conceptObject);
+                if (deterministicConcepts!=null && isDeterministic && retrieval.getDependencySet().isEmpty())
+                    deterministicConcepts.add((AtomicConcept)conceptObject);
+            }
+            retrieval.next();
+        }
+    }
+
+    protected static class PseudoModel {
+        protected static final PseudoModel UNSATISFIABLE=new PseudoModel();
+
+        protected final Set<AtomicConcept> m_possibleSubsumers;
+        protected final Set<AtomicConcept> m_knownSubsumers;
+
+        public PseudoModel() {
+            m_possibleSubsumers=new HashSet<AtomicConcept>();
+            m_knownSubsumers=new HashSet<AtomicConcept>();
+        }
+    }
+}
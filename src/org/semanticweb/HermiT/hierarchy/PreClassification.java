@@ -0,0 +1,242 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+   
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+   
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+   
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.hierarchy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.HermiT.graph.Graph;
+import org.semanticweb.HermiT.model.AtLeast;
+import org.semanticweb.HermiT.model.AtLeastConcept;
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.DLClause;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.DLPredicate;
+import org.semanticweb.HermiT.model.InverseRole;
+import org.semanticweb.HermiT.model.Role;
+import org.semanticweb.HermiT.model.Term;
+
+/**
+ * Derives information about the concept hierarchy from the syntactic shape of the DL-clauses before any tableau
+ * test is run. The told subsumers of a concept are closed under the definitions of completely-defined concepts,
+ * i.e., under clauses B1(x) and ... and Bn(x) -> A(x), so that D is known to be subsumed by A whenever all of B1
+ * to Bn are told subsumers of D (structural subsumption); concepts without such a clause are primitive. Clauses
+ * B1(x) and ... and Bn(x) -> (empty head) state told disjointness; they make concepts with all Bi among their told
+ * subsumers unsatisfiable, and they refute possible subsumptions between satisfiable concepts. Finally, a concept is
+ * Horn-local if no disjunctive clause can fire in a model of the concept; for such concepts, a single satisfiability
+ * test yields all subsumers, so no subsumption tests are needed.
+ */
+public class PreClassification {
+    protected final Set<AtomicConcept> m_elements;
+    protected final Graph<AtomicConcept> m_toldSubsumers;
+    protected final Map<AtomicConcept,List<AtomicConcept[]>> m_definitionsByBodyConcept;
+    protected final Map<AtomicConcept,List<AtomicConcept[]>> m_disjointnessesByConcept;
+    protected final Set<DLPredicate> m_predicatesReachingDisjunctions;
+    protected final boolean m_allConceptsReachDisjunctions;
+    protected final Map<AtomicConcept,Set<AtomicConcept>> m_closedToldSubsumers;
+
+    public PreClassification(DLOntology dlOntology,Set<AtomicConcept> elements) {
+        m_elements=elements;
+        m_toldSubsumers=new Graph<AtomicConcept>();
+        m_definitionsByBodyConcept=new HashMap<AtomicConcept,List<AtomicConcept[]>>();
+        m_disjointnessesByConcept=new HashMap<AtomicConcept,List<AtomicConcept[]>>();
+        m_predicatesReachingDisjunctions=new HashSet<DLPredicate>();
+        m_closedToldSubsumers=new HashMap<AtomicConcept,Set<AtomicConcept>>();
+        for (DLClause dlClause : dlOntology.getDLClauses()) {
+            AtomicConcept[] bodyConcepts=getConceptsOfSingleVariable(dlClause.getBodyAtoms());
+            if (bodyConcepts!=null) {
+                if (dlClause.getHeadLength()==0 || (dlClause.getHeadLength()==1 && AtomicConcept.NOTHING.equals(dlClause.getHeadAtom(0).getDLPredicate())))
+                    for (AtomicConcept bodyConcept : bodyConcepts)
+                        addToIndex(m_disjointnessesByConcept,bodyConcept,bodyConcepts);
+                else if (dlClause.getHeadLength()==1 && dlClause.getHeadAtom(0).getDLPredicate() instanceof AtomicConcept && dlClause.getHeadAtom(0).getArgument(0).equals(dlClause.getBodyAtom(0).getArgument(0))) {
+                    AtomicConcept headConcept=(AtomicConcept)dlClause.getHeadAtom(0).getDLPredicate();
+                    if (bodyConcepts.length==1)
+                        m_toldSubsumers.addEdge(bodyConcepts[0],headConcept);
+                    else {
+                        AtomicConcept[] definition=new AtomicConcept[bodyConcepts.length+1];
+                        System.arraycopy(bodyConcepts,0,definition,0,bodyConcepts.length);
+                        definition[bodyConcepts.length]=headConcept;
+                        for (AtomicConcept bodyConcept : bodyConcepts)
+                            addToIndex(m_definitionsByBodyConcept,bodyConcept,definition);
+                    }
+                }
+            }
+        }
+        if (dlOntology.hasNominals() || !dlOntology.getAllDescriptionGraphs().isEmpty())
+            m_allConceptsReachDisjunctions=true;
+        else
+            m_allConceptsReachDisjunctions=computePredicatesReachingDisjunctions(dlOntology.getDLClauses());
+    }
+    /**
+     * Returns the smallest set of concepts that contains the given concept and owl:Thing and that is closed under
+     * told subsumptions and the definitions of completely-defined concepts.
+     */
+    public Set<AtomicConcept> getToldSubsumers(AtomicConcept atomicConcept) {
+        Set<AtomicConcept> result=m_closedToldSubsumers.get(atomicConcept);
+        if (result==null) {
+            result=new HashSet<AtomicConcept>();
+            List<AtomicConcept> toProcess=new ArrayList<AtomicConcept>();
+            toProcess.add(atomicConcept);
+            toProcess.add(AtomicConcept.THING);
+            while (!toProcess.isEmpty()) {
+                AtomicConcept concept=toProcess.remove(toProcess.size()-1);
+                if (result.add(concept)) {
+                    toProcess.addAll(m_toldSubsumers.getSuccessors(concept));
+                    List<AtomicConcept[]> definitions=m_definitionsByBodyConcept.get(concept);
+                    if (definitions!=null)
+                        for (AtomicConcept[] definition : definitions)
+                            if (containsAll(result,null,definition,definition.length-1))
+                                toProcess.add(definition[definition.length-1]);
+                }
+            }
+            m_closedToldSubsumers.put(atomicConcept,result);
+        }
+        return result;
+    }
+    /**
+     * Returns true if the told subsumers of the given concept contain concepts that are told to be disjoint.
+     */
+    public boolean isToldUnsatisfiable(AtomicConcept atomicConcept) {
+        Set<AtomicConcept> toldSubsumers=getToldSubsumers(atomicConcept);
+        if (toldSubsumers.contains(AtomicConcept.NOTHING))
+            return true;
+        for (AtomicConcept toldSubsumer : toldSubsumers) {
+            List<AtomicConcept[]> disjointnesses=m_disjointnessesByConcept.get(toldSubsumer);
+            if (disjointnesses!=null)
+                for (AtomicConcept[] disjointness : disjointnesses)
+                    if (containsAll(toldSubsumers,null,disjointness,disjointness.length))
+                        return true;
+        }
+        return false;
+    }
+    /**
+     * Returns true if the given satisfiable concept cannot be subsumed by the given possible subsumer because the
+     * told subsumers of the two concepts together contain concepts that are told to be disjoint.
+     */
+    public boolean isToldNonSubsumer(AtomicConcept satisfiableConcept,AtomicConcept possibleSubsumer) {
+        if (m_disjointnessesByConcept.isEmpty())
+            return false;
+        Set<AtomicConcept> toldSubsumers=getToldSubsumers(satisfiableConcept);
+        for (AtomicConcept toldSubsumerOfPossibleSubsumer : getToldSubsumers(possibleSubsumer)) {
+            List<AtomicConcept[]> disjointnesses=m_disjointnessesByConcept.get(toldSubsumerOfPossibleSubsumer);
+            if (disjointnesses!=null)
+                for (AtomicConcept[] disjointness : disjointnesses)
+                    if (containsAll(toldSubsumers,getToldSubsumers(possibleSubsumer),disjointness,disjointness.length))
+                        return true;
+        }
+        return false;
+    }
+    /**
+     * Returns true if no disjunctive DL-clause can fire in a model of the given concept. The test over-approximates
+     * the clauses that can fire by assuming that a clause fires as soon as one of its body predicates occurs in the model.
+     */
+    public boolean isHornLocal(AtomicConcept atomicConcept) {
+        return !m_allConceptsReachDisjunctions && !m_predicatesReachingDisjunctions.contains(atomicConcept);
+    }
+    /**
+     * Computes the predicates from which a disjunctive clause is reachable, where a predicate reaches the head predicates
+     * of all clauses that contain it in the body. Returns true if every predicate reaches a disjunction, which is the case
+     * if a disjunction is reachable from a clause that applies to every node.
+     */
+    protected boolean computePredicatesReachingDisjunctions(Set<DLClause> dlClauses) {
+        Map<DLPredicate,Set<DLClause>> clausesByHeadPredicate=new HashMap<DLPredicate,Set<DLClause>>();
+        List<DLClause> toProcess=new ArrayList<DLClause>();
+        Set<DLClause> processed=new HashSet<DLClause>();
+        for (DLClause dlClause : dlClauses) {
+            if (dlClause.getHeadLength()>1)
+                toProcess.add(dlClause);
+            for (Atom headAtom : dlClause.getHeadAtoms())
+                for (DLPredicate headPredicate : getRelevantPredicates(headAtom.getDLPredicate())) {
+                    Set<DLClause> clauses=clausesByHeadPredicate.get(headPredicate);
+                    if (clauses==null) {
+                        clauses=new HashSet<DLClause>();
+                        clausesByHeadPredicate.put(headPredicate,clauses);
+                    }
+                    clauses.add(dlClause);
+                }
+        }
+        while (!toProcess.isEmpty()) {
+            DLClause dlClause=toProcess.remove(toProcess.size()-1);
+            if (processed.add(dlClause)) {
+                boolean hasRelevantBodyPredicate=false;
+                for (Atom bodyAtom : dlClause.getBodyAtoms()) {
+                    for (DLPredicate bodyPredicate : getRelevantPredicates(bodyAtom.getDLPredicate())) {
+                        hasRelevantBodyPredicate=true;
+                        if (AtomicConcept.THING.equals(bodyPredicate))
+                            return true;
+                        if (m_predicatesReachingDisjunctions.add(bodyPredicate)) {
+                            Set<DLClause> clauses=clausesByHeadPredicate.get(bodyPredicate);
+                            if (clauses!=null)
+                                toProcess.addAll(clauses);
+                        }
+                    }
+                }
+                if (!hasRelevantBodyPredicate)
+                    return true;
+            }
+        }
+        return false;
+    }
+    protected static Set<DLPredicate> getRelevantPredicates(DLPredicate dlPredicate) {
+        if (dlPredicate instanceof AtomicConcept || dlPredicate instanceof AtomicRole)
+            return Collections.singleton(dlPredicate);
+        else if (dlPredicate instanceof AtLeast) {
+            Set<DLPredicate> result=new HashSet<DLPredicate>();
+            Role onRole=((AtLeast)dlPredicate).getOnRole();
+            result.add(onRole instanceof InverseRole ? ((InverseRole)onRole).getInverseOf() : (AtomicRole)onRole);
+            if (dlPredicate instanceof AtLeastConcept && ((AtLeastConcept)dlPredicate).getToConcept() instanceof AtomicConcept)
+                result.add((AtomicConcept)((AtLeastConcept)dlPredicate).getToConcept());
+            return result;
+        }
+        else
+            return Collections.emptySet();
+    }
+    protected static AtomicConcept[] getConceptsOfSingleVariable(Atom[] atoms) {
+        if (atoms.length==0)
+            return null;
+        Term variable=atoms[0].getArgument(0);
+        AtomicConcept[] concepts=new AtomicConcept[atoms.length];
+        for (int index=0;index<atoms.length;index++) {
+            if (!(atoms[index].getDLPredicate() instanceof AtomicConcept) || !variable.equals(atoms[index].getArgument(0)))
+                return null;
+            concepts[index]=(AtomicConcept)atoms[index].getDLPredicate();
+        }
+        return concepts;
+    }
+    protected static void addToIndex(Map<AtomicConcept,List<AtomicConcept[]>> index,AtomicConcept key,AtomicConcept[] value) {
+        List<AtomicConcept[]> values=index.get(key);
+        if (values==null) {
+            values=new ArrayList<AtomicConcept[]>();
+            index.put(key,values);
+        }
+        values.add(value);
+    }
+    protected static boolean containsAll(Set<AtomicConcept> concepts1,Set<AtomicConcept> concepts2,AtomicConcept[] array,int length) {
+        for (int index=0;index<length;index++)
+            if (!concepts1.contains(array[index]) && (concepts2==null || !concepts2.contains(array[index])))
+                return false;
+        return true;
+    }
+}
@@ -17,6 +17,7 @@
  */
 package org.semanticweb.HermiT.hierarchy;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -32,7 +33,6 @@ import org.semanticweb.HermiT.hierarchy.HierarchySearch.Relation;
 import org.semanticweb.HermiT.model.Atom;
 import org.semanticweb.HermiT.model.AtomicConcept;
 import org.semanticweb.HermiT.model.DLClause;
-import org.semanticweb.HermiT.model.DLPredicate;
 import org.semanticweb.HermiT.model.Individual;
 import org.semanticweb.HermiT.tableau.ExtensionTable;
 import org.semanticweb.HermiT.tableau.Node;
@@ -47,6 +47,8 @@ public class QuasiOrderClassification {
     protected final Set<AtomicConcept> m_elements;
     protected final Graph<AtomicConcept> m_knownSubsumptions;
     protected final Graph<AtomicConcept> m_possibleSubsumptions;
+    protected final Set<AtomicConcept> m_conceptsWithModels;
+    protected PreClassification m_preClassification;
 
     public QuasiOrderClassification(Tableau tableau,ClassificationProgressMonitor progressMonitor,AtomicConcept topElement,AtomicConcept bottomElement,Set<AtomicConcept> elements) {
         m_tableau=tableau;
@@ -56,6 +58,7 @@ public class QuasiOrderClassification {
         m_elements=elements;
         m_knownSubsumptions=new Graph<AtomicConcept>();
         m_possibleSubsumptions=new Graph<AtomicConcept>();
+        m_conceptsWithModels=new HashSet<AtomicConcept>();
     }
     public Hierarchy<AtomicConcept> classify() {
         Relation<AtomicConcept> relation=new Relation<AtomicConcept>() {
@@ -99,6 +102,8 @@ public class QuasiOrderClassification {
             AtomicConcept unclassifiedElement=null;
             for (AtomicConcept element : unclassifiedElements) {
                 m_possibleSubsumptions.getSuccessors(element).removeAll(getAllKnownSubsumers(element));
+                if (!m_possibleSubsumptions.getSuccessors(element).isEmpty())
+                    classifyUsingPreClassification(element);
                 if (!m_possibleSubsumptions.getSuccessors(element).isEmpty()) {
                     unclassifiedElement=element;
                     break;
@@ -186,6 +191,7 @@ public class QuasiOrderClassification {
 		return !m_possibleSubsumptions.getSuccessors(atConcept).isEmpty() || isUnsatisfiable(atConcept);
 	}
 	protected Node buildModelForConcept(AtomicConcept concept) {
+        m_conceptsWithModels.add(concept);
         Individual freshIndividual=Individual.createAnonymous("fresh-individual");
         Map<Individual,Node> checkedNode=new HashMap<Individual,Node>();
         checkedNode.put(freshIndividual,null);
@@ -280,16 +286,41 @@ public class QuasiOrderClassification {
         initialiseKnownSubsumptionsUsingToldSubsumers(m_tableau.getPermanentDLOntology().getDLClauses());
     }
     protected void initialiseKnownSubsumptionsUsingToldSubsumers(Set<DLClause> dlClauses) {
-        for (DLClause dlClause : dlClauses) {
-            if (dlClause.getHeadLength()==1 && dlClause.getBodyLength()==1) {
-                DLPredicate headPredicate=dlClause.getHeadAtom(0).getDLPredicate();
-                DLPredicate bodyPredicate=dlClause.getBodyAtom(0).getDLPredicate();
-                if (headPredicate instanceof AtomicConcept && bodyPredicate instanceof AtomicConcept) {
-                    AtomicConcept headConcept=(AtomicConcept)headPredicate;
-                    AtomicConcept bodyConcept=(AtomicConcept)bodyPredicate;
-                    if (m_elements.contains(headConcept) && m_elements.contains(bodyConcept))
-                        addKnownSubsumption(bodyConcept,headConcept);
-                }
+        m_preClassification=new PreClassification(m_tableau.getPermanentDLOntology(),m_elements);
+        for (AtomicConcept element : m_elements) {
+            if (m_preClassification.isToldUnsatisfiable(element))
+                makeConceptUnsatisfiable(element);
+            else
+                for (AtomicConcept toldSubsumer : m_preClassification.getToldSubsumers(element))
+                    if (toldSubsumer!=element && m_elements.contains(toldSubsumer))
+                        addKnownSubsumption(element,toldSubsumer);
+        }
+    }
+    /**
+     * Tries to classify the given satisfiable concept without subsumption tests. Possible subsumers that are told to be
+     * disjoint with the concept are discarded. If the concept is Horn-local and no model has been built for it yet, a
+     * model is built; if the model turns out to be deterministic, then its root label contains exactly the subsumers
+     * of the concept, so all remaining possible subsumers are non-subsumers.
+     */
+    protected void classifyUsingPreClassification(AtomicConcept element) {
+        if (m_preClassification==null)
+            return;
+        Set<AtomicConcept> possibleSubsumers=m_possibleSubsumptions.getSuccessors(element);
+        for (AtomicConcept possibleSubsumer : new ArrayList<AtomicConcept>(possibleSubsumers))
+            if (m_preClassification.isToldNonSubsumer(element,possibleSubsumer))
+                possibleSubsumers.remove(possibleSubsumer);
+        if (!possibleSubsumers.isEmpty() && !m_conceptsWithModels.contains(element) && m_preClassification.isHornLocal(element)) {
+            Node rootNodeOfModel=buildModelForConcept(element);
+            if (rootNodeOfModel==null)
+                makeConceptUnsatisfiable(element);
+            else {
+                boolean isDeterministic=m_tableau.isCurrentModelDeterministic();
+                readKnownSubsumersFromRootNode(element,rootNodeOfModel);
+                updatePossibleSubsumers();
+                if (isDeterministic)
+                    m_possibleSubsumptions.getSuccessors(element).clear();
+                else
+                    m_possibleSubsumptions.getSuccessors(element).removeAll(getAllKnownSubsumers(element));
             }
         }
     }
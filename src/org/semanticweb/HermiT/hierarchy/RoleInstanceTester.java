@@ -0,0 +1,98 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+   
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+   
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+   
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.hierarchy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.Individual;
+import org.semanticweb.HermiT.tableau.ReasoningTaskDescription;
+import org.semanticweb.HermiT.tableau.Tableau;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+
+/**
+ * Tests which possible successors of an individual are successors of it for an atomic role. An individual a is an
+ * r-successor of b if b:AllValuesFrom(r not(PN)) and a:PN are unsatisfiable for a pseudo-nominal concept PN. For each
+ * role the tableau must contain the axiom of getAxioms that defines the concept for AllValuesFrom(r not(PN)), so that
+ * the tests only add facts instead of clausifying new axioms. Since the possible successors can all be marked with the
+ * same pseudo-nominal, they are tested together and only split if some of them are successors.
+ */
+public class RoleInstanceTester {
+    protected static final AtomicConcept PSEUDO_NOMINAL=AtomicConcept.create("internal:pseudo-nominal");
+    protected static final String ALL_NOT_PSEUDO_NOMINAL_PREFIX="internal:all-not-pseudo-nominal#";
+
+    protected final Tableau m_tableau;
+
+    public RoleInstanceTester(Tableau tableau) {
+        m_tableau=tableau;
+    }
+    public Tableau getTableau() {
+        return m_tableau;
+    }
+    /**
+     * Returns those of the possible successors that are atomicRole-successors of the individual.
+     */
+    public Set<Individual> getSuccessors(AtomicRole atomicRole,Individual individual,Collection<Individual> possibleSuccessors) {
+        Set<Individual> successors=new HashSet<Individual>();
+        if (!possibleSuccessors.isEmpty())
+            findSuccessors(atomicRole,individual,new ArrayList<Individual>(possibleSuccessors),successors);
+        return successors;
+    }
+    protected void findSuccessors(AtomicRole atomicRole,Individual individual,List<Individual> candidates,Set<Individual> successors) {
+        Set<Atom> facts=new HashSet<Atom>();
+        facts.add(Atom.create(getAllNotPseudoNominalConcept(atomicRole),individual));
+        for (Individual candidate : candidates)
+            facts.add(Atom.create(PSEUDO_NOMINAL,candidate));
+        // a model in which the individual has no successor among the candidates shows that none of them is a successor
+        if (m_tableau.isSatisfiable(true,true,facts,null,null,null,null,new ReasoningTaskDescription(true,"is {0} connected to one of {1} via {2}",individual,candidates,atomicRole)))
+            return;
+        if (candidates.size()==1)
+            successors.add(candidates.get(0));
+        else {
+            int middle=candidates.size()/2;
+            findSuccessors(atomicRole,individual,candidates.subList(0,middle),successors);
+            findSuccessors(atomicRole,individual,candidates.subList(middle,candidates.size()),successors);
+        }
+    }
+    public static AtomicConcept getAllNotPseudoNominalConcept(AtomicRole atomicRole) {
+        return AtomicConcept.create(ALL_NOT_PSEUDO_NOMINAL_PREFIX+atomicRole.getIRI());
+    }
+    /**
+     * Returns the axioms that define the concepts for AllValuesFrom(r not(PN)) for the given roles.
+     */
+    public static OWLAxiom[] getAxioms(OWLDataFactory factory,Collection<AtomicRole> atomicRoles) {
+        OWLClass pseudoNominal=factory.getOWLClass(IRI.create(PSEUDO_NOMINAL.getIRI()));
+        List<OWLAxiom> axioms=new ArrayList<OWLAxiom>();
+        for (AtomicRole atomicRole : atomicRoles) {
+            OWLObjectProperty property=factory.getOWLObjectProperty(IRI.create(atomicRole.getIRI()));
+            OWLClass allNotPseudoNominal=factory.getOWLClass(IRI.create(getAllNotPseudoNominalConcept(atomicRole).getIRI()));
+            axioms.add(factory.getOWLSubClassOfAxiom(allNotPseudoNominal,factory.getOWLObjectAllValuesFrom(property,pseudoNominal.getObjectComplementOf())));
+        }
+        return axioms.toArray(new OWLAxiom[axioms.size()]);
+    }
+}
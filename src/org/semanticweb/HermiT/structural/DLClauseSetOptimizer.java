@@ -0,0 +1,322 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+   
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+   
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+   
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.structural;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.DLClause;
+import org.semanticweb.HermiT.model.DLPredicate;
+import org.semanticweb.HermiT.model.Term;
+import org.semanticweb.HermiT.model.Variable;
+
+/**
+ * Removes redundant DL clauses from the result of the clausification. A clause is removed if another clause of the set
+ * subsumes it, that is, if the variables of the other clause can be mapped such that its body atoms occur in the body
+ * and its head atoms occur in the head of the removed clause; clauses that are equal up to variable renaming are
+ * thus removed as well. Furthermore, clauses whose bodies are equal up to variable renaming are rewritten to use the
+ * same variables so that the hyperresolution manager compiles a single evaluator for them.
+ */
+public class DLClauseSetOptimizer {
+    protected final Map<Variable,Term> m_substitution;
+    protected final List<Variable> m_boundVariables;
+    protected int m_numberOfDuplicateDLClauses;
+    protected int m_numberOfSubsumedDLClauses;
+    protected int m_numberOfMergedBodies;
+
+    public DLClauseSetOptimizer() {
+        m_substitution=new HashMap<Variable,Term>();
+        m_boundVariables=new ArrayList<Variable>();
+    }
+    /**
+     * @return the number of clauses that were removed because they are equal to another clause up to variable renaming
+     */
+    public int getNumberOfDuplicateDLClauses() {
+        return m_numberOfDuplicateDLClauses;
+    }
+    /**
+     * @return the number of clauses that were removed because they are subsumed by another (more general) clause
+     */
+    public int getNumberOfSubsumedDLClauses() {
+        return m_numberOfSubsumedDLClauses;
+    }
+    /**
+     * @return the number of distinct clause bodies that were eliminated by renaming the variables of clauses with equivalent bodies
+     */
+    public int getNumberOfMergedBodies() {
+        return m_numberOfMergedBodies;
+    }
+    public int getNumberOfEliminatedDLClauses() {
+        return m_numberOfDuplicateDLClauses+m_numberOfSubsumedDLClauses;
+    }
+    /**
+     * Optimizes the given clause set. The order of the clauses that are kept is preserved.
+     */
+    public Set<DLClause> optimize(Collection<DLClause> dlClauses) {
+        m_numberOfDuplicateDLClauses=0;
+        m_numberOfSubsumedDLClauses=0;
+        m_numberOfMergedBodies=0;
+        List<DLClause> mergedDLClauses=mergeBodies(dlClauses);
+        Set<DLClause> result=new LinkedHashSet<DLClause>();
+        boolean[] removed=new boolean[mergedDLClauses.size()];
+        Map<DLPredicate,List<Integer>> dlClauseIndicesByPredicate=indexDLClauses(mergedDLClauses);
+        List<Integer> noIndices=new ArrayList<Integer>();
+        for (int subsumeeIndex=0;subsumeeIndex<mergedDLClauses.size();subsumeeIndex++) {
+            DLClause subsumee=mergedDLClauses.get(subsumeeIndex);
+            if (result.contains(subsumee)) {
+                removed[subsumeeIndex]=true;
+                m_numberOfDuplicateDLClauses++;
+                continue;
+            }
+            Set<DLPredicate> bodyPredicates=new HashSet<DLPredicate>();
+            for (int bodyIndex=0;bodyIndex<subsumee.getBodyLength();bodyIndex++)
+                bodyPredicates.add(subsumee.getBodyAtom(bodyIndex).getDLPredicate());
+            bodyPredicates.add(null);
+            search: for (DLPredicate bodyPredicate : bodyPredicates) {
+                List<Integer> candidateIndices=dlClauseIndicesByPredicate.get(bodyPredicate);
+                for (Integer candidateIndex : (candidateIndices==null ? noIndices : candidateIndices)) {
+                    int subsumerIndex=candidateIndex.intValue();
+                    if (subsumerIndex!=subsumeeIndex && !removed[subsumerIndex]) {
+                        DLClause subsumer=mergedDLClauses.get(subsumerIndex);
+                        if (subsumes(subsumer,subsumee)) {
+                            // Of two clauses that subsume each other, the first one is kept.
+                            if (subsumes(subsumee,subsumer)) {
+                                if (subsumerIndex<subsumeeIndex) {
+                                    removed[subsumeeIndex]=true;
+                                    m_numberOfDuplicateDLClauses++;
+                                    break search;
+                                }
+                            }
+                            else {
+                                removed[subsumeeIndex]=true;
+                                m_numberOfSubsumedDLClauses++;
+                                break search;
+                            }
+                        }
+                    }
+                }
+            }
+            if (!removed[subsumeeIndex])
+                result.add(subsumee);
+        }
+        return result;
+    }
+    /**
+     * Renames the variables of each clause whose body is equal to the body of a previous clause up to a renaming of
+     * variables. Only renamings that map each variable to a variable of the same kind (X, Yi, or Zi) are used since
+     * the blocking validation relies on these names.
+     */
+    protected List<DLClause> mergeBodies(Collection<DLClause> dlClauses) {
+        Set<List<Atom>> originalBodies=new HashSet<List<Atom>>();
+        Set<List<Atom>> mergedBodies=new HashSet<List<Atom>>();
+        Map<List<Object>,DLClause> representativesByBodyShape=new HashMap<List<Object>,DLClause>();
+        List<DLClause> result=new ArrayList<DLClause>(dlClauses.size());
+        for (DLClause dlClause : dlClauses) {
+            List<Atom> body=Arrays.asList(dlClause.getBodyAtoms());
+            originalBodies.add(body);
+            List<Object> bodyShape=getBodyShape(dlClause);
+            DLClause representative=representativesByBodyShape.get(bodyShape);
+            if (representative==null)
+                representativesByBodyShape.put(bodyShape,dlClause);
+            else {
+                DLClause renamedDLClause=renameToBodyOf(dlClause,representative);
+                if (renamedDLClause!=null) {
+                    dlClause=renamedDLClause;
+                    body=Arrays.asList(dlClause.getBodyAtoms());
+                }
+            }
+            mergedBodies.add(body);
+            result.add(dlClause);
+        }
+        m_numberOfMergedBodies=originalBodies.size()-mergedBodies.size();
+        return result;
+    }
+    /**
+     * Returns the list of body predicates and body arguments in which each variable has been replaced by the position of
+     * its first occurrence.
+     */
+    protected List<Object> getBodyShape(DLClause dlClause) {
+        List<Object> bodyShape=new ArrayList<Object>();
+        Map<Variable,Integer> variableIndices=new HashMap<Variable,Integer>();
+        for (int bodyIndex=0;bodyIndex<dlClause.getBodyLength();bodyIndex++) {
+            Atom atom=dlClause.getBodyAtom(bodyIndex);
+            bodyShape.add(atom.getDLPredicate());
+            for (int argumentIndex=0;argumentIndex<atom.getArity();argumentIndex++) {
+                Term argument=atom.getArgument(argumentIndex);
+                if (argument instanceof Variable) {
+                    Integer variableIndex=variableIndices.get(argument);
+                    if (variableIndex==null) {
+                        variableIndex=Integer.valueOf(variableIndices.size());
+                        variableIndices.put((Variable)argument,variableIndex);
+                    }
+                    bodyShape.add(variableIndex);
+                }
+                else
+                    bodyShape.add(argument);
+            }
+        }
+        return bodyShape;
+    }
+    protected DLClause renameToBodyOf(DLClause dlClause,DLClause representative) {
+        Map<Variable,Variable> renaming=new HashMap<Variable,Variable>();
+        for (int bodyIndex=0;bodyIndex<dlClause.getBodyLength();bodyIndex++) {
+            Atom atom=dlClause.getBodyAtom(bodyIndex);
+            Atom representativeAtom=representative.getBodyAtom(bodyIndex);
+            for (int argumentIndex=0;argumentIndex<atom.getArity();argumentIndex++) {
+                Variable variable=atom.getArgumentVariable(argumentIndex);
+                if (variable!=null) {
+                    Variable representativeVariable=representativeAtom.getArgumentVariable(argumentIndex);
+                    if (!isSameKind(variable,representativeVariable))
+                        return null;
+                    renaming.put(variable,representativeVariable);
+                }
+            }
+        }
+        Atom[] headAtoms=new Atom[dlClause.getHeadLength()];
+        for (int headIndex=0;headIndex<dlClause.getHeadLength();headIndex++) {
+            Atom atom=dlClause.getHeadAtom(headIndex);
+            Term[] arguments=new Term[atom.getArity()];
+            for (int argumentIndex=0;argumentIndex<atom.getArity();argumentIndex++) {
+                Term argument=atom.getArgument(argumentIndex);
+                if (argument instanceof Variable) {
+                    argument=renaming.get(argument);
+                    // unsafe head variables are not renamed since they could clash with the variables of the representative
+                    if (argument==null)
+                        return null;
+                }
+                arguments[argumentIndex]=argument;
+            }
+            headAtoms[headIndex]=Atom.create(atom.getDLPredicate(),arguments);
+        }
+        return DLClause.create(headAtoms,representative.getBodyAtoms());
+    }
+    protected static boolean isSameKind(Variable variable1,Variable variable2) {
+        String name1=variable1.getName();
+        String name2=variable2.getName();
+        if ("X".equals(name1) || "X".equals(name2))
+            return name1.equals(name2);
+        else
+            return name1.length()>0 && name2.length()>0 && name1.charAt(0)==name2.charAt(0);
+    }
+    /**
+     * Indexes each clause under the body predicate that occurs in the fewest clause bodies; clauses with an empty body
+     * are indexed under null. A clause can only subsume clauses whose bodies contain its index predicate.
+     */
+    protected Map<DLPredicate,List<Integer>> indexDLClauses(List<DLClause> dlClauses) {
+        Map<DLPredicate,Integer> numberOfOccurrences=new HashMap<DLPredicate,Integer>();
+        for (DLClause dlClause : dlClauses) {
+            Set<DLPredicate> bodyPredicates=new HashSet<DLPredicate>();
+            for (int bodyIndex=0;bodyIndex<dlClause.getBodyLength();bodyIndex++)
+                bodyPredicates.add(dlClause.getBodyAtom(bodyIndex).getDLPredicate());
+            for (DLPredicate bodyPredicate : bodyPredicates) {
+                Integer count=numberOfOccurrences.get(bodyPredicate);
+                numberOfOccurrences.put(bodyPredicate,Integer.valueOf(count==null ? 1 : count.intValue()+1));
+            }
+        }
+        Map<DLPredicate,List<Integer>> dlClauseIndicesByPredicate=new LinkedHashMap<DLPredicate,List<Integer>>();
+        for (int index=0;index<dlClauses.size();index++) {
+            DLClause dlClause=dlClauses.get(index);
+            DLPredicate indexPredicate=null;
+            int indexPredicateOccurrences=Integer.MAX_VALUE;
+            for (int bodyIndex=0;bodyIndex<dlClause.getBodyLength();bodyIndex++) {
+                DLPredicate bodyPredicate=dlClause.getBodyAtom(bodyIndex).getDLPredicate();
+                int occurrences=numberOfOccurrences.get(bodyPredicate).intValue();
+                if (occurrences<indexPredicateOccurrences) {
+                    indexPredicate=bodyPredicate;
+                    indexPredicateOccurrences=occurrences;
+                }
+            }
+            List<Integer> dlClauseIndices=dlClauseIndicesByPredicate.get(indexPredicate);
+            if (dlClauseIndices==null) {
+                dlClauseIndices=new ArrayList<Integer>();
+                dlClauseIndicesByPredicate.put(indexPredicate,dlClauseIndices);
+            }
+            dlClauseIndices.add(Integer.valueOf(index));
+        }
+        return dlClauseIndicesByPredicate;
+    }
+    /**
+     * Checks whether the variables of the subsumer can be mapped to terms of the subsumee such that each body atom of the
+     * subsumer becomes a body atom and each head atom becomes a head atom of the subsumee. To keep the check cheap, the
+     * subsumer must not have more body or head atoms than the subsumee.
+     */
+    public boolean subsumes(DLClause subsumer,DLClause subsumee) {
+        if (subsumer.getBodyLength()>subsumee.getBodyLength() || subsumer.getHeadLength()>subsumee.getHeadLength())
+            return false;
+        m_substitution.clear();
+        m_boundVariables.clear();
+        return matchBodyAtoms(subsumer,subsumee,0);
+    }
+    protected boolean matchBodyAtoms(DLClause subsumer,DLClause subsumee,int subsumerBodyIndex) {
+        if (subsumerBodyIndex==subsumer.getBodyLength())
+            return matchHeadAtoms(subsumer,subsumee,0);
+        Atom subsumerAtom=subsumer.getBodyAtom(subsumerBodyIndex);
+        for (int subsumeeBodyIndex=0;subsumeeBodyIndex<subsumee.getBodyLength();subsumeeBodyIndex++) {
+            int numberOfBoundVariables=m_boundVariables.size();
+            if (match(subsumerAtom,subsumee.getBodyAtom(subsumeeBodyIndex)) && matchBodyAtoms(subsumer,subsumee,subsumerBodyIndex+1))
+                return true;
+            unbindVariables(numberOfBoundVariables);
+        }
+        return false;
+    }
+    protected boolean matchHeadAtoms(DLClause subsumer,DLClause subsumee,int subsumerHeadIndex) {
+        if (subsumerHeadIndex==subsumer.getHeadLength())
+            return true;
+        Atom subsumerAtom=subsumer.getHeadAtom(subsumerHeadIndex);
+        for (int subsumeeHeadIndex=0;subsumeeHeadIndex<subsumee.getHeadLength();subsumeeHeadIndex++) {
+            int numberOfBoundVariables=m_boundVariables.size();
+            if (match(subsumerAtom,subsumee.getHeadAtom(subsumeeHeadIndex)) && matchHeadAtoms(subsumer,subsumee,subsumerHeadIndex+1))
+                return true;
+            unbindVariables(numberOfBoundVariables);
+        }
+        return false;
+    }
+    protected boolean match(Atom subsumerAtom,Atom subsumeeAtom) {
+        if (!subsumerAtom.getDLPredicate().equals(subsumeeAtom.getDLPredicate()) || subsumerAtom.getArity()!=subsumeeAtom.getArity())
+            return false;
+        for (int argumentIndex=0;argumentIndex<subsumerAtom.getArity();argumentIndex++) {
+            Term subsumerArgument=subsumerAtom.getArgument(argumentIndex);
+            Term subsumeeArgument=subsumeeAtom.getArgument(argumentIndex);
+            if (subsumerArgument instanceof Variable) {
+                Term boundTerm=m_substitution.get(subsumerArgument);
+                if (boundTerm==null) {
+                    m_substitution.put((Variable)subsumerArgument,subsumeeArgument);
+                    m_boundVariables.add((Variable)subsumerArgument);
+                }
+                else if (!boundTerm.equals(subsumeeArgument))
+                    return false;
+            }
+            else if (!subsumerArgument.equals(subsumeeArgument))
+                return false;
+        }
+        return true;
+    }
+    protected void unbindVariables(int numberOfBoundVariables) {
+        for (int index=m_boundVariables.size()-1;index>=numberOfBoundVariables;--index)
+            m_substitution.remove(m_boundVariables.remove(index));
+    }
+}
@@ -78,6 +78,28 @@ public class OWLAxioms {
         m_definedDatatypesIRIs=new HashSet<String>();
         m_rules=new HashSet<DisjunctiveRule>();
     }
+    public void addAll(OWLAxioms axioms) {
+        m_classes.addAll(axioms.m_classes);
+        m_objectProperties.addAll(axioms.m_objectProperties);
+        m_objectPropertiesOccurringInOWLAxioms.addAll(axioms.m_objectPropertiesOccurringInOWLAxioms);
+        m_complexObjectPropertyExpressions.addAll(axioms.m_complexObjectPropertyExpressions);
+        m_dataProperties.addAll(axioms.m_dataProperties);
+        m_namedIndividuals.addAll(axioms.m_namedIndividuals);
+        m_conceptInclusions.addAll(axioms.m_conceptInclusions);
+        m_dataRangeInclusions.addAll(axioms.m_dataRangeInclusions);
+        m_simpleObjectPropertyInclusions.addAll(axioms.m_simpleObjectPropertyInclusions);
+        m_complexObjectPropertyInclusions.addAll(axioms.m_complexObjectPropertyInclusions);
+        m_disjointObjectProperties.addAll(axioms.m_disjointObjectProperties);
+        m_reflexiveObjectProperties.addAll(axioms.m_reflexiveObjectProperties);
+        m_irreflexiveObjectProperties.addAll(axioms.m_irreflexiveObjectProperties);
+        m_asymmetricObjectProperties.addAll(axioms.m_asymmetricObjectProperties);
+        m_dataPropertyInclusions.addAll(axioms.m_dataPropertyInclusions);
+        m_disjointDataProperties.addAll(axioms.m_disjointDataProperties);
+        m_facts.addAll(axioms.m_facts);
+        m_hasKeys.addAll(axioms.m_hasKeys);
+        m_definedDatatypesIRIs.addAll(axioms.m_definedDatatypesIRIs);
+        m_rules.addAll(axioms.m_rules);
+    }
 
     public static class ComplexObjectPropertyInclusion {
         public final OWLObjectPropertyExpression[] m_subObjectProperties;
@@ -25,7 +25,9 @@ import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
+import org.semanticweb.HermiT.Concurrency;
 import org.semanticweb.HermiT.Configuration;
 import org.semanticweb.HermiT.Prefixes;
 import org.semanticweb.HermiT.datatypes.DatatypeRegistry;
@@ -128,16 +130,24 @@ public class OWLClausification {
     protected static final Variable Z=Variable.create("Z");
 
     protected final Configuration m_configuration;
+    protected DLClauseSetOptimizer m_dlClauseSetOptimizer;
 
     public OWLClausification(Configuration configuration) {
         m_configuration=configuration;
     }
+    /**
+     * @return the optimizer that was applied to the clauses of the last clausified ontology, which records how many clauses
+     * were eliminated, or null if the clauses were not optimized
+     */
+    public DLClauseSetOptimizer getDLClauseSetOptimizer() {
+        return m_dlClauseSetOptimizer;
+    }
     public Object[] preprocessAndClausify(OWLOntology rootOntology,Collection<DescriptionGraph> descriptionGraphs) {
         OWLDataFactory factory=rootOntology.getOWLOntologyManager().getOWLDataFactory();
         String ontologyIRI=rootOntology.getOntologyID().getDefaultDocumentIRI()==null ? "urn:hermit:kb" : rootOntology.getOntologyID().getDefaultDocumentIRI().toString();
         Collection<OWLOntology> importClosure=rootOntology.getImportsClosure();
         OWLAxioms axioms=new OWLAxioms();
-        OWLNormalization normalization=new OWLNormalization(factory,axioms,0);
+        OWLNormalization normalization=new OWLNormalization(factory,axioms,0,m_configuration.numberOfPreprocessingThreads);
         for (OWLOntology ontology : importClosure)
             normalization.processOntology(ontology);
         BuiltInPropertyManager builtInPropertyManager=new BuiltInPropertyManager(factory);
@@ -146,7 +156,7 @@ public class OWLClausification {
         // now object property inclusion manager added all non-simple properties to axioms.m_complexObjectPropertyExpressions
         // now that we know which roles are non-simple, we can decide which negative object property assertions have to be
         // expressed as concept assertions so that transitivity rewriting applies properly.
-        objectPropertyInclusionManager.rewriteNegativeObjectPropertyAssertions(factory,axioms,normalization.m_definitions.size());
+        objectPropertyInclusionManager.rewriteNegativeObjectPropertyAssertions(factory,axioms,normalization.getNextReplacementIndex());
         objectPropertyInclusionManager.rewriteAxioms(factory,axioms,0);
         if (descriptionGraphs==null)
             descriptionGraphs=Collections.emptySet();
@@ -210,12 +220,16 @@ public class OWLClausification {
                     dlClauses.add(dlClause);
                 }
         DataRangeConverter dataRangeConverter=new DataRangeConverter(m_configuration.warningMonitor,axioms.m_definedDatatypesIRIs,allUnknownDatatypeRestrictions,m_configuration.ignoreUnsupportedDatatypes);
-        NormalizedAxiomClausifier clausifier=new NormalizedAxiomClausifier(dataRangeConverter,positiveFacts,factory);
-        for (OWLClassExpression[] inclusion : axioms.m_conceptInclusions) {
-            for (OWLClassExpression description : inclusion)
-                description.accept(clausifier);
-            DLClause dlClause=clausifier.getDLClause();
-            dlClauses.add(dlClause.getSafeVersion(AtomicConcept.THING));
+        if (m_configuration.numberOfPreprocessingThreads>1 && axioms.m_conceptInclusions.size()>=2*OWLNormalization.MINIMAL_AXIOMS_PER_THREAD)
+            clausifyConceptInclusionsInParallel(factory,axioms,dlClauses,positiveFacts,allUnknownDatatypeRestrictions);
+        else {
+            NormalizedAxiomClausifier clausifier=new NormalizedAxiomClausifier(dataRangeConverter,positiveFacts,factory);
+            for (OWLClassExpression[] inclusion : axioms.m_conceptInclusions) {
+                for (OWLClassExpression description : inclusion)
+                    description.accept(clausifier);
+                DLClause dlClause=clausifier.getDLClause();
+                dlClauses.add(dlClause.getSafeVersion(AtomicConcept.THING));
+            }
         }
         NormalizedDataRangeAxiomClausifier normalizedDataRangeAxiomClausifier=new NormalizedDataRangeAxiomClausifier(dataRangeConverter,factory,axioms.m_definedDatatypesIRIs);
         for (OWLDataRange[] inclusion : axioms.m_dataRangeInclusions) {
@@ -255,9 +269,48 @@ public class OWLClausification {
         // Clausify SWRL rules
         if (!axioms.m_rules.isEmpty())
             new NormalizedRuleClausifier(axioms.m_objectPropertiesOccurringInOWLAxioms,descriptionGraphs,dataRangeConverter,dlClauses).processRules(axioms.m_rules);
+        // Remove redundant clauses
+        if (m_configuration.optimizeDLClauses) {
+            m_dlClauseSetOptimizer=new DLClauseSetOptimizer();
+            dlClauses=m_dlClauseSetOptimizer.optimize(dlClauses);
+        }
+        else
+            m_dlClauseSetOptimizer=null;
         // Create the DL ontology
         return new DLOntology(ontologyIRI,dlClauses,positiveFacts,negativeFacts,atomicConcepts,atomicObjectRoles,complexObjectRoles,atomicDataRoles,allUnknownDatatypeRestrictions,axioms.m_definedDatatypesIRIs,individuals,axiomsExpressivity.m_hasInverseRoles,axiomsExpressivity.m_hasAtMostRestrictions,axiomsExpressivity.m_hasNominals,axiomsExpressivity.m_hasDatatypes);
     }
+    /**
+     * Clausifies the concept inclusions in contiguous chunks on several threads. Each chunk has its own clausifier,
+     * and the results are added in the order of the chunks, so the produced clauses are the same and in the same order
+     * as in the sequential clausification.
+     */
+    protected void clausifyConceptInclusionsInParallel(final OWLDataFactory factory,final OWLAxioms axioms,Set<DLClause> dlClauses,Set<Atom> positiveFacts,Set<DatatypeRestriction> allUnknownDatatypeRestrictions) {
+        List<OWLClassExpression[]> inclusions=new ArrayList<OWLClassExpression[]>(axioms.m_conceptInclusions);
+        int numberOfChunks=Math.max(1,Math.min(m_configuration.numberOfPreprocessingThreads,inclusions.size()/OWLNormalization.MINIMAL_AXIOMS_PER_THREAD));
+        int chunkSize=(inclusions.size()+numberOfChunks-1)/numberOfChunks;
+        List<Callable<ClausifiedChunk>> tasks=new ArrayList<Callable<ClausifiedChunk>>();
+        for (int start=0;start<inclusions.size();start+=chunkSize) {
+            final List<OWLClassExpression[]> chunk=inclusions.subList(start,Math.min(start+chunkSize,inclusions.size()));
+            tasks.add(new Callable<ClausifiedChunk>() {
+                public ClausifiedChunk call() {
+                    ClausifiedChunk result=new ClausifiedChunk(chunk.size());
+                    DataRangeConverter dataRangeConverter=new DataRangeConverter(m_configuration.warningMonitor,axioms.m_definedDatatypesIRIs,result.m_unknownDatatypeRestrictions,m_configuration.ignoreUnsupportedDatatypes);
+                    NormalizedAxiomClausifier clausifier=new NormalizedAxiomClausifier(dataRangeConverter,result.m_positiveFacts,factory);
+                    for (OWLClassExpression[] inclusion : chunk) {
+                        for (OWLClassExpression description : inclusion)
+                            description.accept(clausifier);
+                        result.m_dlClauses.add(clausifier.getDLClause().getSafeVersion(AtomicConcept.THING));
+                    }
+                    return result;
+                }
+            });
+        }
+        for (ClausifiedChunk result : Concurrency.runConcurrently(tasks)) {
+            dlClauses.addAll(result.m_dlClauses);
+            positiveFacts.addAll(result.m_positiveFacts);
+            allUnknownDatatypeRestrictions.addAll(result.m_unknownDatatypeRestrictions);
+        }
+    }
     protected DLClause clausifyKey(OWLHasKeyAxiom object) {
         List<Atom> headAtoms=new ArrayList<Atom>();
         List<Atom> bodyAtoms=new ArrayList<Atom>();
@@ -380,6 +433,18 @@ public class OWLClausification {
             return Individual.create(individual.asOWLNamedIndividual().getIRI().toString());
     }
 
+    protected static class ClausifiedChunk {
+        protected final List<DLClause> m_dlClauses;
+        protected final Set<Atom> m_positiveFacts;
+        protected final Set<DatatypeRestriction> m_unknownDatatypeRestrictions;
+
+        public ClausifiedChunk(int numberOfInclusions) {
+            m_dlClauses=new ArrayList<DLClause>(numberOfInclusions);
+            m_positiveFacts=new HashSet<Atom>();
+            m_unknownDatatypeRestrictions=new HashSet<DatatypeRestriction>();
+        }
+    }
+
     protected static class NormalizedAxiomClausifier implements OWLClassExpressionVisitor {
         protected final DataRangeConverter m_dataRangeConverter;
         protected final List<Atom> m_headAtoms;
@@ -759,6 +824,13 @@ public class OWLClausification {
             m_ignoreUnsupportedDatatypes=ignoreUnsupportedDatatypes;
             m_allUnknownDatatypeRestrictions=allUnknownDatatypeRestrictions;
         }
+        protected void warning(String warning) {
+            // the converters of a parallel clausification share the monitor
+            if (m_warningMonitor!=null)
+                synchronized (m_warningMonitor) {
+                    m_warningMonitor.warning(warning);
+                }
+        }
         public LiteralDataRange convertDataRange(OWLDataRange dataRange) {
             return (LiteralDataRange)dataRange.accept(this);
         }
@@ -777,8 +849,7 @@ public class OWLClausification {
                 }
                 catch (UnsupportedDatatypeException e) {
                     if (m_ignoreUnsupportedDatatypes) {
-                        if (m_warningMonitor!=null)
-                            m_warningMonitor.warning("Ignoring unsupported datatype '"+object.getIRI().toString()+"'.");
+                        warning("Ignoring unsupported datatype '"+object.getIRI().toString()+"'.");
                         m_allUnknownDatatypeRestrictions.add(datatype);
                     }
                     else
@@ -835,8 +906,7 @@ public class OWLClausification {
             }
             catch (UnsupportedDatatypeException e) {
                 if (m_ignoreUnsupportedDatatypes) {
-                    if (m_warningMonitor!=null)
-                        m_warningMonitor.warning("Ignoring unsupported datatype '"+object.toString()+"'.");
+                    warning("Ignoring unsupported datatype '"+object.toString()+"'.");
                     return Constant.createAnonymous(object.getLiteral());
                 }
                 else
@@ -25,7 +25,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.semanticweb.HermiT.Concurrency;
 import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
 import org.semanticweb.owlapi.model.OWLAnnotationPropertyDomainAxiom;
@@ -128,9 +131,13 @@ import org.semanticweb.owlapi.model.SWRLVariable;
  * This class implements the structural transformation from our new tableau paper. This transformation departs in the following way from the paper: it keeps the concepts of the form \exists R.{ a_1, ..., a_n }, \forall R.{ a_1, ..., a_n }, and \forall R.\neg { a } intact. These concepts are then clausified in a more efficient way.
  */
 public class OWLNormalization {
+    protected static final int MINIMAL_AXIOMS_PER_THREAD=1000;
+
     protected final OWLDataFactory m_factory;
     protected final OWLAxioms m_axioms;
     protected final int m_firstReplacementIndex;
+    protected final AtomicInteger m_nextReplacementIndex;
+    protected final int m_numberOfThreads;
     protected final Map<OWLClassExpression,OWLClassExpression> m_definitions;
     protected final Map<OWLObjectOneOf,OWLClass> m_definitionsForNegativeNominals;
     protected final ExpressionManager m_expressionManager;
@@ -138,15 +145,43 @@ public class OWLNormalization {
     protected final Map<OWLDataRange,OWLDatatype> m_dataRangeDefinitions; // contains custom datatype definitions from DatatypeDefinition axioms
 
     public OWLNormalization(OWLDataFactory factory,OWLAxioms axioms,int firstReplacementIndex) {
+        this(factory,axioms,firstReplacementIndex,1);
+    }
+    public OWLNormalization(OWLDataFactory factory,OWLAxioms axioms,int firstReplacementIndex,int numberOfThreads) {
         m_factory=factory;
         m_axioms=axioms;
         m_firstReplacementIndex=firstReplacementIndex;
+        m_nextReplacementIndex=new AtomicInteger(firstReplacementIndex);
+        m_numberOfThreads=numberOfThreads;
         m_definitions=new HashMap<OWLClassExpression,OWLClassExpression>();
         m_definitionsForNegativeNominals=new HashMap<OWLObjectOneOf,OWLClass>();
         m_expressionManager=new ExpressionManager(m_factory);
         m_plVisitor=new PLVisitor();
         m_dataRangeDefinitions=new HashMap<OWLDataRange,OWLDatatype>();
     }
+    /**
+     * Creates a worker for the parallel normalization that writes its results into the given axioms and shares the
+     * definitions of complex expressions with the given normalization.
+     */
+    protected OWLNormalization(OWLNormalization normalization,OWLDataFactory factory,OWLAxioms axioms) {
+        m_factory=factory;
+        m_axioms=axioms;
+        m_firstReplacementIndex=normalization.m_firstReplacementIndex;
+        m_nextReplacementIndex=normalization.m_nextReplacementIndex;
+        m_numberOfThreads=1;
+        m_definitions=normalization.m_definitions;
+        m_definitionsForNegativeNominals=normalization.m_definitionsForNegativeNominals;
+        m_expressionManager=new ExpressionManager(m_factory);
+        m_plVisitor=new PLVisitor();
+        m_dataRangeDefinitions=normalization.m_dataRangeDefinitions;
+    }
+    /**
+     * Returns the index that the next fresh definition concept will receive; all indexes below it that are not smaller
+     * than the first replacement index may have been used.
+     */
+    public int getNextReplacementIndex() {
+        return m_nextReplacementIndex.get();
+    }
     public void processOntology(OWLOntology ontology) {
         // Each entry in the inclusions list represents a disjunction of
         // concepts -- that is, each OWLClassExpression in an entry contributes a
@@ -159,6 +194,46 @@ public class OWLNormalization {
         processAxioms(ontology.getLogicalAxioms());
     }
     public void processAxioms(Collection<? extends OWLAxiom> axioms) {
+        if (m_numberOfThreads>1 && axioms.size()>=2*MINIMAL_AXIOMS_PER_THREAD)
+            processAxiomsInParallel(axioms);
+        else
+            processAxiomsSequentially(axioms);
+    }
+    /**
+     * Partitions the axioms into chunks that are normalized concurrently. Each chunk is processed by a worker with its
+     * own OWLAxioms and ExpressionManager, and the results are added to m_axioms afterwards. The workers share the
+     * definitions of complex expressions, so each expression still receives a single definition. SWRL rules are
+     * normalized afterwards in the calling thread since the rule normalization numbers fresh variables and individuals
+     * sequentially.
+     */
+    protected void processAxiomsInParallel(Collection<? extends OWLAxiom> axioms) {
+        List<OWLAxiom> axiomList=new ArrayList<OWLAxiom>(axioms.size());
+        List<OWLAxiom> rules=new ArrayList<OWLAxiom>();
+        for (OWLAxiom axiom : axioms)
+            if (axiom instanceof SWRLRule)
+                rules.add(axiom);
+            else
+                axiomList.add(axiom);
+        int numberOfChunks=Math.max(1,Math.min(m_numberOfThreads,axiomList.size()/MINIMAL_AXIOMS_PER_THREAD));
+        int chunkSize=(axiomList.size()+numberOfChunks-1)/numberOfChunks;
+        OWLDataFactory synchronizedFactory=SynchronizedOWLDataFactory.create(m_factory);
+        List<Callable<OWLAxioms>> tasks=new ArrayList<Callable<OWLAxioms>>();
+        for (int start=0;start<axiomList.size();start+=chunkSize) {
+            final List<OWLAxiom> chunk=axiomList.subList(start,Math.min(start+chunkSize,axiomList.size()));
+            final OWLNormalization worker=new OWLNormalization(this,synchronizedFactory,new OWLAxioms());
+            tasks.add(new Callable<OWLAxioms>() {
+                public OWLAxioms call() {
+                    worker.processAxiomsSequentially(chunk);
+                    return worker.m_axioms;
+                }
+            });
+        }
+        for (OWLAxioms workerAxioms : Concurrency.runConcurrently(tasks))
+            m_axioms.addAll(workerAxioms);
+        if (!rules.isEmpty())
+            processAxiomsSequentially(rules);
+    }
+    protected void processAxiomsSequentially(Collection<? extends OWLAxiom> axioms) {
         AxiomVisitor axiomVisitor=new AxiomVisitor();
         for (OWLAxiom axiom : axioms)
             axiom.accept(axiomVisitor);
@@ -350,29 +425,34 @@ public class OWLNormalization {
         return false;
     }
     protected OWLClassExpression getDefinitionFor(OWLClassExpression description,boolean[] alreadyExists,boolean forcePositive) {
-        OWLClassExpression definition=m_definitions.get(description);
-        if (definition==null || (forcePositive && !(definition instanceof OWLClass))) {
-            definition=m_factory.getOWLClass(IRI.create("internal:def#"+(m_definitions.size()+m_firstReplacementIndex)));
-            if (!forcePositive && !description.accept(m_plVisitor))
-                definition=m_factory.getOWLObjectComplementOf(definition);
-            m_definitions.put(description,definition);
-            alreadyExists[0]=false;
+        // the definitions are shared by the workers of the parallel normalization
+        synchronized (m_definitions) {
+            OWLClassExpression definition=m_definitions.get(description);
+            if (definition==null || (forcePositive && !(definition instanceof OWLClass))) {
+                definition=m_factory.getOWLClass(IRI.create("internal:def#"+m_nextReplacementIndex.getAndIncrement()));
+                if (!forcePositive && !description.accept(m_plVisitor))
+                    definition=m_factory.getOWLObjectComplementOf(definition);
+                m_definitions.put(description,definition);
+                alreadyExists[0]=false;
+            }
+            else
+                alreadyExists[0]=true;
+            return definition;
         }
-        else
-            alreadyExists[0]=true;
-        return definition;
     }
     protected OWLDatatype getDefinitionFor(OWLDataRange dr,boolean[] alreadyExists) {
-        OWLDatatype definition=m_dataRangeDefinitions.get(dr);
-        if (definition==null) {
-            definition=m_factory.getOWLDatatype(IRI.create("internal:defdata#"+m_dataRangeDefinitions.size()));
-            m_dataRangeDefinitions.put(dr,definition);
-            alreadyExists[0]=false;
-        }
-        else {
-            alreadyExists[0]=true;
+        synchronized (m_dataRangeDefinitions) {
+            OWLDatatype definition=m_dataRangeDefinitions.get(dr);
+            if (definition==null) {
+                definition=m_factory.getOWLDatatype(IRI.create("internal:defdata#"+m_dataRangeDefinitions.size()));
+                m_dataRangeDefinitions.put(dr,definition);
+                alreadyExists[0]=false;
+            }
+            else {
+                alreadyExists[0]=true;
+            }
+            return definition;
         }
-        return definition;
     }
     protected OWLClassExpression getDefinitionFor(OWLClassExpression description,boolean[] alreadyExists) {
         return getDefinitionFor(description,alreadyExists,false);
@@ -381,15 +461,17 @@ public class OWLNormalization {
         return (OWLClass)getDefinitionFor(description,alreadyExists,true);
     }
     protected OWLClass getDefinitionForNegativeNominal(OWLObjectOneOf nominal,boolean[] alreadyExists) {
-        OWLClass definition=m_definitionsForNegativeNominals.get(nominal);
-        if (definition==null) {
-            definition=m_factory.getOWLClass(IRI.create("internal:nnq#"+m_definitionsForNegativeNominals.size()));
-            m_definitionsForNegativeNominals.put(nominal,definition);
-            alreadyExists[0]=false;
+        synchronized (m_definitionsForNegativeNominals) {
+            OWLClass definition=m_definitionsForNegativeNominals.get(nominal);
+            if (definition==null) {
+                definition=m_factory.getOWLClass(IRI.create("internal:nnq#"+m_definitionsForNegativeNominals.size()));
+                m_definitionsForNegativeNominals.put(nominal,definition);
+                alreadyExists[0]=false;
+            }
+            else
+                alreadyExists[0]=true;
+            return definition;
         }
-        else
-            alreadyExists[0]=true;
-        return definition;
     }
     protected OWLClassExpression positive(OWLClassExpression description) {
         return m_expressionManager.getNNF(m_expressionManager.getSimplified(description));
@@ -41,16 +41,11 @@ import org.semanticweb.owlapi.model.OWLObjectInverseOf;
 import org.semanticweb.owlapi.model.OWLObjectProperty;
 import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
 
-import rationals.Automaton;
-import rationals.NoSuchStateException;
-import rationals.State;
-import rationals.Transition;
-
 public class ObjectPropertyInclusionManager {
-    protected final Map<OWLObjectPropertyExpression,Automaton> m_automataByProperty;
+    protected final Map<OWLObjectPropertyExpression,PropertyAutomaton> m_automataByProperty;
 
     public ObjectPropertyInclusionManager(OWLAxioms axioms) {
-        m_automataByProperty=new HashMap<OWLObjectPropertyExpression,Automaton>();
+        m_automataByProperty=new HashMap<OWLObjectPropertyExpression,PropertyAutomaton>();
         createAutomata(m_automataByProperty,axioms.m_complexObjectPropertyExpressions,axioms.m_simpleObjectPropertyInclusions,axioms.m_complexObjectPropertyInclusions);
     }
     public int rewriteNegativeObjectPropertyAssertions(OWLDataFactory factory,OWLAxioms axioms,int replacementIndex) {
@@ -134,45 +129,46 @@ public class ObjectPropertyInclusionManager {
         }
         // Generate the automaton for each replacement
         for (Map.Entry<OWLObjectAllValuesFrom,OWLClassExpression> replacement : replacedDescriptions.entrySet()) {
-            Automaton automaton=m_automataByProperty.get(replacement.getKey().getProperty());
+            PropertyAutomaton automaton=m_automataByProperty.get(replacement.getKey().getProperty());
             boolean isOfNegativePolarity=(replacement.getValue() instanceof OWLObjectComplementOf);
             // Generate states of the automaton
-            Map<State,OWLClassExpression> statesToConcepts=new HashMap<State,OWLClassExpression>();
-            for (Object stateObject : automaton.states()) {
-                State state=(State)stateObject;
-                if (state.isInitial())
-                    statesToConcepts.put(state,replacement.getValue());
+            OWLClassExpression[] statesToConcepts=new OWLClassExpression[automaton.getNumberOfStates()];
+            for (int state=0;state<automaton.getNumberOfStates();state++) {
+                if (automaton.isInitial(state))
+                    statesToConcepts[state]=replacement.getValue();
                 else {
                     OWLClassExpression stateConcept=dataFactory.getOWLClass(IRI.create("internal:all#"+(firstReplacementIndex++)));
                     if (isOfNegativePolarity)
                         stateConcept=stateConcept.getComplementNNF();
-                    statesToConcepts.put(state,stateConcept);
+                    statesToConcepts[state]=stateConcept;
                 }
             }
             // Generate the transitions
-            for (Object transitionObject : automaton.delta()) {
-                Transition transition=(Transition)transitionObject;
-                OWLClassExpression fromStateConcept=statesToConcepts.get(transition.start()).getComplementNNF();
-                OWLClassExpression toStateConcept=statesToConcepts.get(transition.end());
-                if (transition.label()==null)
+            for (int transition=0;transition<automaton.getNumberOfTransitions();transition++) {
+                OWLClassExpression fromStateConcept=statesToConcepts[automaton.getTransitionStart(transition)].getComplementNNF();
+                OWLClassExpression toStateConcept=statesToConcepts[automaton.getTransitionEnd(transition)];
+                OWLObjectPropertyExpression label=automaton.getTransitionLabel(transition);
+                if (label==null)
                     axioms.m_conceptInclusions.add(new OWLClassExpression[] { fromStateConcept,toStateConcept });
                 else {
-                    OWLObjectAllValuesFrom consequentAll=dataFactory.getOWLObjectAllValuesFrom((OWLObjectPropertyExpression)transition.label(),toStateConcept);
+                    OWLObjectAllValuesFrom consequentAll=dataFactory.getOWLObjectAllValuesFrom(label,toStateConcept);
                     axioms.m_conceptInclusions.add(new OWLClassExpression[] { fromStateConcept,consequentAll });
                 }
             }
             // Generate the final states
             OWLClassExpression filler=replacement.getKey().getFiller();
-            for (Object finalStateObject : automaton.terminals()) {
-                OWLClassExpression finalStateConceptComplement=statesToConcepts.get(finalStateObject).getComplementNNF();
-                if (filler.isOWLNothing())
-                    axioms.m_conceptInclusions.add(new OWLClassExpression[] { finalStateConceptComplement });
-                else
-                    axioms.m_conceptInclusions.add(new OWLClassExpression[] { finalStateConceptComplement,filler });
+            for (int state=0;state<automaton.getNumberOfStates();state++) {
+                if (automaton.isTerminal(state)) {
+                    OWLClassExpression finalStateConceptComplement=statesToConcepts[state].getComplementNNF();
+                    if (filler.isOWLNothing())
+                        axioms.m_conceptInclusions.add(new OWLClassExpression[] { finalStateConceptComplement });
+                    else
+                        axioms.m_conceptInclusions.add(new OWLClassExpression[] { finalStateConceptComplement,filler });
+                }
             }
         }
     }
-    protected void createAutomata(Map<OWLObjectPropertyExpression,Automaton> automataByProperty,Set<OWLObjectPropertyExpression> complexObjectPropertyExpressions,Collection<OWLObjectPropertyExpression[]> simpleObjectPropertyInclusions,Collection<ComplexObjectPropertyInclusion> complexObjectPropertyInclusions) {
+    protected void createAutomata(Map<OWLObjectPropertyExpression,PropertyAutomaton> automataByProperty,Set<OWLObjectPropertyExpression> complexObjectPropertyExpressions,Collection<OWLObjectPropertyExpression[]> simpleObjectPropertyInclusions,Collection<ComplexObjectPropertyInclusion> complexObjectPropertyInclusions) {
         Map<OWLObjectPropertyExpression,Set<OWLObjectPropertyExpression>> equivalentPropertiesMap=findEquivalentProperties(simpleObjectPropertyInclusions);
         Set<OWLObjectPropertyExpression> symmetricObjectProperties=findSymmetricProperties(simpleObjectPropertyInclusions);
         Map<OWLObjectPropertyExpression,Set<OWLObjectPropertyExpression>> inversePropertiesMap=buildInversePropertiesMap(simpleObjectPropertyInclusions);
@@ -181,7 +177,7 @@ public class ObjectPropertyInclusionManager {
 
         Graph<OWLObjectPropertyExpression> complexPropertiesDependencyGraph=propertyDependencyGraph.clone();
         Set<OWLObjectPropertyExpression> transitiveProperties=new HashSet<OWLObjectPropertyExpression>();
-        Map<OWLObjectPropertyExpression,Automaton> individualAutomata=buildIndividualAutomata(complexPropertiesDependencyGraph,simpleObjectPropertyInclusions,complexObjectPropertyInclusions,equivalentPropertiesMap,transitiveProperties);
+        Map<OWLObjectPropertyExpression,PropertyAutomaton> individualAutomata=buildIndividualAutomata(complexPropertiesDependencyGraph,simpleObjectPropertyInclusions,complexObjectPropertyInclusions,equivalentPropertiesMap,transitiveProperties);
         Set<OWLObjectPropertyExpression> simpleProperties=findSimpleProperties(complexPropertiesDependencyGraph,individualAutomata);
 
         propertyDependencyGraph.removeElements(simpleProperties);
@@ -194,13 +190,13 @@ public class ObjectPropertyInclusionManager {
         complexObjectPropertyExpressions.addAll(inverseOfComplexProperties);
 
         connectAllAutomata(automataByProperty,propertyDependencyGraph,inversePropertiesMap,individualAutomata,simpleObjectPropertyInclusions,symmetricObjectProperties,transitiveProperties);
-        Map<OWLObjectPropertyExpression,Automaton> individualAutomataForEquivRoles=new HashMap<OWLObjectPropertyExpression,Automaton>();
+        Map<OWLObjectPropertyExpression,PropertyAutomaton> individualAutomataForEquivRoles=new HashMap<OWLObjectPropertyExpression,PropertyAutomaton>();
         for (OWLObjectPropertyExpression propExprWithAutomaton : automataByProperty.keySet())
         	if (equivalentPropertiesMap.get(propExprWithAutomaton)!=null) {
-        		Automaton autoOfPropExpr = automataByProperty.get(propExprWithAutomaton);
+        		PropertyAutomaton autoOfPropExpr = automataByProperty.get(propExprWithAutomaton);
 	        	for (OWLObjectPropertyExpression equivProp : equivalentPropertiesMap.get(propExprWithAutomaton))
 	        		if (!equivProp.equals(propExprWithAutomaton) && !automataByProperty.containsKey(equivProp)) {
-	        			Automaton automatonOfEquivalent=(Automaton)autoOfPropExpr.clone();
+	        			PropertyAutomaton automatonOfEquivalent=autoOfPropExpr.copy();
 						individualAutomataForEquivRoles.put(equivProp, automatonOfEquivalent);
 						simpleProperties.remove(equivProp);
 				        complexObjectPropertyExpressions.add(equivProp);
@@ -248,7 +244,7 @@ public class ObjectPropertyInclusionManager {
         }
         return equivalentObjectPropertiesMapping;
     }
-    protected Set<OWLObjectPropertyExpression> findSimpleProperties(Graph<OWLObjectPropertyExpression> complexPropertiesDependencyGraph,Map<OWLObjectPropertyExpression,Automaton> individualAutomata) {
+    protected Set<OWLObjectPropertyExpression> findSimpleProperties(Graph<OWLObjectPropertyExpression> complexPropertiesDependencyGraph,Map<OWLObjectPropertyExpression,PropertyAutomaton> individualAutomata) {
         Set<OWLObjectPropertyExpression> simpleProperties=new HashSet<OWLObjectPropertyExpression>();
 
         Graph<OWLObjectPropertyExpression> complexPropertiesDependencyGraphWithInverses=complexPropertiesDependencyGraph.clone();
@@ -273,7 +269,7 @@ public class ObjectPropertyInclusionManager {
         }
         return simpleProperties;
     }
-    protected void connectAllAutomata(Map<OWLObjectPropertyExpression,Automaton> completeAutomata,Graph<OWLObjectPropertyExpression> propertyDependencyGraph,Map<OWLObjectPropertyExpression,Set<OWLObjectPropertyExpression>> inversePropertiesMap,Map<OWLObjectPropertyExpression,Automaton> individualAutomata,Collection<OWLObjectPropertyExpression[]> simpleObjectPropertyInclusions, Set<OWLObjectPropertyExpression> symmetricObjectProperties, Set<OWLObjectPropertyExpression> transitiveProperties) {
+    protected void connectAllAutomata(Map<OWLObjectPropertyExpression,PropertyAutomaton> completeAutomata,Graph<OWLObjectPropertyExpression> propertyDependencyGraph,Map<OWLObjectPropertyExpression,Set<OWLObjectPropertyExpression>> inversePropertiesMap,Map<OWLObjectPropertyExpression,PropertyAutomaton> individualAutomata,Collection<OWLObjectPropertyExpression[]> simpleObjectPropertyInclusions, Set<OWLObjectPropertyExpression> symmetricObjectProperties, Set<OWLObjectPropertyExpression> transitiveProperties) {
         Graph<OWLObjectPropertyExpression> transClosedGraph=propertyDependencyGraph.clone();
         transClosedGraph.transitivelyClose();
 
@@ -289,9 +285,9 @@ public class ObjectPropertyInclusionManager {
 
         for (OWLObjectPropertyExpression property : individualAutomata.keySet())
             if (!completeAutomata.containsKey(property)) {
-                Automaton propertyAutomaton=individualAutomata.get(property);
+                PropertyAutomaton propertyAutomaton=individualAutomata.get(property);
                 if ((completeAutomata.containsKey(property.getInverseProperty().getSimplified()) && inversePropertyDependencyGraph.getElements().contains(property.getInverseProperty().getSimplified())) || individualAutomata.containsKey(property.getInverseProperty().getSimplified())) {
-                    Automaton inversePropertyAutomaton=completeAutomata.get(property.getInverseProperty().getSimplified());
+                    PropertyAutomaton inversePropertyAutomaton=completeAutomata.get(property.getInverseProperty().getSimplified());
                     if (inversePropertyAutomaton==null)
                         inversePropertyAutomaton=individualAutomata.get(property.getInverseProperty().getSimplified());
                     increaseAutomatonWithInversePropertyAutomaton(propertyAutomaton,inversePropertyAutomaton);
@@ -299,7 +295,7 @@ public class ObjectPropertyInclusionManager {
                 completeAutomata.put(property,propertyAutomaton);
             }
 
-        Map<OWLObjectPropertyExpression,Automaton> extraCompleteAutomataForInverseProperties=new HashMap<OWLObjectPropertyExpression,Automaton>();
+        Map<OWLObjectPropertyExpression,PropertyAutomaton> extraCompleteAutomataForInverseProperties=new HashMap<OWLObjectPropertyExpression,PropertyAutomaton>();
         for (OWLObjectPropertyExpression property : completeAutomata.keySet())
             if (!completeAutomata.containsKey(property.getInverseProperty().getSimplified()))
                 extraCompleteAutomataForInverseProperties.put(property.getInverseProperty().getSimplified(),getMirroredCopy(completeAutomata.get(property)));
@@ -314,23 +310,22 @@ public class ObjectPropertyInclusionManager {
         completeAutomata.putAll(extraCompleteAutomataForInverseProperties);
         extraCompleteAutomataForInverseProperties.clear();
     }
-    protected void increaseAutomatonWithInversePropertyAutomaton(Automaton propertyAutomaton,Automaton inversePropertyAutomaton) {
-        State initialState=(State)propertyAutomaton.initials().iterator().next();
-        State finalState=(State)propertyAutomaton.terminals().iterator().next();
-        Transition transition=(Transition)propertyAutomaton.deltaFrom(initialState,finalState).iterator().next();
-        automataConnector(propertyAutomaton,getMirroredCopy(inversePropertyAutomaton),transition);
+    protected void increaseAutomatonWithInversePropertyAutomaton(PropertyAutomaton propertyAutomaton,PropertyAutomaton inversePropertyAutomaton) {
+        int initialState=propertyAutomaton.getInitialState();
+        int finalState=propertyAutomaton.getTerminalState();
+        automataConnector(propertyAutomaton,getMirroredCopy(inversePropertyAutomaton),initialState,finalState);
     }
-    protected Automaton buildCompleteAutomataForProperties(OWLObjectPropertyExpression propertyToBuildAutomatonFor,Map<OWLObjectPropertyExpression,Set<OWLObjectPropertyExpression>> inversePropertiesMap,Map<OWLObjectPropertyExpression,Automaton> individualAutomata,Map<OWLObjectPropertyExpression,Automaton> completeAutomata,Graph<OWLObjectPropertyExpression> inversedPropertyDependencyGraph, Set<OWLObjectPropertyExpression> symmetricObjectProperties, Set<OWLObjectPropertyExpression> transitiveProperties) {
+    protected PropertyAutomaton buildCompleteAutomataForProperties(OWLObjectPropertyExpression propertyToBuildAutomatonFor,Map<OWLObjectPropertyExpression,Set<OWLObjectPropertyExpression>> inversePropertiesMap,Map<OWLObjectPropertyExpression,PropertyAutomaton> individualAutomata,Map<OWLObjectPropertyExpression,PropertyAutomaton> completeAutomata,Graph<OWLObjectPropertyExpression> inversedPropertyDependencyGraph, Set<OWLObjectPropertyExpression> symmetricObjectProperties, Set<OWLObjectPropertyExpression> transitiveProperties) {
         if (completeAutomata.containsKey(propertyToBuildAutomatonFor))
             return completeAutomata.get(propertyToBuildAutomatonFor);
         else if (completeAutomata.containsKey(propertyToBuildAutomatonFor.getInverseProperty().getSimplified()) && !individualAutomata.containsKey(propertyToBuildAutomatonFor)) {
-            Automaton mirroredCopy=getMirroredCopy(completeAutomata.get(propertyToBuildAutomatonFor.getInverseProperty().getSimplified()));
+            PropertyAutomaton mirroredCopy=getMirroredCopy(completeAutomata.get(propertyToBuildAutomatonFor.getInverseProperty().getSimplified()));
             completeAutomata.put(propertyToBuildAutomatonFor,mirroredCopy);
             return mirroredCopy;
         }
         //if the role has no sub-role which is complex and we need to completely construct its automaton
         if (inversedPropertyDependencyGraph.getSuccessors(propertyToBuildAutomatonFor).isEmpty()) {
-            Automaton automatonForLeafProperty=individualAutomata.get(propertyToBuildAutomatonFor);
+            PropertyAutomaton automatonForLeafProperty=individualAutomata.get(propertyToBuildAutomatonFor);
             //if the individual automaton for the role is empty
             if (automatonForLeafProperty==null) {
                 Set<OWLObjectPropertyExpression> inverses=inversePropertiesMap.get(propertyToBuildAutomatonFor);
@@ -359,21 +354,16 @@ public class ObjectPropertyInclusionManager {
                 }
                 //if no inverse (either declared or Inv(R)) has an automaton
                 if (noInversePropertyWithAutomaton) {
-                    automatonForLeafProperty=new Automaton();
-                    State initial=automatonForLeafProperty.addState(true,false);
-                    State accepting=automatonForLeafProperty.addState(false,true);
-                    try {
-                        automatonForLeafProperty.addTransition(new Transition(initial,propertyToBuildAutomatonFor,accepting));
-                    }
-                    catch (NoSuchStateException e) {
-                        throw new IllegalArgumentException("Could not create automaton for property at the bottom of hierarchy (simple property).");
-                    }
+                    automatonForLeafProperty=new PropertyAutomaton();
+                    int initial=automatonForLeafProperty.addState(true,false);
+                    int accepting=automatonForLeafProperty.addState(false,true);
+                    automatonForLeafProperty.addTransition(initial,propertyToBuildAutomatonFor,accepting);
                 	finalizeConstruction(completeAutomata,propertyToBuildAutomatonFor,automatonForLeafProperty,symmetricObjectProperties,transitiveProperties);
                 }
             }
             else {
                 if (propertyToBuildAutomatonFor.getInverseProperty().getSimplified().isAnonymous() && individualAutomata.containsKey(propertyToBuildAutomatonFor.getInverseProperty().getSimplified())) {
-                    Automaton inversePropertyAutomaton=buildCompleteAutomataForProperties(propertyToBuildAutomatonFor.getInverseProperty().getSimplified(),inversePropertiesMap,individualAutomata,completeAutomata,inversedPropertyDependencyGraph,symmetricObjectProperties,transitiveProperties);
+                    PropertyAutomaton inversePropertyAutomaton=buildCompleteAutomataForProperties(propertyToBuildAutomatonFor.getInverseProperty().getSimplified(),inversePropertiesMap,individualAutomata,completeAutomata,inversedPropertyDependencyGraph,symmetricObjectProperties,transitiveProperties);
                     increaseAutomatonWithInversePropertyAutomaton(automatonForLeafProperty,getMirroredCopy(inversePropertyAutomaton));
                     if (!completeAutomata.containsKey(propertyToBuildAutomatonFor))
                     	finalizeConstruction(completeAutomata,propertyToBuildAutomatonFor,automatonForLeafProperty,symmetricObjectProperties,transitiveProperties);
@@ -388,30 +378,19 @@ public class ObjectPropertyInclusionManager {
             return automatonForLeafProperty;
         }
         else {
-            Automaton biggerPropertyAutomaton=individualAutomata.get(propertyToBuildAutomatonFor);
+            PropertyAutomaton biggerPropertyAutomaton=individualAutomata.get(propertyToBuildAutomatonFor);
             if (biggerPropertyAutomaton==null) {
-                biggerPropertyAutomaton=new Automaton();
-                State initialState=biggerPropertyAutomaton.addState(true,false);
-                State finalState=biggerPropertyAutomaton.addState(false,true);
-                Transition transition=new Transition(initialState,propertyToBuildAutomatonFor,finalState);
-                try {
-                    biggerPropertyAutomaton.addTransition(transition);
-                }
-                catch (NoSuchStateException e) {
-                    throw new IllegalArgumentException("Could not create automaton");
-                }
+                biggerPropertyAutomaton=new PropertyAutomaton();
+                int initialState=biggerPropertyAutomaton.addState(true,false);
+                int finalState=biggerPropertyAutomaton.addState(false,true);
+                biggerPropertyAutomaton.addTransition(initialState,propertyToBuildAutomatonFor,finalState);
                 for (OWLObjectPropertyExpression smallerProperty : inversedPropertyDependencyGraph.getSuccessors(propertyToBuildAutomatonFor)) {
-                    Automaton smallerPropertyAutomaton=buildCompleteAutomataForProperties(smallerProperty,inversePropertiesMap,individualAutomata,completeAutomata,inversedPropertyDependencyGraph,symmetricObjectProperties,transitiveProperties);
-                    automataConnector(biggerPropertyAutomaton,smallerPropertyAutomaton,transition);
-                    try {
-                        biggerPropertyAutomaton.addTransition(new Transition(initialState,smallerProperty,finalState));
-                    }
-                    catch (NoSuchStateException e) {
-                        throw new IllegalArgumentException("Could not create automaton");
-                    }
+                    PropertyAutomaton smallerPropertyAutomaton=buildCompleteAutomataForProperties(smallerProperty,inversePropertiesMap,individualAutomata,completeAutomata,inversedPropertyDependencyGraph,symmetricObjectProperties,transitiveProperties);
+                    automataConnector(biggerPropertyAutomaton,smallerPropertyAutomaton,initialState,finalState);
+                    biggerPropertyAutomaton.addTransition(initialState,smallerProperty,finalState);
                 }
                 if (propertyToBuildAutomatonFor.getInverseProperty().getSimplified().isAnonymous() && individualAutomata.containsKey(propertyToBuildAutomatonFor.getInverseProperty().getSimplified())) {
-                    Automaton inversePropertyAutomaton=buildCompleteAutomataForProperties(propertyToBuildAutomatonFor.getInverseProperty().getSimplified(),inversePropertiesMap,individualAutomata,completeAutomata,inversedPropertyDependencyGraph,symmetricObjectProperties,transitiveProperties);
+                    PropertyAutomaton inversePropertyAutomaton=buildCompleteAutomataForProperties(propertyToBuildAutomatonFor.getInverseProperty().getSimplified(),inversePropertiesMap,individualAutomata,completeAutomata,inversedPropertyDependencyGraph,symmetricObjectProperties,transitiveProperties);
                     increaseAutomatonWithInversePropertyAutomaton(biggerPropertyAutomaton,getMirroredCopy(inversePropertyAutomaton));
                     if (!completeAutomata.containsKey(propertyToBuildAutomatonFor))
                     	finalizeConstruction(completeAutomata,propertyToBuildAutomatonFor,biggerPropertyAutomaton,symmetricObjectProperties,transitiveProperties);
@@ -429,24 +408,25 @@ public class ObjectPropertyInclusionManager {
             else {
                 for (OWLObjectPropertyExpression smallerProperty : inversedPropertyDependencyGraph.getSuccessors(propertyToBuildAutomatonFor)) {
                     boolean someInternalTransitionMatched=false;
-                    for (Object transitionObject : biggerPropertyAutomaton.delta()) {
-                        Transition transition=(Transition)transitionObject;
-                        if (transition.label()!=null && transition.label().equals(smallerProperty)) {
-                            Automaton smallerPropertyAutomaton=buildCompleteAutomataForProperties(smallerProperty,inversePropertiesMap,individualAutomata,completeAutomata,inversedPropertyDependencyGraph,symmetricObjectProperties,transitiveProperties);
-                            if (smallerPropertyAutomaton.delta().size()!=1)
-                                automataConnector(biggerPropertyAutomaton,smallerPropertyAutomaton,transition);
+                    // only the transitions that exist before connecting the smaller automata are considered
+                    int numberOfTransitions=biggerPropertyAutomaton.getNumberOfTransitions();
+                    for (int transition=0;transition<numberOfTransitions;transition++) {
+                        OWLObjectPropertyExpression label=biggerPropertyAutomaton.getTransitionLabel(transition);
+                        if (label!=null && label.equals(smallerProperty)) {
+                            PropertyAutomaton smallerPropertyAutomaton=buildCompleteAutomataForProperties(smallerProperty,inversePropertiesMap,individualAutomata,completeAutomata,inversedPropertyDependencyGraph,symmetricObjectProperties,transitiveProperties);
+                            if (smallerPropertyAutomaton.getNumberOfTransitions()!=1)
+                                automataConnector(biggerPropertyAutomaton,smallerPropertyAutomaton,biggerPropertyAutomaton.getTransitionStart(transition),biggerPropertyAutomaton.getTransitionEnd(transition));
                             someInternalTransitionMatched=true;
                         }
                     }
                     if (!someInternalTransitionMatched) {
-                        Automaton smallerPropertyAutomaton=buildCompleteAutomataForProperties(smallerProperty,inversePropertiesMap,individualAutomata,completeAutomata,inversedPropertyDependencyGraph,symmetricObjectProperties,transitiveProperties);
-                        Transition initial2TerminalTransition=(Transition)biggerPropertyAutomaton.deltaFrom((State)biggerPropertyAutomaton.initials().iterator().next(),(State)biggerPropertyAutomaton.terminals().iterator().next()).iterator().next();
-                        automataConnector(biggerPropertyAutomaton,smallerPropertyAutomaton,initial2TerminalTransition);
+                        PropertyAutomaton smallerPropertyAutomaton=buildCompleteAutomataForProperties(smallerProperty,inversePropertiesMap,individualAutomata,completeAutomata,inversedPropertyDependencyGraph,symmetricObjectProperties,transitiveProperties);
+                        automataConnector(biggerPropertyAutomaton,smallerPropertyAutomaton,biggerPropertyAutomaton.getInitialState(),biggerPropertyAutomaton.getTerminalState());
                     }
                 }
             }
             if (propertyToBuildAutomatonFor.getInverseProperty().getSimplified().isAnonymous() && individualAutomata.containsKey(propertyToBuildAutomatonFor.getInverseProperty().getSimplified())) {
-                Automaton inversePropertyAutomaton=buildCompleteAutomataForProperties(propertyToBuildAutomatonFor.getInverseProperty().getSimplified(),inversePropertiesMap,individualAutomata,completeAutomata,inversedPropertyDependencyGraph,symmetricObjectProperties,transitiveProperties);
+                PropertyAutomaton inversePropertyAutomaton=buildCompleteAutomataForProperties(propertyToBuildAutomatonFor.getInverseProperty().getSimplified(),inversePropertiesMap,individualAutomata,completeAutomata,inversedPropertyDependencyGraph,symmetricObjectProperties,transitiveProperties);
                 increaseAutomatonWithInversePropertyAutomaton(biggerPropertyAutomaton,getMirroredCopy(inversePropertyAutomaton));
                 if (!completeAutomata.containsKey(propertyToBuildAutomatonFor))
                 	finalizeConstruction(completeAutomata,propertyToBuildAutomatonFor,biggerPropertyAutomaton,symmetricObjectProperties,transitiveProperties);
@@ -463,27 +443,19 @@ public class ObjectPropertyInclusionManager {
             return biggerPropertyAutomaton;
         }
     }
-    private void finalizeConstruction(Map<OWLObjectPropertyExpression,Automaton> completeAutomata,OWLObjectPropertyExpression propertyToBuildAutomatonFor,Automaton biggerPropertyAutomaton,Set<OWLObjectPropertyExpression> symmetricObjectProperties,Set<OWLObjectPropertyExpression> transitiveProperties) {
-        try {
-        	if (transitiveProperties.contains(propertyToBuildAutomatonFor.getInverseProperty().getSimplified()))
-            	biggerPropertyAutomaton.addTransition(new Transition((State)biggerPropertyAutomaton.terminals().iterator().next(),null,(State)biggerPropertyAutomaton.initials().iterator().next()));
-        }
-        catch (NoSuchStateException e) {
-            throw new IllegalArgumentException("Could not create automaton for symmetric property: "+propertyToBuildAutomatonFor);
-        }
-
-    	if( symmetricObjectProperties.contains( propertyToBuildAutomatonFor )){
-	        Transition basicTransition=new Transition((State)biggerPropertyAutomaton.initials().iterator().next(),propertyToBuildAutomatonFor.getInverseProperty().getSimplified(),(State)biggerPropertyAutomaton.terminals().iterator().next());
-	        automataConnector(biggerPropertyAutomaton,getMirroredCopy(biggerPropertyAutomaton),basicTransition);
-    	}
+    private void finalizeConstruction(Map<OWLObjectPropertyExpression,PropertyAutomaton> completeAutomata,OWLObjectPropertyExpression propertyToBuildAutomatonFor,PropertyAutomaton biggerPropertyAutomaton,Set<OWLObjectPropertyExpression> symmetricObjectProperties,Set<OWLObjectPropertyExpression> transitiveProperties) {
+    	if (transitiveProperties.contains(propertyToBuildAutomatonFor.getInverseProperty().getSimplified()))
+        	biggerPropertyAutomaton.addTransition(biggerPropertyAutomaton.getTerminalState(),null,biggerPropertyAutomaton.getInitialState());
+    	if( symmetricObjectProperties.contains( propertyToBuildAutomatonFor ))
+	        automataConnector(biggerPropertyAutomaton,getMirroredCopy(biggerPropertyAutomaton),biggerPropertyAutomaton.getInitialState(),biggerPropertyAutomaton.getTerminalState());
     	biggerPropertyAutomaton=minimizeAndNormalizeAutomaton(biggerPropertyAutomaton);
         completeAutomata.put(propertyToBuildAutomatonFor,biggerPropertyAutomaton);
         completeAutomata.put(propertyToBuildAutomatonFor.getInverseProperty().getSimplified(),getMirroredCopy(biggerPropertyAutomaton));
 	}
-	protected void increaseWithDefinedInverseIfNecessary(OWLObjectPropertyExpression propertyToBuildAutomatonFor,Automaton leafPropertyAutomaton,Map<OWLObjectPropertyExpression,Set<OWLObjectPropertyExpression>> inversePropertiesMap,Map<OWLObjectPropertyExpression,Automaton> individualAutomata) {
+	protected void increaseWithDefinedInverseIfNecessary(OWLObjectPropertyExpression propertyToBuildAutomatonFor,PropertyAutomaton leafPropertyAutomaton,Map<OWLObjectPropertyExpression,Set<OWLObjectPropertyExpression>> inversePropertiesMap,Map<OWLObjectPropertyExpression,PropertyAutomaton> individualAutomata) {
         Set<OWLObjectPropertyExpression> inverses=inversePropertiesMap.get(propertyToBuildAutomatonFor);
         if (inverses!=null) {
-            Automaton inversePropertyAutomaton=null;
+            PropertyAutomaton inversePropertyAutomaton=null;
             for (OWLObjectPropertyExpression inverse : inverses) {
                 if (individualAutomata.containsKey(inverse) && !inverse.equals(propertyToBuildAutomatonFor)) {
                     inversePropertyAutomaton=individualAutomata.get(inverse);
@@ -492,58 +464,27 @@ public class ObjectPropertyInclusionManager {
             }
         }
         else if (individualAutomata.containsKey(propertyToBuildAutomatonFor.getInverseProperty().getSimplified())) {
-        	Automaton autoOfInv_Role = individualAutomata.get(propertyToBuildAutomatonFor.getInverseProperty().getSimplified());
+        	PropertyAutomaton autoOfInv_Role = individualAutomata.get(propertyToBuildAutomatonFor.getInverseProperty().getSimplified());
         	increaseAutomatonWithInversePropertyAutomaton(leafPropertyAutomaton,autoOfInv_Role);
         }
     }
-    protected Automaton minimizeAndNormalizeAutomaton(Automaton automaton) {
-    	//This part of the code seemed to have a bug in an ontology given by Birte. The ontology created very large automata and was
-    	//extremely difficult to see where the bug was exactly. Either the ToDFA class has a bug or due to state renaming that ToDFA does
-    	//state names got mixed up later (a similar thing has happened before) however I could not detect something like that happening now.
-    	//Without this code the automata are about double in size than with the code which can cause performance issues in ontologies with
-    	//large and complex RIAs, which fortunately does not happen.
-//        Reducer minimizerDeterminizer=new Reducer();
-//        //if the automaton has more than 350-400 transitions it seems that the determiniser is very slow. In general this code does help to reduce the number of clauses produced.
-//        if( automaton.delta().size() > 300 )
-//        	return automaton;
-//        Normalizer normalizer=new Normalizer();
-//        Automaton tempMinimizedAuto=minimizerDeterminizer.transform(automaton);
-//        if (tempMinimizedAuto.delta().size()>=automaton.delta().size())
-//            return automaton;
-//        if (tempMinimizedAuto.initials().size()!=1 || tempMinimizedAuto.terminals().size()!=1)
-//            tempMinimizedAuto=normalizer.transform(tempMinimizedAuto);
-//        if (tempMinimizedAuto.delta().size()>automaton.delta().size())
-            return automaton;
-//        return tempMinimizedAuto;
+    protected PropertyAutomaton minimizeAndNormalizeAutomaton(PropertyAutomaton automaton) {
+        // Determinisation with the jautomata Reducer/ToDFA used to be attempted here, but it could blow up on large RIAs and
+        // was disabled. Reducing in place (trimming, contracting epsilon chains, and merging bisimilar states) never increases
+        // the automaton, keeps the single initial and terminal state, and keeps the automaton shared with the individual
+        // automata up to date.
+        automaton.reduce();
+        return automaton;
     }
-    protected void useStandardAutomataConnector(Automaton biggerPropertyAutomaton,Automaton smallerPropertyAutomaton,Transition transition) {
-        Map<State,State> stateMapper=getDisjointUnion(biggerPropertyAutomaton,smallerPropertyAutomaton);
-
-        State initialState=transition.start();
-	    State finalState=transition.end();
-
-	    State oldStartOfSmaller=stateMapper.get(smallerPropertyAutomaton.initials().iterator().next());
-	    State oldFinalOfSmaller=stateMapper.get(smallerPropertyAutomaton.terminals().iterator().next());
-
-	    try {
-	    	biggerPropertyAutomaton.addTransition(new Transition(initialState,null,oldStartOfSmaller));
-	        biggerPropertyAutomaton.addTransition(new Transition(oldFinalOfSmaller,null,finalState));
-	    }
-	    catch (NoSuchStateException e) {
-	    	throw new IllegalArgumentException("Could not build the Complete Automata of non-Simple Properties");
-	    }
+    protected void useStandardAutomataConnector(PropertyAutomaton biggerPropertyAutomaton,PropertyAutomaton smallerPropertyAutomaton,int initialState,int finalState) {
+        int offset=biggerPropertyAutomaton.addDisjointCopy(smallerPropertyAutomaton);
+        int oldStartOfSmaller=smallerPropertyAutomaton.getInitialState()+offset;
+        int oldFinalOfSmaller=smallerPropertyAutomaton.getTerminalState()+offset;
+        biggerPropertyAutomaton.addTransition(initialState,null,oldStartOfSmaller);
+        biggerPropertyAutomaton.addTransition(oldFinalOfSmaller,null,finalState);
     }
-    protected void automataConnector(Automaton biggerPropertyAutomaton,Automaton smallerPropertyAutomaton,Transition transition) {
-    	useStandardAutomataConnector(biggerPropertyAutomaton,smallerPropertyAutomaton,transition);
-    }
-	protected Set<Transition> deltaToState(Automaton smallerPropertyAutomaton,State state) {
-        Set<Transition> incommingTrans=new HashSet<Transition>();
-        for (Object transitionObject : smallerPropertyAutomaton.delta()) {
-            Transition transition=(Transition)transitionObject;
-            if (transition.end().equals(state))
-                incommingTrans.add(transition);
-        }
-        return incommingTrans;
+    protected void automataConnector(PropertyAutomaton biggerPropertyAutomaton,PropertyAutomaton smallerPropertyAutomaton,int initialState,int finalState) {
+    	useStandardAutomataConnector(biggerPropertyAutomaton,smallerPropertyAutomaton,initialState,finalState);
     }
     protected Graph<OWLObjectPropertyExpression> buildPropertyOrdering(Collection<OWLObjectPropertyExpression[]> simpleObjectPropertyInclusions,Collection<ComplexObjectPropertyInclusion> complexObjectPropertyInclusions,Map<OWLObjectPropertyExpression,Set<OWLObjectPropertyExpression>> equivalentPropertiesMap) {
         Graph<OWLObjectPropertyExpression> propertyDependencyGraph=new Graph<OWLObjectPropertyExpression>();
@@ -600,114 +541,74 @@ public class ObjectPropertyInclusionManager {
                 throw new IllegalArgumentException("The given property hierarchy is not regular.\nThere is a cyclic dependency involving property "+prop);
         }
     }
-    protected Map<OWLObjectPropertyExpression,Automaton> buildIndividualAutomata(Graph<OWLObjectPropertyExpression> complexPropertiesDependencyGraph,Collection<OWLObjectPropertyExpression[]> simpleObjectPropertyInclusions,Collection<ComplexObjectPropertyInclusion> complexObjectPropertyInclusions,Map<OWLObjectPropertyExpression,Set<OWLObjectPropertyExpression>> equivalentPropertiesMap,Set<OWLObjectPropertyExpression> transitiveProperties) {
-        Map<OWLObjectPropertyExpression,Automaton> automataMap=new HashMap<OWLObjectPropertyExpression,Automaton>();
+    protected Map<OWLObjectPropertyExpression,PropertyAutomaton> buildIndividualAutomata(Graph<OWLObjectPropertyExpression> complexPropertiesDependencyGraph,Collection<OWLObjectPropertyExpression[]> simpleObjectPropertyInclusions,Collection<ComplexObjectPropertyInclusion> complexObjectPropertyInclusions,Map<OWLObjectPropertyExpression,Set<OWLObjectPropertyExpression>> equivalentPropertiesMap,Set<OWLObjectPropertyExpression> transitiveProperties) {
+        Map<OWLObjectPropertyExpression,PropertyAutomaton> automataMap=new HashMap<OWLObjectPropertyExpression,PropertyAutomaton>();
         for (OWLAxioms.ComplexObjectPropertyInclusion inclusion : complexObjectPropertyInclusions) {
             OWLObjectPropertyExpression[] subObjectProperties=inclusion.m_subObjectProperties;
             OWLObjectPropertyExpression superObjectProperty=inclusion.m_superObjectProperty;
-            Automaton automaton=null;
-            State initialState=null;
-            State finalState=null;
+            PropertyAutomaton automaton=null;
+            int initialState;
+            int finalState;
             if (!automataMap.containsKey(superObjectProperty)) {
-                automaton=new Automaton();
+                automaton=new PropertyAutomaton();
                 initialState=automaton.addState(true,false);
                 finalState=automaton.addState(false,true);
-                try {
-                    automaton.addTransition(new Transition(initialState,superObjectProperty,finalState));
-                }
-                catch (NoSuchStateException e) {
-                    throw new IllegalArgumentException("Could not create automaton");
-                }
+                automaton.addTransition(initialState,superObjectProperty,finalState);
             }
             else {
                 automaton=automataMap.get(superObjectProperty);
-                initialState=(State)automaton.initials().iterator().next();
-                finalState=(State)automaton.terminals().iterator().next();
+                initialState=automaton.getInitialState();
+                finalState=automaton.getTerminalState();
             }
             // RR->R
             if (subObjectProperties.length==2 && subObjectProperties[0].equals(superObjectProperty) && subObjectProperties[1].equals(superObjectProperty)) {
-                try {
-                    automaton.addTransition(new Transition(finalState,null,initialState));
-                    transitiveProperties.add(superObjectProperty);
-                }
-                catch (NoSuchStateException e) {
-                    throw new IllegalArgumentException("Could not create automaton");
-                }
+                automaton.addTransition(finalState,null,initialState);
+                transitiveProperties.add(superObjectProperty);
             }
             // R S2...Sn->R
             else if (subObjectProperties[0].equals(superObjectProperty)) {
-                State fromState=finalState;
+                int fromState=finalState;
                 OWLObjectPropertyExpression transitionLabel;
                 for (int i=1;i<subObjectProperties.length-1;i++) {
                     transitionLabel=subObjectProperties[i];
                     if (equivalentPropertiesMap.containsKey(superObjectProperty) && equivalentPropertiesMap.get(superObjectProperty).contains(transitionLabel))
                         transitionLabel=superObjectProperty;
-                    try {
-                        fromState=addNewTransition(automaton,fromState,transitionLabel);
-                    }
-                    catch (NoSuchStateException e) {
-                        throw new IllegalArgumentException("Could not create automaton");
-                    }
-                }
-                try {
-                    transitionLabel=subObjectProperties[subObjectProperties.length-1];
-                    if (equivalentPropertiesMap.containsKey(superObjectProperty) && equivalentPropertiesMap.get(superObjectProperty).contains(transitionLabel))
-                        transitionLabel=superObjectProperty;
-                    automaton.addTransition(new Transition(fromState,transitionLabel,finalState));
-                }
-                catch (NoSuchStateException e) {
-                    throw new IllegalArgumentException("Could not create automaton");
+                    fromState=addNewTransition(automaton,fromState,transitionLabel);
                 }
+                transitionLabel=subObjectProperties[subObjectProperties.length-1];
+                if (equivalentPropertiesMap.containsKey(superObjectProperty) && equivalentPropertiesMap.get(superObjectProperty).contains(transitionLabel))
+                    transitionLabel=superObjectProperty;
+                automaton.addTransition(fromState,transitionLabel,finalState);
             }
             // S1...Sn-1 R->R
             else if (subObjectProperties[subObjectProperties.length-1].equals(superObjectProperty)) {
-                State fromState=initialState;
+                int fromState=initialState;
                 OWLObjectPropertyExpression transitionLabel;
                 for (int i=0;i<subObjectProperties.length-2;i++) {
                     transitionLabel=subObjectProperties[i];
                     if (equivalentPropertiesMap.containsKey(superObjectProperty) && equivalentPropertiesMap.get(superObjectProperty).contains(transitionLabel))
                         transitionLabel=superObjectProperty;
-                    try {
-                        fromState=addNewTransition(automaton,fromState,transitionLabel);
-                    }
-                    catch (NoSuchStateException e) {
-                        throw new IllegalArgumentException("Could not create automaton");
-                    }
-                }
-                try {
-                    transitionLabel=subObjectProperties[subObjectProperties.length-2];
-                    if (equivalentPropertiesMap.containsKey(superObjectProperty) && equivalentPropertiesMap.get(superObjectProperty).contains(transitionLabel))
-                        transitionLabel=superObjectProperty;
-                    automaton.addTransition(new Transition(fromState,transitionLabel,initialState));
-                }
-                catch (NoSuchStateException e) {
-                    throw new IllegalArgumentException("Could not create automaton");
+                    fromState=addNewTransition(automaton,fromState,transitionLabel);
                 }
+                transitionLabel=subObjectProperties[subObjectProperties.length-2];
+                if (equivalentPropertiesMap.containsKey(superObjectProperty) && equivalentPropertiesMap.get(superObjectProperty).contains(transitionLabel))
+                    transitionLabel=superObjectProperty;
+                automaton.addTransition(fromState,transitionLabel,initialState);
             }
             // S1...Sn->R
             else {
-                State fromState=initialState;
+                int fromState=initialState;
                 OWLObjectPropertyExpression transitionLabel;
                 for (int i=0;i<subObjectProperties.length-1;i++) {
                     transitionLabel=subObjectProperties[i];
                     if (equivalentPropertiesMap.containsKey(superObjectProperty) && equivalentPropertiesMap.get(superObjectProperty).contains(transitionLabel))
                         transitionLabel=superObjectProperty;
-                    try {
-                        fromState=addNewTransition(automaton,fromState,transitionLabel);
-                    }
-                    catch (NoSuchStateException e) {
-                        throw new IllegalArgumentException("Could not create automaton");
-                    }
-                }
-                try {
-                    transitionLabel=subObjectProperties[subObjectProperties.length-1];
-                    if (equivalentPropertiesMap.containsKey(superObjectProperty) && equivalentPropertiesMap.get(superObjectProperty).contains(transitionLabel))
-                        transitionLabel=superObjectProperty;
-                    automaton.addTransition(new Transition(fromState,transitionLabel,finalState));
-                }
-                catch (NoSuchStateException e) {
-                    throw new IllegalArgumentException("Could not create automaton");
+                    fromState=addNewTransition(automaton,fromState,transitionLabel);
                 }
+                transitionLabel=subObjectProperties[subObjectProperties.length-1];
+                if (equivalentPropertiesMap.containsKey(superObjectProperty) && equivalentPropertiesMap.get(superObjectProperty).contains(transitionLabel))
+                    transitionLabel=superObjectProperty;
+                automaton.addTransition(fromState,transitionLabel,finalState);
             }
             automataMap.put(superObjectProperty,automaton);
         }
@@ -719,7 +620,7 @@ public class ObjectPropertyInclusionManager {
             if (subpropertyExpression.length==2 && subpropertyExpression[0].equals(superpropertyExpression) && subpropertyExpression[1].equals(superpropertyExpression))
                 if (!complexPropertiesDependencyGraph.getElements().contains(superpropertyExpression) && !automataMap.containsKey(superpropertyExpression.getInverseProperty().getSimplified())) {
                     complexPropertiesDependencyGraph.addEdge(superpropertyExpression,superpropertyExpression);
-                    Automaton propertyAutomaton=automataMap.get(superpropertyExpression);
+                    PropertyAutomaton propertyAutomaton=automataMap.get(superpropertyExpression);
                     automataMap.put(superpropertyExpression.getInverseProperty().getSimplified(),getMirroredCopy(propertyAutomaton));
                 }
         }
@@ -728,60 +629,22 @@ public class ObjectPropertyInclusionManager {
         OWLDataFactory df=OWLManager.createOWLOntologyManager().getOWLDataFactory();
         OWLObjectProperty topOP=df.getOWLTopObjectProperty();
         if (!automataMap.keySet().contains(topOP)) {
-            try {
-                Automaton automaton=new Automaton();
-                State initialState=automaton.addState(true,false);
-                State finalState=automaton.addState(false,true);
-                automaton.addTransition(new Transition(initialState,topOP,finalState));
-                automaton.addTransition(new Transition(finalState,null,initialState)); // transitivity
-                automataMap.put(topOP, automaton);
-            }
-            catch (NoSuchStateException e) {
-                throw new IllegalArgumentException("Could not create automaton");
-            }
+            PropertyAutomaton automaton=new PropertyAutomaton();
+            int initialState=automaton.addState(true,false);
+            int finalState=automaton.addState(false,true);
+            automaton.addTransition(initialState,topOP,finalState);
+            automaton.addTransition(finalState,null,initialState); // transitivity
+            automataMap.put(topOP, automaton);
         }        
         return automataMap;
     }
-    protected Map<State,State> getDisjointUnion(Automaton automaton1,Automaton automaton2) {
-        Map<State,State> stateMapperUnionInverse=new HashMap<State,State>();
-        for (Object stateObject : automaton2.states())
-            stateMapperUnionInverse.put((State)stateObject,automaton1.addState(false,false));
-
-        for (Object transitionObject : automaton2.delta()) {
-            Transition transition=(Transition)transitionObject;
-            try {
-                automaton1.addTransition(new Transition(stateMapperUnionInverse.get(transition.start()),transition.label(),stateMapperUnionInverse.get(transition.end())));
-            }
-            catch (NoSuchStateException x) {
-                throw new IllegalArgumentException("Could not create disjoint union of automata");
-            }
-        }
-        return stateMapperUnionInverse;
-    }
-    protected Automaton getMirroredCopy(Automaton automaton) {
-        Automaton mirroredCopy=new Automaton();
-        Map<State,State> map=new HashMap<State,State>();
-        for (Object stateObject : automaton.states()) {
-            State state=(State)stateObject;
-            map.put(state,mirroredCopy.addState(state.isTerminal(),state.isInitial()));
-        }
-        for (Object transitionObject : automaton.delta()) {
-            Transition transition=(Transition)transitionObject;
-            try {
-                if (transition.label() instanceof OWLObjectPropertyExpression)
-                    mirroredCopy.addTransition(new Transition(map.get(transition.end()),((OWLObjectPropertyExpression)transition.label()).getInverseProperty().getSimplified(),map.get(transition.start())));
-                else
-                    mirroredCopy.addTransition(new Transition(map.get(transition.end()),transition.label(),map.get(transition.start())));
-            }
-            catch (NoSuchStateException x) {
-            }
-        }
-        return mirroredCopy;
+    protected PropertyAutomaton getMirroredCopy(PropertyAutomaton automaton) {
+        return automaton.getMirroredCopy();
     }
-    protected State addNewTransition(Automaton automaton,State fromState,OWLObjectPropertyExpression objectPropertyExpression) throws NoSuchStateException {
+    protected int addNewTransition(PropertyAutomaton automaton,int fromState,OWLObjectPropertyExpression objectPropertyExpression) {
         OWLObjectPropertyExpression propertyOfChain=objectPropertyExpression;
-        State toState=automaton.addState(false,false);
-        automaton.addTransition(new Transition(fromState,propertyOfChain,toState));
+        int toState=automaton.addState(false,false);
+        automaton.addTransition(fromState,propertyOfChain,toState);
         return toState;
     }
 }
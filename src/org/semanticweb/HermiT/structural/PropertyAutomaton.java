@@ -0,0 +1,459 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+   
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+   
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+   
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.structural;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
+
+import rationals.Automaton;
+import rationals.NoSuchStateException;
+import rationals.State;
+import rationals.Transition;
+
+/**
+ * A compact nondeterministic automaton over object property expressions used to encode the regular role
+ * inclusions. States are integers, transition labels are indexes into a label table (with -1 denoting an
+ * epsilon transition), and the transitions are kept in parallel arrays. Automata built by the
+ * ObjectPropertyInclusionManager have exactly one initial and one terminal state; reduce() preserves this.
+ */
+public class PropertyAutomaton {
+    public static final int EPSILON=-1;
+    protected static final byte INITIAL=1;
+    protected static final byte TERMINAL=2;
+
+    protected final List<OWLObjectPropertyExpression> m_labels;
+    protected final Map<OWLObjectPropertyExpression,Integer> m_labelIndexes;
+    protected byte[] m_stateFlags;
+    protected int m_numberOfStates;
+    protected int[] m_transitionStarts;
+    protected int[] m_transitionLabels;
+    protected int[] m_transitionEnds;
+    protected int m_numberOfTransitions;
+    protected final Set<Long> m_transitionKeys;
+
+    public PropertyAutomaton() {
+        m_labels=new ArrayList<OWLObjectPropertyExpression>();
+        m_labelIndexes=new HashMap<OWLObjectPropertyExpression,Integer>();
+        m_stateFlags=new byte[8];
+        m_transitionStarts=new int[8];
+        m_transitionLabels=new int[8];
+        m_transitionEnds=new int[8];
+        m_transitionKeys=new HashSet<Long>();
+    }
+    public int addState(boolean initial,boolean terminal) {
+        if (m_numberOfStates==m_stateFlags.length)
+            m_stateFlags=Arrays.copyOf(m_stateFlags,m_numberOfStates*2);
+        m_stateFlags[m_numberOfStates]=(byte)((initial ? INITIAL : 0) | (terminal ? TERMINAL : 0));
+        return m_numberOfStates++;
+    }
+    public int getNumberOfStates() {
+        return m_numberOfStates;
+    }
+    public boolean isInitial(int state) {
+        return (m_stateFlags[state] & INITIAL)!=0;
+    }
+    public boolean isTerminal(int state) {
+        return (m_stateFlags[state] & TERMINAL)!=0;
+    }
+    public int getInitialState() {
+        for (int state=0;state<m_numberOfStates;state++)
+            if (isInitial(state))
+                return state;
+        throw new IllegalStateException("The automaton has no initial state.");
+    }
+    public int getTerminalState() {
+        for (int state=0;state<m_numberOfStates;state++)
+            if (isTerminal(state))
+                return state;
+        throw new IllegalStateException("The automaton has no terminal state.");
+    }
+    public int getLabelIndex(OWLObjectPropertyExpression label) {
+        if (label==null)
+            return EPSILON;
+        Integer index=m_labelIndexes.get(label);
+        if (index==null) {
+            index=m_labels.size();
+            m_labels.add(label);
+            m_labelIndexes.put(label,index);
+        }
+        return index;
+    }
+    /**
+     * Adds a transition; null labels denote epsilon transitions. Duplicate transitions are ignored.
+     */
+    public void addTransition(int start,OWLObjectPropertyExpression label,int end) {
+        addTransition(start,getLabelIndex(label),end);
+    }
+    protected void addTransition(int start,int labelIndex,int end) {
+        if (start<0 || start>=m_numberOfStates || end<0 || end>=m_numberOfStates)
+            throw new IllegalArgumentException("Invalid state in transition.");
+        if (m_transitionKeys.add(transitionKey(start,labelIndex,end))) {
+            if (m_numberOfTransitions==m_transitionStarts.length) {
+                int newLength=m_numberOfTransitions*2;
+                m_transitionStarts=Arrays.copyOf(m_transitionStarts,newLength);
+                m_transitionLabels=Arrays.copyOf(m_transitionLabels,newLength);
+                m_transitionEnds=Arrays.copyOf(m_transitionEnds,newLength);
+            }
+            m_transitionStarts[m_numberOfTransitions]=start;
+            m_transitionLabels[m_numberOfTransitions]=labelIndex;
+            m_transitionEnds[m_numberOfTransitions]=end;
+            m_numberOfTransitions++;
+        }
+    }
+    public int getNumberOfTransitions() {
+        return m_numberOfTransitions;
+    }
+    public int getTransitionStart(int transition) {
+        return m_transitionStarts[transition];
+    }
+    public int getTransitionEnd(int transition) {
+        return m_transitionEnds[transition];
+    }
+    /**
+     * Returns the label of the given transition or null if the transition is an epsilon transition.
+     */
+    public OWLObjectPropertyExpression getTransitionLabel(int transition) {
+        int labelIndex=m_transitionLabels[transition];
+        return labelIndex==EPSILON ? null : m_labels.get(labelIndex);
+    }
+    /**
+     * Returns the index of some transition from start to end, or -1 if there is no such transition.
+     */
+    public int getTransition(int start,int end) {
+        for (int transition=0;transition<m_numberOfTransitions;transition++)
+            if (m_transitionStarts[transition]==start && m_transitionEnds[transition]==end)
+                return transition;
+        return -1;
+    }
+    /**
+     * Copies all states and transitions of the given automaton into this one; the copied states are neither
+     * initial nor terminal. Returns the offset by which the state numbers of the copy have been shifted.
+     */
+    public int addDisjointCopy(PropertyAutomaton automaton) {
+        int offset=m_numberOfStates;
+        for (int state=0;state<automaton.m_numberOfStates;state++)
+            addState(false,false);
+        for (int transition=0;transition<automaton.m_numberOfTransitions;transition++)
+            addTransition(automaton.m_transitionStarts[transition]+offset,automaton.getTransitionLabel(transition),automaton.m_transitionEnds[transition]+offset);
+        return offset;
+    }
+    public PropertyAutomaton copy() {
+        PropertyAutomaton copy=new PropertyAutomaton();
+        for (int state=0;state<m_numberOfStates;state++)
+            copy.addState(isInitial(state),isTerminal(state));
+        for (int transition=0;transition<m_numberOfTransitions;transition++)
+            copy.addTransition(m_transitionStarts[transition],getTransitionLabel(transition),m_transitionEnds[transition]);
+        return copy;
+    }
+    /**
+     * Returns an automaton for the inverse language: the transitions are reversed and labelled with the inverse
+     * properties, and initial and terminal states are swapped.
+     */
+    public PropertyAutomaton getMirroredCopy() {
+        PropertyAutomaton mirroredCopy=new PropertyAutomaton();
+        for (int state=0;state<m_numberOfStates;state++)
+            mirroredCopy.addState(isTerminal(state),isInitial(state));
+        for (int transition=0;transition<m_numberOfTransitions;transition++) {
+            OWLObjectPropertyExpression label=getTransitionLabel(transition);
+            if (label!=null)
+                label=label.getInverseProperty().getSimplified();
+            mirroredCopy.addTransition(m_transitionEnds[transition],label,m_transitionStarts[transition]);
+        }
+        return mirroredCopy;
+    }
+    public boolean accepts(List<OWLObjectPropertyExpression> word) {
+        boolean[] current=new boolean[m_numberOfStates];
+        for (int state=0;state<m_numberOfStates;state++)
+            current[state]=isInitial(state);
+        closeUnderEpsilon(current);
+        for (OWLObjectPropertyExpression letter : word) {
+            Integer labelIndex=m_labelIndexes.get(letter);
+            boolean[] next=new boolean[m_numberOfStates];
+            if (labelIndex!=null)
+                for (int transition=0;transition<m_numberOfTransitions;transition++)
+                    if (m_transitionLabels[transition]==labelIndex.intValue() && current[m_transitionStarts[transition]])
+                        next[m_transitionEnds[transition]]=true;
+            closeUnderEpsilon(next);
+            current=next;
+        }
+        for (int state=0;state<m_numberOfStates;state++)
+            if (current[state] && isTerminal(state))
+                return true;
+        return false;
+    }
+    protected void closeUnderEpsilon(boolean[] states) {
+        boolean changed=true;
+        while (changed) {
+            changed=false;
+            for (int transition=0;transition<m_numberOfTransitions;transition++)
+                if (m_transitionLabels[transition]==EPSILON && states[m_transitionStarts[transition]] && !states[m_transitionEnds[transition]]) {
+                    states[m_transitionEnds[transition]]=true;
+                    changed=true;
+                }
+        }
+    }
+    /**
+     * Reduces the automaton in place without changing its language: states that are not on a path from an
+     * initial to a terminal state are removed, epsilon transitions that merely link two parts of a chain are
+     * contracted, and bisimilar states are merged. Unlike determinisation, none of these steps can increase the
+     * size of the automaton, and the numbers of initial and terminal states do not grow.
+     */
+    public void reduce() {
+        trim();
+        while (contractEpsilonTransitions()) {
+            // repeat until no more epsilon transitions can be contracted
+        }
+        mergeBisimilarStates();
+    }
+    protected void trim() {
+        boolean[] reachable=new boolean[m_numberOfStates];
+        boolean[] productive=new boolean[m_numberOfStates];
+        for (int state=0;state<m_numberOfStates;state++) {
+            reachable[state]=isInitial(state);
+            productive[state]=isTerminal(state);
+        }
+        boolean changed=true;
+        while (changed) {
+            changed=false;
+            for (int transition=0;transition<m_numberOfTransitions;transition++) {
+                int start=m_transitionStarts[transition];
+                int end=m_transitionEnds[transition];
+                if (reachable[start] && !reachable[end]) {
+                    reachable[end]=true;
+                    changed=true;
+                }
+                if (productive[end] && !productive[start]) {
+                    productive[start]=true;
+                    changed=true;
+                }
+            }
+        }
+        int[] representatives=new int[m_numberOfStates];
+        for (int state=0;state<m_numberOfStates;state++)
+            representatives[state]=((reachable[state] && productive[state]) || m_stateFlags[state]!=0 ? state : -1);
+        applyRepresentatives(representatives,m_stateFlags);
+    }
+    protected boolean contractEpsilonTransitions() {
+        int[] outgoing=new int[m_numberOfStates];
+        int[] incoming=new int[m_numberOfStates];
+        for (int transition=0;transition<m_numberOfTransitions;transition++) {
+            outgoing[m_transitionStarts[transition]]++;
+            incoming[m_transitionEnds[transition]]++;
+        }
+        int[] representatives=new int[m_numberOfStates];
+        byte[] newFlags=Arrays.copyOf(m_stateFlags,m_numberOfStates);
+        boolean[] involved=new boolean[m_numberOfStates];
+        for (int state=0;state<m_numberOfStates;state++)
+            representatives[state]=state;
+        boolean changed=false;
+        for (int transition=0;transition<m_numberOfTransitions;transition++) {
+            if (m_transitionLabels[transition]==EPSILON) {
+                int start=m_transitionStarts[transition];
+                int end=m_transitionEnds[transition];
+                if (start!=end && !involved[start] && !involved[end] && !(isInitial(start) && isTerminal(end))) {
+                    // The only way out of start leads to end, so start can be replaced by end.
+                    if (outgoing[start]==1 && !isTerminal(start)) {
+                        representatives[start]=end;
+                        newFlags[end]|=m_stateFlags[start];
+                    }
+                    // The only way into end comes from start, so end can be replaced by start.
+                    else if (incoming[end]==1 && !isInitial(end)) {
+                        representatives[end]=start;
+                        newFlags[start]|=m_stateFlags[end];
+                    }
+                    else
+                        continue;
+                    involved[start]=true;
+                    involved[end]=true;
+                    changed=true;
+                }
+            }
+        }
+        if (changed)
+            applyRepresentatives(representatives,newFlags);
+        return changed;
+    }
+    protected void mergeBisimilarStates() {
+        int[] blocks=new int[m_numberOfStates];
+        boolean hasTerminalStates=false;
+        boolean hasNonterminalStates=false;
+        for (int state=0;state<m_numberOfStates;state++) {
+            blocks[state]=(isTerminal(state) ? 1 : 0);
+            if (isTerminal(state))
+                hasTerminalStates=true;
+            else
+                hasNonterminalStates=true;
+        }
+        // only blocks that contain a state are counted, or the refinement could stop before the partition is stable
+        int numberOfBlocks=(hasTerminalStates ? 1 : 0)+(hasNonterminalStates ? 1 : 0);
+        long[][] signatures=new long[m_numberOfStates][];
+        int[] numberOfOutgoing=new int[m_numberOfStates];
+        for (int transition=0;transition<m_numberOfTransitions;transition++)
+            numberOfOutgoing[m_transitionStarts[transition]]++;
+        while (true) {
+            for (int state=0;state<m_numberOfStates;state++) {
+                signatures[state]=new long[numberOfOutgoing[state]+1];
+                signatures[state][0]=blocks[state];
+            }
+            int[] filled=new int[m_numberOfStates];
+            for (int transition=0;transition<m_numberOfTransitions;transition++) {
+                int start=m_transitionStarts[transition];
+                signatures[start][++filled[start]]=(((long)m_transitionLabels[transition]+1)<<32) | blocks[m_transitionEnds[transition]];
+            }
+            Map<SignatureKey,Integer> newBlocksBySignature=new HashMap<SignatureKey,Integer>();
+            int[] newBlocks=new int[m_numberOfStates];
+            for (int state=0;state<m_numberOfStates;state++) {
+                SignatureKey key=new SignatureKey(normalizeSignature(signatures[state]));
+                Integer block=newBlocksBySignature.get(key);
+                if (block==null) {
+                    block=newBlocksBySignature.size();
+                    newBlocksBySignature.put(key,block);
+                }
+                newBlocks[state]=block;
+            }
+            blocks=newBlocks;
+            if (newBlocksBySignature.size()==numberOfBlocks)
+                break;
+            numberOfBlocks=newBlocksBySignature.size();
+        }
+        if (numberOfBlocks<m_numberOfStates) {
+            int[] blockRepresentatives=new int[numberOfBlocks];
+            Arrays.fill(blockRepresentatives,-1);
+            int[] representatives=new int[m_numberOfStates];
+            byte[] newFlags=Arrays.copyOf(m_stateFlags,m_numberOfStates);
+            for (int state=0;state<m_numberOfStates;state++) {
+                if (blockRepresentatives[blocks[state]]==-1)
+                    blockRepresentatives[blocks[state]]=state;
+                representatives[state]=blockRepresentatives[blocks[state]];
+                newFlags[representatives[state]]|=m_stateFlags[state];
+            }
+            applyRepresentatives(representatives,newFlags);
+        }
+    }
+    /**
+     * Replaces each state by its representative (following chains of representatives); states whose
+     * representative is -1 are removed together with their transitions. The states are renumbered densely.
+     */
+    protected void applyRepresentatives(int[] representatives,byte[] flags) {
+        for (int state=0;state<m_numberOfStates;state++) {
+            int representative=state;
+            while (representative!=-1 && representatives[representative]!=representative)
+                representative=representatives[representative];
+            representatives[state]=representative;
+        }
+        int[] newNumbers=new int[m_numberOfStates];
+        byte[] newStateFlags=new byte[Math.max(8,m_numberOfStates)];
+        int newNumberOfStates=0;
+        for (int state=0;state<m_numberOfStates;state++) {
+            if (representatives[state]==state) {
+                newStateFlags[newNumberOfStates]=flags[state];
+                newNumbers[state]=newNumberOfStates++;
+            }
+        }
+        int[] oldStarts=m_transitionStarts;
+        int[] oldLabels=m_transitionLabels;
+        int[] oldEnds=m_transitionEnds;
+        int oldNumberOfTransitions=m_numberOfTransitions;
+        m_stateFlags=newStateFlags;
+        m_numberOfStates=newNumberOfStates;
+        m_transitionStarts=new int[Math.max(8,oldNumberOfTransitions)];
+        m_transitionLabels=new int[m_transitionStarts.length];
+        m_transitionEnds=new int[m_transitionStarts.length];
+        m_numberOfTransitions=0;
+        m_transitionKeys.clear();
+        for (int transition=0;transition<oldNumberOfTransitions;transition++) {
+            int start=representatives[oldStarts[transition]];
+            int end=representatives[oldEnds[transition]];
+            if (start!=-1 && end!=-1 && !(start==end && oldLabels[transition]==EPSILON))
+                addTransition(newNumbers[start],oldLabels[transition],newNumbers[end]);
+        }
+    }
+    /**
+     * Converts this automaton into a jautomata automaton, for example to compare it with the results of the
+     * transformations in the rationals package.
+     */
+    public Automaton toRationalsAutomaton() {
+        Automaton automaton=new Automaton();
+        State[] states=new State[m_numberOfStates];
+        for (int state=0;state<m_numberOfStates;state++)
+            states[state]=automaton.addState(isInitial(state),isTerminal(state));
+        try {
+            for (int transition=0;transition<m_numberOfTransitions;transition++)
+                automaton.addTransition(new Transition(states[m_transitionStarts[transition]],getTransitionLabel(transition),states[m_transitionEnds[transition]]));
+        }
+        catch (NoSuchStateException e) {
+            throw new IllegalStateException("Internal error: inconsistent automaton.",e);
+        }
+        return automaton;
+    }
+    public String toString() {
+        StringBuffer buffer=new StringBuffer();
+        for (int state=0;state<m_numberOfStates;state++) {
+            buffer.append(state);
+            if (isInitial(state))
+                buffer.append(" initial");
+            if (isTerminal(state))
+                buffer.append(" terminal");
+            buffer.append('\n');
+        }
+        for (int transition=0;transition<m_numberOfTransitions;transition++) {
+            buffer.append(m_transitionStarts[transition]);
+            buffer.append(" -");
+            OWLObjectPropertyExpression label=getTransitionLabel(transition);
+            buffer.append(label==null ? "eps" : label.toString());
+            buffer.append("-> ");
+            buffer.append(m_transitionEnds[transition]);
+            buffer.append('\n');
+        }
+        return buffer.toString();
+    }
+    protected static long[] normalizeSignature(long[] signature) {
+        Arrays.sort(signature,1,signature.length);
+        int length=Math.min(signature.length,2);
+        for (int index=2;index<signature.length;index++)
+            if (signature[index]!=signature[length-1])
+                signature[length++]=signature[index];
+        return length==signature.length ? signature : Arrays.copyOf(signature,length);
+    }
+    protected static long transitionKey(int start,int labelIndex,int end) {
+        return (((long)start)<<42) | (((long)labelIndex+1)<<21) | end;
+    }
+
+    protected static final class SignatureKey {
+        protected final long[] m_signature;
+        protected final int m_hashCode;
+
+        public SignatureKey(long[] signature) {
+            m_signature=signature;
+            m_hashCode=Arrays.hashCode(signature);
+        }
+        public int hashCode() {
+            return m_hashCode;
+        }
+        public boolean equals(Object that) {
+            return that instanceof SignatureKey && Arrays.equals(m_signature,((SignatureKey)that).m_signature);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+   
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+   
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+   
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.structural;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.semanticweb.owlapi.model.OWLDataFactory;
+
+/**
+ * Creates views of an OWLDataFactory that serialize all calls on the underlying factory. The OWL API data factory
+ * caches entities in maps that are not safe for concurrent use, so the worker threads of the parallel preprocessing
+ * access the factory only through such a view.
+ */
+public class SynchronizedOWLDataFactory implements InvocationHandler {
+    protected final OWLDataFactory m_factory;
+
+    protected SynchronizedOWLDataFactory(OWLDataFactory factory) {
+        m_factory=factory;
+    }
+    public Object invoke(Object proxy,Method method,Object[] arguments) throws Throwable {
+        try {
+            synchronized (m_factory) {
+                return method.invoke(m_factory,arguments);
+            }
+        }
+        catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+    public static OWLDataFactory create(OWLDataFactory factory) {
+        return (OWLDataFactory)Proxy.newProxyInstance(OWLDataFactory.class.getClassLoader(),new Class<?>[] { OWLDataFactory.class },new SynchronizedOWLDataFactory(factory));
+    }
+}
@@ -30,6 +30,7 @@ public class BranchingPoint implements Serializable {
     protected final Node m_lastMergedOrPrunedNode;
     protected final GroundDisjunction m_firstGroundDisjunction;
     protected final GroundDisjunction m_firstUnprocessedGroundDisjunction;
+    protected final int m_numberOfGroundDisjunctionSwaps;
 
     public BranchingPoint(Tableau tableau) {
         m_level=tableau.m_currentBranchingPoint+1;
@@ -37,6 +38,7 @@ public class BranchingPoint implements Serializable {
         m_lastMergedOrPrunedNode=tableau.m_lastMergedOrPrunedNode;
         m_firstGroundDisjunction=tableau.m_firstGroundDisjunction;
         m_firstUnprocessedGroundDisjunction=tableau.m_firstUnprocessedGroundDisjunction;
+        m_numberOfGroundDisjunctionSwaps=tableau.m_numberOfGroundDisjunctionSwaps;
     }
     public int getLevel() {
         return m_level;
@@ -49,9 +49,11 @@ public final class ClashManager implements Serializable {
     protected final Object[] m_binaryAuxiliaryTuple;
     protected final Object[] m_ternaryAuxiliaryTuple;
     protected final UnionDependencySet m_binaryUnionDependencySet;
+    protected final NogoodCache m_nogoodCache;
 
     public ClashManager(Tableau tableau) {
         m_extensionManager=tableau.m_extensionManager;
+        m_nogoodCache=tableau.m_nogoodCache;
         m_ternaryExtensionTableSearch01Bound=m_extensionManager.m_ternaryExtensionTable.createRetrieval(new boolean[] { true,true,false },ExtensionTable.View.TOTAL);
         m_tableauMonitor=tableau.m_tableauMonitor;
         m_binaryAuxiliaryTuple=new Object[2];
@@ -136,5 +138,7 @@ public final class ClashManager implements Serializable {
                 }
             }
         }
+        if (dlPredicateObject instanceof AtomicConcept && !m_nogoodCache.isEmpty() && !m_extensionManager.containsClash())
+            m_nogoodCache.conceptAdded(extensionTable,tuple,(AtomicConcept)dlPredicateObject,node0,dependencySet);
     }
 }
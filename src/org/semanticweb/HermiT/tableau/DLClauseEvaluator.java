@@ -689,6 +689,9 @@ public class DLClauseEvaluator implements Serializable {
             m_coreVariables=new boolean[m_variables.size()];
             generateCode(1,firstAtomRetrieval);
         }
+        protected boolean projectHeadIrrelevantVariables() {
+            return true;
+        }
         protected int getNumberOfHeads() {
             return m_headDLClauses.size();
         }
@@ -773,18 +776,22 @@ public class DLClauseEvaluator implements Serializable {
         protected final ValuesBufferManager m_valuesBufferManager;
         protected final ExtensionManager m_extensionManager;
         protected final Atom[] m_bodyAtoms;
+        protected final List<Variable> m_headVariables;
         protected final List<Variable> m_variables;
         protected final Set<Variable> m_boundSoFar;
         protected final UnionDependencySet m_unionDependencySet;
         protected final List<ExtensionTable.Retrieval> m_retrievals;
         public final List<Worker> m_workers;
         protected final List<Integer> m_labels;
+        protected int m_firstHeadIrrelevantBodyAtom;
+        protected int m_afterHeadIrrelevantBodyAtoms;
 
         public ConjunctionCompiler(BufferSupply bufferSupply,ValuesBufferManager valuesBufferManager,Map<Integer,UnionDependencySet> unionDependencySetsBySize,ExtensionManager extensionManager,Atom[] bodyAtoms,List<Variable> headVariables) {
             m_bufferSupply=bufferSupply;
             m_valuesBufferManager=valuesBufferManager;
             m_extensionManager=extensionManager;
             m_bodyAtoms=bodyAtoms;
+            m_headVariables=headVariables;
             m_variables=new ArrayList<Variable>();
             m_boundSoFar=new HashSet<Variable>();
             int numberOfRealAtoms=0;
@@ -820,6 +827,8 @@ public class DLClauseEvaluator implements Serializable {
             m_labels.add(null);
             m_retrievals.add(firstAtomRetrieval);
             int afterRule=addLabel();
+            m_firstHeadIrrelevantBodyAtom=(projectHeadIrrelevantVariables() ? getFirstHeadIrrelevantBodyAtom(firstBodyAtomToCompile) : -1);
+            m_afterHeadIrrelevantBodyAtoms=0;
             if (firstBodyAtomToCompile>0) {
                 compileCheckUnboundVariableMatches(getBodyAtom(0),firstAtomRetrieval,afterRule);
                 compileGenerateBindings(firstAtomRetrieval,getBodyAtom(0));
@@ -838,6 +847,40 @@ public class DLClauseEvaluator implements Serializable {
                     }
                 }
         }
+        /**
+         * Returns the index of the first regular body atom such that this atom and all atoms after it bind only variables
+         * that do not occur in the head, or -1 if there is no such atom. Once the heads have been derived for one match of
+         * these atoms, all other matches produce the same head instances, so the matching of these atoms is just an
+         * existence check and their loops can be left after the first successful match.
+         */
+        protected final int getFirstHeadIrrelevantBodyAtom(int firstBodyAtomToCompile) {
+            Set<Variable> boundVariables=new HashSet<Variable>();
+            if (firstBodyAtomToCompile>0)
+                addVariables(getBodyAtom(0),boundVariables);
+            int firstHeadIrrelevantBodyAtom=-1;
+            for (int bodyAtomIndex=firstBodyAtomToCompile;bodyAtomIndex<getBodyLength();bodyAtomIndex++) {
+                Atom atom=getBodyAtom(bodyAtomIndex);
+                boolean bindsHeadVariable=false;
+                for (int argumentIndex=0;argumentIndex<atom.getArity();argumentIndex++) {
+                    Variable variable=atom.getArgumentVariable(argumentIndex);
+                    if (variable!=null && !boundVariables.contains(variable) && m_headVariables.contains(variable))
+                        bindsHeadVariable=true;
+                }
+                addVariables(atom,boundVariables);
+                if (bindsHeadVariable)
+                    firstHeadIrrelevantBodyAtom=-1;
+                else if (firstHeadIrrelevantBodyAtom==-1 && !atom.getDLPredicate().equals(NodeIDLessEqualThan.INSTANCE) && !(atom.getDLPredicate() instanceof NodeIDsAscendingOrEqual))
+                    firstHeadIrrelevantBodyAtom=bodyAtomIndex;
+            }
+            return firstHeadIrrelevantBodyAtom;
+        }
+        protected static void addVariables(Atom atom,Set<Variable> variables) {
+            for (int argumentIndex=0;argumentIndex<atom.getArity();argumentIndex++) {
+                Variable variable=atom.getArgumentVariable(argumentIndex);
+                if (variable!=null)
+                    variables.add(variable);
+            }
+        }
         protected final boolean occursInBodyAtomsAfter(Variable variable,int startIndex) {
             for (int argumentIndex=startIndex;argumentIndex<getBodyLength();argumentIndex++)
                 if (getBodyAtom(argumentIndex).containsVariable(variable))
@@ -845,8 +888,11 @@ public class DLClauseEvaluator implements Serializable {
             return false;
         }
         protected final void compileBodyAtom(int bodyAtomIndex,int lastAtomNextElement) {
-            if (bodyAtomIndex==getBodyLength())
+            if (bodyAtomIndex==getBodyLength()) {
                 compileHeads();
+                if (m_afterHeadIrrelevantBodyAtoms!=0)
+                    m_workers.add(new JumpTo(m_afterHeadIrrelevantBodyAtoms));
+            }
             else if (getBodyAtom(bodyAtomIndex).getDLPredicate().equals(NodeIDLessEqualThan.INSTANCE)) {
                 Atom atom=getBodyAtom(bodyAtomIndex);
                 int variable1Index=m_variables.indexOf(atom.getArgumentVariable(0));
@@ -881,9 +927,15 @@ public class DLClauseEvaluator implements Serializable {
                 //
                 // NodeIDLessEqualThan and NodeIDsAscendingOrEqual atoms are compiled such that they
                 // immediately jump to the next element of the previous regular atom.
+                //
+                // If this atom and all following atoms bind only variables that do not occur in the head,
+                // the code for the heads is followed by a jump to afterLoop of this atom, so the remaining
+                // atoms are evaluated as an existence check.
 
                 int afterLoop=addLabel();
                 int nextElement=addLabel();
+                if (bodyAtomIndex==m_firstHeadIrrelevantBodyAtom)
+                    m_afterHeadIrrelevantBodyAtoms=afterLoop;
                 Atom atom=getBodyAtom(bodyAtomIndex);
                 int[] bindingPositions=new int[atom.getArity()+1];
                 bindingPositions[0]=m_valuesBufferManager.m_bodyDLPredicatesToIndexes.get(atom.getDLPredicate()).intValue();
@@ -951,6 +1003,13 @@ public class DLClauseEvaluator implements Serializable {
         protected final void setLabelProgramCounter(int labelID) {
             m_labels.set(-labelID,Integer.valueOf(m_workers.size()));
         }
+        /**
+         * Determines whether matches of body atoms that bind only variables not occurring in the head are evaluated as
+         * existence checks, that is, whether it suffices to process one of several matches that agree on the head variables.
+         */
+        protected boolean projectHeadIrrelevantVariables() {
+            return false;
+        }
         protected abstract void compileHeads();
    }
 }
@@ -22,7 +22,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.semanticweb.HermiT.Prefixes;
@@ -39,8 +42,17 @@ import org.semanticweb.HermiT.model.InternalDatatype;
 import org.semanticweb.HermiT.model.LiteralDataRange;
 import org.semanticweb.HermiT.monitor.TableauMonitor;
 
+/**
+ * Checks the satisfiability of the D-conjunctions in the tableau. The results of normalizing the restrictions of a variable
+ * and of checking a D-conjunction with inequalities are memoised: a normalization is keyed by the set of data ranges of the
+ * variable, and a D-conjunction by the data ranges of its variables and the inequalities between them. Satisfiability depends
+ * only on these, so a cached result holds for any node with the same restrictions. For an unsatisfiable D-conjunction, the cache
+ * also stores which variables the clash involved, so that a cache hit produces the same dependency set as a full check. Once the
+ * given number of results has been cached, further results are not recorded.
+ */
 public final class DatatypeManager implements Serializable {
     private static final long serialVersionUID=-5304869484553471737L;
+    public static final int DEFAULT_MAXIMUM_NUMBER_OF_CACHED_RESULTS=10000;
 
     protected final InterruptFlag m_interruptFlag;
     protected final TableauMonitor m_tableauMonitor;
@@ -57,6 +69,12 @@ public final class DatatypeManager implements Serializable {
     protected final boolean[] m_newVariableAdded;
     protected final Set<DatatypeRestriction> m_unknownDatatypeRestrictionsPermanent;
     protected Set<DatatypeRestriction> m_unknownDatatypeRestrictionsAdditional;
+    protected final int m_maximumNumberOfCachedResults;
+    protected final Map<Set<DataRange>,DNormalization> m_normalizationCache;
+    protected final Map<DConjunctionKey,DConjunctionResult> m_conjunctionCache;
+    protected final List<DVariable> m_clashVariables;
+    protected boolean m_clashOnInequalities;
+    protected int m_numberOfCacheHits;
 
     public DatatypeManager(Tableau tableau) {
         m_interruptFlag=tableau.m_interruptFlag;
@@ -81,6 +99,20 @@ public final class DatatypeManager implements Serializable {
         m_unknownDatatypeRestrictionsPermanent=tableau.m_permanentDLOntology.getAllUnknownDatatypeRestrictions();
         if (tableau.m_additionalDLOntology!=null)
             additionalDLOntologySet(tableau.m_additionalDLOntology);
+        Object maximumNumberOfCachedResults=tableau.m_parameters.get("DatatypeManager.maximumNumberOfCachedResults");
+        m_maximumNumberOfCachedResults=maximumNumberOfCachedResults instanceof Integer ? ((Integer)maximumNumberOfCachedResults).intValue() : DEFAULT_MAXIMUM_NUMBER_OF_CACHED_RESULTS;
+        m_normalizationCache=new HashMap<Set<DataRange>,DNormalization>();
+        m_conjunctionCache=new HashMap<DConjunctionKey,DConjunctionResult>();
+        m_clashVariables=new ArrayList<DVariable>();
+    }
+    public int getNumberOfCachedResults() {
+        return m_normalizationCache.size()+m_conjunctionCache.size();
+    }
+    /**
+     * Returns the number of normalizations and D-conjunction checks that were answered from the cache.
+     */
+    public int getNumberOfCacheHits() {
+        return m_numberOfCacheHits;
     }
     public void additionalDLOntologySet(DLOntology additionalDLOntology) {
         m_unknownDatatypeRestrictionsAdditional=additionalDLOntology.getAllUnknownDatatypeRestrictions();
@@ -97,6 +129,7 @@ public final class DatatypeManager implements Serializable {
         m_assertions1Retrieval.clear();
         m_conjunction.clear();
         m_auxiliaryVariableList.clear();
+        m_clashVariables.clear();
         m_unionDependencySet.clearConstituents();
     }
     public void applyUnknownDatatypeRestrictionSemantics() {
@@ -190,6 +223,7 @@ public final class DatatypeManager implements Serializable {
         m_unionDependencySet.clearConstituents();
         m_conjunction.clear();
         m_auxiliaryVariableList.clear();
+        m_clashVariables.clear();
     }
     protected void loadConjunctionFrom(DVariable startVariable) {
         m_auxiliaryVariableList.clear();
@@ -244,8 +278,11 @@ public final class DatatypeManager implements Serializable {
                 m_assertions1Retrieval.next();
                 m_interruptFlag.checkInterrupt();
             }
-            if (!m_extensionManager.containsClash())
+            if (!m_extensionManager.containsClash()) {
+                if (m_maximumNumberOfCachedResults>0)
+                    variable.m_restrictions=variable.getRestrictions();
                 normalize(variable);
+            }
         }
         return variable;
     }
@@ -316,6 +353,21 @@ public final class DatatypeManager implements Serializable {
                     setClashFor(m_conjunction.m_activeVariables);
             }
             else if (!m_extensionManager.containsClash()) {
+                DConjunctionKey conjunctionKey=null;
+                if (m_maximumNumberOfCachedResults>0 && m_conjunction.m_activeVariables.size()>1) {
+                    conjunctionKey=new DConjunctionKey(m_conjunction.m_activeVariables);
+                    DConjunctionResult conjunctionResult=m_conjunctionCache.get(conjunctionKey);
+                    if (conjunctionResult!=null) {
+                        m_numberOfCacheHits++;
+                        if (conjunctionResult.m_clashVariableIndices!=null)
+                            setClashFor(m_conjunction.m_activeVariables,conjunctionResult);
+                        if (m_tableauMonitor!=null)
+                            m_tableauMonitor.datatypeConjunctionCheckingFinished(m_conjunction,!m_extensionManager.containsClash());
+                        return;
+                    }
+                }
+                m_clashVariables.clear();
+                m_clashOnInequalities=false;
                 eliminateTrivialInequalities();
                 eliminateTriviallySatisfiableNodes();
                 enumerateValueSpaceSubsets();
@@ -323,16 +375,31 @@ public final class DatatypeManager implements Serializable {
                     eliminateTriviallySatisfiableNodes();
                     checkAssignments();
                 }
+                if (conjunctionKey!=null && m_conjunctionCache.size()<m_maximumNumberOfCachedResults)
+                    m_conjunctionCache.put(conjunctionKey,new DConjunctionResult(m_extensionManager.containsClash() ? m_clashVariables : null,m_clashOnInequalities));
             }
             if (m_tableauMonitor!=null)
                 m_tableauMonitor.datatypeConjunctionCheckingFinished(m_conjunction,!m_extensionManager.containsClash());
         }
     }
     protected void normalize(DVariable variable) {
-        if (!variable.m_positiveConstantEnumerations.isEmpty())
-            normalizeAsEnumeration(variable);
-        else if (!variable.m_positiveDatatypeRestrictions.isEmpty())
-            normalizeAsValueSpaceSubset(variable);
+        if (!variable.m_positiveConstantEnumerations.isEmpty() || !variable.m_positiveDatatypeRestrictions.isEmpty()) {
+            if (variable.m_restrictions!=null) {
+                DNormalization normalization=m_normalizationCache.get(variable.m_restrictions);
+                if (normalization!=null) {
+                    m_numberOfCacheHits++;
+                    if (normalization.applyTo(variable))
+                        setClashFor(variable);
+                    return;
+                }
+            }
+            if (!variable.m_positiveConstantEnumerations.isEmpty())
+                normalizeAsEnumeration(variable);
+            else
+                normalizeAsValueSpaceSubset(variable);
+            if (variable.m_restrictions!=null && m_normalizationCache.size()<m_maximumNumberOfCachedResults)
+                m_normalizationCache.put(variable.m_restrictions,new DNormalization(variable,m_extensionManager.containsClash()));
+        }
     }
     protected void normalizeAsEnumeration(DVariable variable) {
         variable.m_hasExplicitDataValues=true;
@@ -496,11 +563,14 @@ public final class DatatypeManager implements Serializable {
         return true;
     }
     protected void setClashFor(DVariable variable) {
+        m_clashVariables.add(variable);
         m_unionDependencySet.clearConstituents();
         loadAssertionDependencySets(variable);
         m_extensionManager.setClash(m_unionDependencySet);
     }
     protected void setClashFor(List<DVariable> variables) {
+        m_clashVariables.addAll(variables);
+        m_clashOnInequalities=true;
         m_unionDependencySet.clearConstituents();
         for (int nodeIndex=variables.size()-1;nodeIndex>=0;--nodeIndex) {
             DVariable variable=variables.get(nodeIndex);
@@ -513,6 +583,29 @@ public final class DatatypeManager implements Serializable {
         }
         m_extensionManager.setClash(m_unionDependencySet);
     }
+    protected void setClashFor(List<DVariable> variables,DConjunctionResult conjunctionResult) {
+        // The variables of the cached clash are identified by their positions in the key. Inequalities are
+        // taken into account only between the variables of the clash, just as in the check that produced it.
+        int[] clashVariableIndices=conjunctionResult.m_clashVariableIndices;
+        boolean[] inClash=new boolean[variables.size()];
+        for (int index=clashVariableIndices.length-1;index>=0;--index)
+            inClash[clashVariableIndices[index]]=true;
+        m_unionDependencySet.clearConstituents();
+        for (int index=clashVariableIndices.length-1;index>=0;--index) {
+            DVariable variable=variables.get(clashVariableIndices[index]);
+            loadAssertionDependencySets(variable);
+            if (conjunctionResult.m_clashOnInequalities) {
+                for (int neighborIndex=variable.m_unequalToDirect.size()-1;neighborIndex>=0;--neighborIndex) {
+                    DVariable neighborVariable=variable.m_unequalToDirect.get(neighborIndex);
+                    if (inClash[neighborVariable.m_conjunctionIndex]) {
+                        DependencySet dependencySet=m_extensionManager.getAssertionDependencySet(Inequality.INSTANCE,variable.m_node,neighborVariable.m_node);
+                        m_unionDependencySet.addConstituent(dependencySet);
+                    }
+                }
+            }
+        }
+        m_extensionManager.setClash(m_unionDependencySet);
+    }
     protected void loadAssertionDependencySets(DVariable variable) {
         Node node=variable.m_node;
         for (int index=variable.m_positiveDatatypeRestrictions.size()-1;index>=0;--index) {
@@ -689,6 +782,8 @@ public final class DatatypeManager implements Serializable {
         protected DVariable m_nextEntry;
         protected ValueSpaceSubset m_valueSpaceSubset;
         protected Object m_dataValue;
+        protected Set<DataRange> m_restrictions;
+        protected int m_conjunctionIndex;
 
         protected DVariable() {
             m_positiveConstantEnumerations=new ArrayList<ConstantEnumeration>();
@@ -715,6 +810,7 @@ public final class DatatypeManager implements Serializable {
             m_nextEntry=null;
             m_valueSpaceSubset=null;
             m_dataValue=null;
+            m_restrictions=null;
         }
         protected void clearEqualities() {
             m_unequalTo.clear();
@@ -758,6 +854,18 @@ public final class DatatypeManager implements Serializable {
                 equals(m_negativeDatatypeRestrictions,that.m_negativeDatatypeRestrictions)
             );
         }
+        protected Set<DataRange> getRestrictions() {
+            if (m_positiveConstantEnumerations.isEmpty() && m_negativeConstantEnumerations.isEmpty() && m_positiveDatatypeRestrictions.isEmpty() && m_negativeDatatypeRestrictions.isEmpty())
+                return Collections.emptySet();
+            Set<DataRange> restrictions=new HashSet<DataRange>();
+            restrictions.addAll(m_positiveConstantEnumerations);
+            for (int index=m_negativeConstantEnumerations.size()-1;index>=0;--index)
+                restrictions.add(m_negativeConstantEnumerations.get(index).getNegation());
+            restrictions.addAll(m_positiveDatatypeRestrictions);
+            for (int index=m_negativeDatatypeRestrictions.size()-1;index>=0;--index)
+                restrictions.add(m_negativeDatatypeRestrictions.get(index).getNegation());
+            return restrictions;
+        }
         protected static <T> boolean equals(List<T> first,List<T> second) {
             if (first.size()!=second.size())
                 return false;
@@ -808,6 +916,97 @@ public final class DatatypeManager implements Serializable {
         }
     }
 
+    protected static class DNormalization implements Serializable {
+        private static final long serialVersionUID=-6520785519442651398L;
+        protected final boolean m_unsatisfiable;
+        protected final boolean m_hasExplicitDataValues;
+        protected final Object[] m_explicitDataValues;
+        protected final ValueSpaceSubset m_valueSpaceSubset;
+        protected final Object[] m_forbiddenDataValues;
+
+        public DNormalization(DVariable variable,boolean unsatisfiable) {
+            m_unsatisfiable=unsatisfiable;
+            m_hasExplicitDataValues=variable.m_hasExplicitDataValues;
+            m_explicitDataValues=variable.m_explicitDataValues.toArray();
+            m_valueSpaceSubset=variable.m_valueSpaceSubset;
+            m_forbiddenDataValues=variable.m_forbiddenDataValues.toArray();
+        }
+        /**
+         * Puts the variable into the state that normalizing its restrictions produces, and returns true if the restrictions
+         * are unsatisfiable.
+         */
+        public boolean applyTo(DVariable variable) {
+            if (!m_unsatisfiable) {
+                variable.m_hasExplicitDataValues=m_hasExplicitDataValues;
+                variable.m_explicitDataValues.addAll(Arrays.asList(m_explicitDataValues));
+                variable.m_valueSpaceSubset=m_valueSpaceSubset;
+                variable.m_forbiddenDataValues.clear();
+                variable.m_forbiddenDataValues.addAll(Arrays.asList(m_forbiddenDataValues));
+            }
+            return m_unsatisfiable;
+        }
+    }
+
+    /**
+     * Identifies a D-conjunction by the restrictions of its variables in the order of the active variables and by the direct
+     * inequalities between them. The same conjunction loaded in a different order gives a different key, which merely causes a
+     * cache miss.
+     */
+    protected static class DConjunctionKey implements Serializable {
+        private static final long serialVersionUID=3140516283154087765L;
+        protected final Set<?>[] m_restrictions;
+        protected final int[][] m_unequalToDirect;
+        protected final int m_hashCode;
+
+        public DConjunctionKey(List<DVariable> variables) {
+            int numberOfVariables=variables.size();
+            m_restrictions=new Set<?>[numberOfVariables];
+            m_unequalToDirect=new int[numberOfVariables][];
+            for (int index=0;index<numberOfVariables;index++)
+                variables.get(index).m_conjunctionIndex=index;
+            int hashCode=0;
+            for (int index=0;index<numberOfVariables;index++) {
+                DVariable variable=variables.get(index);
+                m_restrictions[index]=variable.m_restrictions;
+                int[] unequalToDirect=new int[variable.m_unequalToDirect.size()];
+                for (int neighborIndex=unequalToDirect.length-1;neighborIndex>=0;--neighborIndex)
+                    unequalToDirect[neighborIndex]=variable.m_unequalToDirect.get(neighborIndex).m_conjunctionIndex;
+                Arrays.sort(unequalToDirect);
+                m_unequalToDirect[index]=unequalToDirect;
+                hashCode=hashCode*31+variable.m_restrictions.hashCode()*7+Arrays.hashCode(unequalToDirect);
+            }
+            m_hashCode=hashCode;
+        }
+        public int hashCode() {
+            return m_hashCode;
+        }
+        public boolean equals(Object that) {
+            if (this==that)
+                return true;
+            if (!(that instanceof DConjunctionKey))
+                return false;
+            DConjunctionKey thatKey=(DConjunctionKey)that;
+            return m_hashCode==thatKey.m_hashCode && Arrays.equals(m_restrictions,thatKey.m_restrictions) && Arrays.deepEquals(m_unequalToDirect,thatKey.m_unequalToDirect);
+        }
+    }
+
+    protected static class DConjunctionResult implements Serializable {
+        private static final long serialVersionUID=-3786045817370961428L;
+        protected final int[] m_clashVariableIndices;
+        protected final boolean m_clashOnInequalities;
+
+        public DConjunctionResult(List<DVariable> clashVariables,boolean clashOnInequalities) {
+            if (clashVariables==null)
+                m_clashVariableIndices=null;
+            else {
+                m_clashVariableIndices=new int[clashVariables.size()];
+                for (int index=clashVariables.size()-1;index>=0;--index)
+                    m_clashVariableIndices[index]=clashVariables.get(index).m_conjunctionIndex;
+            }
+            m_clashOnInequalities=clashOnInequalities;
+        }
+    }
+
     protected static int getIndexFor(int hashCode,int tableLength) {
         hashCode+=~(hashCode << 9);
         hashCode^=(hashCode >>> 14);
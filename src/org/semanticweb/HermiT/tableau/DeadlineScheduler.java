@@ -0,0 +1,95 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+   
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+   
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+   
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times the tasks of all interrupt flags in the JVM. Starting or ending a task merely writes the deadline of the flag,
+ * and a single daemon thread periodically sets the timeout on the flags whose deadline has passed. Thus, timing a task
+ * requires neither a thread per reasoner nor a handshake with a timer thread. The period is a tenth of the shortest
+ * timeout, but at least one and at most 100 ms. Flags are referenced weakly so that a reasoner that has not been
+ * disposed can still be garbage collected; the thread terminates once no flags are registered.
+ */
+final class DeadlineScheduler implements Runnable {
+    protected static final long MINIMUM_PERIOD=1;
+    protected static final long MAXIMUM_PERIOD=100;
+    protected static final List<WeakReference<InterruptFlag>> s_interruptFlags=new ArrayList<WeakReference<InterruptFlag>>();
+    protected static Thread s_thread;
+    protected static long s_period;
+
+    private DeadlineScheduler() {
+    }
+    public static synchronized void register(InterruptFlag interruptFlag) {
+        s_interruptFlags.add(new WeakReference<InterruptFlag>(interruptFlag));
+        updatePeriod();
+        if (s_thread==null) {
+            s_thread=new Thread(new DeadlineScheduler(),"HermiT Task Deadline Thread");
+            s_thread.setDaemon(true);
+            s_thread.start();
+        }
+    }
+    public static synchronized void unregister(InterruptFlag interruptFlag) {
+        for (int index=s_interruptFlags.size()-1;index>=0;--index) {
+            InterruptFlag registeredFlag=s_interruptFlags.get(index).get();
+            if (registeredFlag==null || registeredFlag==interruptFlag)
+                s_interruptFlags.remove(index);
+        }
+        updatePeriod();
+    }
+    public static synchronized int getNumberOfRegisteredFlags() {
+        return s_interruptFlags.size();
+    }
+    protected static void updatePeriod() {
+        long period=MAXIMUM_PERIOD;
+        for (int index=s_interruptFlags.size()-1;index>=0;--index) {
+            InterruptFlag interruptFlag=s_interruptFlags.get(index).get();
+            if (interruptFlag!=null)
+                period=Math.min(period,Math.max(MINIMUM_PERIOD,interruptFlag.m_individualTaskTimeout/10));
+        }
+        s_period=period;
+    }
+    protected static synchronized long checkDeadlines() {
+        long now=System.nanoTime();
+        for (int index=s_interruptFlags.size()-1;index>=0;--index) {
+            InterruptFlag interruptFlag=s_interruptFlags.get(index).get();
+            if (interruptFlag==null)
+                s_interruptFlags.remove(index);
+            else
+                interruptFlag.checkDeadline(now);
+        }
+        if (s_interruptFlags.isEmpty()) {
+            s_thread=null;
+            return -1;
+        }
+        else
+            return s_period;
+    }
+    public void run() {
+        long period;
+        while ((period=checkDeadlines())>0) {
+            try {
+                Thread.sleep(period);
+            }
+            catch (InterruptedException ignored) {
+            }
+        }
+    }
+}
@@ -35,14 +35,20 @@ public final class DisjunctionBranchingPoint extends BranchingPoint {
         m_groundDisjunction=groundDisjunction;
         m_sortedDisjunctIndexes=sortedDisjunctIndexes;
     }
+    public GroundDisjunction getGroundDisjunction() {
+        return m_groundDisjunction;
+    }
+    public int getCurrentDisjunctIndex() {
+        return m_sortedDisjunctIndexes[m_currentIndex];
+    }
     public void startNextChoice(Tableau tableau,DependencySet clashDependencySet) {
-        if (tableau.m_useDisjunctionLearning)
-            m_groundDisjunction.getGroundDisjunctionHeader().increaseNumberOfBacktrackings(m_sortedDisjunctIndexes[m_currentIndex]);
+        tableau.m_branchingHeuristic.disjunctFailed(m_groundDisjunction,m_sortedDisjunctIndexes[m_currentIndex]);
         m_currentIndex++;
         assert m_currentIndex<m_groundDisjunction.getNumberOfDisjuncts();
         int currentDisjunctIndex=m_sortedDisjunctIndexes[m_currentIndex];
         if (tableau.m_tableauMonitor!=null)
             tableau.m_tableauMonitor.disjunctProcessingStarted(m_groundDisjunction,currentDisjunctIndex);
+        tableau.m_branchingHeuristic.disjunctChosen(m_groundDisjunction,currentDisjunctIndex);
         PermanentDependencySet dependencySet=tableau.getDependencySetFactory().getPermanent(clashDependencySet);
         if (m_currentIndex+1==m_groundDisjunction.getNumberOfDisjuncts())
             dependencySet=tableau.getDependencySetFactory().removeBranchingPoint(dependencySet,m_level);
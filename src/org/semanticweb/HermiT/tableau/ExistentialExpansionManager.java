@@ -28,13 +28,23 @@ import java.util.Set;
 import org.semanticweb.HermiT.graph.Graph;
 import org.semanticweb.HermiT.model.AtLeast;
 import org.semanticweb.HermiT.model.AtLeastConcept;
+import org.semanticweb.HermiT.model.AnnotatedEquality;
 import org.semanticweb.HermiT.model.AtLeastDataRange;
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicNegationConcept;
 import org.semanticweb.HermiT.model.AtomicRole;
 import org.semanticweb.HermiT.model.DLClause;
+import org.semanticweb.HermiT.model.DLPredicate;
 import org.semanticweb.HermiT.model.ExistentialConcept;
 import org.semanticweb.HermiT.model.Inequality;
 import org.semanticweb.HermiT.model.InverseRole;
+import org.semanticweb.HermiT.model.LiteralConcept;
+import org.semanticweb.HermiT.model.NodeIDLessEqualThan;
+import org.semanticweb.HermiT.model.NodeIDsAscendingOrEqual;
 import org.semanticweb.HermiT.model.Role;
+import org.semanticweb.HermiT.model.Term;
+import org.semanticweb.HermiT.model.Variable;
 
 /**
  * Manages the expansion of at least restrictions in a tableau.
@@ -50,10 +60,20 @@ public final class ExistentialExpansionManager implements Serializable {
     protected final ExtensionTable.Retrieval m_ternaryExtensionTableSearch01Bound;
     protected final ExtensionTable.Retrieval m_ternaryExtensionTableSearch02Bound;
     protected final Map<Role,Role[]> m_functionalRoles;
+    protected final Map<Role,CardinalityBound[]> m_cardinalityBounds;
     protected final UnionDependencySet m_binaryUnionDependencySet;
+    protected final UnionDependencySet m_cardinalityBoundUnionDependencySet;
     protected int[] m_indicesByBranchingPoint;
 
     public ExistentialExpansionManager(Tableau tableau) {
+        this(tableau,false);
+    }
+    /**
+     * @param countNumberRestrictions
+     *            if true, at least restrictions are compared arithmetically with the at most restrictions that apply to the
+     *            same node before successors are created for them
+     */
+    public ExistentialExpansionManager(Tableau tableau,boolean countNumberRestrictions) {
         m_tableau=tableau;
         m_extensionManager=m_tableau.m_extensionManager;
         m_expandedExistentials=new TupleTable(2);
@@ -62,14 +82,17 @@ public final class ExistentialExpansionManager implements Serializable {
         m_ternaryExtensionTableSearch01Bound=m_extensionManager.getTernaryExtensionTable().createRetrieval(new boolean[] { true,true,false },ExtensionTable.View.TOTAL);
         m_ternaryExtensionTableSearch02Bound=m_extensionManager.getTernaryExtensionTable().createRetrieval(new boolean[] { true,false,true },ExtensionTable.View.TOTAL);
         m_functionalRoles=new HashMap<Role,Role[]>();
-        updateFunctionalRoles();
+        m_cardinalityBounds=new HashMap<Role,CardinalityBound[]>();
+        updateFunctionalRoles(countNumberRestrictions);
         m_binaryUnionDependencySet=new UnionDependencySet(2);
+        m_cardinalityBoundUnionDependencySet=new UnionDependencySet(4);
         m_indicesByBranchingPoint=new int[2];
     }
-    protected void updateFunctionalRoles() {
+    protected void updateFunctionalRoles(boolean countNumberRestrictions) {
         Graph<Role> superRoleGraph=new Graph<Role>();
         Set<Role> functionalRoles=new HashSet<Role>();
-        loadDLClausesIntoGraph(m_tableau.m_permanentDLOntology.getDLClauses(),superRoleGraph,functionalRoles);
+        List<CardinalityBound> cardinalityBounds=new ArrayList<CardinalityBound>();
+        loadDLClausesIntoGraph(m_tableau.m_permanentDLOntology.getDLClauses(),superRoleGraph,functionalRoles,countNumberRestrictions ? cardinalityBounds : null);
         for (Role role : superRoleGraph.getElements()) {
             superRoleGraph.addEdge(role,role);
             superRoleGraph.addEdge(role.getInverse(),role.getInverse());
@@ -89,8 +112,28 @@ public final class ExistentialExpansionManager implements Serializable {
                 m_functionalRoles.put(role,relevantRolesArray);
             }
         }
+        // An at most restriction on a role also counts the successors over all subroles.
+        Map<Role,List<CardinalityBound>> cardinalityBoundsByRole=new HashMap<Role,List<CardinalityBound>>();
+        for (CardinalityBound cardinalityBound : cardinalityBounds) {
+            Set<Role> subroles=new HashSet<Role>(subRoleGraph.getSuccessors(cardinalityBound.m_onRole));
+            subroles.add(cardinalityBound.m_onRole);
+            for (Role subrole : subroles) {
+                List<CardinalityBound> boundsForRole=cardinalityBoundsByRole.get(subrole);
+                if (boundsForRole==null) {
+                    boundsForRole=new ArrayList<CardinalityBound>();
+                    cardinalityBoundsByRole.put(subrole,boundsForRole);
+                }
+                boundsForRole.add(cardinalityBound);
+            }
+        }
+        m_cardinalityBounds.clear();
+        for (Map.Entry<Role,List<CardinalityBound>> entry : cardinalityBoundsByRole.entrySet()) {
+            CardinalityBound[] boundsArray=new CardinalityBound[entry.getValue().size()];
+            entry.getValue().toArray(boundsArray);
+            m_cardinalityBounds.put(entry.getKey(),boundsArray);
+        }
     }
-    protected void loadDLClausesIntoGraph(Set<DLClause> dlClauses,Graph<Role> superRoleGraph,Set<Role> functionalRoles) {
+    protected void loadDLClausesIntoGraph(Set<DLClause> dlClauses,Graph<Role> superRoleGraph,Set<Role> functionalRoles,List<CardinalityBound> cardinalityBounds) {
         for (DLClause dlClause : dlClauses) {
             if (dlClause.isAtomicRoleInclusion()) {
                 AtomicRole subrole=(AtomicRole)dlClause.getBodyAtom(0).getDLPredicate();
@@ -112,7 +155,63 @@ public final class ExistentialExpansionManager implements Serializable {
                 AtomicRole atomicRole=(AtomicRole)dlClause.getBodyAtom(0).getDLPredicate();
                 functionalRoles.add(atomicRole.getInverse());
             }
+            else if (cardinalityBounds!=null) {
+                CardinalityBound cardinalityBound=getCardinalityBound(dlClause);
+                if (cardinalityBound!=null)
+                    cardinalityBounds.add(cardinalityBound);
+            }
+        }
+    }
+    /**
+     * Recognises the clauses produced for at most restrictions, that is, clauses of the form
+     * G1(X) ∧ ... ∧ Gk(X) ∧ R(X,Y1) ∧ C(Y1) ∧ ... ∧ R(X,Yn+1) ∧ C(Yn+1) → ∨ Yi ==@atMost(n R C) Yj
+     * (the guards Gi can be absent, and for a negated filler ¬C the atoms C(Yi) occur in the head).
+     *
+     * @return the bound that the clause imposes on the nodes labelled with all guards or null if the clause does not have
+     *         this form
+     */
+    protected static CardinalityBound getCardinalityBound(DLClause dlClause) {
+        Atom annotatedEqualityAtom=null;
+        for (int headIndex=0;annotatedEqualityAtom==null && headIndex<dlClause.getHeadLength();headIndex++)
+            if (dlClause.getHeadAtom(headIndex).getDLPredicate() instanceof AnnotatedEquality)
+                annotatedEqualityAtom=dlClause.getHeadAtom(headIndex);
+        if (annotatedEqualityAtom==null)
+            return null;
+        AnnotatedEquality annotatedEquality=(AnnotatedEquality)annotatedEqualityAtom.getDLPredicate();
+        Term centralVariable=annotatedEqualityAtom.getArgument(2);
+        LiteralConcept toConcept=annotatedEquality.getToConcept();
+        for (int headIndex=0;headIndex<dlClause.getHeadLength();headIndex++) {
+            Atom headAtom=dlClause.getHeadAtom(headIndex);
+            DLPredicate dlPredicate=headAtom.getDLPredicate();
+            if (dlPredicate==annotatedEquality) {
+                if (headAtom.getArgument(2)!=centralVariable)
+                    return null;
+            }
+            else if (!(toConcept instanceof AtomicNegationConcept) || dlPredicate!=((AtomicNegationConcept)toConcept).getNegatedAtomicConcept() || headAtom.getArgument(0)==centralVariable)
+                return null;
         }
+        List<AtomicConcept> guards=new ArrayList<AtomicConcept>();
+        for (int bodyIndex=0;bodyIndex<dlClause.getBodyLength();bodyIndex++) {
+            Atom bodyAtom=dlClause.getBodyAtom(bodyIndex);
+            DLPredicate dlPredicate=bodyAtom.getDLPredicate();
+            if (dlPredicate instanceof AtomicConcept) {
+                if (bodyAtom.getArgument(0)==centralVariable)
+                    guards.add((AtomicConcept)dlPredicate);
+                else if (dlPredicate!=toConcept)
+                    return null;
+            }
+            else if (dlPredicate instanceof AtomicRole) {
+                Term argument0=bodyAtom.getArgument(0);
+                Term argument1=bodyAtom.getArgument(1);
+                if ((argument0==centralVariable)==(argument1==centralVariable) || !(argument0 instanceof Variable) || !(argument1 instanceof Variable))
+                    return null;
+            }
+            else if (!(dlPredicate instanceof NodeIDLessEqualThan) && !(dlPredicate instanceof NodeIDsAscendingOrEqual))
+                return null;
+        }
+        AtomicConcept[] guardsArray=new AtomicConcept[guards.size()];
+        guards.toArray(guardsArray);
+        return new CardinalityBound(guardsArray,annotatedEquality.getCaridnality(),annotatedEquality.getOnRole(),toConcept);
     }
     public void markExistentialProcessed(ExistentialConcept existentialConcept,Node forNode) {
         m_auxiliaryTuple[0]=existentialConcept;
@@ -154,8 +253,9 @@ public final class ExistentialExpansionManager implements Serializable {
     }
     /**
      * Creates a new node in the tableau if the at least concept that caused the expansion is for cardinality 1. If it is not of cardinality 1 and the role in the at least concept is a functional role, it sets a clash in the extension manager.
+     * If number restrictions are counted, a clash is also set if the cardinality exceeds an at most restriction that applies to the node.
      *
-     * @return true if the at least cardinality is 1 (causes an expansion) or it is greater than one but the role is functional (causes a clash) and false otherwise.
+     * @return true if the at least cardinality is 1 (causes an expansion) or it is greater than one but the role is functional or the cardinality exceeds an at most restriction (causes a clash) and false otherwise.
      */
     public boolean tryFunctionalExpansion(AtLeast atLeast,Node forNode) {
         if (atLeast.getNumber()==1) {
@@ -184,8 +284,40 @@ public final class ExistentialExpansionManager implements Serializable {
                 m_tableau.m_tableauMonitor.existentialExpansionFinished(atLeast,forNode);
             return true;
         }
+        else if (atLeast.getNumber()>1 && atLeast instanceof AtLeastConcept && m_cardinalityBounds.containsKey(atLeast.getOnRole())) {
+            CardinalityBound cardinalityBound=getExceededCardinalityBound((AtLeastConcept)atLeast,forNode);
+            if (cardinalityBound!=null) {
+                if (m_tableau.m_tableauMonitor!=null)
+                    m_tableau.m_tableauMonitor.existentialExpansionStarted(atLeast,forNode);
+                m_cardinalityBoundUnionDependencySet.clearConstituents();
+                m_cardinalityBoundUnionDependencySet.addConstituent(m_extensionManager.getConceptAssertionDependencySet(atLeast,forNode));
+                for (AtomicConcept guard : cardinalityBound.m_guards)
+                    m_cardinalityBoundUnionDependencySet.addConstituent(m_extensionManager.getConceptAssertionDependencySet(guard,forNode));
+                m_extensionManager.setClash(m_cardinalityBoundUnionDependencySet);
+                m_cardinalityBoundUnionDependencySet.clearConstituents();
+                if (m_tableau.m_tableauMonitor!=null)
+                    m_tableau.m_tableauMonitor.existentialExpansionFinished(atLeast,forNode);
+                return true;
+            }
+        }
         return false;
     }
+    /**
+     * @return an at most restriction that applies to the given node and that allows fewer successors than the given at
+     *         least restriction requires or null if there is no such restriction
+     */
+    protected CardinalityBound getExceededCardinalityBound(AtLeastConcept atLeastConcept,Node forNode) {
+        for (CardinalityBound cardinalityBound : m_cardinalityBounds.get(atLeastConcept.getOnRole()))
+            if (cardinalityBound.m_cardinality<atLeastConcept.getNumber() && (cardinalityBound.m_toConcept==AtomicConcept.THING || cardinalityBound.m_toConcept==atLeastConcept.getToConcept()) && hasAllGuards(cardinalityBound,forNode))
+                return cardinalityBound;
+        return null;
+    }
+    protected boolean hasAllGuards(CardinalityBound cardinalityBound,Node node) {
+        for (AtomicConcept guard : cardinalityBound.m_guards)
+            if (!m_extensionManager.containsConceptAssertion(guard,node))
+                return false;
+        return true;
+    }
     protected boolean getFunctionalExpansionNode(Role role,Node forNode,Object[] result) {
         Role[] relevantRoles=m_functionalRoles.get(role);
         if (relevantRoles!=null) {
@@ -277,4 +409,23 @@ public final class ExistentialExpansionManager implements Serializable {
             else
                 doNormalExpansion((AtLeastDataRange)atLeast,forNode);
     }
+
+    /**
+     * An at most restriction that holds for all nodes labelled with the guard concepts.
+     */
+    protected static class CardinalityBound implements Serializable {
+        private static final long serialVersionUID=-3160263185478424553L;
+
+        protected final AtomicConcept[] m_guards;
+        protected final int m_cardinality;
+        protected final Role m_onRole;
+        protected final LiteralConcept m_toConcept;
+
+        public CardinalityBound(AtomicConcept[] guards,int cardinality,Role onRole,LiteralConcept toConcept) {
+            m_guards=guards;
+            m_cardinality=cardinality;
+            m_onRole=onRole;
+            m_toConcept=toConcept;
+        }
+    }
 }
@@ -83,12 +83,27 @@ public final class GroundDisjunctionHeader {
                 return false;
         return true;
     }
+    public int getNumberOfDisjuncts() {
+        return m_dlPredicates.length;
+    }
     public int[] getSortedDisjunctIndexes() {
         int[] sortedDisjunctIndexes=new int[m_disjunctIndexesWithBacktrackings.length];
         for (int index=m_disjunctIndexesWithBacktrackings.length-1;index>=0;--index)
             sortedDisjunctIndexes[index]=m_disjunctIndexesWithBacktrackings[index].m_disjunctIndex;
         return sortedDisjunctIndexes;
     }
+    /**
+     * Returns the partition of the given disjunct: 0 for disjuncts that are not at least concepts, 1 for at
+     * least concepts over a negated atomic concept, and 2 for all other at least concepts. Disjuncts are always
+     * tried partition by partition; reordering only ever happens within a partition.
+     */
+    public int getPartition(int disjunctIndex) {
+        DLPredicate dlPredicate=m_dlPredicates[disjunctIndex];
+        if (dlPredicate instanceof AtLeastConcept)
+            return ((AtLeastConcept)dlPredicate).getToConcept() instanceof AtomicNegationConcept ? 1 : 2;
+        else
+            return 0;
+    }
     public void increaseNumberOfBacktrackings(int disjunctIndex) {
         for (int index=0;index<m_disjunctIndexesWithBacktrackings.length;index++) {
             DisjunctIndexWithBacktrackings disjunctIndexWithBacktrackings=m_disjunctIndexesWithBacktrackings[index];
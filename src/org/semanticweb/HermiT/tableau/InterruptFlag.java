@@ -18,6 +18,7 @@
 package org.semanticweb.HermiT.tableau;
 
 import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.semanticweb.owlapi.reasoner.ReasonerInterruptedException;
 import org.semanticweb.owlapi.reasoner.TimeOutException;
@@ -26,114 +27,67 @@ public final class InterruptFlag implements Serializable {
     private static final long serialVersionUID=-6983680374511847003L;
 
     protected static enum InterruptType { INTERRUPTED,TIMEOUT };
+    protected static final long NO_DEADLINE=Long.MIN_VALUE;
 
-    protected final InterruptTimer m_interruptTimer;
-    protected volatile InterruptType m_interruptType;
+    protected final long m_individualTaskTimeout;
+    /** If set, starting or ending a task clears only a timeout, so an interrupt stays in effect until the flag is disposed. */
+    protected final boolean m_keepsInterrupt;
+    protected volatile long m_taskDeadline;
+    /** Updated atomically so that clearing a stale timeout or setting a new one can never overwrite an interrupt. */
+    protected final AtomicReference<InterruptType> m_interruptType;
 
     public InterruptFlag(long individualTaskTimeout) {
-        if (individualTaskTimeout>0)
-            m_interruptTimer=new InterruptTimer(individualTaskTimeout);
-        else
-            m_interruptTimer=null;
+        this(individualTaskTimeout,false);
+    }
+    public InterruptFlag(long individualTaskTimeout,boolean keepsInterrupt) {
+        m_individualTaskTimeout=individualTaskTimeout;
+        m_keepsInterrupt=keepsInterrupt;
+        m_taskDeadline=NO_DEADLINE;
+        m_interruptType=new AtomicReference<InterruptType>();
+        if (m_individualTaskTimeout>0)
+            DeadlineScheduler.register(this);
     }
     public void checkInterrupt() {
-        InterruptType interruptType=m_interruptType;
+        InterruptType interruptType=m_interruptType.get();
         if (interruptType!=null) {
-            if (interruptType==InterruptType.TIMEOUT)
-                throw new TimeOutException();
-            else
+            if (interruptType==InterruptType.INTERRUPTED)
                 throw new ReasonerInterruptedException();
+            else if (isPastDeadline(System.nanoTime()))
+                throw new TimeOutException();
+            else {
+                // The deadline scheduler set the timeout for a task that has ended in the meantime.
+                m_interruptType.compareAndSet(InterruptType.TIMEOUT,null);
+            }
         }
     }
     public void interrupt() {
-        m_interruptType=InterruptType.INTERRUPTED;
+        m_interruptType.set(InterruptType.INTERRUPTED);
     }
     public void startTask() {
-        m_interruptType=null;
-        if (m_interruptTimer!=null)
-            m_interruptTimer.startTiming();
+        clearInterruptType();
+        if (m_individualTaskTimeout>0)
+            m_taskDeadline=System.nanoTime()+m_individualTaskTimeout*1000000L;
     }
     public void endTask() {
-        if (m_interruptTimer!=null)
-            m_interruptTimer.stopTiming();
-        m_interruptType=null;
+        m_taskDeadline=NO_DEADLINE;
+        clearInterruptType();
     }
     public void dispose() {
-        if (m_interruptTimer!=null)
-            m_interruptTimer.dispose();
+        if (m_individualTaskTimeout>0)
+            DeadlineScheduler.unregister(this);
     }
-
-    protected static enum TimerState { WAIT_FOR_TASK,TIMING,TIMING_STOPPED,DISPOSED };
-
-    protected class InterruptTimer extends Thread {
-        protected final long m_timeout;
-        protected TimerState m_timerState;
-
-        public InterruptTimer(long timeout) {
-            super("HermiT Interrupt Current Task Thread");
-            setDaemon(true);
-            m_timeout=timeout;
-            start();
-        }
-        public synchronized void run() {
-            while (m_timerState!=TimerState.DISPOSED) {
-                m_timerState=TimerState.WAIT_FOR_TASK;
-                notifyAll();
-                while (m_timerState==TimerState.WAIT_FOR_TASK) {
-                    try {
-                        wait();
-                    }
-                    catch (InterruptedException stopped) {
-                        m_timerState=TimerState.DISPOSED;
-                    }
-                }
-                if (m_timerState==TimerState.TIMING) {
-                    try {
-                        wait(m_timeout);
-                        if (m_timerState==TimerState.TIMING)
-                            m_interruptType=InterruptType.TIMEOUT;
-                    }
-                    catch (InterruptedException stopped) {
-                        m_timerState=TimerState.DISPOSED;
-                    }
-                }
-            }
-        }
-        public synchronized void startTiming() {
-            while (m_timerState!=TimerState.WAIT_FOR_TASK && m_timerState!=TimerState.DISPOSED) {
-                try {
-                    wait();
-                }
-                catch (InterruptedException stopped) {
-                }
-            }
-            if (m_timerState==TimerState.WAIT_FOR_TASK) {
-                m_timerState=TimerState.TIMING;
-                notifyAll();
-            }
-        }
-        public synchronized void stopTiming() {
-            if (m_timerState==TimerState.TIMING) {
-                m_timerState=TimerState.TIMING_STOPPED;
-                notifyAll();
-                while (m_timerState!=TimerState.WAIT_FOR_TASK && m_timerState!=TimerState.DISPOSED) {
-                    try {
-                        wait();
-                    }
-                    catch (InterruptedException stopped) {
-                        return;
-                    }
-                }
-            }
-        }
-        public synchronized void dispose() {
-            m_timerState=TimerState.DISPOSED;
-            notifyAll();
-            try {
-                join();
-            }
-            catch (InterruptedException e) {
-            }
-        }
+    protected void clearInterruptType() {
+        if (m_keepsInterrupt)
+            m_interruptType.compareAndSet(InterruptType.TIMEOUT,null);
+        else
+            m_interruptType.set(null);
+    }
+    protected boolean isPastDeadline(long now) {
+        long taskDeadline=m_taskDeadline;
+        return taskDeadline!=NO_DEADLINE && now-taskDeadline>=0;
+    }
+    protected void checkDeadline(long now) {
+        if (isPastDeadline(now))
+            m_interruptType.compareAndSet(null,InterruptType.TIMEOUT);
     }
 }
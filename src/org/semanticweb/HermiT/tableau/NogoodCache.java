@@ -0,0 +1,127 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+   
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+   
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+   
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.monitor.TableauMonitor;
+
+/**
+ * Stores sets of atomic concepts (nogoods) that are known to be unsatisfiable w.r.t. the permanent DL-ontology of the tableau.
+ * A nogood is recorded whenever a satisfiability test that asserts just the concepts of the nogood for a single fresh individual
+ * fails, so the concepts have no common instance in any model of the permanent ontology. Adding axioms only removes models, so
+ * the nogoods remain valid if an additional ontology is set later on; they are, however, never recorded while an additional
+ * ontology is set. Since nogoods are statements about models, they hold for nominal and named nodes just as for tree nodes.
+ * Whenever a node gets all concepts of a nogood, the clash manager raises a clash that depends on the concerned assertions,
+ * which saves the tableau from rediscovering the clash. The cache survives the clearing of the tableau and holds at most the
+ * given number of nogoods; further nogoods are then simply not recorded.
+ */
+public final class NogoodCache implements Serializable {
+    private static final long serialVersionUID=-1265437829134576043L;
+    public static final int DEFAULT_MAXIMUM_NUMBER_OF_NOGOODS=10000;
+
+    protected final ExtensionManager m_extensionManager;
+    protected final TableauMonitor m_tableauMonitor;
+    protected final int m_maximumNumberOfNogoods;
+    protected final Map<AtomicConcept,AtomicConcept[][]> m_nogoodsByConcept;
+    protected final Set<Set<AtomicConcept>> m_nogoods;
+    protected final Object[] m_binaryAuxiliaryTuple;
+    protected final UnionDependencySet m_unionDependencySet;
+    protected int m_numberOfHits;
+
+    public NogoodCache(Tableau tableau,int maximumNumberOfNogoods) {
+        m_extensionManager=tableau.m_extensionManager;
+        m_tableauMonitor=tableau.m_tableauMonitor;
+        m_maximumNumberOfNogoods=maximumNumberOfNogoods;
+        m_nogoodsByConcept=new HashMap<AtomicConcept,AtomicConcept[][]>();
+        m_nogoods=new HashSet<Set<AtomicConcept>>();
+        m_binaryAuxiliaryTuple=new Object[2];
+        m_unionDependencySet=new UnionDependencySet(4);
+    }
+    public boolean isEmpty() {
+        return m_nogoods.isEmpty();
+    }
+    public int getNumberOfNogoods() {
+        return m_nogoods.size();
+    }
+    /**
+     * Returns the number of clashes that were raised because a node contained a nogood.
+     */
+    public int getNumberOfHits() {
+        return m_numberOfHits;
+    }
+    public boolean addNogood(Set<AtomicConcept> atomicConcepts) {
+        if (atomicConcepts.isEmpty() || m_nogoods.size()>=m_maximumNumberOfNogoods || m_nogoods.contains(atomicConcepts))
+            return false;
+        AtomicConcept[] nogood=atomicConcepts.toArray(new AtomicConcept[atomicConcepts.size()]);
+        m_nogoods.add(new HashSet<AtomicConcept>(atomicConcepts));
+        for (AtomicConcept atomicConcept : nogood) {
+            AtomicConcept[][] nogoods=m_nogoodsByConcept.get(atomicConcept);
+            if (nogoods==null)
+                nogoods=new AtomicConcept[][] { nogood };
+            else {
+                nogoods=Arrays.copyOf(nogoods,nogoods.length+1);
+                nogoods[nogoods.length-1]=nogood;
+            }
+            m_nogoodsByConcept.put(atomicConcept,nogoods);
+        }
+        return true;
+    }
+    /**
+     * Called by the clash manager when the given concept has been added to the given node; raises a clash if the node
+     * now contains all concepts of some nogood.
+     */
+    public void conceptAdded(ExtensionTable extensionTable,Object[] tuple,AtomicConcept atomicConcept,Node node,DependencySet dependencySet) {
+        AtomicConcept[][] nogoods=m_nogoodsByConcept.get(atomicConcept);
+        if (nogoods!=null) {
+            m_binaryAuxiliaryTuple[1]=node;
+            for (AtomicConcept[] nogood : nogoods) {
+                m_unionDependencySet.clearConstituents();
+                m_unionDependencySet.addConstituent(dependencySet);
+                boolean containsNogood=true;
+                for (int index=0;containsNogood && index<nogood.length;index++) {
+                    if (nogood[index]!=atomicConcept) {
+                        m_binaryAuxiliaryTuple[0]=nogood[index];
+                        if (extensionTable.containsTuple(m_binaryAuxiliaryTuple))
+                            m_unionDependencySet.addConstituent(extensionTable.getDependencySet(m_binaryAuxiliaryTuple));
+                        else
+                            containsNogood=false;
+                    }
+                }
+                if (containsNogood) {
+                    m_numberOfHits++;
+                    if (m_tableauMonitor!=null)
+                        m_tableauMonitor.clashDetectionStarted(tuple);
+                    m_extensionManager.setClash(m_unionDependencySet);
+                    if (m_tableauMonitor!=null)
+                        m_tableauMonitor.clashDetectionFinished(tuple);
+                    break;
+                }
+            }
+            m_binaryAuxiliaryTuple[0]=null;
+            m_binaryAuxiliaryTuple[1]=null;
+            m_unionDependencySet.clearConstituents();
+        }
+    }
+}
@@ -11,6 +11,7 @@ public class ReasoningTaskDescription {
         CONCEPT_SATISFIABILITY("satisfiability of concept '{0}'"),
         CONSISTENCY("ABox satisfiability"),
         CONCEPT_SUBSUMPTION("concept subsumption '{0}' => '{1}'"),
+        CONCEPT_DISJOINTNESS("concept disjointness of '{0}' and '{1}'"),
         OBJECT_ROLE_SATISFIABILITY("satisfiability of object role '{0}'"),
         DATA_ROLE_SATISFIABILITY("satisfiability of data role '{0}'"),
         OBJECT_ROLE_SUBSUMPTION("object role subsumption '{0}' => '{1}'"),
@@ -77,6 +78,9 @@ public class ReasoningTaskDescription {
     public static ReasoningTaskDescription isConceptSubsumedBy(Object atomicSubconcept,Object atomicSuperconcept) {
         return new ReasoningTaskDescription(true,StandardTestType.CONCEPT_SUBSUMPTION,atomicSubconcept,atomicSuperconcept);
     }
+    public static ReasoningTaskDescription areConceptsDisjoint(Object atomicConcept1,Object atomicConcept2) {
+        return new ReasoningTaskDescription(true,StandardTestType.CONCEPT_DISJOINTNESS,atomicConcept1,atomicConcept2);
+    }
     public static ReasoningTaskDescription isConceptSubsumedByList(Object atomicSubconcept,Object... atomicSuperconcepts) {
         StringBuffer message=new StringBuffer();
         message.append("satisiability of concept '{0}' ");
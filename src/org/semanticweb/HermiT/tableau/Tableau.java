@@ -20,10 +20,13 @@ package org.semanticweb.HermiT.tableau;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.semanticweb.HermiT.branching.BranchingHeuristic;
+import org.semanticweb.HermiT.branching.StandardBranchingHeuristic;
 import org.semanticweb.HermiT.existentials.ExistentialExpansionStrategy;
 import org.semanticweb.HermiT.model.Atom;
 import org.semanticweb.HermiT.model.AtomicConcept;
@@ -64,6 +67,7 @@ public final class Tableau implements Serializable {
     protected DLOntology m_additionalDLOntology;
     protected final DependencySetFactory m_dependencySetFactory;
     protected final ExtensionManager m_extensionManager;
+    protected final NogoodCache m_nogoodCache;
     protected final ClashManager m_clashManager;
     protected final HyperresolutionManager m_permanentHyperresolutionManager;
     protected HyperresolutionManager m_additionalHyperresolutionManager;
@@ -73,7 +77,7 @@ public final class Tableau implements Serializable {
     protected final DescriptionGraphManager m_descriptionGraphManager;
     protected final DatatypeManager m_datatypeManager;
     protected final List<List<ExistentialConcept>> m_existentialConceptsBuffers;
-    protected final boolean m_useDisjunctionLearning;
+    protected final BranchingHeuristic m_branchingHeuristic;
     protected final boolean m_hasDescriptionGraphs;
     protected BranchingPoint[] m_branchingPoints;
     protected int m_currentBranchingPoint;
@@ -94,8 +98,24 @@ public final class Tableau implements Serializable {
     protected Node m_lastMergedOrPrunedNode;
     protected GroundDisjunction m_firstGroundDisjunction;
     protected GroundDisjunction m_firstUnprocessedGroundDisjunction;
+    protected GroundDisjunction[] m_swappedGroundDisjunctions;
+    protected int m_numberOfGroundDisjunctionSwaps;
+    protected final boolean m_reuseSaturatedABox;
+    protected Map<Term,Node> m_saturatedABoxTermsToNodes;
+    protected boolean m_saturatedABoxUnavailable;
 
     public Tableau(InterruptFlag interruptFlag,TableauMonitor tableauMonitor,ExistentialExpansionStrategy existentialsExpansionStrategy,boolean useDisjunctionLearning,DLOntology permanentDLOntology,DLOntology additionalDLOntology,Map<String,Object> parameters) {
+        this(interruptFlag,tableauMonitor,existentialsExpansionStrategy,new StandardBranchingHeuristic(useDisjunctionLearning),permanentDLOntology,additionalDLOntology,parameters);
+    }
+    public Tableau(InterruptFlag interruptFlag,TableauMonitor tableauMonitor,ExistentialExpansionStrategy existentialsExpansionStrategy,BranchingHeuristic branchingHeuristic,DLOntology permanentDLOntology,DLOntology additionalDLOntology,Map<String,Object> parameters) {
+        this(interruptFlag,tableauMonitor,existentialsExpansionStrategy,branchingHeuristic,permanentDLOntology,additionalDLOntology,parameters,true);
+    }
+    /**
+     * @param countNumberRestrictions
+     *            if true, at least restrictions that require more successors than an applicable at most restriction allows
+     *            cause a clash without any successor being created
+     */
+    public Tableau(InterruptFlag interruptFlag,TableauMonitor tableauMonitor,ExistentialExpansionStrategy existentialsExpansionStrategy,BranchingHeuristic branchingHeuristic,DLOntology permanentDLOntology,DLOntology additionalDLOntology,Map<String,Object> parameters,boolean countNumberRestrictions) {
         if (additionalDLOntology!=null && !additionalDLOntology.getAllDescriptionGraphs().isEmpty())
             throw new IllegalArgumentException("Additional ontology cannot contain description graphs.");
         m_interruptFlag=interruptFlag;
@@ -108,6 +128,8 @@ public final class Tableau implements Serializable {
             m_additionalDLOntology=additionalDLOntology;
             m_dependencySetFactory=new DependencySetFactory();
             m_extensionManager=new ExtensionManager(this);
+            Object maximumNumberOfNogoods=m_parameters.get("NogoodCache.maximumNumberOfNogoods");
+            m_nogoodCache=new NogoodCache(this,maximumNumberOfNogoods instanceof Integer ? ((Integer)maximumNumberOfNogoods).intValue() : NogoodCache.DEFAULT_MAXIMUM_NUMBER_OF_NOGOODS);
             m_clashManager=new ClashManager(this);
             m_permanentHyperresolutionManager=new HyperresolutionManager(this,m_permanentDLOntology.getDLClauses());
             if (m_additionalDLOntology!=null)
@@ -115,17 +137,23 @@ public final class Tableau implements Serializable {
             else
                 m_additionalHyperresolutionManager=null;
             m_mergingManager=new MergingManager(this);
-            m_existentialExpasionManager=new ExistentialExpansionManager(this);
+            m_existentialExpasionManager=new ExistentialExpansionManager(this,countNumberRestrictions);
             m_nominalIntroductionManager=new NominalIntroductionManager(this);
             m_descriptionGraphManager=new DescriptionGraphManager(this);
             m_datatypeManager=new DatatypeManager(this);
             m_existentialExpansionStrategy.initialize(this);
             m_existentialConceptsBuffers=new ArrayList<List<ExistentialConcept>>();
-            m_useDisjunctionLearning=useDisjunctionLearning;
+            m_branchingHeuristic=branchingHeuristic;
+            m_branchingHeuristic.initialize(this);
             m_hasDescriptionGraphs=!m_permanentDLOntology.getAllDescriptionGraphs().isEmpty();
             m_branchingPoints=new BranchingPoint[2];
             m_currentBranchingPoint=-1;
             m_nonbacktrackableBranchingPoint=-1;
+            m_swappedGroundDisjunctions=new GroundDisjunction[16];
+            m_numberOfGroundDisjunctionSwaps=0;
+            m_reuseSaturatedABox=!Boolean.FALSE.equals(m_parameters.get("Tableau.reuseSaturatedABox"));
+            m_saturatedABoxTermsToNodes=null;
+            m_saturatedABoxUnavailable=false;
             updateFlagsDependentOnAdditionalOntology();
             if (m_tableauMonitor!=null)
                 m_tableauMonitor.setTableau(this);
@@ -152,12 +180,21 @@ public final class Tableau implements Serializable {
     public ExistentialExpansionStrategy getExistentialsExpansionStrategy() {
         return m_existentialExpansionStrategy;
     }
+    public BranchingHeuristic getBranchingHeuristic() {
+        return m_branchingHeuristic;
+    }
     public boolean isDeterministic() {
         return m_permanentDLOntology.isHorn() && (m_additionalDLOntology==null || m_additionalDLOntology.isHorn()) && m_existentialExpansionStrategy.isDeterministic();
     }
     public DependencySetFactory getDependencySetFactory() {
         return m_dependencySetFactory;
     }
+    public NogoodCache getNogoodCache() {
+        return m_nogoodCache;
+    }
+    public DatatypeManager getDatatypeManager() {
+        return m_datatypeManager;
+    }
     public ExtensionManager getExtensionManager() {
         return m_extensionManager;
     }
@@ -193,6 +230,9 @@ public final class Tableau implements Serializable {
         m_branchingPoints=new BranchingPoint[2];
         m_currentBranchingPoint=-1;
         m_nonbacktrackableBranchingPoint=-1;
+        for (int index=m_numberOfGroundDisjunctionSwaps*2-1;index>=0;--index)
+            m_swappedGroundDisjunctions[index]=null;
+        m_numberOfGroundDisjunctionSwaps=0;
         m_dependencySetFactory.clear();
         m_extensionManager.clear();
         m_clashManager.clear();
@@ -206,7 +246,9 @@ public final class Tableau implements Serializable {
         m_isCurrentModelDeterministic=true;
         m_existentialExpansionStrategy.clear();
         m_datatypeManager.clear();
+        m_branchingHeuristic.clear();
         m_existentialConceptsBuffers.clear();
+        m_saturatedABoxTermsToNodes=null;
         if (m_tableauMonitor!=null)
             m_tableauMonitor.tableauCleared();
     }
@@ -265,12 +307,10 @@ public final class Tableau implements Serializable {
     public boolean isSatisfiable(boolean loadPermanentABox,boolean loadAdditionalABox,Set<Atom> perTestPositiveFactsNoDependency,Set<Atom> perTestNegativeFactsNoDependency,Set<Atom> perTestPositiveFactsDummyDependency,Set<Atom> perTestNegativeFactsDummyDependency,Map<Term,Node> termsToNodes,Map<Individual,Node> nodesForIndividuals,ReasoningTaskDescription reasoningTaskDescription) {
         if (m_tableauMonitor!=null)
             m_tableauMonitor.isSatisfiableStarted(reasoningTaskDescription);
-        clear();
-        if (loadPermanentABox) {
-            for (Atom atom : m_permanentDLOntology.getPositiveFacts())
-                loadPositiveFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
-            for (Atom atom : m_permanentDLOntology.getNegativeFacts())
-                loadNegativeFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
+        if (!loadPermanentABox || !loadSaturatedABox(termsToNodes)) {
+            clear();
+            if (loadPermanentABox)
+                loadPermanentABox(termsToNodes);
         }
         if (loadAdditionalABox && m_additionalDLOntology!=null) {
             for (Atom atom : m_additionalDLOntology.getPositiveFacts())
@@ -285,8 +325,9 @@ public final class Tableau implements Serializable {
             for (Atom atom : perTestNegativeFactsNoDependency)
                 loadNegativeFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
         if ((perTestPositiveFactsDummyDependency!=null && !perTestPositiveFactsDummyDependency.isEmpty()) || (perTestNegativeFactsDummyDependency!=null && !perTestNegativeFactsDummyDependency.isEmpty())) {
-            m_branchingPoints[0]=new BranchingPoint(this);
+            BranchingPoint branchingPoint=new BranchingPoint(this);
             m_currentBranchingPoint++;
+            m_branchingPoints[m_currentBranchingPoint]=branchingPoint;
             m_nonbacktrackableBranchingPoint=m_currentBranchingPoint;
             DependencySet dependencySet=m_dependencySetFactory.addBranchingPoint(m_dependencySetFactory.emptySet(),m_currentBranchingPoint);
             if (perTestPositiveFactsDummyDependency!=null && !perTestPositiveFactsDummyDependency.isEmpty())
@@ -308,10 +349,92 @@ public final class Tableau implements Serializable {
         if (m_firstTableauNode==null)
             createNewNINode(m_dependencySetFactory.emptySet());
         boolean result=runCalculus();
+        if (!result && m_additionalDLOntology==null && (perTestNegativeFactsNoDependency==null || perTestNegativeFactsNoDependency.isEmpty()) && (perTestPositiveFactsDummyDependency==null || perTestPositiveFactsDummyDependency.isEmpty()) && (perTestNegativeFactsDummyDependency==null || perTestNegativeFactsDummyDependency.isEmpty()))
+            recordNogood(perTestPositiveFactsNoDependency);
         if (m_tableauMonitor!=null)
             m_tableauMonitor.isSatisfiableFinished(reasoningTaskDescription,result);
         return result;
     }
+    protected void loadPermanentABox(Map<Term,Node> termsToNodes) {
+        for (Atom atom : m_permanentDLOntology.getPositiveFacts())
+            loadPositiveFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
+        for (Atom atom : m_permanentDLOntology.getNegativeFacts())
+            loadNegativeFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
+    }
+    /**
+     * Brings the tableau into the state obtained by loading the permanent ABox and deriving all its deterministic
+     * consequences. The first time this is done, the state is saved by pushing a branching point after the saturation;
+     * subsequent calls restore the state by backtracking to that branching point, which removes everything that the
+     * previous test added. The saved state is discarded by clear(). The state is not saved if there is an additional
+     * DL-ontology (whose clauses would not be applied to the saved facts), if the saturation reaches a clash or a choice
+     * point, or if the "Tableau.reuseSaturatedABox" parameter is set to false.
+     *
+     * @return true if the saturated ABox has been loaded and the node for each individual has been added to termsToNodes
+     */
+    protected boolean loadSaturatedABox(Map<Term,Node> termsToNodes) {
+        if (!m_reuseSaturatedABox || m_saturatedABoxUnavailable || m_additionalDLOntology!=null || m_permanentDLOntology.getPositiveFacts().isEmpty())
+            return false;
+        if (m_saturatedABoxTermsToNodes==null) {
+            clear();
+            Map<Term,Node> saturatedABoxTermsToNodes=new HashMap<Term,Node>();
+            loadPermanentABox(saturatedABoxTermsToNodes);
+            if (!saturateDeterministically()) {
+                m_saturatedABoxUnavailable=true;
+                return false;
+            }
+            pushBranchingPoint(new BranchingPoint(this));
+            m_saturatedABoxTermsToNodes=saturatedABoxTermsToNodes;
+        }
+        else {
+            backtrackTo(0);
+            m_dependencySetFactory.removeUnusedSets();
+            m_existentialExpansionStrategy.clear();
+            m_datatypeManager.clear();
+            m_branchingHeuristic.clear();
+            m_existentialConceptsBuffers.clear();
+        }
+        m_nonbacktrackableBranchingPoint=0;
+        m_isCurrentModelDeterministic=true;
+        termsToNodes.putAll(m_saturatedABoxTermsToNodes);
+        return true;
+    }
+    /**
+     * Applies the DL clauses and the other deterministic rules until no more facts can be derived, but expands neither
+     * existentials nor disjunctions.
+     *
+     * @return true if the saturation has neither produced a clash nor introduced a branching point
+     */
+    protected boolean saturateDeterministically() {
+        m_interruptFlag.startTask();
+        try {
+            while (m_currentBranchingPoint<0 && propagateDeterministicConsequences()) {
+            }
+            return !m_extensionManager.containsClash() && m_currentBranchingPoint<0;
+        }
+        finally {
+            m_interruptFlag.endTask();
+        }
+    }
+    /**
+     * If the given facts assert only atomic concepts for one fresh individual, then the failed test has shown that these
+     * concepts are jointly unsatisfiable w.r.t. the permanent DL-ontology, so they are recorded as a nogood.
+     */
+    protected void recordNogood(Set<Atom> perTestPositiveFactsNoDependency) {
+        if (perTestPositiveFactsNoDependency==null || perTestPositiveFactsNoDependency.isEmpty())
+            return;
+        Individual individual=null;
+        Set<AtomicConcept> atomicConcepts=new HashSet<AtomicConcept>();
+        for (Atom atom : perTestPositiveFactsNoDependency) {
+            if (!(atom.getDLPredicate() instanceof AtomicConcept) || !(atom.getArgument(0) instanceof Individual))
+                return;
+            Individual argument=(Individual)atom.getArgument(0);
+            if (!argument.isAnonymous() || m_permanentDLOntology.containsIndividual(argument) || (individual!=null && !individual.equals(argument)))
+                return;
+            individual=argument;
+            atomicConcepts.add((AtomicConcept)atom.getDLPredicate());
+        }
+        m_nogoodCache.addNogood(atomicConcepts);
+    }
     protected void loadPositiveFact(Map<Term,Node> termsToNodes,Atom atom,DependencySet dependencySet) {
         DLPredicate dlPredicate=atom.getDLPredicate();
         if (dlPredicate instanceof LiteralConcept)
@@ -407,39 +530,55 @@ public final class Tableau implements Serializable {
             m_interruptFlag.endTask();
         }
     }
-    protected boolean doIteration() {
-        if (!m_extensionManager.containsClash()) {
-            m_nominalIntroductionManager.processAnnotatedEqualities();
-            boolean hasChange=false;
-            while (m_extensionManager.propagateDeltaNew() && !m_extensionManager.containsClash()) {
-                if (m_hasDescriptionGraphs && !m_extensionManager.containsClash())
-                    m_descriptionGraphManager.checkGraphConstraints();
-                if (!m_extensionManager.containsClash())
-                    m_permanentHyperresolutionManager.applyDLClauses();
-                if (m_additionalHyperresolutionManager!=null && !m_extensionManager.containsClash())
-                    m_additionalHyperresolutionManager.applyDLClauses();
-                if (m_checkUnknownDatatypeRestrictions && !m_extensionManager.containsClash())
-                    m_datatypeManager.applyUnknownDatatypeRestrictionSemantics();
-                if (m_checkDatatypes && !m_extensionManager.containsClash())
-                    m_datatypeManager.checkDatatypeConstraints();
-                if (!m_extensionManager.containsClash())
-                    m_nominalIntroductionManager.processAnnotatedEqualities();
-                hasChange=true;
-            }
-            if (hasChange)
-                return true;
+    /**
+     * Propagates the new facts through the DL clauses, the description graphs, the datatype checks and the NI rule.
+     *
+     * @return true if there were new facts to propagate
+     */
+    protected boolean propagateDeterministicConsequences() {
+        if (m_extensionManager.containsClash())
+            return false;
+        m_nominalIntroductionManager.processAnnotatedEqualities();
+        boolean hasChange=false;
+        while (m_extensionManager.propagateDeltaNew() && !m_extensionManager.containsClash()) {
+            if (m_hasDescriptionGraphs && !m_extensionManager.containsClash())
+                m_descriptionGraphManager.checkGraphConstraints();
+            if (!m_extensionManager.containsClash())
+                m_permanentHyperresolutionManager.applyDLClauses();
+            if (m_additionalHyperresolutionManager!=null && !m_extensionManager.containsClash())
+                m_additionalHyperresolutionManager.applyDLClauses();
+            if (m_checkUnknownDatatypeRestrictions && !m_extensionManager.containsClash())
+                m_datatypeManager.applyUnknownDatatypeRestrictionSemantics();
+            if (m_checkDatatypes && !m_extensionManager.containsClash())
+                m_datatypeManager.checkDatatypeConstraints();
+            if (!m_extensionManager.containsClash())
+                m_nominalIntroductionManager.processAnnotatedEqualities();
+            hasChange=true;
         }
+        return hasChange;
+    }
+    protected boolean doIteration() {
+        if (propagateDeterministicConsequences())
+            return true;
         if (!m_extensionManager.containsClash())
             if (m_existentialExpansionStrategy.expandExistentials(false))
                 return true;
         if (!m_extensionManager.containsClash()) {
             while (m_firstUnprocessedGroundDisjunction!=null) {
                 GroundDisjunction groundDisjunction=m_firstUnprocessedGroundDisjunction;
+                boolean isOpen=!groundDisjunction.isPruned() && !groundDisjunction.isSatisfied(this);
+                if (isOpen) {
+                    GroundDisjunction selectedGroundDisjunction=m_branchingHeuristic.selectGroundDisjunction(groundDisjunction);
+                    if (selectedGroundDisjunction!=groundDisjunction) {
+                        swapGroundDisjunctions(groundDisjunction,selectedGroundDisjunction);
+                        groundDisjunction=selectedGroundDisjunction;
+                    }
+                }
                 if (m_tableauMonitor!=null)
                     m_tableauMonitor.processGroundDisjunctionStarted(groundDisjunction);
                 m_firstUnprocessedGroundDisjunction=groundDisjunction.m_previousGroundDisjunction;
-                if (!groundDisjunction.isPruned() && !groundDisjunction.isSatisfied(this)) {
-                    int[] sortedDisjunctIndexes=groundDisjunction.getGroundDisjunctionHeader().getSortedDisjunctIndexes();
+                if (isOpen) {
+                    int[] sortedDisjunctIndexes=m_branchingHeuristic.getDisjunctOrder(groundDisjunction);
                     DependencySet dependencySet=groundDisjunction.getDependencySet();
                     if (groundDisjunction.getNumberOfDisjuncts()>1) {
                         BranchingPoint branchingPoint=new DisjunctionBranchingPoint(this,groundDisjunction,sortedDisjunctIndexes);
@@ -448,6 +587,7 @@ public final class Tableau implements Serializable {
                     }
                     if (m_tableauMonitor!=null)
                         m_tableauMonitor.disjunctProcessingStarted(groundDisjunction,sortedDisjunctIndexes[0]);
+                    m_branchingHeuristic.disjunctChosen(groundDisjunction,sortedDisjunctIndexes[0]);
                     groundDisjunction.addDisjunctToTableau(this,sortedDisjunctIndexes[0],dependencySet);
                     if (m_tableauMonitor!=null) {
                         m_tableauMonitor.disjunctProcessingFinished(groundDisjunction,sortedDisjunctIndexes[0]);
@@ -467,6 +607,8 @@ public final class Tableau implements Serializable {
             int newCurrentBranchingPoint=clashDependencySet.getMaximumBranchingPoint();
             if (newCurrentBranchingPoint<=m_nonbacktrackableBranchingPoint)
                 return false;
+            if (m_branchingHeuristic.analysesConflicts())
+                analyseConflict(m_dependencySetFactory.getPermanent(clashDependencySet));
             backtrackTo(newCurrentBranchingPoint);
             BranchingPoint branchingPoint=getCurrentBranchingPoint();
             if (m_tableauMonitor!=null)
@@ -502,6 +644,71 @@ public final class Tableau implements Serializable {
     public GroundDisjunction getFirstUnprocessedGroundDisjunction() {
         return m_firstUnprocessedGroundDisjunction;
     }
+    /**
+     * Exchanges the positions of two ground disjunctions in the list of ground disjunctions. The first disjunction
+     * must be older than the second one, i.e., the second one must be reachable from the first one by following
+     * m_previousGroundDisjunction. If the swap happens after a branching point, it is recorded so that backtracking
+     * can restore the original order; this is necessary because branching points identify the processed and the
+     * added disjunctions by their position in the list.
+     */
+    protected void swapGroundDisjunctions(GroundDisjunction older,GroundDisjunction newer) {
+        if (m_currentBranchingPoint>=0) {
+            int index=m_numberOfGroundDisjunctionSwaps*2;
+            if (index+1>=m_swappedGroundDisjunctions.length) {
+                GroundDisjunction[] newSwappedGroundDisjunctions=new GroundDisjunction[m_swappedGroundDisjunctions.length*2];
+                System.arraycopy(m_swappedGroundDisjunctions,0,newSwappedGroundDisjunctions,0,m_swappedGroundDisjunctions.length);
+                m_swappedGroundDisjunctions=newSwappedGroundDisjunctions;
+            }
+            m_swappedGroundDisjunctions[index]=older;
+            m_swappedGroundDisjunctions[index+1]=newer;
+            m_numberOfGroundDisjunctionSwaps++;
+        }
+        exchangeGroundDisjunctions(older,newer);
+    }
+    protected void exchangeGroundDisjunctions(GroundDisjunction older,GroundDisjunction newer) {
+        GroundDisjunction olderPrevious=older.m_previousGroundDisjunction;
+        GroundDisjunction olderNext=older.m_nextGroundDisjunction;
+        GroundDisjunction newerPrevious=newer.m_previousGroundDisjunction;
+        GroundDisjunction newerNext=newer.m_nextGroundDisjunction;
+        if (newerNext==older) {
+            // adjacent: newerPrevious <-> newer <-> older <-> olderNext
+            older.m_previousGroundDisjunction=newerPrevious;
+            older.m_nextGroundDisjunction=newer;
+            newer.m_previousGroundDisjunction=older;
+            newer.m_nextGroundDisjunction=olderNext;
+        }
+        else {
+            older.m_previousGroundDisjunction=newerPrevious;
+            older.m_nextGroundDisjunction=newerNext;
+            newer.m_previousGroundDisjunction=olderPrevious;
+            newer.m_nextGroundDisjunction=olderNext;
+            olderPrevious.m_nextGroundDisjunction=newer;
+            newerNext.m_previousGroundDisjunction=older;
+        }
+        if (newerPrevious==null)
+            m_firstGroundDisjunction=older;
+        else
+            newerPrevious.m_nextGroundDisjunction=older;
+        if (olderNext!=null)
+            olderNext.m_previousGroundDisjunction=newer;
+    }
+    /**
+     * Records the choices that a clash depends on with the branching heuristic if the heuristic analyses conflicts.
+     */
+    protected void analyseConflict(PermanentDependencySet clashDependencySet) {
+        PermanentDependencySet dependencySet=clashDependencySet;
+        while (dependencySet.m_branchingPoint>=0) {
+            if (dependencySet.m_branchingPoint<=m_currentBranchingPoint) {
+                BranchingPoint branchingPoint=m_branchingPoints[dependencySet.m_branchingPoint];
+                if (branchingPoint instanceof DisjunctionBranchingPoint) {
+                    DisjunctionBranchingPoint disjunctionBranchingPoint=(DisjunctionBranchingPoint)branchingPoint;
+                    m_branchingHeuristic.disjunctInvolvedInConflict(disjunctionBranchingPoint.m_groundDisjunction,disjunctionBranchingPoint.getCurrentDisjunctIndex());
+                }
+            }
+            dependencySet=dependencySet.m_rest;
+        }
+        m_branchingHeuristic.conflictAnalysed();
+    }
     /**
      * Add a branching point in case we need to backtrack to this state.
      *
@@ -539,6 +746,15 @@ public final class Tableau implements Serializable {
         for (int index=newCurrentBrancingPoint+1;index<=m_currentBranchingPoint;index++)
             m_branchingPoints[index]=null;
         m_currentBranchingPoint=newCurrentBrancingPoint;
+        // undo the reordering of ground disjunctions performed after the branching point
+        while (m_numberOfGroundDisjunctionSwaps>branchingPoint.m_numberOfGroundDisjunctionSwaps) {
+            m_numberOfGroundDisjunctionSwaps--;
+            int index=m_numberOfGroundDisjunctionSwaps*2;
+            // after the swap, the originally newer disjunction is the older one
+            exchangeGroundDisjunctions(m_swappedGroundDisjunctions[index+1],m_swappedGroundDisjunctions[index]);
+            m_swappedGroundDisjunctions[index]=null;
+            m_swappedGroundDisjunctions[index+1]=null;
+        }
         // backtrack processed ground disjunctions
         m_firstUnprocessedGroundDisjunction=branchingPoint.m_firstUnprocessedGroundDisjunction;
         // backtrack added ground disjunctions
@@ -13,6 +13,10 @@ public class AllQuickTests extends TestCase {
         // not running because the tests fail so often due to different concept definitions introduced for complex concepts depending on the parse order
         // Tests the normalization and clausification, when loading via the OWLAPI.
         //suite.addTest(org.semanticweb.HermiT.structural.AllTests.suite());
+        // Tests the automata used for encoding complex role inclusions.
+        suite.addTestSuite(org.semanticweb.HermiT.structural.PropertyAutomatonTest.class);
+        // Tests the removal of redundant clauses after the clausification.
+        suite.addTestSuite(org.semanticweb.HermiT.structural.DLClauseSetOptimizerTest.class);
         
         // Tests Hermit as a blackbox, i.e., by only using the official interface.
         suite.addTest(org.semanticweb.HermiT.reasoner.AllQuickTests.suite());
@@ -20,6 +24,8 @@ public class AllQuickTests extends TestCase {
         suite.addTest(org.semanticweb.HermiT.tableau.AllTests.suite());
         // Tests the graph library.
         suite.addTest(org.semanticweb.HermiT.graph.AllTests.suite());
+        // Tests the hierarchy library.
+        suite.addTest(org.semanticweb.HermiT.hierarchy.AllTests.suite());
         // Rungs the WG tests.
         suite.addTest(org.semanticweb.HermiT.owl_wg_tests.AllNonRejectedNonExtracreditWGTests.suite());
         // $JUnit-END$
@@ -0,0 +1,22 @@
+package org.semanticweb.HermiT.cli;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * The tests of the command line. They are not part of org.semanticweb.HermiT.AllQuickTests since the maven build does
+ * not compile the command line; the ant build runs them separately, so this class extends TestCase to be usable with
+ * junit.textui.TestRunner.
+ */
+public class AllTests extends TestCase {
+
+    public static Test suite() {
+        TestSuite suite=new TestSuite("Tests for the command line");
+        // $JUnit-BEGIN$
+        suite.addTestSuite(CommandLineTest.class);
+        // $JUnit-END$
+        return suite;
+    }
+
+}
@@ -0,0 +1,106 @@
+package org.semanticweb.HermiT.cli;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.semanticweb.HermiT.cli.CommandLine.OntologyResult;
+import org.semanticweb.HermiT.cli.CommandLine.UsageException;
+import org.semanticweb.owlapi.model.IRI;
+
+public class CommandLineTest extends TestCase {
+    protected File m_file;
+
+    public CommandLineTest(String name) {
+        super(name);
+    }
+    protected void setUp() throws Exception {
+        m_file=File.createTempFile("hermit-cli-test",".txt");
+    }
+    protected void tearDown() {
+        m_file.delete();
+    }
+    public void testReadManifest() throws Exception {
+        write(
+            "# the first line is a comment\n"+
+            "pizza.owl\n"+
+            "\n"+
+            "   wine/wine.owl  \n"+
+            "http://example.org/family.owl\n"
+        );
+        List<IRI> ontologies=CommandLine.readManifest(m_file.getPath(),URI.create("file:/data/ontologies/"));
+        List<IRI> expected=new ArrayList<IRI>();
+        expected.add(IRI.create("file:/data/ontologies/pizza.owl"));
+        expected.add(IRI.create("file:/data/ontologies/wine/wine.owl"));
+        expected.add(IRI.create("http://example.org/family.owl"));
+        assertEquals(expected,ontologies);
+    }
+    public void testReadManifestRejectsInvalidNames() throws Exception {
+        write("pizza.owl\nnot a name\n");
+        try {
+            CommandLine.readManifest(m_file.getPath(),URI.create("file:/data/ontologies/"));
+            fail("The invalid name has been accepted.");
+        }
+        catch (UsageException expected) {
+        }
+    }
+    public void testOutputFileName() {
+        assertEquals("1-pizza.owl.txt",CommandLine.getOutputFileName(0,IRI.create("http://example.org/ontologies/pizza.owl")));
+        // a trailing slash is kept with the last segment
+        assertEquals("2-wine_.txt",CommandLine.getOutputFileName(1,IRI.create("http://example.org/wine/")));
+        // characters that are unsafe in file names are replaced
+        assertEquals("10-family_20version_2.owl.txt",CommandLine.getOutputFileName(9,IRI.create("file:/data/family%20version#2.owl")));
+    }
+    public void testSummary() throws Exception {
+        OntologyResult completed=new OntologyResult(IRI.create("http://example.org/pizza.owl"));
+        completed.m_parseTime=10;
+        completed.m_loadTime=20;
+        completed.m_actionsTime=30;
+        completed.m_usedMemory=4096;
+        completed.m_outputFile="out/1-pizza.owl.txt";
+        completed.m_completed=true;
+        OntologyResult failed=new OntologyResult(IRI.create("http://example.org/wine.owl"));
+        failed.m_parseTime=5;
+        failed.m_error="OutOfMemoryError: Java heap\n\tspace";
+        OntologyResult notProcessed=new OntologyResult(IRI.create("http://example.org/family.owl"));
+        CommandLine.writeSummary(m_file.getPath(),Arrays.asList(completed,failed,notProcessed));
+        List<String> expected=new ArrayList<String>();
+        expected.add("ontology\tstatus\tparse-ms\tload-ms\tactions-ms\tused-memory-bytes\toutput\terror");
+        expected.add("http://example.org/pizza.owl\tok\t10\t20\t30\t4096\tout/1-pizza.owl.txt\t");
+        // white space in the error message is collapsed so that each ontology has one line
+        expected.add("http://example.org/wine.owl\terror\t5\t-1\t-1\t-1\t\tOutOfMemoryError: Java heap space");
+        expected.add("http://example.org/family.owl\tnot-processed\t-1\t-1\t-1\t-1\t\t");
+        assertEquals(expected,readLines());
+    }
+    protected void write(String content) throws IOException {
+        Writer writer=new FileWriter(m_file);
+        try {
+            writer.write(content);
+        }
+        finally {
+            writer.close();
+        }
+    }
+    protected List<String> readLines() throws IOException {
+        List<String> lines=new ArrayList<String>();
+        BufferedReader reader=new BufferedReader(new FileReader(m_file));
+        try {
+            String line;
+            while ((line=reader.readLine())!=null)
+                lines.add(line);
+        }
+        finally {
+            reader.close();
+        }
+        return lines;
+    }
+}
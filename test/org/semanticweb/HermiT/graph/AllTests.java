@@ -9,6 +9,7 @@ public class AllTests {
         TestSuite suite=new TestSuite("Unit tests for the graph library");
         // $JUnit-BEGIN$
         suite.addTestSuite(GraphTest.class);
+        suite.addTestSuite(DisjointSetsTest.class);
         // $JUnit-END$
         return suite;
     }
@@ -0,0 +1,51 @@
+package org.semanticweb.HermiT.graph;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+public class DisjointSetsTest extends TestCase {
+
+    public DisjointSetsTest(String name) {
+        super(name);
+    }
+    public void testUnionAndFind() {
+        DisjointSets sets=new DisjointSets(6);
+        assertEquals(6,sets.getNumberOfSets());
+        assertFalse(sets.isSameSet(0,1));
+        sets.union(0,1);
+        sets.union(2,3);
+        sets.union(3,4);
+        assertEquals(3,sets.getNumberOfSets());
+        assertTrue(sets.isSameSet(0,1));
+        assertTrue(sets.isSameSet(2,4));
+        assertFalse(sets.isSameSet(1,4));
+        assertEquals(sets.find(2),sets.union(4,2));
+        assertEquals(3,sets.getNumberOfSets());
+        sets.union(1,4);
+        assertEquals(2,sets.getNumberOfSets());
+        assertEquals(5,sets.getSetSize(0));
+        assertEquals(1,sets.getSetSize(5));
+    }
+    public void testMembers() {
+        DisjointSets sets=new DisjointSets(8);
+        sets.union(7,1);
+        sets.union(3,5);
+        sets.union(1,5);
+        sets.union(0,6);
+        assertMembers(sets,3,1,3,5,7);
+        assertMembers(sets,7,1,3,5,7);
+        assertMembers(sets,6,0,6);
+        assertMembers(sets,2,2);
+        sets.union(2,6);
+        sets.union(5,2);
+        assertMembers(sets,4,4);
+        assertMembers(sets,0,0,1,2,3,5,6,7);
+    }
+    protected void assertMembers(DisjointSets sets,int element,int... expected) {
+        int[] members=sets.getMembers(element);
+        assertEquals(element,members[0]);
+        Arrays.sort(members);
+        assertTrue(Arrays.toString(members),Arrays.equals(expected,members));
+    }
+}
@@ -0,0 +1,16 @@
+package org.semanticweb.HermiT.hierarchy;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+public class AllTests {
+
+    public static Test suite() {
+        TestSuite suite=new TestSuite("Unit tests for the hierarchy library");
+        // $JUnit-BEGIN$
+        suite.addTestSuite(HierarchyReachabilityIndexTest.class);
+        // $JUnit-END$
+        return suite;
+    }
+
+}
@@ -0,0 +1,139 @@
+package org.semanticweb.HermiT.hierarchy;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.semanticweb.HermiT.hierarchy.DeterministicClassification.GraphNode;
+
+public class HierarchyReachabilityIndexTest extends TestCase {
+    protected static final Integer TOP=-1;
+    protected static final Integer BOTTOM=Integer.MAX_VALUE;
+
+    public HierarchyReachabilityIndexTest(String name) {
+        super(name);
+    }
+    public void testTree() throws Exception {
+        Map<Integer,Set<Integer>> subsumers=new HashMap<Integer,Set<Integer>>();
+        addSubsumers(subsumers,1);
+        addSubsumers(subsumers,2,1);
+        addSubsumers(subsumers,3,1);
+        addSubsumers(subsumers,4,2);
+        addSubsumers(subsumers,5,3,4);
+        Hierarchy<Integer> hierarchy=buildHierarchy(subsumers);
+        HierarchyNode<Integer> node5=hierarchy.getNodeForElement(5);
+        assertTrue(node5.isAncestorElement(1));
+        assertTrue(node5.isAncestorElement(4));
+        assertTrue(node5.isAncestorElement(5));
+        assertTrue(node5.isAncestorElement(TOP));
+        assertFalse(node5.isAncestorElement(BOTTOM));
+        assertFalse(hierarchy.getNodeForElement(3).isAncestorElement(2));
+        assertTrue(hierarchy.getNodeForElement(2).isDescendantElement(5));
+        assertFalse(hierarchy.getNodeForElement(2).isDescendantElement(3));
+        assertEquals(6,node5.getAncestorNodes().size());
+        assertEquals(7,hierarchy.getTopNode().getDescendantNodes().size());
+    }
+    public void testRandomHierarchies() throws Exception {
+        Random random=new Random(42);
+        for (int test=0;test<20;test++) {
+            int numberOfElements=1+random.nextInt(60);
+            Map<Integer,Set<Integer>> subsumers=new HashMap<Integer,Set<Integer>>();
+            for (int element=0;element<numberOfElements;element++) {
+                addSubsumers(subsumers,element);
+                for (int other=0;other<element;other++)
+                    if (random.nextInt(10)==0)
+                        subsumers.get(element).add(other);
+                // some elements are equivalent to an earlier element
+                if (element>0 && random.nextInt(15)==0) {
+                    int other=random.nextInt(element);
+                    subsumers.get(element).add(other);
+                    subsumers.get(other).add(element);
+                }
+            }
+            Hierarchy<Integer> hierarchy=buildHierarchy(subsumers);
+            Map<Integer,Set<Integer>> closure=new HashMap<Integer,Set<Integer>>();
+            for (Integer element : hierarchy.getAllElements())
+                closure.put(element,computeClosure(subsumers,element));
+            for (Integer element : hierarchy.getAllElements()) {
+                HierarchyNode<Integer> node=hierarchy.getNodeForElement(element);
+                Set<Integer> ancestorElements=new HashSet<Integer>();
+                for (HierarchyNode<Integer> ancestorNode : node.getAncestorNodes())
+                    ancestorElements.addAll(ancestorNode.getEquivalentElements());
+                assertEquals(closure.get(element),ancestorElements);
+                for (Integer other : hierarchy.getAllElements()) {
+                    assertEquals(closure.get(element).contains(other),node.isAncestorElement(other));
+                    assertEquals(closure.get(other).contains(element),node.isDescendantElement(other));
+                }
+                Set<Integer> descendantElements=new HashSet<Integer>();
+                for (HierarchyNode<Integer> descendantNode : node.getDescendantNodes())
+                    descendantElements.addAll(descendantNode.getEquivalentElements());
+                for (Integer other : hierarchy.getAllElements())
+                    assertEquals(closure.get(other).contains(element),descendantElements.contains(other));
+            }
+        }
+    }
+    public void testUnindexedNode() throws Exception {
+        Map<Integer,Set<Integer>> subsumers=new HashMap<Integer,Set<Integer>>();
+        addSubsumers(subsumers,1);
+        addSubsumers(subsumers,2,1);
+        Hierarchy<Integer> hierarchy=buildHierarchy(subsumers);
+        Set<HierarchyNode<Integer>> parentNodes=new HashSet<HierarchyNode<Integer>>();
+        parentNodes.add(hierarchy.getNodeForElement(2));
+        Set<HierarchyNode<Integer>> childNodes=new HashSet<HierarchyNode<Integer>>();
+        childNodes.add(hierarchy.getBottomNode());
+        Set<Integer> equivalentElements=new HashSet<Integer>();
+        equivalentElements.add(3);
+        HierarchyNode<Integer> node=new HierarchyNode<Integer>(3,equivalentElements,parentNodes,childNodes);
+        assertTrue(node.isAncestorElement(1));
+        assertTrue(node.isAncestorElement(3));
+        assertFalse(node.isAncestorElement(BOTTOM));
+        assertEquals(4,node.getAncestorNodes().size());
+    }
+    protected static void addSubsumers(Map<Integer,Set<Integer>> subsumers,Integer element,Integer... elementSubsumers) {
+        Set<Integer> set=new HashSet<Integer>();
+        for (Integer subsumer : elementSubsumers)
+            set.add(subsumer);
+        subsumers.put(element,set);
+    }
+    protected static Set<Integer> computeClosure(Map<Integer,Set<Integer>> subsumers,Integer element) {
+        Set<Integer> result=new HashSet<Integer>();
+        result.add(element);
+        result.add(TOP);
+        if (BOTTOM.equals(element)) {
+            result.addAll(subsumers.keySet());
+            result.add(BOTTOM);
+            return result;
+        }
+        Queue<Integer> toVisit=new LinkedList<Integer>();
+        toVisit.add(element);
+        while (!toVisit.isEmpty()) {
+            Integer current=toVisit.poll();
+            Set<Integer> currentSubsumers=subsumers.get(current);
+            if (currentSubsumers!=null)
+                for (Integer subsumer : currentSubsumers)
+                    if (result.add(subsumer))
+                        toVisit.add(subsumer);
+        }
+        return result;
+    }
+    protected static Hierarchy<Integer> buildHierarchy(Map<Integer,Set<Integer>> subsumers) {
+        Map<Integer,GraphNode<Integer>> graphNodes=new HashMap<Integer,GraphNode<Integer>>();
+        Set<Integer> allElements=new HashSet<Integer>(subsumers.keySet());
+        allElements.add(TOP);
+        allElements.add(BOTTOM);
+        for (Map.Entry<Integer,Set<Integer>> entry : subsumers.entrySet()) {
+            Set<Integer> successors=new HashSet<Integer>(entry.getValue());
+            successors.add(TOP);
+            graphNodes.put(entry.getKey(),new GraphNode<Integer>(entry.getKey(),successors));
+        }
+        graphNodes.put(TOP,new GraphNode<Integer>(TOP,new HashSet<Integer>()));
+        graphNodes.put(BOTTOM,new GraphNode<Integer>(BOTTOM,allElements));
+        return DeterministicClassification.buildHierarchy(TOP,BOTTOM,graphNodes);
+    }
+}
@@ -19,14 +19,27 @@ public class AllQuickTests extends TestCase {
         suite.addTestSuite(XMLLiteralTest.class);
         suite.addTestSuite(ReasonerTest.class);
         suite.addTestSuite(ReasonerIndividualReuseTest.class);
-        suite.addTestSuite(ReasonerCoreBlockingTest.class);
+        suite.addTestSuite(ReasonerCoreBlockingTest.class);
+        suite.addTestSuite(ReasonerBranchingMOMSTest.class);
+        suite.addTestSuite(ReasonerBranchingActivityTest.class);
         suite.addTestSuite(ComplexConceptTest.class);
         suite.addTestSuite(EntailmentTest.class);
+        suite.addTestSuite(ModelCacheTest.class);
+        suite.addTestSuite(PreClassificationTest.class);
+        suite.addTestSuite(ParallelPreprocessingTest.class);
         suite.addTestSuite(RIARegularityTest.class);
         suite.addTestSuite(SimpleRolesTest.class);
         suite.addTestSuite(RulesTest.class);
         suite.addTestSuite(OWLReasonerTest.class);
         suite.addTestSuite(DatalogEngineTest.class);
+        suite.addTestSuite(NumberRestrictionCountingTest.class);
+        suite.addTestSuite(DatatypeConjunctionCacheTest.class);
+        suite.addTestSuite(DisjointClassificationTest.class);
+        suite.addTestSuite(DomainRangePrecomputationTest.class);
+        suite.addTestSuite(ObjectPropertyRealisationTest.class);
+        suite.addTestSuite(SameIndividualTest.class);
+        suite.addTestSuite(InstanceRetrievalTest.class);
+        suite.addTestSuite(AsynchronousPrecomputationTest.class);
         // $JUnit-END$
         return suite;
     }
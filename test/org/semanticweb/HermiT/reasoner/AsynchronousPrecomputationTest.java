@@ -0,0 +1,105 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import org.semanticweb.HermiT.AsynchronousPrecomputation;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+import org.semanticweb.owlapi.reasoner.ReasonerInterruptedException;
+
+public class AsynchronousPrecomputationTest extends AbstractReasonerTest {
+    protected static final String AXIOMS=
+        "SubClassOf(:A :B)"+
+        "SubClassOf(:B :C)"+
+        "SubClassOf(:D ObjectUnionOf(:A :E))"+
+        "SubClassOf(:E :B)"+
+        "ClassAssertion(:D :a)"+
+        "ClassAssertion(:C :b)";
+
+    public AsynchronousPrecomputationTest(String name) {
+        super(name);
+    }
+    public void testStagedResults() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        final List<String> events=Collections.synchronizedList(new ArrayList<String>());
+        AsynchronousPrecomputation precomputation=m_reasoner.precomputeInferencesAsynchronously(new RecordingListener(events),InferenceType.CLASS_ASSERTIONS,InferenceType.CLASS_HIERARCHY);
+        assertNull(precomputation.getFuture(InferenceType.OBJECT_PROPERTY_HIERARCHY));
+        precomputation.getFuture(InferenceType.CLASS_HIERARCHY).get();
+        assertTrue(m_reasoner.isPrecomputed(InferenceType.CLASS_HIERARCHY));
+        assertTrue(m_reasoner.getSuperClasses(NS_C("D"),false).getFlattened().contains(NS_C("B")));
+        precomputation.getFuture(InferenceType.CLASS_ASSERTIONS).get();
+        precomputation.awaitTermination();
+        assertTrue(precomputation.isDone());
+        assertFalse(precomputation.isCancelled());
+        assertTrue(m_reasoner.isPrecomputed(InferenceType.CLASS_ASSERTIONS));
+        assertTrue(m_reasoner.getInstances(NS_C("B"),false).getFlattened().contains(NS_NI("a")));
+        // the class hierarchy is computed first, whatever the order of the request
+        assertEquals("started "+InferenceType.CLASS_HIERARCHY,events.get(0));
+        assertTrue(events.contains("finished "+InferenceType.CLASS_HIERARCHY+" null"));
+        assertEquals("finished "+InferenceType.CLASS_ASSERTIONS+" null",events.get(events.size()-1));
+        assertTrue(events.indexOf("finished "+InferenceType.CLASS_HIERARCHY+" null")<events.indexOf("started "+InferenceType.CLASS_ASSERTIONS));
+    }
+    public void testCancellation() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        final CountDownLatch started=new CountDownLatch(1);
+        final CountDownLatch cancelled=new CountDownLatch(1);
+        final List<String> events=Collections.synchronizedList(new ArrayList<String>());
+        AsynchronousPrecomputation precomputation=m_reasoner.precomputeInferencesAsynchronously(new RecordingListener(events) {
+            public void inferenceTypeStarted(InferenceType inferenceType) {
+                super.inferenceTypeStarted(inferenceType);
+                started.countDown();
+                try {
+                    // the precomputation is cancelled before the classification runs
+                    cancelled.await();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        },InferenceType.CLASS_HIERARCHY,InferenceType.CLASS_ASSERTIONS);
+        started.await();
+        precomputation.cancel();
+        cancelled.countDown();
+        precomputation.awaitTermination();
+        assertTrue(precomputation.isCancelled());
+        try {
+            precomputation.getFuture(InferenceType.CLASS_HIERARCHY).get();
+            fail();
+        }
+        catch (ExecutionException expected) {
+            assertTrue(expected.getCause() instanceof ReasonerInterruptedException);
+        }
+        assertTrue(precomputation.getFuture(InferenceType.CLASS_ASSERTIONS).isCancelled());
+        try {
+            precomputation.getFuture(InferenceType.CLASS_ASSERTIONS).get();
+            fail();
+        }
+        catch (CancellationException expected) {
+        }
+        assertFalse(events.contains("started "+InferenceType.CLASS_ASSERTIONS));
+        assertFalse(m_reasoner.isPrecomputed(InferenceType.CLASS_HIERARCHY));
+        // the reasoner can be used after the cancellation
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        assertTrue(m_reasoner.getSuperClasses(NS_C("D"),false).getFlattened().contains(NS_C("B")));
+    }
+
+    protected static class RecordingListener implements AsynchronousPrecomputation.Listener {
+        protected final List<String> m_events;
+
+        public RecordingListener(List<String> events) {
+            m_events=events;
+        }
+        public void inferenceTypeStarted(InferenceType inferenceType) {
+            m_events.add("started "+inferenceType);
+        }
+        public void progressChanged(InferenceType inferenceType,int value,int max) {
+        }
+        public void inferenceTypeFinished(InferenceType inferenceType,Throwable failure) {
+            m_events.add("finished "+inferenceType+" "+(failure==null ? null : failure.getClass().getSimpleName()));
+        }
+    }
+}
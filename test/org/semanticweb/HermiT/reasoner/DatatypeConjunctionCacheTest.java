@@ -0,0 +1,64 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.tableau.DatatypeManager;
+
+public class DatatypeConjunctionCacheTest extends AbstractReasonerTest {
+    protected static final String AXIOMS=
+        "DisjointDataProperties(:dp :dq)"+
+        "SubClassOf(:A DataMinCardinality(2 :dp DatatypeRestriction(xsd:integer xsd:minInclusive \"1\"^^xsd:integer xsd:maxInclusive \"2\"^^xsd:integer)))"+
+        "SubClassOf(:A DataHasValue(:dq \"1\"^^xsd:integer))"+
+        "SubClassOf(:B DataMinCardinality(2 :dp DatatypeRestriction(xsd:integer xsd:minInclusive \"1\"^^xsd:integer xsd:maxInclusive \"3\"^^xsd:integer)))"+
+        "SubClassOf(:B DataHasValue(:dq \"1\"^^xsd:integer))"+
+        "SubClassOf(:C ObjectUnionOf(:A :D))"+
+        "SubClassOf(:E ObjectIntersectionOf(:C :B))";
+
+    public DatatypeConjunctionCacheTest(String name) {
+        super(name);
+    }
+    public void testRepeatedChecksHitTheCache() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        DatatypeManager datatypeManager=m_reasoner.getTableau().getDatatypeManager();
+        assertSatisfiable("A",false);
+        int numberOfCacheHits=datatypeManager.getNumberOfCacheHits();
+        assertTrue(datatypeManager.getNumberOfCachedResults()>0);
+        assertSatisfiable("A",false);
+        assertTrue(datatypeManager.getNumberOfCacheHits()>numberOfCacheHits);
+        assertSatisfiable("B",true);
+        numberOfCacheHits=datatypeManager.getNumberOfCacheHits();
+        assertSatisfiable("B",true);
+        assertTrue(datatypeManager.getNumberOfCacheHits()>numberOfCacheHits);
+    }
+    public void testEqualConjunctionsInABox() throws Exception {
+        loadReasonerWithAxioms(
+            AXIOMS+
+            "ClassAssertion(:B :a)"+
+            "ClassAssertion(:B :b)"
+        );
+        assertABoxSatisfiable(true);
+        assertTrue(m_reasoner.getTableau().getDatatypeManager().getNumberOfCacheHits()>0);
+    }
+    public void testBackjumpingOverCachedClash() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        // the clash for A must depend on the choice of A in the disjunction so that D is tried
+        assertSatisfiable("A",false);
+        assertSatisfiable("C",true);
+        assertSubsumedBy("C","D",true);
+        assertSatisfiable("E",true);
+        assertSubsumedBy("E","D",true);
+    }
+    public void testSameResultsWithoutCache() throws Exception {
+        String[] concepts=new String[] { "A","B","C","E" };
+        boolean[] cached=new boolean[concepts.length];
+        loadReasonerWithAxioms(AXIOMS);
+        for (int index=0;index<concepts.length;index++)
+            cached[index]=m_reasoner.isSatisfiable(NS_C(concepts[index]));
+        Configuration configuration=getConfiguration();
+        configuration.parameters.put("DatatypeManager.maximumNumberOfCachedResults",Integer.valueOf(0));
+        createReasoner(configuration,null);
+        for (int index=0;index<concepts.length;index++)
+            assertSatisfiable(concepts[index],cached[index]);
+        assertEquals(0,m_reasoner.getTableau().getDatatypeManager().getNumberOfCacheHits());
+        assertEquals(0,m_reasoner.getTableau().getDatatypeManager().getNumberOfCachedResults());
+    }
+}
@@ -0,0 +1,74 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+public class DisjointClassificationTest extends AbstractReasonerTest {
+
+    public DisjointClassificationTest(String name) {
+        super(name);
+    }
+    public void testToldAndInferredDisjointness() throws Exception {
+        assertSameDisjointClasses(
+            "DisjointClasses(:A :B)"+
+            "SubClassOf(:A1 :A)"+
+            "SubClassOf(:B1 :B)"+
+            "SubClassOf(:C ObjectComplementOf(:A1))"+
+            "SubClassOf(:D ObjectSomeValuesFrom(:r :A))"+
+            "SubClassOf(:E ObjectAllValuesFrom(:r :B))"+
+            "SubClassOf(:F ObjectIntersectionOf(:B1 :G))"+
+            "SubClassOf(:H ObjectUnionOf(:A1 :B1))"+
+            "SubClassOf(:H :G)"+
+            "SubClassOf(:M ObjectIntersectionOf(:A :B))"
+        );
+        Set<OWLClass> disjoints=m_reasoner.getDisjointClasses(NS_C("D")).getFlattened();
+        assertTrue(disjoints.contains(NS_C("E")));
+        assertFalse(disjoints.contains(NS_C("A")));
+        disjoints=m_reasoner.getDisjointClasses(NS_C("A1")).getFlattened();
+        assertTrue(disjoints.contains(NS_C("B")));
+        assertTrue(disjoints.contains(NS_C("B1")));
+        assertTrue(disjoints.contains(NS_C("F")));
+        assertTrue(disjoints.contains(NS_C("M")));
+        assertTrue(disjoints.contains(NS_C("C")));
+        assertFalse(disjoints.contains(NS_C("H")));
+        // only the bottom node, which contains the unsatisfiable class M, is disjoint with G
+        assertEquals(1,m_reasoner.getDisjointClasses(NS_C("G")).getNodes().size());
+        assertTrue(m_reasoner.getDisjointClasses(NS_C("G")).containsEntity(NS_C("M")));
+    }
+    public void testComplementsAndMultipleParents() throws Exception {
+        assertSameDisjointClasses(
+            "EquivalentClasses(:K ObjectComplementOf(:L))"+
+            "SubClassOf(:L1 :L)"+
+            "SubClassOf(:K1 :K)"+
+            "SubClassOf(:N :K1)"+
+            "SubClassOf(:N :P)"+
+            "SubClassOf(:Q :L1)"+
+            "SubClassOf(:Q :P)"+
+            "DisjointClasses(:P :R)"+
+            "SubClassOf(:S ObjectUnionOf(:R :K))"
+        );
+        Set<OWLClass> disjoints=m_reasoner.getDisjointClasses(NS_C("Q")).getFlattened();
+        assertTrue(disjoints.contains(NS_C("K")));
+        assertTrue(disjoints.contains(NS_C("N")));
+        assertTrue(disjoints.contains(NS_C("R")));
+        // S is a subclass of R or K, which are both disjoint with Q
+        assertTrue(disjoints.contains(NS_C("S")));
+        assertFalse(disjoints.contains(NS_C("P")));
+    }
+    protected void assertSameDisjointClasses(String axioms) throws Exception {
+        loadReasonerWithAxioms(axioms);
+        Map<OWLClass,Set<OWLClass>> expected=new HashMap<OWLClass,Set<OWLClass>>();
+        for (OWLClass owlClass : m_ontology.getClassesInSignature())
+            expected.put(owlClass,m_reasoner.getDisjointClasses(owlClass).getFlattened());
+        createReasoner();
+        assertFalse(m_reasoner.isPrecomputed(InferenceType.DISJOINT_CLASSES));
+        m_reasoner.precomputeInferences(InferenceType.DISJOINT_CLASSES);
+        assertTrue(m_reasoner.isPrecomputed(InferenceType.DISJOINT_CLASSES));
+        for (OWLClass owlClass : m_ontology.getClassesInSignature())
+            assertEquals(owlClass.toString(),expected.get(owlClass),m_reasoner.getDisjointClasses(owlClass).getFlattened());
+    }
+}
@@ -0,0 +1,82 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+
+public class DomainRangePrecomputationTest extends AbstractReasonerTest {
+    protected static final String AXIOMS=
+        "ObjectPropertyDomain(:r :A)"+
+        "ObjectPropertyRange(:r :B)"+
+        "SubClassOf(:A :A0)"+
+        "SubClassOf(:B :B0)"+
+        "SubObjectPropertyOf(:s :r)"+
+        "ObjectPropertyDomain(:s ObjectUnionOf(:C :D))"+
+        "SubClassOf(:C :E)"+
+        "SubClassOf(:D :E)"+
+        "SubClassOf(ObjectSomeValuesFrom(:t owl:Thing) :F)"+
+        "SubClassOf(:G ObjectSomeValuesFrom(:t owl:Thing))"+
+        "SubClassOf(owl:Thing ObjectAllValuesFrom(:t :H))"+
+        "DisjointClasses(:A :I)"+
+        "SubObjectPropertyOf(:u :r)"+
+        "ObjectPropertyDomain(:u :I)"+
+        "DataPropertyDomain(:dp :J)"+
+        "SubClassOf(:J :K)"+
+        "DataPropertyRange(:dq xsd:integer)";
+
+    public DomainRangePrecomputationTest(String name) {
+        super(name);
+    }
+    public void testPrecomputedDomainsAndRanges() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        m_reasoner.precomputePropertyDomainsAndRanges();
+        assertTrue(getDomains("r").contains(NS_C("A")));
+        assertFalse(getDomains("r").contains(NS_C("B")));
+        assertTrue(getRanges("r").contains(NS_C("B0")));
+        // the domain of s is only known to be a union, so C and D are not domains but E is
+        assertTrue(getDomains("s").contains(NS_C("E")));
+        assertFalse(getDomains("s").contains(NS_C("C")));
+        assertTrue(getDomains("s").contains(NS_C("A0")));
+        assertTrue(getDomains("t").contains(NS_C("F")));
+        assertFalse(getDomains("t").contains(NS_C("G")));
+        assertTrue(getRanges("t").contains(NS_C("H")));
+        // u is unsatisfiable, so every class is one of its domains
+        assertTrue(getDomains("u").contains(NS_C("B")));
+        assertTrue(m_reasoner.getObjectPropertyDomains(NS_OP("u"),true).isBottomSingleton());
+        assertTrue(m_reasoner.getDataPropertyDomains(NS_DP("dp"),false).getFlattened().contains(NS_C("K")));
+        assertTrue(m_reasoner.getDataPropertyDomains(NS_DP("dq"),true).isTopSingleton());
+    }
+    public void testSameResultsSequentiallyConcurrentlyAndOnDemand() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        Map<Object,Set<OWLClass>> onDemand=getAllDomainsAndRanges();
+        createReasoner();
+        m_reasoner.precomputePropertyDomainsAndRanges();
+        assertEquals(onDemand,getAllDomainsAndRanges());
+        Configuration configuration=getConfiguration();
+        configuration.numberOfReasoningThreads=4;
+        createReasoner(configuration,null);
+        m_reasoner.precomputePropertyDomainsAndRanges();
+        assertEquals(onDemand,getAllDomainsAndRanges());
+    }
+    protected Set<OWLClass> getDomains(String property) {
+        return m_reasoner.getObjectPropertyDomains(NS_OP(property),false).getFlattened();
+    }
+    protected Set<OWLClass> getRanges(String property) {
+        return m_reasoner.getObjectPropertyRanges(NS_OP(property),false).getFlattened();
+    }
+    protected Map<Object,Set<OWLClass>> getAllDomainsAndRanges() {
+        Map<Object,Set<OWLClass>> result=new HashMap<Object,Set<OWLClass>>();
+        for (OWLObjectProperty property : m_ontology.getObjectPropertiesInSignature()) {
+            result.put(property,m_reasoner.getObjectPropertyDomains(property,true).getFlattened());
+            result.put(property.getInverseProperty(),m_reasoner.getObjectPropertyRanges(property,true).getFlattened());
+        }
+        for (OWLDataProperty property : m_ontology.getDataPropertiesInSignature())
+            result.put(property,m_reasoner.getDataPropertyDomains(property,true).getFlattened());
+        return result;
+    }
+}
@@ -1,12 +1,31 @@
 package org.semanticweb.HermiT.reasoner;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.HermiT.Configuration;
 import org.semanticweb.HermiT.EntailmentChecker;
+import org.semanticweb.HermiT.Reasoner;
 import org.semanticweb.owlapi.io.OWLOntologyDocumentSource;
 import org.semanticweb.owlapi.io.StringDocumentSource;
 import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLOntology;
 
 public class EntailmentTest extends AbstractReasonerTest {
+    protected static final String BATCH_PREMISES=
+        "SubClassOf(:A :B)"+
+        "SubClassOf(:B ObjectSomeValuesFrom(:r :C))"+
+        "DisjointClasses(:C :D)"+
+        "ObjectPropertyDomain(:r :E)"+
+        "ObjectPropertyRange(:s :D)"+
+        "DataPropertyRange(:dp xsd:integer)"+
+        "ClassAssertion(:A :a)"+
+        "ClassAssertion(ObjectUnionOf(:C :D) :b)"+
+        "ObjectPropertyAssertion(:s :a :b)"+
+        "DataPropertyAssertion(:dp :a \"5\"^^xsd:integer)"+
+        "DifferentIndividuals(:a :c)";
 
     public EntailmentTest(String name) {
         super(name);
@@ -103,6 +122,53 @@ public class EntailmentTest extends AbstractReasonerTest {
         OWLOntology conlusions=getOntologyWithAxioms(axioms);
         assertEntails(conlusions.getLogicalAxioms(), true);
     }
+    public void testBatchEntailment() throws Exception {
+        loadReasonerWithAxioms(BATCH_PREMISES);
+        Reasoner sequentialReasoner=m_reasoner;
+        Configuration configuration=getConfiguration();
+        configuration.numberOfReasoningThreads=4;
+        createReasoner(configuration,null);
+        Reasoner concurrentReasoner=m_reasoner;
+        createReasoner();
+        m_ontologyManager.removeOntology(m_ontology);
+        Set<OWLAxiom> conclusions=getOntologyWithAxioms(
+            "Declaration(Class(:A))"+
+            "SubClassOf(:A :B)"+
+            "SubClassOf(:B :A)"+
+            "SubClassOf(:A ObjectSomeValuesFrom(:r :C))"+
+            "SubClassOf(:A ObjectSomeValuesFrom(:r :D))"+
+            "SubClassOf(:A :E)"+
+            "EquivalentClasses(:A ObjectIntersectionOf(:A :B))"+
+            "EquivalentClasses(:A :B)"+
+            "DisjointClasses(:C ObjectIntersectionOf(:D :E))"+
+            "DisjointClasses(:C :E)"+
+            "ObjectPropertyDomain(:r :E)"+
+            "ObjectPropertyRange(:s ObjectComplementOf(:C))"+
+            "ObjectPropertyRange(:r :C)"+
+            "DataPropertyRange(:dp xsd:decimal)"+
+            "ClassAssertion(:B :a)"+
+            "ClassAssertion(:D :b)"+
+            "ClassAssertion(ObjectSomeValuesFrom(:r :C) :a)"+
+            "ClassAssertion(ObjectIntersectionOf(:E :B) :a)"+
+            "ObjectPropertyAssertion(:s :a :b)"+
+            "NegativeObjectPropertyAssertion(:s :a :c)"+
+            "DataPropertyAssertion(:dp :a \"5\"^^xsd:integer)"+
+            "NegativeDataPropertyAssertion(:dp :a \"abc\"^^xsd:string)"+
+            "DifferentIndividuals(:a :c)"+
+            "DifferentIndividuals(:a :b)"+
+            "ClassAssertion(ObjectSomeValuesFrom(:r :C) _:x)"
+        ).getAxioms();
+        Map<OWLAxiom,Boolean> oneByOne=new HashMap<OWLAxiom,Boolean>();
+        for (OWLAxiom axiom : conclusions)
+            oneByOne.put(axiom,Boolean.valueOf(m_reasoner.isEntailed(axiom)));
+        assertEquals(conclusions.size(),oneByOne.size());
+        assertEquals(Boolean.TRUE,oneByOne.get(m_dataFactory.getOWLSubClassOfAxiom(NS_C("A"),m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"),NS_C("C")))));
+        assertEquals(Boolean.FALSE,oneByOne.get(m_dataFactory.getOWLSubClassOfAxiom(NS_C("A"),m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"),NS_C("D")))));
+        // b is a C or a D and an s-successor of a, so it is a D
+        assertEquals(Boolean.TRUE,oneByOne.get(m_dataFactory.getOWLClassAssertionAxiom(NS_C("D"),NS_NI("b"))));
+        assertEquals(oneByOne,sequentialReasoner.checkEntailments(conclusions));
+        assertEquals(oneByOne,concurrentReasoner.checkEntailments(conclusions));
+    }
     protected OWLOntology getOntologyFromRessource(String resourceName) throws Exception {
         IRI physicalIRI=IRI.create(getClass().getResource(resourceName).toURI());
         return m_ontologyManager.loadOntologyFromOntologyDocument(physicalIRI);
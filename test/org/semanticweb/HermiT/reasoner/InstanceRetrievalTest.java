@@ -0,0 +1,108 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+
+public class InstanceRetrievalTest extends AbstractReasonerTest {
+
+    public InstanceRetrievalTest(String name) {
+        super(name);
+    }
+    public void testLimitedRetrieval() throws Exception {
+        loadReasonerWithAxioms(getAxioms());
+        Set<OWLNamedIndividual> firstInstances=m_reasoner.getInstances(NS_C("C"),false,5).getFlattened();
+        assertEquals(5,firstInstances.size());
+        Set<OWLNamedIndividual> moreInstances=m_reasoner.getInstances(NS_C("C"),false,12).getFlattened();
+        assertEquals(12,moreInstances.size());
+        Set<OWLNamedIndividual> allInstances=m_reasoner.getInstances(NS_C("C"),false).getFlattened();
+        assertEquals(expectedInstances(),allInstances);
+        assertTrue(allInstances.containsAll(firstInstances));
+        assertTrue(allInstances.containsAll(moreInstances));
+        assertEquals(allInstances,m_reasoner.getInstances(NS_C("C"),false,100).getFlattened());
+        assertEquals(3,m_reasoner.getInstances(NS_C("E"),true,3).getFlattened().size());
+    }
+    public void testSameInstancesAsUnplannedTests() throws Exception {
+        loadReasonerWithAxioms(getAxioms());
+        Set<OWLNamedIndividual> instances=new HashSet<OWLNamedIndividual>();
+        for (OWLNamedIndividual individual : m_ontology.getIndividualsInSignature())
+            if (m_reasoner.hasType(individual,NS_C("C"),false))
+                instances.add(individual);
+        assertEquals(expectedInstances(),instances);
+        createReasoner();
+        assertEquals(instances,m_reasoner.getInstances(NS_C("C"),false).getFlattened());
+        Set<OWLNamedIndividual> directInstances=m_reasoner.getInstances(NS_C("E"),true).getFlattened();
+        assertTrue(directInstances.contains(NS_NI("k")));
+        assertFalse(directInstances.contains(NS_NI("i0")));
+    }
+    public void testInstanceIterator() throws Exception {
+        loadReasonerWithAxioms(getAxioms());
+        Iterator<OWLNamedIndividual> iterator=m_reasoner.getInstanceIterator(NS_C("E"),false);
+        // k is the only known instance of E, so it comes first
+        assertEquals(NS_NI("k"),iterator.next());
+        Set<OWLNamedIndividual> instances=new HashSet<OWLNamedIndividual>();
+        instances.add(NS_NI("k"));
+        while (iterator.hasNext())
+            assertTrue(instances.add(iterator.next()));
+        assertEquals(m_reasoner.getInstances(NS_C("E"),false).getFlattened(),instances);
+        assertEquals(41,instances.size());
+        try {
+            iterator.next();
+            fail();
+        }
+        catch (NoSuchElementException expected) {
+        }
+        // none of the i is known to be an A or a B, so they are all direct instances of C
+        Set<OWLNamedIndividual> directInstances=new HashSet<OWLNamedIndividual>();
+        for (iterator=m_reasoner.getInstanceIterator(NS_C("C"),true);iterator.hasNext();)
+            assertTrue(directInstances.add(iterator.next()));
+        assertEquals(expectedInstances(),directInstances);
+        assertFalse(m_reasoner.getInstanceIterator(NS_C("D"),false).hasNext());
+    }
+    public void testPropertyValueIterator() throws Exception {
+        loadReasonerWithAxioms(
+            "SubObjectPropertyOf(:r :s)"+
+            "SubObjectPropertyOf(:t :s)"+
+            "ObjectPropertyAssertion(:s :a :b)"+
+            "ClassAssertion(ObjectUnionOf(ObjectHasValue(:r :c) ObjectHasValue(:t :c)) :a)"+
+            "ClassAssertion(ObjectUnionOf(ObjectHasValue(:r :d) ObjectHasValue(:r :e)) :a)"
+        );
+        Iterator<OWLNamedIndividual> iterator=m_reasoner.getObjectPropertyValueIterator(NS_NI("a"),NS_OP("s"));
+        Set<OWLNamedIndividual> values=new HashSet<OWLNamedIndividual>();
+        while (iterator.hasNext()) {
+            assertTrue(values.add(iterator.next()));
+            // other tests may clear the additional axioms of the tableau between two steps of the iterator
+            m_reasoner.getTableau();
+        }
+        assertEquals(2,values.size());
+        assertTrue(values.contains(NS_NI("b")));
+        assertTrue(values.contains(NS_NI("c")));
+        assertFalse(m_reasoner.getObjectPropertyValueIterator(NS_NI("a"),NS_OP("r")).hasNext());
+        assertEquals(values,m_reasoner.getObjectPropertyValues(NS_NI("a"),NS_OP("s")).getFlattened());
+    }
+    protected String getAxioms() {
+        StringBuffer buffer=new StringBuffer();
+        buffer.append("SubClassOf(:A :C)");
+        buffer.append("SubClassOf(:B :C)");
+        buffer.append("SubClassOf(:C :E)");
+        buffer.append("ClassAssertion(:E :k)");
+        for (int index=0;index<20;index++) {
+            // i is an A or a B, so it is a C, while j is an A or a D and need not be a C
+            buffer.append("ClassAssertion(ObjectUnionOf(:A :B) :i"+index+")");
+            buffer.append("ClassAssertion(ObjectUnionOf(:A :D) :j"+index+")");
+            buffer.append("ClassAssertion(ObjectUnionOf(:A :E) :j"+index+")");
+            if (index%3==0)
+                buffer.append("ObjectPropertyAssertion(:r :i"+index+" :j"+index+")");
+        }
+        return buffer.toString();
+    }
+    protected Set<OWLNamedIndividual> expectedInstances() {
+        Set<OWLNamedIndividual> instances=new HashSet<OWLNamedIndividual>();
+        for (int index=0;index<20;index++)
+            instances.add(NS_NI("i"+index));
+        return instances;
+    }
+}
@@ -0,0 +1,42 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.hierarchy.ModelCache;
+
+public class ModelCacheTest extends AbstractReasonerTest {
+
+    public ModelCacheTest(String name) {
+        super(name);
+    }
+    public void testSubsumptionsBeforeClassification() throws Exception {
+        String axioms="SubClassOf(:A ObjectUnionOf(:B :C))"
+            + "SubClassOf(:A :D)"
+            + "SubClassOf(:D ObjectSomeValuesFrom(:r :E))"
+            + "SubClassOf(:C :B)"
+            + "DisjointClasses(:E :F)";
+        loadReasonerWithAxioms(axioms);
+        assertSubsumedBy("A","D",true);
+        assertSubsumedBy("A","B",true);
+        assertSubsumedBy("A","C",false);
+        assertSubsumedBy("D","A",false);
+        assertSubsumedBy("D","B",false);
+        assertSubsumedBy("E","F",false);
+        assertSubsumedBy("C","A",false);
+        ModelCache modelCache=m_reasoner.getModelCache();
+        int numberOfTestsAvoided=modelCache.getNumberOfTestsAvoided();
+        assertTrue(numberOfTestsAvoided>0);
+        // the second time, all answers come from the cache
+        assertSubsumedBy("A","C",false);
+        assertSubsumedBy("D","B",false);
+        assertEquals(numberOfTestsAvoided+2,modelCache.getNumberOfTestsAvoided());
+    }
+    public void testUnsatisfiableSubconcept() throws Exception {
+        String axioms="SubClassOf(:A :B)"
+            + "DisjointClasses(:A :B)";
+        loadReasonerWithAxioms(axioms);
+        assertSubsumedBy("A","C",true);
+        assertSubsumedBy("B","C",false);
+    }
+    protected void assertSubsumedBy(String subconcept,String superconcept,boolean expected) {
+        assertEquals(expected,m_reasoner.isEntailed(m_dataFactory.getOWLSubClassOfAxiom(NS_C(subconcept),NS_C(superconcept))));
+    }
+}
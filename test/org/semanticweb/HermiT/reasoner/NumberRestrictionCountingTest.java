@@ -0,0 +1,88 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+
+public class NumberRestrictionCountingTest extends AbstractReasonerTest {
+
+    public NumberRestrictionCountingTest(String name) {
+        super(name);
+    }
+    public void testLargeCardinalities() throws Exception {
+        loadReasonerWithAxioms(
+            "SubClassOf(:A ObjectMinCardinality(50 :r :C))"+
+            "SubClassOf(:A ObjectMaxCardinality(40 :r :C))"+
+            "SubClassOf(:B ObjectMinCardinality(4 :r :C))"+
+            "SubClassOf(:B ObjectMaxCardinality(5 :r :C))"
+        );
+        assertSatisfiable("A",false);
+        // only the node for the test individual has been created
+        assertEquals(1,m_reasoner.getTableau().getNumberOfNodeCreations());
+        assertSatisfiable("B",true);
+    }
+    public void testSubroleAndTop() throws Exception {
+        loadReasonerWithAxioms(
+            "SubObjectPropertyOf(:s :r)"+
+            "SubClassOf(:A ObjectMinCardinality(30 :s :C))"+
+            "SubClassOf(:A ObjectMaxCardinality(20 :r owl:Thing))"+
+            "SubClassOf(:B ObjectMinCardinality(3 :r :C))"+
+            "SubClassOf(:B ObjectMaxCardinality(2 :s owl:Thing))"+
+            "SubClassOf(:D ObjectMinCardinality(3 :r :C))"+
+            "SubClassOf(:D ObjectMaxCardinality(2 :r :E))"
+        );
+        assertSatisfiable("A",false);
+        // the r-successors need not be s-successors, and they need not be instances of E
+        assertSatisfiable("B",true);
+        assertSatisfiable("D",true);
+    }
+    public void testNegatedFillerAndInverse() throws Exception {
+        loadReasonerWithAxioms(
+            "SubClassOf(:A ObjectMinCardinality(30 ObjectInverseOf(:r) ObjectComplementOf(:C)))"+
+            "SubClassOf(:A ObjectMaxCardinality(20 ObjectInverseOf(:r) ObjectComplementOf(:C)))"
+        );
+        assertSatisfiable("A",false);
+    }
+    public void testGuardsFromDisjunction() throws Exception {
+        loadReasonerWithAxioms(
+            "SubClassOf(:A ObjectUnionOf(:B :D))"+
+            "SubClassOf(:B ObjectMaxCardinality(2 :r :C))"+
+            "SubClassOf(:D ObjectMaxCardinality(4 :r :C))"+
+            "SubClassOf(:A ObjectMinCardinality(30 :r :C))"+
+            "SubClassOf(:E ObjectMinCardinality(3 :r :C))"+
+            "SubClassOf(:E ObjectUnionOf(:B :D))"
+        );
+        assertSatisfiable("A",false);
+        assertSatisfiable("E",true);
+        assertSubsumedBy("E","D",true);
+    }
+    public void testABox() throws Exception {
+        loadReasonerWithAxioms(
+            "SubClassOf(:A ObjectMaxCardinality(20 :r :C))"+
+            "ClassAssertion(ObjectMinCardinality(30 :r :C) :a)"+
+            "ClassAssertion(ObjectMinCardinality(3 :r :C) :b)"
+        );
+        assertABoxSatisfiable(true);
+        assertInstanceOf(m_dataFactory.getOWLObjectComplementOf(NS_C("A")),NS_NI("a"),true);
+        assertInstanceOf(m_dataFactory.getOWLObjectComplementOf(NS_C("A")),NS_NI("b"),false);
+    }
+    public void testSameResultsWithExpansion() throws Exception {
+        String axioms=
+            "SubObjectPropertyOf(:s :r)"+
+            "SubClassOf(:A ObjectMinCardinality(5 :s :C))"+
+            "SubClassOf(:A ObjectMaxCardinality(3 :r owl:Thing))"+
+            "SubClassOf(:B ObjectIntersectionOf(ObjectMinCardinality(3 :r :C) ObjectMaxCardinality(4 :r :C)))"+
+            "SubClassOf(:D ObjectIntersectionOf(ObjectMinCardinality(4 ObjectInverseOf(:r) :C) ObjectMaxCardinality(3 ObjectInverseOf(:s) owl:Thing)))";
+        String[] concepts=new String[] { "A","B","D" };
+        boolean[] counting=new boolean[concepts.length];
+        loadReasonerWithAxioms(axioms);
+        for (int index=0;index<concepts.length;index++)
+            counting[index]=m_reasoner.isSatisfiable(NS_C(concepts[index]));
+        Configuration configuration=getConfiguration();
+        configuration.numberRestrictionHandlingType=Configuration.NumberRestrictionHandlingType.EXPANSION;
+        createReasoner(configuration,null);
+        for (int index=0;index<concepts.length;index++)
+            assertSatisfiable(concepts[index],counting[index]);
+        assertSatisfiable("A",false);
+        assertSatisfiable("B",true);
+        assertSatisfiable("D",true);
+    }
+}
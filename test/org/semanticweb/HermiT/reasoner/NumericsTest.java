@@ -282,6 +282,32 @@ public class NumericsTest extends AbstractReasonerTest {
             DR("xsd:nonNegativeInteger")
         );
     }
+    public void testInclusiveAndExclusiveBound() throws Exception {
+        assertDRSatisfiable(false,
+            DR("xsd:decimal","xsd:minInclusive",INT("2")),
+            DR("xsd:decimal","xsd:minExclusive",INT("2")),
+            OO(INT("2"))
+        );
+    }
+    public void testManyExcludedRanges_1() throws Exception {
+        assertDRSatisfiableUseCliqueOptimization(true,20,getOddIntegersUpTo40(DR("xsd:integer")));
+    }
+    public void testManyExcludedRanges_2() throws Exception {
+        assertDRSatisfiableUseCliqueOptimization(false,21,getOddIntegersUpTo40(DR("xsd:integer")));
+    }
+    public void testManyExcludedRanges_3() throws Exception {
+        assertDRSatisfiable(true,getOddIntegersUpTo40(OO(INT("17"),DEC("18.5"))));
+        assertDRSatisfiable(false,getOddIntegersUpTo40(OO(INT("18"),DEC("18.25"),INT("41"))));
+    }
+    protected static String[] getOddIntegersUpTo40(String additionalPart) {
+        // the excluded ranges leave all odd integers between 0 and 40, and the decimals in [2i+0.5 .. 2i+1>
+        String[] parts=new String[23];
+        parts[0]=additionalPart;
+        parts[1]=DR("xsd:decimal","xsd:minInclusive",INT("0"),"xsd:maxInclusive",INT("40"));
+        for (int index=0;index<=20;index++)
+            parts[index+2]=NOT(DR("xsd:decimal","xsd:minInclusive",INT(String.valueOf(2*index)),"xsd:maxExclusive",DEC((2*index)+".5")));
+        return parts;
+    }
     public void testClique() throws Exception {
         assertDRSatisfiableUseCliqueOptimization(true,2,
             DR("xsd:integer","xsd:minInclusive",INT("1"),"xsd:maxInclusive",INT("2")),
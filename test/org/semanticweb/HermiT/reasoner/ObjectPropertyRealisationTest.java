@@ -0,0 +1,79 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+public class ObjectPropertyRealisationTest extends AbstractReasonerTest {
+    protected static final String AXIOMS=
+        "TransitiveObjectProperty(:partOf)"+
+        "SubObjectPropertyOf(:directPartOf :partOf)"+
+        "ObjectPropertyAssertion(:directPartOf :a :b)"+
+        "ObjectPropertyAssertion(:directPartOf :b :c)"+
+        "ObjectPropertyAssertion(:directPartOf :c :d)"+
+        "ClassAssertion(ObjectUnionOf(:P :Q) :d)"+
+        "SubClassOf(:P ObjectHasValue(:partOf :h))"+
+        "SubClassOf(:Q ObjectHasValue(:directPartOf :h))"+
+        "SubObjectPropertyOf(:r :t)"+
+        "SubObjectPropertyOf(:s :t)"+
+        "ClassAssertion(ObjectUnionOf(:A :B) :x)"+
+        "SubClassOf(:A ObjectIntersectionOf(ObjectHasValue(:r :y) ObjectHasValue(:s :y)))"+
+        "SubClassOf(:B ObjectIntersectionOf(ObjectHasValue(:r :y) ObjectHasValue(:s :z)))"+
+        "ClassAssertion(:B :w)";
+
+    public ObjectPropertyRealisationTest(String name) {
+        super(name);
+    }
+    public void testRealisedInstances() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        m_reasoner.precomputeInferences(InferenceType.OBJECT_PROPERTY_ASSERTIONS);
+        Set<OWLNamedIndividual> values=m_reasoner.getObjectPropertyValues(NS_NI("a"),NS_OP("partOf")).getFlattened();
+        assertTrue(values.contains(NS_NI("d")));
+        // d is a part of h in every model, once directly and once through partOf
+        assertTrue(values.contains(NS_NI("h")));
+        assertFalse(m_reasoner.getObjectPropertyValues(NS_NI("d"),NS_OP("directPartOf")).containsEntity(NS_NI("h")));
+        assertTrue(m_reasoner.getObjectPropertyValues(NS_NI("x"),NS_OP("r")).containsEntity(NS_NI("y")));
+        // x is related to y or z by s in every model, but to neither of them in all models
+        assertFalse(m_reasoner.getObjectPropertyValues(NS_NI("x"),NS_OP("s")).containsEntity(NS_NI("y")));
+        assertFalse(m_reasoner.getObjectPropertyValues(NS_NI("x"),NS_OP("s")).containsEntity(NS_NI("z")));
+        assertTrue(m_reasoner.getObjectPropertyValues(NS_NI("x"),NS_OP("t")).containsEntity(NS_NI("y")));
+        assertTrue(m_reasoner.getObjectPropertyValues(NS_NI("w"),NS_OP("t")).containsEntity(NS_NI("z")));
+    }
+    public void testNonInstancesArePassedOnToSuperproperties() throws Exception {
+        loadReasonerWithAxioms(
+            "SubObjectPropertyOf(:s :r)"+
+            "SubObjectPropertyOf(:t :r)"+
+            "ClassAssertion(ObjectUnionOf(ObjectHasValue(:s :b) ObjectHasValue(:t :b)) :a)"
+        );
+        m_reasoner.precomputeInferences(InferenceType.OBJECT_PROPERTY_ASSERTIONS);
+        // the model relates a to b by s or t only, so (a,b) is a possible instance of r only through its non-instance of s or t
+        assertFalse(m_reasoner.getObjectPropertyValues(NS_NI("a"),NS_OP("s")).containsEntity(NS_NI("b")));
+        assertFalse(m_reasoner.getObjectPropertyValues(NS_NI("a"),NS_OP("t")).containsEntity(NS_NI("b")));
+        assertTrue(m_reasoner.getObjectPropertyValues(NS_NI("a"),NS_OP("r")).containsEntity(NS_NI("b")));
+        assertFalse(m_reasoner.getObjectPropertyValues(NS_NI("a"),NS_OP("r")).containsEntity(NS_NI("a")));
+    }
+    public void testSameResultsSequentiallyConcurrentlyAndOnDemand() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        Map<String,Set<OWLNamedIndividual>> onDemand=getAllValues();
+        createReasoner();
+        m_reasoner.precomputeInferences(InferenceType.OBJECT_PROPERTY_ASSERTIONS);
+        assertEquals(onDemand,getAllValues());
+        Configuration configuration=getConfiguration();
+        configuration.numberOfReasoningThreads=3;
+        createReasoner(configuration,null);
+        m_reasoner.precomputeInferences(InferenceType.OBJECT_PROPERTY_ASSERTIONS);
+        assertEquals(onDemand,getAllValues());
+    }
+    protected Map<String,Set<OWLNamedIndividual>> getAllValues() {
+        Map<String,Set<OWLNamedIndividual>> result=new HashMap<String,Set<OWLNamedIndividual>>();
+        for (OWLObjectProperty property : m_ontology.getObjectPropertiesInSignature())
+            for (OWLNamedIndividual individual : m_ontology.getIndividualsInSignature())
+                result.put(property+" "+individual,m_reasoner.getObjectPropertyValues(individual,property).getFlattened());
+        return result;
+    }
+}
@@ -0,0 +1,74 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.DLClause;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.DLPredicate;
+
+public class ParallelPreprocessingTest extends AbstractReasonerTest {
+    protected static final int NUMBER_OF_CHAINS=700;
+
+    public ParallelPreprocessingTest(String name) {
+        super(name);
+    }
+    public void testSameClausesAsSequentialPreprocessing() throws Exception {
+        loadOntologyWithAxioms(createAxioms());
+        createReasoner(getConfiguration(1),null);
+        DLOntology sequential=m_reasoner.getDLOntology();
+        createReasoner(getConfiguration(4),null);
+        DLOntology parallel=m_reasoner.getDLOntology();
+        assertEquals(sequential.getDLClauses().size(),parallel.getDLClauses().size());
+        assertEquals(sequential.getPositiveFacts().size(),parallel.getPositiveFacts().size());
+        assertEquals(sequential.getNegativeFacts().size(),parallel.getNegativeFacts().size());
+        assertEquals(getFreshConcepts(sequential).size(),getFreshConcepts(parallel).size());
+        // the clauses that do not mention fresh concepts do not depend on the naming
+        assertEquals(getClausesWithoutFreshConcepts(sequential),getClausesWithoutFreshConcepts(parallel));
+    }
+    public void testReasoningWithParallelPreprocessing() throws Exception {
+        loadOntologyWithAxioms(createAxioms());
+        createReasoner(getConfiguration(4),null);
+        assertSubsumedBy("E0","C0",true);
+        assertSubsumedBy("E1","D1",false);
+        assertSatisfiable("F5",false);
+        assertInstanceOf(m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("s"),NS_C("C3")),NS_NI("a3"),true);
+        assertInstanceOf(NS_C("D1"),NS_NI("a3"),false);
+    }
+    protected Configuration getConfiguration(int numberOfThreads) {
+        Configuration configuration=getConfiguration();
+        configuration.numberOfPreprocessingThreads=numberOfThreads;
+        return configuration;
+    }
+    protected static String createAxioms() {
+        StringBuffer buffer=new StringBuffer();
+        for (int index=0;index<NUMBER_OF_CHAINS;index++) {
+            int shared=index%50;
+            buffer.append("SubClassOf(:C"+index+" ObjectSomeValuesFrom(:r ObjectIntersectionOf(:C"+(index+1)+" :D"+shared+")))");
+            buffer.append("EquivalentClasses(:E"+index+" ObjectIntersectionOf(:C"+index+" ObjectSomeValuesFrom(:r :D"+shared+")))");
+            buffer.append("SubClassOf(:F"+index+" ObjectIntersectionOf(ObjectAllValuesFrom(:r ObjectComplementOf(:D"+shared+")) ObjectSomeValuesFrom(:r :D"+shared+")))");
+            buffer.append("ClassAssertion(ObjectUnionOf(:D1 ObjectSomeValuesFrom(:s :C"+index+")) :a"+index+")");
+            buffer.append("ClassAssertion(ObjectComplementOf(:D1) :a"+index+")");
+        }
+        return buffer.toString();
+    }
+    protected static Set<AtomicConcept> getFreshConcepts(DLOntology dlOntology) {
+        Set<AtomicConcept> result=new HashSet<AtomicConcept>();
+        for (DLClause dlClause : dlOntology.getDLClauses())
+            for (int index=0;index<dlClause.getHeadLength();index++) {
+                DLPredicate dlPredicate=dlClause.getHeadAtom(index).getDLPredicate();
+                if (dlPredicate instanceof AtomicConcept && ((AtomicConcept)dlPredicate).getIRI().startsWith("internal:def#"))
+                    result.add((AtomicConcept)dlPredicate);
+            }
+        return result;
+    }
+    protected static Set<DLClause> getClausesWithoutFreshConcepts(DLOntology dlOntology) {
+        Set<DLClause> result=new HashSet<DLClause>();
+        for (DLClause dlClause : dlOntology.getDLClauses())
+            if (!dlClause.toString().contains("internal:def#"))
+                result.add(dlClause);
+        return result;
+    }
+}
@@ -0,0 +1,63 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.semanticweb.HermiT.hierarchy.PreClassification;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+public class PreClassificationTest extends AbstractReasonerTest {
+
+    public PreClassificationTest(String name) {
+        super(name);
+    }
+    public void testToldInformation() throws Exception {
+        String axioms="SubClassOf(:A :B)"
+            + "SubClassOf(:B :C)"
+            + "EquivalentClasses(:D ObjectIntersectionOf(:B :E))"
+            + "DisjointClasses(:C :F)"
+            + "SubClassOf(:G ObjectIntersectionOf(:C :F))"
+            + "SubClassOf(:H ObjectUnionOf(:I :J))";
+        loadReasonerWithAxioms(axioms);
+        PreClassification preClassification=createPreClassification();
+        Set<AtomicConcept> toldSubsumersOfA=preClassification.getToldSubsumers(AC("A"));
+        assertTrue(toldSubsumersOfA.contains(AC("B")));
+        assertTrue(toldSubsumersOfA.contains(AC("C")));
+        assertTrue(toldSubsumersOfA.contains(AtomicConcept.THING));
+        assertFalse(toldSubsumersOfA.contains(AC("D")));
+        assertTrue(preClassification.isToldUnsatisfiable(AC("G")));
+        assertFalse(preClassification.isToldUnsatisfiable(AC("A")));
+        assertTrue(preClassification.isToldNonSubsumer(AC("A"),AC("F")));
+        assertFalse(preClassification.isToldNonSubsumer(AC("A"),AC("E")));
+        assertTrue(preClassification.isHornLocal(AC("A")));
+        assertFalse(preClassification.isHornLocal(AC("H")));
+    }
+    public void testClassificationWithDefinitions() throws Exception {
+        String axioms="SubClassOf(:A :B)"
+            + "SubClassOf(:A :E)"
+            + "EquivalentClasses(:D ObjectIntersectionOf(:B :E))"
+            + "DisjointClasses(:B :F)"
+            + "SubClassOf(:H ObjectUnionOf(:A :F))"
+            + "SubClassOf(:H :B)";
+        loadReasonerWithAxioms(axioms);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        assertSubsumedBy("A","D",true);
+        assertSubsumedBy("H","A",true);
+        assertSubsumedBy("H","D",true);
+        assertSubsumedBy("D","A",false);
+        assertSubsumedBy("F","B",false);
+        assertSubsumedBy("B","F",false);
+    }
+    protected PreClassification createPreClassification() {
+        DLOntology dlOntology=m_reasoner.getDLOntology();
+        Set<AtomicConcept> elements=new HashSet<AtomicConcept>(dlOntology.getAllAtomicConcepts());
+        elements.add(AtomicConcept.THING);
+        elements.add(AtomicConcept.NOTHING);
+        return new PreClassification(dlOntology,elements);
+    }
+    protected static AtomicConcept AC(String name) {
+        return AtomicConcept.create(NS+name);
+    }
+}
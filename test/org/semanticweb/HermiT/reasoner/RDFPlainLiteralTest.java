@@ -9,11 +9,14 @@ import org.semanticweb.HermiT.Prefixes;
 import org.semanticweb.HermiT.datatypes.DatatypeRegistry;
 import org.semanticweb.HermiT.datatypes.MalformedLiteralException;
 import org.semanticweb.HermiT.datatypes.ValueSpaceSubset;
+import org.semanticweb.HermiT.datatypes.rdfplainliteral.RDFPlainLiteralAutomatonCache;
 import org.semanticweb.HermiT.datatypes.rdfplainliteral.RDFPlainLiteralDataValue;
 import org.semanticweb.HermiT.datatypes.rdfplainliteral.RDFPlainLiteralLengthInterval;
 import org.semanticweb.HermiT.model.Constant;
 import org.semanticweb.HermiT.model.DatatypeRestriction;
 
+import dk.brics.automaton.Automaton;
+
 public class RDFPlainLiteralTest extends AbstractReasonerTest {
     protected static final String RDF_PLAIN_LITERAL=Prefixes.s_semanticWebPrefixes.get("rdf:")+"PlainLiteral";
     protected static final String XSD_NS=Prefixes.s_semanticWebPrefixes.get("xsd:");
@@ -240,6 +243,54 @@ public class RDFPlainLiteralTest extends AbstractReasonerTest {
         assertTrue(intersection.containsDataValue(new RDFPlainLiteralDataValue("aaaaaaaa","en")));
         assertFalse(intersection.containsDataValue(new RDFPlainLiteralDataValue("aaaaaaaa","123")));
     }
+    public void testRepeatedConjunctions() throws Exception {
+        DatatypeRestriction restriction1=restriction("xsd:string","xsd:pattern",STR_C("a+b*"));
+        DatatypeRestriction restriction2=restriction("xsd:string","xsd:maxLength",INT_C("3"),"xsd:pattern",STR_C("a*b+"));
+        for (int repetition=0;repetition<3;repetition++) {
+            ValueSpaceSubset main=DatatypeRegistry.createValueSpaceSubset(restriction1);
+            ValueSpaceSubset intersection=DatatypeRegistry.conjoinWithDR(main,restriction2);
+            assertTrue(intersection.containsDataValue("ab"));
+            assertTrue(intersection.containsDataValue("abb"));
+            assertFalse(intersection.containsDataValue("abbb"));
+            assertFalse(intersection.containsDataValue("a"));
+            ValueSpaceSubset difference=DatatypeRegistry.conjoinWithDRNegation(main,restriction2);
+            assertTrue(difference.containsDataValue("a"));
+            assertTrue(difference.containsDataValue("abbb"));
+            assertFalse(difference.containsDataValue("ab"));
+        }
+    }
+    public void testAutomatonCache() throws Exception {
+        RDFPlainLiteralAutomatonCache cache=new RDFPlainLiteralAutomatonCache();
+        Automaton automaton1=cache.getPatternAutomaton("a+");
+        Automaton automaton2=cache.getPatternAutomaton("b+");
+        // the cache hands out copies, so callers cannot modify the cached automata
+        Automaton automaton1Copy=cache.getPatternAutomaton("a+");
+        assertNotSame(automaton1,automaton1Copy);
+        assertTrue(automaton1.equals(automaton1Copy));
+        assertNull(cache.intersection(RDFPlainLiteralAutomatonCache.getIntersectionKey("a+","b+"),automaton1,automaton2));
+        assertEquals(1,cache.getNumberOfHits());
+        // results are keyed by value, so a different automaton object with the same key hits the cache
+        assertNull(cache.intersection(RDFPlainLiteralAutomatonCache.getIntersectionKey("a+","b+"),automaton1Copy,automaton2));
+        assertEquals(2,cache.getNumberOfHits());
+        Automaton automaton3=cache.getPatternAutomaton("(a|b)+");
+        Object intersectionKey=RDFPlainLiteralAutomatonCache.getIntersectionKey("a+","(a|b)+");
+        Automaton intersection=cache.intersection(intersectionKey,automaton1,automaton3);
+        assertNotNull(intersection);
+        assertTrue(intersection.equals(automaton1));
+        // modifying a returned automaton does not affect the cached one
+        intersection.getInitialState().setAccept(true);
+        Automaton intersectionAgain=cache.intersection(intersectionKey,automaton1,automaton3);
+        assertNotSame(intersection,intersectionAgain);
+        assertTrue(intersectionAgain.equals(automaton1));
+        assertEquals(3,cache.getNumberOfHits());
+        assertNull(cache.minus(RDFPlainLiteralAutomatonCache.getDifferenceKey("a+","(a|b)+"),automaton1,automaton3));
+        Object differenceKey=RDFPlainLiteralAutomatonCache.getDifferenceKey("(a|b)+","a+");
+        assertTrue(cache.minus(differenceKey,automaton3,automaton1).equals(cache.minus(differenceKey,automaton3,automaton1)));
+        assertEquals(4,cache.getNumberOfHits());
+        // a null key disables memoisation
+        assertNotNull(cache.intersection(null,automaton1,automaton3));
+        assertEquals(4,cache.getNumberOfHits());
+    }
     public void testLangRange1() throws Exception {
         ValueSpaceSubset main=subset("rdf:PlainLiteral","rdf:langRange",STR_C("en"));
         assertFalse(main.containsDataValue("abc"));
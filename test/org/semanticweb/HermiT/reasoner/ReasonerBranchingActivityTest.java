@@ -0,0 +1,15 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+
+public class ReasonerBranchingActivityTest extends ReasonerTest {
+
+    public ReasonerBranchingActivityTest(String name) {
+        super(name);
+    }
+    protected Configuration getConfiguration() {
+        Configuration configuration=super.getConfiguration();
+        configuration.branchingHeuristicType=Configuration.BranchingHeuristicType.ACTIVITY;
+        return configuration;
+    }
+}
@@ -0,0 +1,15 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+
+public class ReasonerBranchingMOMSTest extends ReasonerTest {
+
+    public ReasonerBranchingMOMSTest(String name) {
+        super(name);
+    }
+    protected Configuration getConfiguration() {
+        Configuration configuration=super.getConfiguration();
+        configuration.branchingHeuristicType=Configuration.BranchingHeuristicType.MOMS;
+        return configuration;
+    }
+}
@@ -0,0 +1,63 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+public class SameIndividualTest extends AbstractReasonerTest {
+    protected static final String AXIOMS=
+        "FunctionalObjectProperty(:f)"+
+        "ClassAssertion(ObjectUnionOf(:A :B) :p)"+
+        "SubClassOf(:A ObjectHasValue(:f :q))"+
+        "SubClassOf(:B ObjectHasValue(:f :q))"+
+        "ObjectPropertyAssertion(:f :p :r)"+
+        "ClassAssertion(ObjectUnionOf(ObjectOneOf(:b) ObjectOneOf(:c)) :x)"+
+        "SameIndividual(:s1 :s2)"+
+        "SameIndividual(:s2 :s3)"+
+        "SameIndividual(:s4 :s3)"+
+        "ObjectPropertyAssertion(:f :s1 :t1)"+
+        "ObjectPropertyAssertion(:f :s4 :t2)"+
+        "ClassAssertion(ObjectUnionOf(:A :C) :u)"+
+        "SubClassOf(:C ObjectHasValue(:f :v1))"+
+        "ObjectPropertyAssertion(:f :u :v2)";
+
+    public SameIndividualTest(String name) {
+        super(name);
+    }
+    public void testSameIndividuals() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        assertSameIndividuals("q","q","r");
+        // x is the same as b or as c, but not the same as either of them
+        assertSameIndividuals("x","x");
+        assertSameIndividuals("b","b");
+        assertSameIndividuals("s2","s1","s2","s3","s4");
+        assertSameIndividuals("t2","t1","t2");
+        // u is an A and q or a C and v1 is the same as v2
+        assertSameIndividuals("v2","v2");
+        assertTrue(m_reasoner.isSameIndividual(NS_NI("r"),NS_NI("q")));
+        assertFalse(m_reasoner.isSameIndividual(NS_NI("x"),NS_NI("c")));
+        assertTrue(m_reasoner.isSameIndividual(NS_NI("t1"),NS_NI("t2")));
+        assertFalse(m_reasoner.isSameIndividual(NS_NI("t1"),NS_NI("q")));
+        assertTrue(m_reasoner.isPrecomputed(InferenceType.SAME_INDIVIDUAL));
+    }
+    public void testPrecomputedSameAsOnDemand() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        Map<OWLNamedIndividual,Set<OWLNamedIndividual>> onDemand=new HashMap<OWLNamedIndividual,Set<OWLNamedIndividual>>();
+        for (OWLNamedIndividual individual : m_ontology.getIndividualsInSignature())
+            onDemand.put(individual,m_reasoner.getSameIndividuals(individual).getEntities());
+        createReasoner();
+        m_reasoner.precomputeInferences(InferenceType.SAME_INDIVIDUAL);
+        assertTrue(m_reasoner.isPrecomputed(InferenceType.SAME_INDIVIDUAL));
+        for (OWLNamedIndividual individual : m_ontology.getIndividualsInSignature())
+            assertEquals(individual.toString(),onDemand.get(individual),m_reasoner.getSameIndividuals(individual).getEntities());
+    }
+    protected void assertSameIndividuals(String individual,String... expected) {
+        Set<OWLNamedIndividual> same=m_reasoner.getSameIndividuals(NS_NI(individual)).getEntities();
+        assertEquals(same.toString(),expected.length,same.size());
+        for (String expectedIndividual : expected)
+            assertTrue(same.contains(NS_NI(expectedIndividual)));
+    }
+}
@@ -13,6 +13,8 @@ public class AllTests extends TestCase {
         suite.addTestSuite(NormalizationTest.class);
         suite.addTestSuite(ClausificationTest.class);
         suite.addTestSuite(ClausificationDatatypesTest.class);
+        suite.addTestSuite(PropertyAutomatonTest.class);
+        suite.addTestSuite(DLClauseSetOptimizerTest.class);
         // $JUnit-END$
         return suite;
     }
@@ -0,0 +1,149 @@
+package org.semanticweb.HermiT.structural;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.model.AtLeastConcept;
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.DLClause;
+import org.semanticweb.HermiT.model.DLPredicate;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.Individual;
+import org.semanticweb.HermiT.model.Term;
+import org.semanticweb.HermiT.model.Variable;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+public class DLClauseSetOptimizerTest extends TestCase {
+    protected static final Variable X=Variable.create("X");
+    protected static final Variable Y=Variable.create("Y");
+    protected static final Variable Y1=Variable.create("Y1");
+    protected static final Variable Y2=Variable.create("Y2");
+    protected static final AtomicConcept A=AtomicConcept.create("file:/c/test.owl#A");
+    protected static final AtomicConcept B=AtomicConcept.create("file:/c/test.owl#B");
+    protected static final AtomicConcept C=AtomicConcept.create("file:/c/test.owl#C");
+    protected static final AtomicRole R=AtomicRole.create("file:/c/test.owl#r");
+
+    public DLClauseSetOptimizerTest(String name) {
+        super(name);
+    }
+    public void testVariants() {
+        // r(X,Y) -> B(Y) and r(X,Y1) -> B(Y1) differ only in the names of their variables
+        DLClause first=clause(atoms(atom(B,Y)),atom(R,X,Y));
+        DLClause second=clause(atoms(atom(B,Y1)),atom(R,X,Y1));
+        DLClauseSetOptimizer optimizer=new DLClauseSetOptimizer();
+        Set<DLClause> result=optimizer.optimize(list(first,second));
+        assertEquals(1,result.size());
+        assertTrue(result.contains(first));
+        assertEquals(1,optimizer.getNumberOfDuplicateDLClauses());
+        assertEquals(0,optimizer.getNumberOfSubsumedDLClauses());
+    }
+    public void testVariantsWithDifferentBodyOrder() {
+        DLClause first=clause(atoms(atom(C,X)),atom(A,X),atom(B,X));
+        DLClause second=clause(atoms(atom(C,X)),atom(B,X),atom(A,X));
+        DLClauseSetOptimizer optimizer=new DLClauseSetOptimizer();
+        Set<DLClause> result=optimizer.optimize(list(first,second));
+        assertEquals(1,result.size());
+        assertTrue(result.contains(first));
+        assertEquals(1,optimizer.getNumberOfEliminatedDLClauses());
+    }
+    public void testSubsumedClauses() {
+        // A(X) -> B(X) subsumes A(X) /\ C(X) -> B(X) and A(X) -> B(X) \/ C(X)
+        DLClause general=clause(atoms(atom(B,X)),atom(A,X));
+        DLClause largerBody=clause(atoms(atom(B,X)),atom(A,X),atom(C,X));
+        DLClause largerHead=clause(atoms(atom(B,X),atom(C,X)),atom(A,X));
+        DLClauseSetOptimizer optimizer=new DLClauseSetOptimizer();
+        Set<DLClause> result=optimizer.optimize(list(largerBody,largerHead,general));
+        assertEquals(1,result.size());
+        assertTrue(result.contains(general));
+        assertEquals(2,optimizer.getNumberOfSubsumedDLClauses());
+        // r(X,Y) -> B(Y) subsumes r(X,X) -> B(X), but not r(X,Y) -> B(X)
+        DLClause range=clause(atoms(atom(B,Y)),atom(R,X,Y));
+        DLClause reflexive=clause(atoms(atom(B,X)),atom(R,X,X));
+        DLClause domain=clause(atoms(atom(B,X)),atom(R,X,Y));
+        result=optimizer.optimize(list(reflexive,domain,range));
+        assertEquals(2,result.size());
+        assertFalse(result.contains(reflexive));
+        assertEquals(1,optimizer.getNumberOfSubsumedDLClauses());
+    }
+    public void testIndividualsAreNotRenamed() {
+        Individual a=Individual.create("file:/c/test.owl#a");
+        Individual b=Individual.create("file:/c/test.owl#b");
+        DLClause first=clause(atoms(atom(B,X)),atom(R,X,a));
+        DLClause second=clause(atoms(atom(B,X)),atom(R,X,b));
+        DLClause third=clause(atoms(atom(B,X),atom(C,X)),atom(R,X,a));
+        Set<DLClause> result=new DLClauseSetOptimizer().optimize(list(first,second,third));
+        assertEquals(2,result.size());
+        assertTrue(result.contains(first));
+        assertTrue(result.contains(second));
+    }
+    public void testMergeBodies() {
+        // r(X,Y1) /\ B(Y1) and r(X,Y) /\ B(Y) are equal up to variable renaming
+        AtLeastConcept atLeast=AtLeastConcept.create(2,R,C);
+        DLClause first=clause(atoms(atom(A,Y1)),atom(R,X,Y1),atom(B,Y1));
+        DLClause second=clause(atoms(atom(atLeast,Y)),atom(R,X,Y),atom(B,Y));
+        DLClauseSetOptimizer optimizer=new DLClauseSetOptimizer();
+        Set<DLClause> result=optimizer.optimize(list(first,second));
+        assertEquals(2,result.size());
+        assertEquals(1,optimizer.getNumberOfMergedBodies());
+        assertTrue(result.contains(first));
+        assertTrue(result.contains(clause(atoms(atom(atLeast,Y1)),atom(R,X,Y1),atom(B,Y1))));
+        // X must not be renamed into some other variable
+        DLClause third=clause(atoms(atom(C,Y)),atom(R,Y,X));
+        DLClause fourth=clause(atoms(atom(A,X)),atom(R,X,Y));
+        result=optimizer.optimize(list(third,fourth));
+        assertTrue(result.contains(third));
+        assertTrue(result.contains(fourth));
+        assertEquals(0,optimizer.getNumberOfMergedBodies());
+    }
+    public void testClausification() throws Exception {
+        OWLOntologyManager manager=OWLManager.createOWLOntologyManager();
+        OWLDataFactory factory=manager.getOWLDataFactory();
+        OWLOntology ontology=manager.createOntology(IRI.create("file:/c/test.owl"));
+        OWLClass a=factory.getOWLClass(IRI.create("file:/c/test.owl#A"));
+        OWLClass b=factory.getOWLClass(IRI.create("file:/c/test.owl#B"));
+        OWLClass c=factory.getOWLClass(IRI.create("file:/c/test.owl#C"));
+        OWLObjectProperty r=factory.getOWLObjectProperty(IRI.create("file:/c/test.owl#r"));
+        // the range axiom makes the universal restriction redundant
+        manager.addAxiom(ontology,factory.getOWLObjectPropertyRangeAxiom(r,b));
+        manager.addAxiom(ontology,factory.getOWLSubClassOfAxiom(a,factory.getOWLObjectAllValuesFrom(r,b)));
+        manager.addAxiom(ontology,factory.getOWLSubClassOfAxiom(a,c));
+        manager.addAxiom(ontology,factory.getOWLSubClassOfAxiom(factory.getOWLObjectIntersectionOf(a,b),c));
+        Configuration configuration=new Configuration();
+        OWLClausification clausification=new OWLClausification(configuration);
+        DLOntology optimized=(DLOntology)clausification.preprocessAndClausify(ontology,null)[1];
+        assertEquals(2,clausification.getDLClauseSetOptimizer().getNumberOfEliminatedDLClauses());
+        configuration.optimizeDLClauses=false;
+        clausification=new OWLClausification(configuration);
+        DLOntology unoptimized=(DLOntology)clausification.preprocessAndClausify(ontology,null)[1];
+        assertNull(clausification.getDLClauseSetOptimizer());
+        assertEquals(unoptimized.getDLClauses().size()-2,optimized.getDLClauses().size());
+        assertTrue(unoptimized.getDLClauses().containsAll(optimized.getDLClauses()));
+    }
+    protected static DLClause clause(Atom[] headAtoms,Atom... bodyAtoms) {
+        return DLClause.create(headAtoms,bodyAtoms);
+    }
+    protected static Atom[] atoms(Atom... atoms) {
+        return atoms;
+    }
+    protected static Atom atom(DLPredicate dlPredicate,Term... arguments) {
+        return Atom.create(dlPredicate,arguments);
+    }
+    protected static List<DLClause> list(DLClause... dlClauses) {
+        List<DLClause> result=new ArrayList<DLClause>();
+        for (DLClause dlClause : dlClauses)
+            result.add(dlClause);
+        return result;
+    }
+}
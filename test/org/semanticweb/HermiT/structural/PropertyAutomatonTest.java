@@ -0,0 +1,124 @@
+package org.semanticweb.HermiT.structural;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
+
+public class PropertyAutomatonTest extends TestCase {
+    protected OWLObjectPropertyExpression[] m_properties;
+
+    public PropertyAutomatonTest(String name) {
+        super(name);
+    }
+    protected void setUp() throws Exception {
+        OWLDataFactory factory=OWLManager.createOWLOntologyManager().getOWLDataFactory();
+        m_properties=new OWLObjectPropertyExpression[3];
+        for (int index=0;index<m_properties.length;index++)
+            m_properties[index]=factory.getOWLObjectProperty(IRI.create("file:/c/test.owl#p"+index));
+    }
+    public void testTransitiveChain() throws Exception {
+        // p0 o p1 -> p0 and p0 transitive
+        PropertyAutomaton automaton=new PropertyAutomaton();
+        int initialState=automaton.addState(true,false);
+        int finalState=automaton.addState(false,true);
+        automaton.addTransition(initialState,m_properties[0],finalState);
+        automaton.addTransition(finalState,null,initialState);
+        automaton.addTransition(finalState,m_properties[1],finalState);
+        automaton.addTransition(finalState,m_properties[1],finalState);
+        assertEquals(3,automaton.getNumberOfTransitions());
+        assertTrue(automaton.accepts(word(0)));
+        assertTrue(automaton.accepts(word(0,1,1,0)));
+        assertFalse(automaton.accepts(word(1,0)));
+        assertFalse(automaton.accepts(word()));
+        automaton.reduce();
+        assertTrue(automaton.accepts(word(0,0,1)));
+        assertFalse(automaton.accepts(word(1)));
+        PropertyAutomaton mirrored=automaton.getMirroredCopy();
+        List<OWLObjectPropertyExpression> inverseWord=new ArrayList<OWLObjectPropertyExpression>();
+        inverseWord.add(m_properties[1].getInverseProperty());
+        inverseWord.add(m_properties[0].getInverseProperty());
+        assertTrue(mirrored.accepts(inverseWord));
+        assertFalse(mirrored.accepts(word(0,1)));
+        assertEquals(automaton.getNumberOfStates(),automaton.toRationalsAutomaton().states().size());
+    }
+    public void testReductionWithOnlyTerminalStates() throws Exception {
+        // every state is terminal, so the states are only told apart by the length of the words they still accept
+        PropertyAutomaton automaton=new PropertyAutomaton();
+        int state0=automaton.addState(true,true);
+        int state1=automaton.addState(false,true);
+        int state2=automaton.addState(false,true);
+        automaton.addTransition(state0,m_properties[0],state1);
+        automaton.addTransition(state1,m_properties[0],state2);
+        assertFalse(automaton.accepts(word(0,0,0)));
+        automaton.reduce();
+        assertTrue(automaton.accepts(word()));
+        assertTrue(automaton.accepts(word(0)));
+        assertTrue(automaton.accepts(word(0,0)));
+        assertFalse(automaton.accepts(word(0,0,0)));
+    }
+    public void testReductionPreservesLanguage() throws Exception {
+        Random random=new Random(17);
+        for (int test=0;test<200;test++) {
+            PropertyAutomaton automaton=createRandomAutomaton(random);
+            PropertyAutomaton reduced=automaton.copy();
+            reduced.reduce();
+            assertTrue(reduced.getNumberOfStates()<=automaton.getNumberOfStates());
+            assertEquals(1,countInitialStates(reduced));
+            assertEquals(1,countTerminalStates(reduced));
+            for (int wordIndex=0;wordIndex<50;wordIndex++) {
+                List<OWLObjectPropertyExpression> word=new ArrayList<OWLObjectPropertyExpression>();
+                int length=random.nextInt(6);
+                for (int index=0;index<length;index++)
+                    word.add(m_properties[random.nextInt(m_properties.length)]);
+                assertEquals(automaton.accepts(word),reduced.accepts(word));
+            }
+        }
+    }
+    protected PropertyAutomaton createRandomAutomaton(Random random) {
+        PropertyAutomaton automaton=new PropertyAutomaton();
+        int initialState=automaton.addState(true,false);
+        int finalState=automaton.addState(false,true);
+        automaton.addTransition(initialState,m_properties[0],finalState);
+        int numberOfChains=random.nextInt(4);
+        for (int chain=0;chain<numberOfChains;chain++) {
+            int fromState=random.nextBoolean() ? initialState : finalState;
+            int length=1+random.nextInt(3);
+            for (int index=0;index<length;index++) {
+                int toState=(index==length-1 ? (random.nextBoolean() ? initialState : finalState) : automaton.addState(false,false));
+                OWLObjectPropertyExpression label=(random.nextInt(5)==0 ? null : m_properties[random.nextInt(m_properties.length)]);
+                automaton.addTransition(fromState,label,toState);
+                fromState=toState;
+            }
+        }
+        if (random.nextInt(3)==0)
+            automaton.addTransition(finalState,null,initialState);
+        return automaton;
+    }
+    protected List<OWLObjectPropertyExpression> word(int... indexes) {
+        List<OWLObjectPropertyExpression> word=new ArrayList<OWLObjectPropertyExpression>();
+        for (int index : indexes)
+            word.add(m_properties[index]);
+        return word;
+    }
+    protected static int countInitialStates(PropertyAutomaton automaton) {
+        int count=0;
+        for (int state=0;state<automaton.getNumberOfStates();state++)
+            if (automaton.isInitial(state))
+                count++;
+        return count;
+    }
+    protected static int countTerminalStates(PropertyAutomaton automaton) {
+        int count=0;
+        for (int state=0;state<automaton.getNumberOfStates();state++)
+            if (automaton.isTerminal(state))
+                count++;
+        return count;
+    }
+}
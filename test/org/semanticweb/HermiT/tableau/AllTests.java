@@ -15,6 +15,10 @@ public class AllTests {
         suite.addTestSuite(NIRuleTest.class);
         suite.addTestSuite(MergeTest.class);
         suite.addTestSuite(GraphTest.class);
+        suite.addTestSuite(NogoodCacheTest.class);
+        suite.addTestSuite(SaturatedABoxTest.class);
+        suite.addTestSuite(InterruptFlagTest.class);
+        suite.addTestSuite(BranchingHeuristicTest.class);
         //$JUnit-END$
         return suite;
     }
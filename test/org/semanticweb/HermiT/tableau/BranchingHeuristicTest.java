@@ -0,0 +1,167 @@
+package org.semanticweb.HermiT.tableau;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.blocking.AnywhereBlocking;
+import org.semanticweb.HermiT.blocking.BlockingSignatureCache;
+import org.semanticweb.HermiT.blocking.BlockingStrategy;
+import org.semanticweb.HermiT.blocking.DirectBlockingChecker;
+import org.semanticweb.HermiT.blocking.PairWiseDirectBlockingChecker;
+import org.semanticweb.HermiT.branching.ActivityBranchingHeuristic;
+import org.semanticweb.HermiT.branching.BranchingHeuristic;
+import org.semanticweb.HermiT.branching.MOMSBranchingHeuristic;
+import org.semanticweb.HermiT.existentials.CreationOrderStrategy;
+import org.semanticweb.HermiT.existentials.ExistentialExpansionStrategy;
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.DLClause;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.DLPredicate;
+import org.semanticweb.HermiT.model.Individual;
+import org.semanticweb.HermiT.monitor.TableauMonitor;
+import org.semanticweb.HermiT.monitor.TableauMonitorAdapter;
+
+public class BranchingHeuristicTest extends AbstractReasonerInternalsTest {
+    protected static final AtomicConcept A=AtomicConcept.create(NS+"A");
+    protected static final AtomicConcept B=AtomicConcept.create(NS+"B");
+    protected static final AtomicConcept C=AtomicConcept.create(NS+"C");
+    protected static final AtomicConcept D=AtomicConcept.create(NS+"D");
+    protected static final AtomicConcept E=AtomicConcept.create(NS+"E");
+
+    protected final List<GroundDisjunction> m_derivedGroundDisjunctions;
+    protected final List<Integer> m_chosenDisjuncts;
+
+    public BranchingHeuristicTest(String name) {
+        super(name);
+        m_derivedGroundDisjunctions=new ArrayList<GroundDisjunction>();
+        m_chosenDisjuncts=new ArrayList<Integer>();
+    }
+    public void testMOMSPrefersShortDisjunctionsWithFrequentDisjuncts() {
+        MOMSBranchingHeuristic heuristic=new MOMSBranchingHeuristic(10);
+        Tableau tableau=getTableau(heuristic,getTestDLOntology(Collections.<DLClause>emptySet()));
+        GroundDisjunction abc=addGroundDisjunction(tableau,A,B,C);
+        addGroundDisjunction(tableau,C,D);
+        GroundDisjunction ba=addGroundDisjunction(tableau,B,A);
+        GroundDisjunction ae=addGroundDisjunction(tableau,A,E);
+        // among the binary disjunctions A occurs twice, so B or A and A or E score 3 and C or D only 2;
+        // the tie is broken in favour of the older disjunction
+        assertSame(ba,heuristic.selectGroundDisjunction(abc));
+        assertEquals(new int[] { 1,0 },heuristic.getDisjunctOrder(ba));
+        assertEquals(new int[] { 0,1 },heuristic.getDisjunctOrder(ae));
+    }
+    public void testMOMSLookaheadLimitsCandidates() {
+        MOMSBranchingHeuristic heuristic=new MOMSBranchingHeuristic(1);
+        Tableau tableau=getTableau(heuristic,getTestDLOntology(Collections.<DLClause>emptySet()));
+        GroundDisjunction abc=addGroundDisjunction(tableau,A,B,C);
+        addGroundDisjunction(tableau,A,B);
+        assertSame(abc,heuristic.selectGroundDisjunction(abc));
+    }
+    public void testActivityPrefersDisjunctionsInvolvedInConflicts() {
+        ActivityBranchingHeuristic heuristic=new ActivityBranchingHeuristic(10);
+        Tableau tableau=getTableau(heuristic,getTestDLOntology(Collections.<DLClause>emptySet()));
+        GroundDisjunction ab=addGroundDisjunction(tableau,A,B);
+        GroundDisjunction cd=addGroundDisjunction(tableau,C,D);
+        GroundDisjunction de=addGroundDisjunction(tableau,D,E);
+        assertSame(ab,heuristic.selectGroundDisjunction(ab));
+        heuristic.disjunctInvolvedInConflict(de,0);
+        heuristic.conflictAnalysed();
+        assertSame(de,heuristic.selectGroundDisjunction(ab));
+        // later conflicts weigh more than earlier ones
+        heuristic.disjunctInvolvedInConflict(cd,1);
+        heuristic.conflictAnalysed();
+        assertSame(cd,heuristic.selectGroundDisjunction(ab));
+    }
+    public void testSwapsUndoneOnBacktracking() {
+        MOMSBranchingHeuristic heuristic=new MOMSBranchingHeuristic(10);
+        Tableau tableau=getTableau(heuristic,getTestDLOntology(Collections.<DLClause>emptySet()));
+        GroundDisjunction abc=addGroundDisjunction(tableau,A,B,C);
+        GroundDisjunction ab=addGroundDisjunction(tableau,A,B);
+        GroundDisjunction cd=addGroundDisjunction(tableau,C,D);
+        tableau.pushBranchingPoint(new BranchingPoint(tableau));
+        tableau.swapGroundDisjunctions(abc,cd);
+        assertOrder(tableau,abc,ab,cd);
+        tableau.pushBranchingPoint(new BranchingPoint(tableau));
+        tableau.swapGroundDisjunctions(ab,abc);
+        assertOrder(tableau,ab,abc,cd);
+        tableau.backtrackTo(1);
+        assertOrder(tableau,abc,ab,cd);
+        tableau.backtrackTo(0);
+        assertOrder(tableau,cd,ab,abc);
+    }
+    public void testActivityStatisticsKeptAcrossBacktracking() throws Exception {
+        loadOntologyWithAxioms(
+            "SubClassOf(:A ObjectUnionOf(:B :C))"+
+            "DisjointClasses(:A :B)"
+        );
+        ActivityBranchingHeuristic heuristic=new ActivityBranchingHeuristic(10);
+        Tableau tableau=getTableau(heuristic,getDLOntology(new Configuration(),null));
+        assertTrue(isSatisfiable(tableau,A));
+        assertEquals(1,m_derivedGroundDisjunctions.size());
+        GroundDisjunction groundDisjunction=m_derivedGroundDisjunctions.get(0);
+        int indexOfB=(groundDisjunction.getDLPredicate(0)==B ? 0 : 1);
+        // B is tried first, fails, and C is tried on backtracking
+        assertEquals(Collections.singletonList(indexOfB),m_chosenDisjuncts.subList(0,1));
+        assertEquals(2,m_chosenDisjuncts.size());
+        // the failure of B survives backtracking and tableau.clear(), so C is now tried first
+        assertEquals(new int[] { 1-indexOfB,indexOfB },heuristic.getDisjunctOrder(groundDisjunction));
+        m_derivedGroundDisjunctions.clear();
+        m_chosenDisjuncts.clear();
+        assertTrue(isSatisfiable(tableau,A));
+        assertEquals(Collections.singletonList(1-indexOfB),m_chosenDisjuncts);
+    }
+    protected Tableau getTableau(BranchingHeuristic heuristic,DLOntology dlOntology) {
+        DirectBlockingChecker directBlockingChecker=new PairWiseDirectBlockingChecker();
+        BlockingSignatureCache blockingSignatureCache=new BlockingSignatureCache(directBlockingChecker);
+        BlockingStrategy blockingStrategy=new AnywhereBlocking(directBlockingChecker,blockingSignatureCache);
+        ExistentialExpansionStrategy expansionStrategy=new CreationOrderStrategy(blockingStrategy);
+        return new Tableau(new InterruptFlag(-1),getTableauMonitor(),expansionStrategy,heuristic,dlOntology,null,new HashMap<String,Object>());
+    }
+    protected TableauMonitor getTableauMonitor() {
+        return new TableauMonitorAdapter() {
+            private static final long serialVersionUID=1L;
+
+            public void groundDisjunctionDerived(GroundDisjunction groundDisjunction) {
+                m_derivedGroundDisjunctions.add(groundDisjunction);
+            }
+            public void disjunctProcessingStarted(GroundDisjunction groundDisjunction,int disjunct) {
+                m_chosenDisjuncts.add(disjunct);
+            }
+        };
+    }
+    protected static GroundDisjunction addGroundDisjunction(Tableau tableau,AtomicConcept... atomicConcepts) {
+        DependencySet emptySet=tableau.getDependencySetFactory().emptySet();
+        Node node=tableau.createNewNINode(emptySet);
+        DLPredicate[] dlPredicates=new DLPredicate[atomicConcepts.length];
+        Node[] arguments=new Node[atomicConcepts.length];
+        boolean[] isCore=new boolean[atomicConcepts.length];
+        for (int index=0;index<atomicConcepts.length;index++) {
+            dlPredicates[index]=atomicConcepts[index];
+            arguments[index]=node;
+            isCore[index]=true;
+        }
+        GroundDisjunction groundDisjunction=new GroundDisjunction(tableau,new GroundDisjunctionHeader(dlPredicates,0,null),arguments,isCore,emptySet);
+        tableau.addGroundDisjunction(groundDisjunction);
+        return groundDisjunction;
+    }
+    protected static void assertOrder(Tableau tableau,GroundDisjunction... newestToOldest) {
+        GroundDisjunction groundDisjunction=tableau.m_firstGroundDisjunction;
+        for (GroundDisjunction expected : newestToOldest) {
+            assertSame(expected,groundDisjunction);
+            groundDisjunction=groundDisjunction.getNextGroundDisjunction();
+        }
+        assertNull(groundDisjunction);
+    }
+    protected static void assertEquals(int[] expected,int[] actual) {
+        assertEquals(expected.length,actual.length);
+        for (int index=0;index<expected.length;index++)
+            assertEquals(expected[index],actual[index]);
+    }
+    protected static boolean isSatisfiable(Tableau tableau,AtomicConcept atomicConcept) {
+        Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+        return tableau.isSatisfiable(false,Collections.singleton(Atom.create(atomicConcept,freshIndividual)),null,null,null,null,null);
+    }
+}
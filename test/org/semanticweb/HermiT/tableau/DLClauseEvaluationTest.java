@@ -1,7 +1,7 @@
 package org.semanticweb.HermiT.tableau;
 
-import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 import org.semanticweb.HermiT.blocking.AnywhereBlocking;
@@ -11,10 +11,12 @@ import org.semanticweb.HermiT.blocking.PairWiseDirectBlockingChecker;
 import org.semanticweb.HermiT.existentials.CreationOrderStrategy;
 import org.semanticweb.HermiT.existentials.ExistentialExpansionStrategy;
 import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
 import org.semanticweb.HermiT.model.AtomicRole;
 import org.semanticweb.HermiT.model.DLClause;
 import org.semanticweb.HermiT.model.DLOntology;
 import org.semanticweb.HermiT.model.Variable;
+import org.semanticweb.HermiT.monitor.TableauMonitorAdapter;
 
 public class DLClauseEvaluationTest extends AbstractReasonerInternalsTest {
 
@@ -22,7 +24,10 @@ public class DLClauseEvaluationTest extends AbstractReasonerInternalsTest {
     protected static final AtomicRole S=AtomicRole.create("S");
     protected static final AtomicRole T=AtomicRole.create("T");
     protected static final AtomicRole U=AtomicRole.create("U");
+    protected static final AtomicRole V=AtomicRole.create("V");
+    protected static final AtomicConcept A=AtomicConcept.create("A");
     protected static final DLClause CL_1;
+    protected static final DLClause CL_2;
     protected static final DLOntology TEST_DL_ONTOLOGY;
     static {
         Variable X=Variable.create("X");
@@ -31,12 +36,16 @@ public class DLClauseEvaluationTest extends AbstractReasonerInternalsTest {
         Variable W=Variable.create("W");
 
         CL_1=DLClause.create(new Atom[] { Atom.create(U,Z,W) },new Atom[] { Atom.create(R,X,Y),Atom.create(S,Y,Z),Atom.create(T,W,W) });
-        Set<DLClause> dlClauses=Collections.singleton(CL_1);
+        CL_2=DLClause.create(new Atom[] { Atom.create(A,X) },new Atom[] { Atom.create(V,X,Y),Atom.create(S,Y,Z) });
+        Set<DLClause> dlClauses=new LinkedHashSet<DLClause>();
+        dlClauses.add(CL_1);
+        dlClauses.add(CL_2);
         TEST_DL_ONTOLOGY=getTestDLOntology(dlClauses);
     }
 
     protected Tableau m_tableau;
     protected ExtensionManager m_extensionManager;
+    protected int m_numberOfCL2Matches;
 
     public DLClauseEvaluationTest(String name) {
         super(name);
@@ -47,7 +56,15 @@ public class DLClauseEvaluationTest extends AbstractReasonerInternalsTest {
         BlockingSignatureCache blockingSignatureCache=new BlockingSignatureCache(directChecker);
         BlockingStrategy blockingStrategy=new AnywhereBlocking(directChecker,blockingSignatureCache);
         ExistentialExpansionStrategy ExpansionStrategy=new CreationOrderStrategy(blockingStrategy);
-        m_tableau=new Tableau(new InterruptFlag(-1),null,ExpansionStrategy,false,TEST_DL_ONTOLOGY,null,new HashMap<String,Object>());
+        TableauMonitorAdapter monitor=new TableauMonitorAdapter() {
+            private static final long serialVersionUID=1L;
+
+            public void dlClauseMatchedStarted(DLClauseEvaluator dlClauseEvaluator,int dlClauseIndex) {
+                if (dlClauseEvaluator.getDLClause(dlClauseIndex)==CL_2)
+                    m_numberOfCL2Matches++;
+            }
+        };
+        m_tableau=new Tableau(new InterruptFlag(-1),monitor,ExpansionStrategy,false,TEST_DL_ONTOLOGY,null,new HashMap<String,Object>());
         m_extensionManager=m_tableau.getExtensionManager();
     }
 
@@ -72,4 +89,35 @@ public class DLClauseEvaluationTest extends AbstractReasonerInternalsTest {
 
         assertRetrieval(m_extensionManager.getTernaryExtensionTable(),T(U,null,null),ExtensionTable.View.EXTENSION_THIS,new Object[][] { T(U,d,e) });
     }
+
+    public void testHeadIrrelevantVariables() {
+        DependencySet emptySet=m_tableau.getDependencySetFactory().emptySet();
+
+        Node a=m_tableau.createNewNINode(emptySet);
+        Node b=m_tableau.createNewNINode(emptySet);
+        Node c=m_tableau.createNewNINode(emptySet);
+        Node d=m_tableau.createNewNINode(emptySet);
+        Node e=m_tableau.createNewNINode(emptySet);
+
+        m_extensionManager.addRoleAssertion(V,a,b,emptySet,false);
+        m_extensionManager.addRoleAssertion(S,b,c,emptySet,false);
+        m_extensionManager.addRoleAssertion(S,b,d,emptySet,false);
+        m_extensionManager.addRoleAssertion(S,b,e,emptySet,false);
+
+        // When V(X,Y) is matched first, S(Y,Z) is just an existence check: the evaluator jumps out of the loop
+        // over S(Y,Z) after deriving A(X).
+        DLClauseEvaluator evaluator=m_tableau.m_permanentHyperresolutionManager.m_tupleConsumersByDeltaPredicate.get(V).m_evaluator;
+        String program=evaluator.toString();
+        int derivation=program.indexOf("Derive unary fact");
+        assertTrue(derivation!=-1);
+        int jump=program.indexOf("Jump to",derivation);
+        assertTrue(jump!=-1);
+        assertTrue(jump<program.indexOf("Next",derivation));
+
+        assertTrue(m_tableau.runCalculus());
+
+        assertRetrieval(m_extensionManager.getBinaryExtensionTable(),T(A,null),ExtensionTable.View.EXTENSION_THIS,new Object[][] { T(A,a) });
+        // one match for the V tuple and one for each S tuple
+        assertEquals(4,m_numberOfCL2Matches);
+    }
 }
@@ -0,0 +1,132 @@
+package org.semanticweb.HermiT.tableau;
+
+import junit.framework.TestCase;
+
+import org.semanticweb.owlapi.reasoner.ReasonerInterruptedException;
+import org.semanticweb.owlapi.reasoner.TimeOutException;
+
+public class InterruptFlagTest extends TestCase {
+
+    public InterruptFlagTest(String name) {
+        super(name);
+    }
+    public void testTimeout() throws Exception {
+        InterruptFlag interruptFlag=new InterruptFlag(20);
+        try {
+            interruptFlag.startTask();
+            long start=System.currentTimeMillis();
+            try {
+                while (System.currentTimeMillis()-start<10000) {
+                    interruptFlag.checkInterrupt();
+                    Thread.sleep(1);
+                }
+                fail("The task has not timed out.");
+            }
+            catch (TimeOutException expected) {
+            }
+            interruptFlag.endTask();
+            // a new task gets a new deadline
+            interruptFlag.startTask();
+            interruptFlag.checkInterrupt();
+            interruptFlag.endTask();
+        }
+        finally {
+            interruptFlag.dispose();
+        }
+    }
+    public void testNoTimeoutOutsideTasks() throws Exception {
+        InterruptFlag interruptFlag=new InterruptFlag(5);
+        try {
+            interruptFlag.startTask();
+            interruptFlag.endTask();
+            Thread.sleep(50);
+            interruptFlag.checkInterrupt();
+            // a timeout that was set for an ended task is ignored
+            interruptFlag.m_interruptType.set(InterruptFlag.InterruptType.TIMEOUT);
+            interruptFlag.checkInterrupt();
+            interruptFlag.checkInterrupt();
+        }
+        finally {
+            interruptFlag.dispose();
+        }
+    }
+    public void testInterrupt() throws Exception {
+        InterruptFlag interruptFlag=new InterruptFlag(10000);
+        try {
+            interruptFlag.startTask();
+            interruptFlag.interrupt();
+            try {
+                interruptFlag.checkInterrupt();
+                fail("The task has not been interrupted.");
+            }
+            catch (ReasonerInterruptedException expected) {
+            }
+            interruptFlag.endTask();
+            interruptFlag.checkInterrupt();
+        }
+        finally {
+            interruptFlag.dispose();
+        }
+    }
+    public void testDeadlineDoesNotOverwriteInterrupt() throws Exception {
+        InterruptFlag interruptFlag=new InterruptFlag(10000);
+        try {
+            interruptFlag.startTask();
+            interruptFlag.interrupt();
+            // the deadline has passed, but the interrupt must not be turned into a timeout
+            interruptFlag.checkDeadline(interruptFlag.m_taskDeadline+1);
+            try {
+                interruptFlag.checkInterrupt();
+                fail("The task has not been interrupted.");
+            }
+            catch (ReasonerInterruptedException expected) {
+            }
+            interruptFlag.endTask();
+        }
+        finally {
+            interruptFlag.dispose();
+        }
+    }
+    public void testKeptInterruptSurvivesNewTasks() throws Exception {
+        InterruptFlag interruptFlag=new InterruptFlag(10000,true);
+        try {
+            interruptFlag.interrupt();
+            interruptFlag.startTask();
+            try {
+                interruptFlag.checkInterrupt();
+                fail("The interrupt before the task has been lost.");
+            }
+            catch (ReasonerInterruptedException expected) {
+            }
+            interruptFlag.endTask();
+            interruptFlag.startTask();
+            try {
+                interruptFlag.checkInterrupt();
+                fail("The interrupt in an earlier task has been lost.");
+            }
+            catch (ReasonerInterruptedException expected) {
+            }
+            interruptFlag.endTask();
+        }
+        finally {
+            interruptFlag.dispose();
+        }
+    }
+    public void testFlagsShareOneThread() throws Exception {
+        int numberOfRegisteredFlags=DeadlineScheduler.getNumberOfRegisteredFlags();
+        InterruptFlag[] interruptFlags=new InterruptFlag[10];
+        for (int index=0;index<interruptFlags.length;index++)
+            interruptFlags[index]=new InterruptFlag(1000);
+        assertEquals(numberOfRegisteredFlags+interruptFlags.length,DeadlineScheduler.getNumberOfRegisteredFlags());
+        Thread schedulerThread=DeadlineScheduler.s_thread;
+        assertNotNull(schedulerThread);
+        for (InterruptFlag interruptFlag : interruptFlags) {
+            assertSame(schedulerThread,DeadlineScheduler.s_thread);
+            interruptFlag.dispose();
+        }
+        assertEquals(numberOfRegisteredFlags,DeadlineScheduler.getNumberOfRegisteredFlags());
+        // flags without a timeout are not timed
+        new InterruptFlag(-1);
+        assertEquals(numberOfRegisteredFlags,DeadlineScheduler.getNumberOfRegisteredFlags());
+    }
+}
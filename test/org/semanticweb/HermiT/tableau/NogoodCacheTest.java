@@ -0,0 +1,57 @@
+package org.semanticweb.HermiT.tableau;
+
+import java.util.Collections;
+
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.Individual;
+
+public class NogoodCacheTest extends AbstractReasonerInternalsTest {
+    protected static final AtomicConcept A=AtomicConcept.create(NS+"A");
+    protected static final AtomicConcept B=AtomicConcept.create(NS+"B");
+    protected static final AtomicConcept C=AtomicConcept.create(NS+"C");
+    protected static final AtomicConcept D=AtomicConcept.create(NS+"D");
+
+    public NogoodCacheTest(String name) {
+        super(name);
+    }
+    public void testNogoodReusedInLaterTests() throws Exception {
+        loadOntologyWithAxioms(
+            "SubClassOf(:C ObjectUnionOf(:D :E))"+
+            "DisjointClasses(:C :D)"+
+            "DisjointClasses(:C :E)"+
+            "SubClassOf(:A ObjectSomeValuesFrom(:r :C))"
+        );
+        Tableau tableau=getTableau();
+        NogoodCache nogoodCache=tableau.getNogoodCache();
+        assertTrue(nogoodCache.isEmpty());
+        assertFalse(isSatisfiable(tableau,C));
+        assertEquals(1,nogoodCache.getNumberOfNogoods());
+        assertEquals(0,nogoodCache.getNumberOfHits());
+        assertFalse(isSatisfiable(tableau,A));
+        assertEquals(1,nogoodCache.getNumberOfHits());
+        // the successor of A is unsatisfiable, so A is recorded as well
+        assertEquals(2,nogoodCache.getNumberOfNogoods());
+        assertTrue(isSatisfiable(tableau,B));
+    }
+    public void testNoNogoodsForTestsWithNegativeFacts() throws Exception {
+        loadOntologyWithAxioms("SubClassOf(:A :B)");
+        Tableau tableau=getTableau();
+        Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+        assertFalse(tableau.isSatisfiable(false,Collections.singleton(Atom.create(A,freshIndividual)),Collections.singleton(Atom.create(B,freshIndividual)),null,null,null,null));
+        assertTrue(tableau.getNogoodCache().isEmpty());
+        assertTrue(isSatisfiable(tableau,A));
+    }
+    public void testNoNogoodsForNamedIndividuals() throws Exception {
+        loadOntologyWithAxioms("DisjointClasses(:C :D)"+"ClassAssertion(:D :i)");
+        Tableau tableau=getTableau();
+        Individual individual=Individual.create(NS+"i");
+        assertFalse(tableau.isSatisfiable(true,true,Collections.singleton(Atom.create(C,individual)),null,null,null,null,null));
+        assertTrue(tableau.getNogoodCache().isEmpty());
+        assertTrue(isSatisfiable(tableau,C));
+    }
+    protected static boolean isSatisfiable(Tableau tableau,AtomicConcept atomicConcept) {
+        Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+        return tableau.isSatisfiable(false,Collections.singleton(Atom.create(atomicConcept,freshIndividual)),null,null,null,null,null);
+    }
+}
@@ -0,0 +1,83 @@
+package org.semanticweb.HermiT.tableau;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.Individual;
+
+public class SaturatedABoxTest extends AbstractReasonerInternalsTest {
+    protected static final AtomicConcept B=AtomicConcept.create(NS+"B");
+    protected static final AtomicConcept C=AtomicConcept.create(NS+"C");
+    protected static final AtomicConcept E=AtomicConcept.create(NS+"E");
+    protected static final AtomicRole F=AtomicRole.create(NS+"f");
+    protected static final Individual a=Individual.create(NS+"a");
+    protected static final Individual b=Individual.create(NS+"b");
+    protected static final Individual c=Individual.create(NS+"c");
+
+    public SaturatedABoxTest(String name) {
+        super(name);
+    }
+    public void testSaturatedABoxReused() throws Exception {
+        loadOntologyWithAxioms(
+            "SubClassOf(:A :B)"+
+            "DisjointClasses(:B :C)"+
+            "ClassAssertion(:A :a)"
+        );
+        Tableau tableau=getTableau();
+        assertFalse(tableau.isSatisfiable(true,true,Collections.singleton(Atom.create(C,a)),null,null,null,null,null));
+        assertNotNull(tableau.m_saturatedABoxTermsToNodes);
+        assertTrue(tableau.isSatisfiable(true,true,Collections.singleton(Atom.create(E,a)),null,null,null,null,null));
+        // a is an instance of B, so the negated fact with the dummy dependency must clash
+        assertFalse(tableau.isSatisfiable(true,true,null,null,null,Collections.singleton(Atom.create(B,a)),null,null));
+        assertTrue(tableau.isSatisfiable(true,true,null,null,null,Collections.singleton(Atom.create(C,a)),null,null));
+        assertFalse(tableau.isSatisfiable(true,true,Collections.singleton(Atom.create(C,a)),null,null,null,null,null));
+    }
+    public void testMergesAreUndone() throws Exception {
+        loadOntologyWithAxioms(
+            "FunctionalObjectProperty(:f)"+
+            "DisjointClasses(:C :E)"+
+            "ObjectPropertyAssertion(:f :a :b)"+
+            "ClassAssertion(:E :c)"
+        );
+        Tableau tableau=getTableau();
+        Set<Atom> facts=new HashSet<Atom>();
+        facts.add(Atom.create(F,a,c));
+        facts.add(Atom.create(C,b));
+        assertFalse(tableau.isSatisfiable(true,true,facts,null,null,null,null,null));
+        assertNotNull(tableau.m_saturatedABoxTermsToNodes);
+        // the merge of b and c from the previous test must have been undone
+        assertTrue(tableau.isSatisfiable(true,true,Collections.singleton(Atom.create(C,b)),null,null,null,null,null));
+        assertTrue(tableau.isSatisfiable(true,true,Collections.singleton(Atom.create(F,a,c)),null,null,null,null,null));
+        assertFalse(tableau.isSatisfiable(true,true,facts,null,null,null,null,null));
+    }
+    public void testGroundDisjunctionsAreReprocessed() throws Exception {
+        loadOntologyWithAxioms(
+            "SubClassOf(:A ObjectUnionOf(:B :C))"+
+            "DisjointClasses(:B :E)"+
+            "ClassAssertion(:A :a)"
+        );
+        Tableau tableau=getTableau();
+        assertTrue(tableau.isSatisfiable(true,true,Collections.singleton(Atom.create(E,a)),null,null,null,null,null));
+        assertNotNull(tableau.m_saturatedABoxTermsToNodes);
+        Set<Atom> facts=new HashSet<Atom>();
+        facts.add(Atom.create(E,a));
+        assertFalse(tableau.isSatisfiable(true,true,facts,Collections.singleton(Atom.create(C,a)),null,null,null,null));
+        assertTrue(tableau.isSatisfiable(true,true,Collections.singleton(Atom.create(B,a)),null,null,null,null,null));
+    }
+    public void testNoSnapshotForInconsistentABox() throws Exception {
+        loadOntologyWithAxioms(
+            "DisjointClasses(:B :C)"+
+            "ClassAssertion(:B :a)"+
+            "ClassAssertion(:C :a)"
+        );
+        Tableau tableau=getTableau();
+        assertFalse(tableau.isSatisfiable(true,true,null,null,null,null,null,null));
+        assertNull(tableau.m_saturatedABoxTermsToNodes);
+        assertTrue(tableau.m_saturatedABoxUnavailable);
+        assertFalse(tableau.isSatisfiable(true,true,Collections.singleton(Atom.create(E,a)),null,null,null,null,null));
+    }
+}